@@ -0,0 +1,247 @@
+package control;
+
+import data.ProjectJournal;
+import data.ScriptingProject;
+import gui.root.RootFooterArea;
+import javafx.application.Platform;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes a project and its journal on a single writer thread, so saving never blocks the
+ * JavaFX thread. Edits are encoded into journal records on the JavaFX thread, and the writer
+ * appends them in the order they were made. Every edit requests an autosave, and the requests
+ * that arrive within the save delay are merged into one. An autosave flushes the journal to
+ * disk without a commit record, so the edits survive a crash but are still unsaved: closing
+ * without saving drops them.
+ *
+ * <p>A whole project is never encoded on the JavaFX thread. A snapshot of the project is
+ * taken there, which only copies its values, and the writer encodes the snapshot while the
+ * project is edited on. After a save, the project file is replaced with the snapshot through
+ * a temporary file and an atomic rename, and the saved records are dropped from the
+ * journal.</p>
+ */
+@Log4j2
+public class AutosaveService {
+
+    // Seconds between the first edit of a burst and the autosave that includes the burst.
+    private static final int SAVE_DELAY = 5;
+
+    // Seconds to wait for the writes that are still queued when the application stops.
+    private static final int SHUTDOWN_TIMEOUT = 30;
+
+    // Format of the time in the status after an autosave.
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private final ProjectController projectController;
+
+    // The single writer thread, also used to wait out the save delay.
+    private final ScheduledThreadPoolExecutor writer;
+
+    // True while an autosave is scheduled, only used on the JavaFX thread.
+    private boolean scheduled;
+
+    // Journal and its size at the last autosave, only used on the writer thread.
+    private ProjectJournal checkpointJournal;
+    private long checkpointSize;
+
+    /**
+     * Constructor.
+     * @param projectController the controller of the project to save
+     */
+    public AutosaveService(ProjectController projectController) {
+        this.projectController = projectController;
+        this.writer = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "autosave");
+                thread.setDaemon(true);
+                return thread;
+            });
+        // A scheduled autosave is not waited for when the application stops
+        this.writer.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    /**
+     * Request an autosave of the project after an edit. Must be called on the JavaFX thread.
+     */
+    public void request() {
+        if (!scheduled) {
+            scheduled = true;
+            writer.schedule(() -> Platform.runLater(this::checkpoint), SAVE_DELAY,
+                    TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Flush the records in the journal to disk on the writer thread, after the records that
+     * are still queued. The journal is not committed and the project stays changed, only an
+     * explicit save does that.
+     */
+    void checkpoint() {
+        scheduled = false;
+        ProjectJournal journal = projectController.getJournal();
+        if (journal == null) {
+            return;
+        }
+        writer.execute(() -> {
+                try {
+                    long size = journal.size();
+                    if (journal == checkpointJournal && size == checkpointSize) {
+                        return;
+                    }
+                    journal.flush();
+                    checkpointJournal = journal;
+                    checkpointSize = size;
+                    String time = LocalTime.now().format(TIME_FORMAT);
+                    Platform.runLater(() -> showStatus("Autosaved at " + time));
+                } catch (IOException e) {
+                    log.error("Could not flush the journal", e);
+                    Platform.runLater(() -> showStatus("Autosave failed"));
+                }
+            });
+    }
+
+    /**
+     * Append a record to the journal on the writer thread, after the records before it.
+     * @param journal the journal to append to
+     * @param record the record, encoded on the JavaFX thread
+     */
+    public void record(ProjectJournal journal, ProjectJournal.PendingRecord record) {
+        writer.execute(() -> {
+                try {
+                    journal.append(record);
+                } catch (IOException e) {
+                    log.error("Could not append a record to the journal", e);
+                }
+            });
+    }
+
+    /**
+     * Record the whole project in the journal. The project is encoded from a snapshot on the
+     * writer thread. Must be called on the JavaFX thread.
+     * @param journal the journal to append to
+     * @param project the project
+     */
+    public void recordProject(ProjectJournal journal, ScriptingProject project) {
+        ScriptingProject snapshot = project.snapshot();
+        writer.execute(() -> {
+                try {
+                    journal.append(ProjectJournal.projectRecord(snapshot));
+                } catch (IOException e) {
+                    log.error("Could not record the project in the journal", e);
+                }
+            });
+    }
+
+    /**
+     * Save the project by committing its journal on the writer thread. The project file is
+     * then replaced with a snapshot of the project, and the saved records are dropped from
+     * the journal. If the journal can not be committed, the snapshot is written in whole.
+     * Must be called on the JavaFX thread.
+     * @param journal the journal of the project file
+     * @param project the project
+     */
+    public void commit(ProjectJournal journal, ScriptingProject project) {
+        ScriptingProject snapshot = project.snapshot();
+        File file = new File(project.getFilePath());
+        writer.execute(() -> {
+                long cut;
+                try {
+                    journal.commit();
+                    cut = journal.size();
+                } catch (IOException e) {
+                    log.error("Could not commit the journal, writing the whole project", e);
+                    writeSnapshot(journal, snapshot, project);
+                    return;
+                }
+                try {
+                    // Records queued after the save come after the cut
+                    journal.compact(file, snapshot.encode(file), cut);
+                } catch (IOException e) {
+                    log.error("Could not compact the journal of {}", file.getAbsolutePath(), e);
+                }
+            });
+    }
+
+    /**
+     * Write the whole project to its file on the writer thread, from a snapshot of the
+     * project. The journal is emptied when this succeeds. Must be called on the JavaFX thread.
+     * @param journal the journal of the project file, null if there is none
+     * @param project the project
+     */
+    public void write(ProjectJournal journal, ScriptingProject project) {
+        ScriptingProject snapshot = project.snapshot();
+        writer.execute(() -> writeSnapshot(journal, snapshot, project));
+    }
+
+    /**
+     * Wait until everything that was handed to the writer thread is written. Used before the
+     * journal is closed or discarded, and before the project file is read again.
+     */
+    public void awaitWrites() {
+        if (writer.isShutdown()) {
+            return;
+        }
+        try {
+            writer.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.error("Could not wait for the writer thread", e);
+        }
+    }
+
+    /**
+     * Write everything that was handed to the writer thread and stop it, when the application
+     * stops. An autosave that is still waiting out its delay is dropped.
+     */
+    public void shutdown() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Write a snapshot to the project file on the writer thread. When this fails, the project
+     * is marked as changed again.
+     * @param journal the journal of the project file, null if there is none
+     * @param snapshot the snapshot to write
+     * @param project the project the snapshot was taken of
+     */
+    private void writeSnapshot(ProjectJournal journal, ScriptingProject snapshot,
+                               ScriptingProject project) {
+        boolean written = true;
+        try {
+            written = journal == null ? snapshot.write() : journal.write(snapshot);
+        } catch (IOException e) {
+            log.error("Could not clear the journal", e);
+        }
+        if (!written) {
+            Platform.runLater(() -> {
+                    project.changed();
+                    showStatus("Saving failed");
+                });
+        }
+    }
+
+    /**
+     * Show the status of the autosave in the footer.
+     * @param status the status to show
+     */
+    private void showStatus(String status) {
+        RootFooterArea footer = projectController.getControllerManager().getRootPane()
+                .getRootFooterArea();
+        if (footer != null) {
+            footer.setStatus(status);
+        }
+    }
+}
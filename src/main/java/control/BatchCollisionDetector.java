@@ -0,0 +1,235 @@
+package control;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import data.Shot;
+import data.ShotColumns;
+import data.ShotIndex;
+import data.Ticks;
+import data.Timeline;
+import javafx.application.Platform;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Recomputes all collisions of a set of timelines at once, for bulk changes like loading or
+ * editing a project. The counts of each timeline are copied on the FX thread, the colliding
+ * pairs are found with a sweep over the sorted shots on the fork join pool, one timeline per
+ * task, and the result is written back to the shots in a single run on the FX thread.
+ */
+@Log4j2
+public final class BatchCollisionDetector {
+
+    /**
+     * Private constructor, only static methods.
+     */
+    private BatchCollisionDetector() {
+    }
+
+    /**
+     * Recompute the collisions of all shots in the timelines in the background.
+     * @param timelines the timelines to recompute
+     * @param onDone called on the FX thread after the shots have been updated
+     * @return future that completes after the result has been published
+     */
+    public static CompletableFuture<Void> recompute(List<? extends Timeline> timelines,
+                                                    Runnable onDone) {
+        List<Snapshot> snapshots = timelines.stream()
+                .map(Snapshot::new)
+                .collect(Collectors.toList());
+        CompletableFuture<Void> published = new CompletableFuture<>();
+        ForkJoinPool.commonPool().submit(() -> {
+                snapshots.parallelStream().forEach(Snapshot::sweep);
+                Platform.runLater(() -> {
+                        snapshots.forEach(Snapshot::publish);
+                        onDone.run();
+                        published.complete(null);
+                    });
+            });
+        return published;
+    }
+
+    /**
+     * Recompute the collisions of all shots in the timelines on the calling thread.
+     * @param timelines the timelines to recompute
+     */
+    public static void recomputeNow(List<? extends Timeline> timelines) {
+        timelines.stream().map(Snapshot::new).forEach(snapshot -> {
+                snapshot.sweep();
+                snapshot.publish();
+            });
+    }
+
+    /**
+     * Find all colliding pairs of shots, given by their counts.
+     *
+     * @param begins the begin counts of the shots
+     * @param ends the end counts of the shots
+     * @param margin the margin in counts the shots need between them
+     * @return the pairs of indices of colliding shots
+     */
+    public static List<int[]> findCollisions(double[] begins, double[] ends, double margin) {
+        long[] beginTicks = new long[begins.length];
+        long[] endTicks = new long[ends.length];
+        for (int i = 0; i < begins.length; i++) {
+            beginTicks[i] = Ticks.fromCounts(begins[i]);
+            endTicks[i] = Ticks.fromCounts(ends[i]);
+        }
+        return findCollisions(beginTicks, endTicks, Ticks.fromCounts(margin));
+    }
+
+    /**
+     * Find all colliding pairs of shots. The shots are widened by the margin and sorted on
+     * their start, a sweep over the sorted shots keeps the shots that are still running in a
+     * queue ordered on their end, so every shot is only compared to the shots it may overlap.
+     *
+     * @param begins the begin counts of the shots in ticks
+     * @param ends the end counts of the shots in ticks
+     * @param margin the margin in ticks the shots need between them
+     * @return the pairs of indices of colliding shots
+     */
+    public static List<int[]> findCollisions(long[] begins, long[] ends, long margin) {
+        int size = begins.length;
+        long half = (Math.abs(margin) + 1) / 2;
+        long[] lows = new long[size];
+        long[] highs = new long[size];
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            lows[i] = Math.min(begins[i], ends[i]) - half;
+            highs[i] = Math.max(begins[i], ends[i]) + half;
+            order[i] = i;
+        }
+        Comparator<Integer> byLow = Comparator.comparingLong(i -> lows[i]);
+        Comparator<Integer> byHigh = Comparator.comparingLong(i -> highs[i]);
+        Arrays.sort(order, byLow);
+
+        List<int[]> result = new ArrayList<>();
+        PriorityQueue<Integer> active = new PriorityQueue<>(Math.max(1, size), byHigh);
+        for (int current : order) {
+            while (!active.isEmpty() && highs[active.peek()] < lows[current]) {
+                active.poll();
+            }
+            for (int other : active) {
+                if (collide(begins, ends, current, other, margin)) {
+                    result.add(new int[] {other, current});
+                }
+            }
+            active.add(current);
+        }
+        return result;
+    }
+
+    /**
+     * Check whether two shots collide, looking from both shots.
+     * @param begins the begin counts of the shots in ticks
+     * @param ends the end counts of the shots in ticks
+     * @param first the index of the first shot
+     * @param second the index of the second shot
+     * @param margin the margin in ticks the shots need between them
+     * @return true if the shots collide
+     */
+    private static boolean collide(long[] begins, long[] ends, int first, int second,
+                                   long margin) {
+        return Shot.overlaps(begins[first], ends[first], begins[second], ends[second], margin)
+            || Shot.overlaps(begins[second], ends[second], begins[first], ends[first], margin);
+    }
+
+    /**
+     * Copy of the counts of one timeline, with the pairs found by the sweep.
+     */
+    private static final class Snapshot {
+        private final Timeline timeline;
+        private final long margin;
+        private Shot[] shots;
+        private long[] begins;
+        private long[] ends;
+        private List<int[]> collisions;
+
+        /**
+         * Constructor, copies the counts of the shots in the timeline from its index.
+         * @param timeline the timeline to copy
+         */
+        private Snapshot(Timeline timeline) {
+            this.timeline = timeline;
+            this.margin = Ticks.fromCounts(
+                timeline.getProject().secondsToCounts(timeline.getCollisionMargin()));
+            copy();
+        }
+
+        /**
+         * Copy the shots in the timeline and their counts from its index.
+         */
+        private void copy() {
+            ShotColumns<? extends Shot> columns = timeline.getShots().columns();
+            shots = new Shot[columns.size()];
+            for (int i = 0; i < shots.length; i++) {
+                shots[i] = columns.getShot(i);
+            }
+            begins = columns.getBegins();
+            ends = columns.getEnds();
+        }
+
+        /**
+         * Find the colliding pairs in this timeline.
+         */
+        private void sweep() {
+            collisions = findCollisions(begins, ends, margin);
+        }
+
+        /**
+         * Check whether the timeline still holds exactly the copied shots.
+         * @return true if no shot was added to or removed from the timeline
+         */
+        private boolean sameShots() {
+            ShotIndex<? extends Shot> index = timeline.getShots();
+            if (index.size() != shots.length) {
+                return false;
+            }
+            for (Shot shot : shots) {
+                if (!index.containsShot(shot)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Write the colliding pairs to the shots, on the FX thread. If a shot was added,
+         * removed or moved while the sweep was running, the timeline is swept again first.
+         */
+        private void publish() {
+            if (!sameShots()) {
+                log.info("Shots added or removed during collision sweep, sweeping again");
+                copy();
+                collisions = null;
+            }
+            for (int i = 0; i < shots.length; i++) {
+                if (begins[i] != shots[i].getBeginTicks() || ends[i] != shots[i].getEndTicks()) {
+                    log.info("Shots moved during collision sweep, sweeping again");
+                    begins[i] = shots[i].getBeginTicks();
+                    ends[i] = shots[i].getEndTicks();
+                    collisions = null;
+                }
+            }
+            if (collisions == null) {
+                sweep();
+            }
+            for (Shot shot : shots) {
+                shot.getCollidesWith().clear();
+            }
+            for (int[] pair : collisions) {
+                shots[pair[0]].getCollidesWith().add(shots[pair[1]]);
+                shots[pair[1]].getCollidesWith().add(shots[pair[0]]);
+            }
+            for (Shot shot : shots) {
+                shot.setColliding(!shot.getCollidesWith().isEmpty());
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package control;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import data.Shot;
+import data.Timeline;
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Keeps the collisions between shots up to date while shots are edited. Changed shots are
+ * marked dirty, flushing the engine only checks those shots against their neighbours on the
+ * old and new timeline and reports which shots are colliding afterwards.
+ */
+@Log4j2
+public class CollisionEngine {
+
+    // The shots changed since the last flush, with the timelines they moved between
+    private final Map<Shot, Edit> dirty;
+
+    /**
+     * Constructor.
+     */
+    public CollisionEngine() {
+        this.dirty = new IdentityHashMap<>();
+    }
+
+    /**
+     * Mark a shot as changed within a timeline.
+     * @param shot the shot that was changed
+     * @param timeline the timeline containing the shot
+     */
+    public void markDirty(Shot shot, Timeline timeline) {
+        markMoved(shot, timeline, timeline);
+    }
+
+    /**
+     * Mark a shot as moved from one timeline to another.
+     * @param shot the shot that was moved
+     * @param oldTimeline the timeline the shot was in
+     * @param newTimeline the timeline the shot is in now, null if it was removed
+     */
+    public void markMoved(Shot shot, Timeline oldTimeline, Timeline newTimeline) {
+        Edit edit = dirty.get(shot);
+        if (edit == null) {
+            dirty.put(shot, new Edit(oldTimeline, newTimeline));
+        } else {
+            edit.newTimeline = newTimeline;
+        }
+    }
+
+    /**
+     * Mark a shot as removed from its timeline.
+     * @param shot the shot that was removed
+     * @param timeline the timeline the shot was in
+     */
+    public void markRemoved(Shot shot, Timeline timeline) {
+        markMoved(shot, timeline, null);
+    }
+
+    /**
+     * Recheck the collisions of all dirty shots. Only the dirty shots, the shots they collided
+     * with before and the shots they collide with now are touched.
+     * @return the shots whose collision state was checked, split on their new state
+     */
+    public CollisionDelta flush() {
+        Set<Shot> affected = Collections.newSetFromMap(new IdentityHashMap<>());
+        dirty.forEach((shot, edit) -> {
+                affected.add(shot);
+                shot.getCollidesWith().forEach(affected::add);
+                if (edit.oldTimeline != edit.newTimeline) {
+                    unlink(shot);
+                }
+                if (edit.newTimeline != null) {
+                    affected.addAll(edit.newTimeline.updateCollisions(shot));
+                }
+            });
+        log.debug("Flushed {} dirty shots, {} shots affected", dirty.size(), affected.size());
+        dirty.clear();
+
+        CollisionDelta delta = new CollisionDelta();
+        affected.forEach(shot -> {
+                boolean colliding = !shot.getCollidesWith().isEmpty();
+                shot.setColliding(colliding);
+                if (colliding) {
+                    delta.colliding.add(shot);
+                } else {
+                    delta.cleared.add(shot);
+                }
+            });
+        return delta;
+    }
+
+    /**
+     * Remove all collisions of a shot, on both sides of each collision.
+     * @param shot the shot to remove the collisions from
+     */
+    private void unlink(Shot shot) {
+        shot.getCollidesWith().forEach(other -> other.getCollidesWith().remove(shot));
+        shot.getCollidesWith().clear();
+    }
+
+    /**
+     * The timelines a dirty shot moved between.
+     */
+    private static final class Edit {
+        private final Timeline oldTimeline;
+        private Timeline newTimeline;
+
+        /**
+         * Constructor.
+         * @param oldTimeline the timeline the shot was in
+         * @param newTimeline the timeline the shot is in now
+         */
+        private Edit(Timeline oldTimeline, Timeline newTimeline) {
+            this.oldTimeline = oldTimeline;
+            this.newTimeline = newTimeline;
+        }
+    }
+
+    /**
+     * Result of a flush: the checked shots that are colliding and the ones that are not.
+     */
+    public static final class CollisionDelta {
+
+        // Shots that collide with at least one other shot
+        @Getter
+        private final List<Shot> colliding = new ArrayList<>();
+
+        // Shots that do not collide with any other shot
+        @Getter
+        private final List<Shot> cleared = new ArrayList<>();
+    }
+}
@@ -1,6 +1,7 @@
 package control;
 
 import data.ScriptingProject;
+import data.Shot;
 import gui.centerarea.ShotBlock;
 import gui.modal.SaveModalView;
 import gui.root.RootPane;
@@ -44,6 +45,10 @@ public class ControllerManager {
     @Getter
     private ShotBlock activeShotBlock;
 
+    // Creates the shot blocks of a loaded project as they scroll into view
+    @Getter
+    private final ShotMaterializer shotMaterializer = new ShotMaterializer(this);
+
     @Getter @Setter
     private SaveModalView saveModal;
     // Placeholder project in lieu of XML loading
@@ -175,6 +180,7 @@ public class ControllerManager {
      * @param event the MouseEvent for this handler
      */
     protected void handleDontSave(MouseEvent event) {
+        projectController.discardUnsavedEdits();
         rootPane.getPrimaryStage().close();
         saveModal.hideModal();
     }
@@ -198,6 +204,45 @@ public class ControllerManager {
         toolViewController.activeBlockChanged();
     }
 
+    /**
+     * Record an added or edited shot in the journal of the project.
+     * @param shot the shot that was changed
+     */
+    public void shotChanged(Shot shot) {
+        projectController.journalShotChanged(shot);
+    }
+
+    /**
+     * Record a removed shot in the journal of the project.
+     * @param shot the shot that was removed
+     */
+    public void shotRemoved(Shot shot) {
+        projectController.journalShotRemoved(shot);
+    }
+
+    /**
+     * Create the shot block of a shot that did not scroll into view yet.
+     * @param shot the shot that needs its shot block
+     */
+    public void loadShotBlock(Shot shot) {
+        shotMaterializer.load(shot);
+    }
+
+    /**
+     * Create the shot blocks of all shots that did not scroll into view yet.
+     */
+    public void loadAllShotBlocks() {
+        shotMaterializer.loadAll();
+    }
+
+    /**
+     * Create the shot blocks of the current project that are in view, a few every frame. The
+     * others are created when they scroll into view and removed when they scroll out of view.
+     */
+    public void loadShotBlocksLazily() {
+        shotMaterializer.start();
+    }
+
     public void setScriptingProject(ScriptingProject scriptingProject) {
         this.scriptingProject = scriptingProject;
     }
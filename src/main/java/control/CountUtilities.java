@@ -1,11 +1,13 @@
 package control;
 
+import data.Ticks;
+
 /**
  * Class for count utilities.
  */
 public class CountUtilities {
 
-    public static final int NUMBER_OF_CELLS_PER_COUNT = 4;
+    public static final int NUMBER_OF_CELLS_PER_COUNT = Ticks.CELLS_PER_COUNT;
 
     /**
      * Format double into a nice displayable string.
@@ -27,9 +29,25 @@ public class CountUtilities {
      */
     public static String parseCountNumber(String countNumber) {
         double res = countNumber.isEmpty() ? 0 : Double.parseDouble(countNumber);
-        res = Math.round(res * NUMBER_OF_CELLS_PER_COUNT)
-                / (double) NUMBER_OF_CELLS_PER_COUNT;
-        return formatDouble(res);
+        return formatDouble(Ticks.roundToCells(res));
+    }
+
+    /**
+     * Get the grid row of a count.
+     * @param count - the count to get the row of
+     * @return - the nearest row in the grid
+     */
+    public static int countToRow(double count) {
+        return Ticks.toCells(Ticks.fromCounts(count));
+    }
+
+    /**
+     * Get the count of a grid row.
+     * @param row - the row to get the count of
+     * @return - the count at the start of the row
+     */
+    public static double rowToCount(int row) {
+        return Ticks.toCounts(Ticks.fromCells(row));
     }
 
 
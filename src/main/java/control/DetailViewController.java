@@ -4,11 +4,13 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import data.Camera;
 import data.CameraShot;
 import data.DirectorShot;
 import data.Instrument;
+import data.Shot;
 import gui.centerarea.CameraShotBlock;
 import gui.centerarea.DirectorShotBlock;
 import gui.centerarea.ShotBlock;
@@ -134,7 +136,7 @@ public class DetailViewController {
                             shotBlock);
                     manager.setActiveShotBlock(directorShotBlock);
                 });
-            manager.getTimelineControl().recomputeAllCollisions();
+            manager.shotChanged(directorShot);
         }
     }
 
@@ -189,8 +191,7 @@ public class DetailViewController {
                             shotBlock);
                     manager.setActiveShotBlock(directorShotBlock);
                 });
-            manager.getTimelineControl().recomputeAllCollisions();
-
+            manager.shotChanged(directorShotBlock.getShot());
         }
     }
 
@@ -221,7 +222,10 @@ public class DetailViewController {
                 .getInstruments().get(index));
         shotBlock.getTimetableBlock().removeInstrument(manager.getScriptingProject()
                 .getInstruments().get(index));
+        forEachCameraShot(shotBlock.getShot(), shot -> shot.getInstruments()
+                .remove(manager.getScriptingProject().getInstruments().get(index)));
         shotBlock.recompute();
+        manager.shotChanged(shotBlock.getShot());
     }
 
     /**
@@ -234,7 +238,22 @@ public class DetailViewController {
         shotBlock.getInstruments().add(manager.getScriptingProject().getInstruments().get(index));
         shotBlock.getTimetableBlock().addInstrument(manager.getScriptingProject()
                 .getInstruments().get(index));
+        forEachCameraShot(shotBlock.getShot(), shot -> shot.getInstruments()
+                .add(manager.getScriptingProject().getInstruments().get(index)));
         shotBlock.recompute();
+        manager.shotChanged(shotBlock.getShot());
+    }
+
+    /**
+     * Apply a change to the camera shots of a director shot. Every shot has its own list of
+     * instruments, so the camera shots are changed along with their director shot.
+     * @param shot the shot that changed
+     * @param action the change to apply to each of its camera shots
+     */
+    private void forEachCameraShot(Shot shot, Consumer<CameraShot> action) {
+        if (shot instanceof DirectorShot) {
+            ((DirectorShot) shot).getCameraShots().forEach(action);
+        }
     }
 
     /**
@@ -271,8 +290,7 @@ public class DetailViewController {
         manager.getTimelineControl().removeCameraShot(toRemove);
         dShot.getCameraShots().remove(toRemove);
         dShot.getTimelineIndices().remove(index);
-        manager.getTimelineControl().recomputeAllCollisions();
-        manager.getDirectorTimelineControl().recomputeAllCollisions();
+        manager.shotChanged(dShot);
     }
 
     /**
@@ -299,8 +317,7 @@ public class DetailViewController {
         manager.getScriptingProject().getCameraTimelines().get(index).addShot(shot);
         manager.getTimelineControl().initShotBlock(index, shot, false);
         manager.setActiveShotBlock(dShotBlock);
-        manager.getTimelineControl().recomputeAllCollisions();
-        manager.getDirectorTimelineControl().recomputeAllCollisions();
+        manager.shotChanged(dShot);
     }
 
     /**
@@ -346,6 +363,7 @@ public class DetailViewController {
 
             manager.getActiveShotBlock().setBeginCount(newVal);
             manager.getActiveShotBlock().getShot().setBeginCount(newVal);
+            manager.shotChanged(manager.getActiveShotBlock().getShot());
         }
     }
 
@@ -393,6 +411,7 @@ public class DetailViewController {
 
             manager.getActiveShotBlock().setEndCount(newVal);
             manager.getActiveShotBlock().getShot().setEndCount(newVal);
+            manager.shotChanged(manager.getActiveShotBlock().getShot());
         }
     }
 
@@ -416,6 +435,7 @@ public class DetailViewController {
         if (manager.getActiveShotBlock() != null) {
             manager.getActiveShotBlock().setDescription(newValue);
             manager.getActiveShotBlock().getShot().setDescription(newValue);
+            manager.shotChanged(manager.getActiveShotBlock().getShot());
         }
     }
 
@@ -439,6 +459,7 @@ public class DetailViewController {
         if (manager.getActiveShotBlock() != null) {
             manager.getActiveShotBlock().setName(newValue);
             manager.getActiveShotBlock().getShot().setName(newValue);
+            manager.shotChanged(manager.getActiveShotBlock().getShot());
         }
     }
 
@@ -1,10 +1,8 @@
 package control;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Map;
-import java.util.function.Supplier;
-import java.util.stream.Collectors;
 
 import data.CameraShot;
 import data.DirectorShot;
@@ -12,12 +10,13 @@ import data.DirectorTimeline;
 import data.GeneralShotData;
 import data.Instrument;
 import data.Shot;
+import gui.centerarea.CameraShotBlock;
 import gui.centerarea.DirectorShotBlock;
-import gui.centerarea.ShotBlock;
+import gui.centerarea.TimetableBlockPool;
 import gui.events.DirectorShotBlockUpdatedEvent;
+import gui.root.RootCenterArea;
 import gui.root.RootPane;
 import lombok.Getter;
-import lombok.Setter;
 import lombok.extern.log4j.Log4j2;
 
 /**
@@ -26,18 +25,21 @@ import lombok.extern.log4j.Log4j2;
 @Log4j2
 public class DirectorTimelineController {
 
+    // Percentages in a whole.
+    private static final int PERCENT = 100;
+
     private RootPane rootPane;
 
     @Getter
     private final ControllerManager controllerManager;
 
-    // List of all currently colliding DirectorShotBlocks
-    @Getter @Setter
-    private ArrayList<DirectorShotBlock> overlappingShotBlocks;
+    // Lookup from director shot instance numbers to their shot blocks
+    @Getter
+    private ShotRegistry<DirectorShot, DirectorShotBlock> shotRegistry;
 
-    // Map of DirectorShots to their corresponding shot blocks
-    @Getter @Setter
-    private Map<DirectorShot, DirectorShotBlock> directorShotBlockMap;
+    // Engine that rechecks the collisions of edited shots only
+    @Getter
+    private CollisionEngine collisionEngine;
 
     /**
      * Constructor.
@@ -48,8 +50,8 @@ public class DirectorTimelineController {
 
         this.controllerManager = controllerManager;
         this.rootPane = controllerManager.getRootPane();
-        this.overlappingShotBlocks = new ArrayList<>();
-        this.directorShotBlockMap = new HashMap<>();
+        this.shotRegistry = new ShotRegistry<>();
+        this.collisionEngine = new CollisionEngine();
     }
 
     /**
@@ -70,12 +72,17 @@ public class DirectorTimelineController {
      * @param instrument the instrument to remove
      */
     public void removeInstrumentFromAllShots(Instrument instrument) {
-        this.directorShotBlockMap.keySet().forEach(e -> {
-                ShotBlock shotBlock = this.directorShotBlockMap.get(e);
-                shotBlock.getInstruments().remove(instrument);
-                shotBlock.getShot().getInstruments().remove(instrument);
-                shotBlock.getTimetableBlock().removeInstrument(instrument);
-                shotBlock.recompute();
+        // Only the shots with the instrument, a shot block shares the instruments of its shot
+        new ArrayList<>(instrument.getShots()).forEach(shot -> {
+                if (shot instanceof DirectorShot) {
+                    shot.getInstruments().remove(instrument);
+                    DirectorShotBlock shotBlock = this.shotRegistry.getBlock(shot);
+                    // Shots that did not scroll into view yet have no shot block
+                    if (shotBlock != null) {
+                        shotBlock.getTimetableBlock().removeInstrument(instrument);
+                        shotBlock.recompute();
+                    }
+                }
             });
     }
 
@@ -84,16 +91,31 @@ public class DirectorTimelineController {
      * @param shot DirectorShot to display
      */
     protected void initShotBlock(DirectorShot shot) {
+        initShotBlock(shot, false);
+    }
+
+    /**
+     * Display an existing DirectorShot in the view.
+     * @param shot DirectorShot to display
+     * @param fromFile whether the shot is initialized from file, to prevent unwanted GUI changes.
+     */
+    protected void initShotBlock(DirectorShot shot, boolean fromFile) {
         DirectorShotBlock shotBlock = new DirectorShotBlock(
             rootPane.getRootCenterArea(), this::shotChangedHandler, shot);
        
-
-        controllerManager.setActiveShotBlock(shotBlock);
-        this.directorShotBlockMap.put(shot, shotBlock);
-        controllerManager.getScriptingProject().changed();
-
-        // Check for collisions
-        checkCollisions(shotBlock);
+        this.shotRegistry.register(shot, shotBlock, 0);
+
+        // Check for collisions, shots from file are checked in one batch after loading
+        if (!fromFile) {
+            controllerManager.setActiveShotBlock(shotBlock);
+            controllerManager.getScriptingProject().changed();
+            collisionEngine.markDirty(shot, controllerManager.getScriptingProject()
+                    .getDirectorTimeline());
+            flushCollisions();
+            controllerManager.shotChanged(shot);
+        } else if (shot.isColliding()) {
+            setBlockColliding(shot, true);
+        }
     }
 
     /**
@@ -118,23 +140,51 @@ public class DirectorTimelineController {
         DirectorShot shot = changedBlock.getShot();
 
         
-     // Adjust model
+        // Adjust model, this moves the camera shots of the director shot as well
         shot.setBeginCount(changedBlock.getBeginCount());
         shot.setEndCount(changedBlock.getEndCount());
-        
-        controllerManager.getTimelineControl().getCameraShotBlocks().forEach(shotBlock -> {
-                controllerManager.getTimelineControl()
-                    .checkCollisions(shotBlock.getTimetableNumber(), shotBlock);
-                shotBlock.recompute();
+
+        TimelineController timelineControl = controllerManager.getTimelineControl();
+        shot.getCameraShots().forEach(cameraShot -> {
+                timelineControl.markShotDirty(cameraShot);
+                // Shots out of view get their block when they scroll into view
+                CameraShotBlock cameraShotBlock = timelineControl.getShotRegistry()
+                        .getBlock(cameraShot);
+                if (cameraShotBlock != null) {
+                    cameraShotBlock.recompute();
+                }
             });
+        timelineControl.flushCollisions();
 
         controllerManager.setActiveShotBlock(changedBlock);
-        
-        log.error("Before check colissions");
-        // check for collisions
-        checkCollisions(changedBlock);
-        this.recomputeAllCollisions();
-    
+
+        // check for collisions with the neighbouring director shots
+        collisionEngine.markDirty(shot, controllerManager.getScriptingProject()
+                .getDirectorTimeline());
+        flushCollisions();
+        controllerManager.shotChanged(shot);
+    }
+
+    /**
+     * Update the collisions of all changed shots and apply them to their shot blocks.
+     */
+    private void flushCollisions() {
+        CollisionEngine.CollisionDelta delta = collisionEngine.flush();
+        delta.getColliding().forEach(shot -> setBlockColliding(shot, true));
+        delta.getCleared().forEach(shot -> setBlockColliding(shot, false));
+    }
+
+    /**
+     * Set the colliding state of the shot block belonging to a shot.
+     * @param shot the shot to find the shot block for
+     * @param colliding the new colliding state
+     */
+    private void setBlockColliding(Shot shot, boolean colliding) {
+        DirectorShotBlock shotBlock = shotRegistry.getBlock(shot);
+        if (shotBlock == null) {
+            return;
+        }
+        shotBlock.setColliding(colliding);
     }
 
 
@@ -151,6 +201,21 @@ public class DirectorTimelineController {
             });
     }
 
+    /**
+     * Remove the shot block of a director shot from the view, after it scrolled out of view.
+     * The shot stays in the model, and gets a new shot block when it scrolls into view again.
+     * The active shot block is kept.
+     * @param shot the shot whose block to remove
+     */
+    public void unloadShotBlock(DirectorShot shot) {
+        DirectorShotBlock shotBlock = shotRegistry.getBlock(shot);
+        if (shotBlock == null || shotBlock.equals(controllerManager.getActiveShotBlock())) {
+            return;
+        }
+        shotRegistry.unregister(shot);
+        shotBlock.removeFromView();
+    }
+
     /**
      * Removes a director shot from the display and timeline WITHOUT cascade to camera shots.
      * @param shot DirectorShot to be removed
@@ -161,8 +226,13 @@ public class DirectorTimelineController {
                .getDirectorTimeline();
         directorTimeline.removeShot(shot);
         controllerManager.getScriptingProject().changed();
+        controllerManager.shotRemoved(shot);
+        // Unlink the removed shot, so its instruments do not keep it
+        shot.getInstruments().clear();
+        collisionEngine.markRemoved(shot, directorTimeline);
+        flushCollisions();
 
-        DirectorShotBlock shotBlock = directorShotBlockMap.get(shot);
+        DirectorShotBlock shotBlock = shotRegistry.getBlock(shot);
 
         if (shotBlock != null) {
             // If we are removing the active shot then this must be updated
@@ -174,111 +244,28 @@ public class DirectorTimelineController {
             shotBlock.removeFromView();
         }
 
-        directorShotBlockMap.remove(shot);
+        shotRegistry.unregister(shot);
     }
 
     /**
-     * Check for collisions (added and removed).
-     * @param directorShotBlock - the shotblock to check collisions with
-     */
-    private void checkCollisions(DirectorShotBlock directorShotBlock) {
-        log.error("Checking colissions for shot block {}", directorShotBlock.getShot().getName());
-        log.error("Begin count is {}", directorShotBlock.getShot().getBeginCount());
-        DirectorTimeline timeline = controllerManager.getScriptingProject()
-                .getDirectorTimeline();
-
-        // Remove overlaps for non-colliding shotblocks
-        removeOverlap(directorShotBlock);
-
-        // Check for collisions
-        ArrayList<DirectorShot> overlappingShots = timeline
-                .getOverlappingShots(directorShotBlock.getShot());
-        if (overlappingShots.size() > 1) {
-            // Collision detected
-            ArrayList<DirectorShotBlock> overlappingShotBlocks = new ArrayList<>();
-            Supplier<ArrayList<Integer>> supplier = ArrayList::new;
-            ArrayList<Integer> instances = overlappingShots.stream().map(Shot::getInstance)
-                    .collect(Collectors.toCollection(supplier));
-            // Get CameraShotBlock
-
-            this.directorShotBlockMap.values().stream().filter(
-                shotBlock -> instances.contains(shotBlock.getShotId()))
-                .forEach(shotBlock -> {
-                        overlappingShotBlocks.add(shotBlock);
-                        if (!this.overlappingShotBlocks.contains(shotBlock)) {
-                            this.overlappingShotBlocks.add(shotBlock);
-                        }
-                    });
-            // Make DirectorShotBlocks red
-            for (DirectorShotBlock shotBlock : overlappingShotBlocks) {
-                log.error("Overlaps with {}", shotBlock.getName());
-                shotBlock.setColliding(true);
-            }
-        } else {
-            resetColliding(directorShotBlock);
-        }
-    }
-    
-    /**
-     * Remove overlap from this director shot block.
-     * @param directorShotBlock the shot block to do this for.
+     * Replace all registered director shot blocks.
+     * @param directorShotBlockMap the director shots with their shot blocks
      */
-    private void removeOverlap(DirectorShotBlock directorShotBlock) {
-        ArrayList<DirectorShotBlock> toRemove = new ArrayList<>();
-        this.overlappingShotBlocks.stream()
-                .filter(shotBlock ->
-                    shotBlock.getShot().getCollidesWith().isEmpty()).forEach(
-                        shotBlock -> {
-                            shotBlock.setColliding(false);
-                            toRemove.add(shotBlock);
-                        });
-        this.overlappingShotBlocks.removeAll(toRemove);
-        directorShotBlock.getShot().getCollidesWith().forEach(shot -> {
-                shot.setColliding(false);
-                directorShotBlockMap.get(shot).recompute();
-                log.error("Setting false for {}", shot.getName());
-            });
-    }
-    
-    /**
-     * Recompute all the collisions in the director timeline.
-     */
-    public void recomputeAllCollisions() {
-        this.directorShotBlockMap.keySet().forEach(shot -> {
-                this.checkCollisions(directorShotBlockMap.get(shot));
-            });
+    public void setDirectorShotBlockMap(Map<DirectorShot, DirectorShotBlock> directorShotBlockMap) {
+        shotRegistry.clear();
+        directorShotBlockMap.forEach((shot, shotBlock) -> shotRegistry.register(shot, shotBlock, 0));
     }
-    
+
     /**
-     * Reset the colliding status for a shot block.
-     * @param directorShotBlock the shot block to do that for
+     * Recompute all collisions in the director timeline in one batch in the background,
+     * used after bulk changes. The shot blocks are updated once the batch is done.
      */
-    private void resetColliding(DirectorShotBlock directorShotBlock) {
-        directorShotBlock.setColliding(false);
-        directorShotBlock.getShot().setColliding(false);
-        directorShotBlock.getShot().getCollidesWith().forEach(e -> {
-                DirectorShotBlock toReset = directorShotBlockMap.get(e);
-                if (toReset != null) {
-                    this.checkCollisions(toReset);
-                }
-            });
-        removeCollisionFromDirectorShotBlock(directorShotBlock);
-        
-    }
-    
-    /**
-     * Remove collissions from a director shot block.
-     * @param directorShotBlock the block to do that for
-     */
-    private void removeCollisionFromDirectorShotBlock(DirectorShotBlock directorShotBlock) {
-        ArrayList<Shot> toRemove = new ArrayList<>();
-        for (Shot shot : directorShotBlock.getShot().getCollidesWith()) {
-            toRemove.add(shot);
-            if (shot.getCollidesWith().contains(directorShotBlock.getShot())) {
-                shot.getCollidesWith().remove(directorShotBlock.getShot());
-            }
-        }
-        directorShotBlock.getShot().getCollidesWith().removeAll(toRemove);
+    public void recomputeCollisionsInBatch() {
+        BatchCollisionDetector.recompute(Collections.singletonList(
+            controllerManager.getScriptingProject().getDirectorTimeline()), () -> {
+                    shotRegistry.getBlocks().forEach(shotBlock ->
+                            shotBlock.setColliding(shotBlock.getShot().isColliding()));
+                });
     }
 
     /**
@@ -286,13 +273,14 @@ public class DirectorTimelineController {
      */
     public void generateAllShots() {
         log.info("CALLED GENERATE ALL SHOTS");
-        directorShotBlockMap.keySet().forEach(shot -> {
+        controllerManager.loadAllShotBlocks();
+        shotRegistry.getShots().forEach(shot -> {
                 if (shot.getCameraShots().isEmpty()) {
                     // Camera shots need to take the director shot's padding into account
                     double cameraStart = shot.getBeginCount() - shot.getFrontShotPadding();
                     double cameraEnd = shot.getEndCount() + shot.getEndShotPadding();
 
-                    shot.getTimelineIndices().forEach(index -> {
+                    shot.forEachTimelineIndex(index -> {
                             CameraShot subShot = new CameraShot(new GeneralShotData(shot.getName(),
                                                                 shot.getDescription(),
                                                                 cameraStart,
@@ -302,7 +290,21 @@ public class DirectorTimelineController {
                             this.controllerManager.getTimelineControl()
                                     .addCameraShot(index, subShot);
                         });
+                    controllerManager.shotChanged(shot);
                 }
             });
+        logBlockPool();
+    }
+
+    /**
+     * Log how many timetable blocks were reused from the pool of removed blocks.
+     */
+    private void logBlockPool() {
+        RootCenterArea area = rootPane.getRootCenterArea();
+        if (area != null && area.getBlockPool() != null) {
+            TimetableBlockPool pool = area.getBlockPool();
+            log.info("Timetable block pool: {} reused, {} created, hit rate {}%",
+                    pool.getHits(), pool.getMisses(), Math.round(pool.getHitRate() * PERCENT));
+        }
     }
 }
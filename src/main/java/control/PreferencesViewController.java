@@ -81,11 +81,12 @@ public class PreferencesViewController {
      * @param event the mouseEvent called.
      */
     public void handleNoSavesaveButton(MouseEvent event) {
+        String oldColors = TweakingHelper.getColorStylesheet();
         TweakingHelper.setColorChoice(
                 preferencesModalView.getColorList().getSelectionModel().getSelectedIndex());
+        TweakingHelper.setDragBlur(preferencesModalView.getDragBlurCheckbox().isSelected());
 
-        controllerManager.getRootPane().getPrimaryStage().close();
-        controllerManager.getRootPane().showRootPane();
+        controllerManager.getRootPane().swapColorStylesheet(oldColors);
 
         preferencesModalView.hideModal();
         reloadModalView.hideModal();
@@ -1,6 +1,7 @@
 package control;
 
 
+import data.BinaryProjectCodec;
 import data.Camera;
 import data.CameraShot;
 import data.CameraTimeline;
@@ -8,7 +9,9 @@ import data.CameraType;
 import data.DirectorShot;
 import data.DirectorTimeline;
 import data.Instrument;
+import data.ProjectJournal;
 import data.ScriptingProject;
+import data.Shot;
 import data.User;
 import gui.modal.AddCameraModalView;
 import gui.modal.AddCameraTypeModalView;
@@ -45,8 +48,8 @@ import java.io.IOException;
 import java.io.PrintWriter;
 import java.net.URI;
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Log4j2
@@ -69,7 +72,15 @@ public class ProjectController {
     @Getter
     private UploadSuccessModalView successModal;
 
-    public static final int UNUSED_BLOCK_OFFSET = 4000000;
+    // Journal of the edits since the project file was last written, null without a file.
+    @Getter
+    private ProjectJournal journal;
+
+    // True while timelines are rebuilt, the rebuilt shots are not recorded in the journal.
+    private boolean journalPaused;
+
+    // Saves the project in the background while it is edited.
+    private AutosaveService autosave;
     
     // Upload variables
     // Todo: replace with popup or something like that for user
@@ -85,6 +96,7 @@ public class ProjectController {
      */
     public ProjectController(ControllerManager manager) {
         this.controllerManager = manager;
+        this.autosave = new AutosaveService(this);
         controllerManager.getRootPane().getStartupModalView().getNewButton()
                          .setOnMouseClicked(this::newProject);
         controllerManager.getRootPane().getStartupModalView().getLoadButton()
@@ -97,19 +109,20 @@ public class ProjectController {
      * Upload the current project to the webserver.
      */
     public void uploadToWebserver() {
-        // Save the project
         this.save();
 
         // Make request
         CloseableHttpClient httpClient = HttpClients.createDefault();
         HttpPost uploadFile = new HttpPost(url);
-        MultipartEntityBuilder builder = MultipartEntityBuilder.create();
-        builder.addBinaryBody("project", new File(
-                controllerManager.getScriptingProject().getFilePath()),
-                ContentType.APPLICATION_XML, "project.scp");
-        HttpEntity multipart = builder.build();
-        uploadFile.setEntity(multipart);
         try {
+            // The webserver reads XML, also when the project is saved in the binary format
+            byte[] project = controllerManager.getScriptingProject()
+                    .encode(new File("project.scp"));
+            MultipartEntityBuilder builder = MultipartEntityBuilder.create();
+            builder.addBinaryBody("project", project, ContentType.APPLICATION_XML,
+                    "project.scp");
+            HttpEntity multipart = builder.build();
+            uploadFile.setEntity(multipart);
             // get response
             CloseableHttpResponse response = httpClient.execute(uploadFile);
             HttpEntity responseEntity = response.getEntity();
@@ -184,12 +197,15 @@ public class ProjectController {
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("Save");
         ExtensionFilter scpFilter = new ExtensionFilter("Scripting Project", "*.scp");
+        ExtensionFilter binaryFilter = new ExtensionFilter("Binary Scripting Project",
+                "*" + BinaryProjectCodec.EXTENSION);
         ExtensionFilter allFilter = new ExtensionFilter("All files", "*.*");
-        fileChooser.getExtensionFilters().addAll(scpFilter, allFilter);
+        fileChooser.getExtensionFilters().addAll(scpFilter, binaryFilter, allFilter);
         File file = fileChooser.showSaveDialog(controllerManager.getRootPane().getPrimaryStage());
         if (file != null) {
             controllerManager.getScriptingProject().setFilePath(file.getAbsolutePath());
-            controllerManager.getScriptingProject().write(file);
+            openJournal(file);
+            writeProject();
             this.changeConfigFile(controllerManager.getScriptingProject());
         } else {
             log.info("User did not select a file");
@@ -224,14 +240,11 @@ public class ProjectController {
                     }
                 }
                 if (oldCamera != null) {
-                    LinkedList<CameraShot> shots = new LinkedList<>();
-                    oldTimeline.getShots().forEach(shots::add);
+                    ArrayList<CameraShot> shots = new ArrayList<>(oldTimeline.getShots());
                     int j = i;
                     shots.forEach(shot -> {
                             newTimeline.addShot(shot);
-                            if (!(shot.getBeginCount() == UNUSED_BLOCK_OFFSET)) {
-                                controllerManager.getTimelineControl().addCameraShot(j, shot);
-                            }
+                            controllerManager.getTimelineControl().addCameraShot(j, shot);
                         });
                     controllerManager.getScriptingProject().getCameraTimelines()
                             .get(i).setShots(shots);
@@ -240,9 +253,18 @@ public class ProjectController {
             oldProject.getDirectorTimeline().getShots()
                 .forEach(shot -> controllerManager
                     .getDirectorTimelineControl().addDirectorShot(shot));
+            recomputeCollisions();
         }  
     }
 
+    /**
+     * Recompute the collisions of all timelines in one batch, after a bulk change.
+     */
+    private void recomputeCollisions() {
+        controllerManager.getTimelineControl().recomputeCollisionsInBatch();
+        controllerManager.getDirectorTimelineControl().recomputeCollisionsInBatch();
+    }
+
     /**
      * Init project with modal data.
      * @return the initialized project
@@ -284,7 +306,15 @@ public class ProjectController {
             RootCenterArea area = new RootCenterArea(controllerManager.getRootPane(),
                     editProjectModal.getTimelines().size(), false);
             controllerManager.getRootPane().reInitRootCenterArea(area);
+            journalPaused = true;
+            if (editProjectModal.getProject() != null) {
+                editProjectModal.getProject()
+                    .replaceInstruments(editProjectModal.getInstrumentCopies());
+            }
             reInitTimelines(project);
+            journalPaused = false;
+            controllerManager.loadShotBlocksLazily();
+            journalProject(project);
         }
     }
 
@@ -300,61 +330,243 @@ public class ProjectController {
             project.getDirectorTimeline().setProject(project);
             project.getCameraTimelines().forEach(c -> c.setProject(project));
             project.setFilePath(null);
+            closeJournal();
             controllerManager.setScriptingProject(project);
             controllerManager.updateWindowTitle();
             RootCenterArea area = new RootCenterArea(controllerManager.getRootPane(),
                     editProjectModal.getTimelines().size(), false);
             controllerManager.getRootPane().reInitRootCenterArea(area);
+            controllerManager.loadShotBlocksLazily();
         }
     }
 
 
     /**
-     * Save the current project.
-     If the file path of this project is already known, write to that file
+     * Save the current project in the background.
+     If the file path of this project is already known, commit the journal of that file,
+     or write the whole project to it if there is no journal
      Otherwise, treat as if save as was clicked
      */
     public void save() {
         if (controllerManager.getScriptingProject().getFilePath() == null) {
             saveAs();
-        } else {
-            controllerManager.getScriptingProject().write();
+        } else if (!commitJournal()) {
+            writeProject();
         }
     }
-    
+
     /**
-     * Load a project from the given path.
-     * @param file the file to load from
+     * Mark the edits in the journal as saved. The journal is committed on the writer thread,
+     * which then folds the saved records into the project file.
+     * @return true if the journal will be committed, false if the project has to be written
      */
-    public void load(File file) {
-        ScriptingProject temp = null;
+    private boolean commitJournal() {
+        if (journal == null) {
+            return false;
+        }
+        autosave.commit(journal, controllerManager.getScriptingProject());
+        controllerManager.getScriptingProject().saved();
+        return true;
+    }
+
+    /**
+     * Write the whole project to its file on the writer thread, the journal is emptied when
+     * this succeeds.
+     */
+    private void writeProject() {
+        autosave.write(journal, controllerManager.getScriptingProject());
+        controllerManager.getScriptingProject().saved();
+    }
+
+    /**
+     * Write the edits that are still queued and stop the writer thread, when the application
+     * stops.
+     */
+    public void finishWrites() {
+        autosave.shutdown();
+    }
+
+    /**
+     * Drop the edits in the journal that were not saved, when closing without saving.
+     */
+    public void discardUnsavedEdits() {
+        autosave.awaitWrites();
+        if (journal != null) {
+            try {
+                journal.discard();
+            } catch (IOException e) {
+                log.error("Could not discard the unsaved edits in the journal", e);
+            }
+        }
+    }
+
+    /**
+     * Record an added or edited shot in the journal.
+     * @param shot the shot that was changed, may be null
+     */
+    public void journalShotChanged(Shot shot) {
+        if (journal == null || journalPaused || shot == null) {
+            return;
+        }
         try {
-            temp = ScriptingProject.read(file);
+            if (shot instanceof CameraShot) {
+                int index = timelineIndexOf((CameraShot) shot);
+                if (index >= 0) {
+                    autosave.record(journal,
+                            ProjectJournal.cameraShotRecord(index, (CameraShot) shot));
+                }
+            } else if (shot instanceof DirectorShot) {
+                autosave.record(journal, ProjectJournal.directorShotRecord((DirectorShot) shot));
+            }
+        } catch (IOException e) {
+            log.error("Could not record the change of shot {} in the journal", shot.getName(), e);
+        }
+        requestAutosave();
+    }
+
+    /**
+     * Find the camera timeline of a shot in the model. The shot may not have a shot block,
+     * so the registry of the timeline controller does not know all shots.
+     * @param shot the camera shot
+     * @return the index of the timeline that holds the shot, -1 if none does
+     */
+    private int timelineIndexOf(CameraShot shot) {
+        List<CameraTimeline> timelines = controllerManager.getScriptingProject()
+                .getCameraTimelines();
+        for (int i = 0; i < timelines.size(); i++) {
+            if (timelines.get(i).getShots().containsShot(shot)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Record a removed shot in the journal.
+     * @param shot the shot that was removed, may be null
+     */
+    public void journalShotRemoved(Shot shot) {
+        if (journal == null || journalPaused || shot == null) {
+            return;
+        }
+        try {
+            if (shot instanceof CameraShot) {
+                autosave.record(journal,
+                        ProjectJournal.cameraShotRemovedRecord((CameraShot) shot));
+            } else if (shot instanceof DirectorShot) {
+                autosave.record(journal,
+                        ProjectJournal.directorShotRemovedRecord((DirectorShot) shot));
+            }
+        } catch (IOException e) {
+            log.error("Could not record the removal of shot {} in the journal", shot.getName(), e);
+        }
+        requestAutosave();
+    }
+
+    /**
+     * Record the whole project in the journal, after an edit of the project settings.
+     * @param project the edited project
+     */
+    private void journalProject(ScriptingProject project) {
+        if (journal == null) {
+            return;
+        }
+        autosave.recordProject(journal, project);
+        requestAutosave();
+    }
+
+    /**
+     * Mark the project as changed after a recorded edit and request a save in the background.
+     */
+    private void requestAutosave() {
+        controllerManager.getScriptingProject().changed();
+        autosave.request();
+    }
+
+    /**
+     * Open the journal of a project file, closing the journal of the previous project file.
+     * @param file the project file
+     */
+    private void openJournal(File file) {
+        // The writer may still be appending to the journal that is closed or opened again
+        autosave.awaitWrites();
+        closeJournal();
+        try {
+            journal = ProjectJournal.open(file);
+        } catch (IOException e) {
+            log.error("Could not open the journal of {}", file.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Close the journal of the current project file, if there is one.
+     */
+    private void closeJournal() {
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                log.error("Could not close the journal", e);
+            }
+            journal = null;
+        }
+    }
+
+    /**
+     * Read a project file and apply the edits in its journal.
+     * @param file the project file
+     * @return the project, or null if it could not be read
+     */
+    private ScriptingProject readWithJournal(File file) {
+        ScriptingProject project = null;
+        try {
+            project = ScriptingProject.read(file);
         } catch (Exception e) {
             log.error("previously opened file could not be found.");
         }
+        if (project != null) {
+            openJournal(file);
+            if (journal != null) {
+                try {
+                    project = journal.replay(project);
+                } catch (IOException e) {
+                    log.error("Could not replay the journal of {}", file.getAbsolutePath(), e);
+                }
+            }
+        }
+        return project;
+    }
+
+    /**
+     * Load a project from the given path.
+     * @param file the file to load from
+     */
+    public void load(File file) {
+        ScriptingProject temp = readWithJournal(file);
         if (temp == null) {
             controllerManager.getRootPane().getPrimaryStage().close();
             controllerManager.getRootPane().showStartupScreen(true);
         } else {
             controllerManager.getRootPane().closeStartupScreen();
             controllerManager.setScriptingProject(temp);
+            journalPaused = true;
             controllerManager.getRootPane()
                     .reInitRootCenterArea(new RootCenterArea(
                             controllerManager.getRootPane(),
                             controllerManager.getScriptingProject()
                                     .getCameraTimelines()
                                     .size(), false));
-            removeRedundantCameraBlocks(controllerManager.getScriptingProject());
-            List<Integer> addedBlocks = addLoadedDirectorShotBlocks(
-                    controllerManager.getScriptingProject());
-            addLoadedCameraShotBlocks(controllerManager.getScriptingProject(), addedBlocks);
             changeConfigFile(temp);
             int maxInstance = temp.getMaxInstance();
             CameraShot.setInstanceCounter(maxInstance + 1);
             DirectorShot.setInstanceCounter(maxInstance + 1);
-            controllerManager.getScriptingProject().removeOffsettedCameraBlocks();
-            controllerManager.getScriptingProject().setChanged(false);
+            recomputeCollisions();
+            // Shot blocks are created a few every frame, only for the shots in view
+            controllerManager.loadShotBlocksLazily();
+            journalPaused = false;
+            // Edits that were recovered from the journal have not been saved yet
+            controllerManager.getScriptingProject().setChanged(
+                    journal != null && journal.hasUncommittedRecords());
         }
     }
     
@@ -366,7 +578,8 @@ public class ProjectController {
         log.info("Loading Project from file");
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("Load");
-        ExtensionFilter scpFilter = new ExtensionFilter("Scripting Project", "*.scp");
+        ExtensionFilter scpFilter = new ExtensionFilter("Scripting Project", "*.scp",
+                "*" + BinaryProjectCodec.EXTENSION);
         ExtensionFilter allFilter = new ExtensionFilter("All files", "*.*");
         fileChooser.getExtensionFilters().addAll(scpFilter, allFilter);
         File file = fileChooser.showOpenDialog(controllerManager.getRootPane().getPrimaryStage());
@@ -377,27 +590,6 @@ public class ProjectController {
         }
     }
     
-    /**
-     * Removes redundant camera blocks from the view.
-     * @param project the project to do this for
-     */
-    private void removeRedundantCameraBlocks(ScriptingProject project) {
-        for (int i = 0;i < project.getDirectorTimeline().getShots().size();i++) {
-            DirectorShot dShot = project.getDirectorTimeline().getShots().get(i);
-            dShot.getCameraShots().forEach(cameraShot -> {
-                    for (int j = 0;j < project.getCameraTimelines().size();j++) {
-                        CameraTimeline timeline = project.getCameraTimelines().get(j);
-                        timeline.getShots().forEach(shot -> {
-                                if (cameraShot.getInstance() == shot.getInstance()) {
-                                    shot.setBeginCount(UNUSED_BLOCK_OFFSET);
-                                    shot.setEndCount(UNUSED_BLOCK_OFFSET);
-                                }
-                            });
-                    }
-                });
-        }
-    }
-
     /**
      * Overwrite most recent project path in config file.
      * @param project the project to write the path from
@@ -437,80 +629,6 @@ public class ProjectController {
         }
     }
 
-    /**
-     * Add the loaded camera shotblocks that were loaded from file to the UI.
-     * @param project the project that was loaded
-     * @param addedBlocks the blocks that were already added
-     */
-    public void addLoadedCameraShotBlocks(ScriptingProject project, List<Integer> addedBlocks) {
-        log.info("Adding loaded CameraShotBlocks");
-        for (int i = 0; i < project.getCameraTimelines().size();i++) {
-            CameraTimeline timeline = project.getCameraTimelines().get(i);
-            for (int j = 0; j < timeline.getShots().size(); j++) {
-                CameraShot shot = timeline.getShots().get(j);
-                if (!addedBlocks.contains(shot.getInstance())) {
-                    addCameraShotForLoad(i, shot);
-                } else {
-                    log.info("Shot with instance {} was already loaded", shot.getInstance());
-                }
-            }
-        }
-    }
-
-    /**
-     * Add the loaded director shotblocks that were loaded from the file to the UI.
-     * @param project the project that was loaded
-     * @return A list of camera shot blocks that were already added
-     */
-    private List<Integer> addLoadedDirectorShotBlocks(ScriptingProject project) {
-        log.info("Adding loaded DirectorShotBlocks");
-        DirectorTimeline timeline = project.getDirectorTimeline();
-        List<Integer> addedCameraBlocks = new ArrayList<Integer>();
-        
-        for (int i = 0; i < timeline.getShots().size(); i++) {
-            DirectorShot shot = timeline.getShots().get(i);
-            // add instance numbers to the list
-            shot.getCameraShots().forEach(e -> {
-                    int timelineNumber = -1;
-                    addedCameraBlocks.add(e.getInstance());
-                    for (int j = 0;j < project.getCameraTimelines().size();j++) {
-                        if (project.getCameraTimelines().get(j).getShots().contains(e)) {
-                            timelineNumber = j;
-                            break;
-                        }
-                    }
-                    if (timelineNumber != -1) {
-                        e.setDirectorShot(shot);
-                        controllerManager.getTimelineControl().addCameraShot(timelineNumber, e);
-                    } else {
-                        log.error("Mistake while finding timeline number");
-                    }
-                });
-            
-            addDirectorShotForLoad(timeline.getShots().get(i));
-        }
-        return addedCameraBlocks;
-    }
-
-    /**
-     * Add a camera shot that is loaded from file.
-     * @param cameraIndex the index of the camera timeline to use
-     * @param shot the shot to add
-     */
-    private void addCameraShotForLoad(int cameraIndex, CameraShot shot) {
-        if (!(shot.getBeginCount() == UNUSED_BLOCK_OFFSET)) {
-            controllerManager.getTimelineControl().initShotBlock(cameraIndex, shot, true);
-        }
-    }
-
-    /**
-     * Add a director shot that is loaded from file.
-     * @param shot the shot to add
-     */
-    private void addDirectorShotForLoad(DirectorShot shot) {
-        controllerManager.getDirectorTimelineControl().initShotBlock(shot);
-    }
-    
     /**
      * Handler for deleting an instrument.
      * @param event the event for this handler
@@ -520,7 +638,11 @@ public class ProjectController {
                                             .getSelectionModel()
                                             .getSelectedIndex();
         if (selectedIndex != -1) {
-            Instrument instrument = editProjectModal.getInstruments().get(selectedIndex);
+            Instrument copy = editProjectModal.getInstruments().get(selectedIndex);
+            // The shots still have the instrument of the project the copy was made of
+            Instrument instrument = editProjectModal.getInstrumentCopies().entrySet().stream()
+                .filter(e -> e.getValue() == copy).map(Map.Entry::getKey)
+                .findFirst().orElse(copy);
             this.controllerManager.getTimelineControl().removeInstrumentFromAllShots(instrument);
             this.controllerManager.getDirectorTimelineControl()
                 .removeInstrumentFromAllShots(instrument);
@@ -605,6 +727,9 @@ public class ProjectController {
      */
     private void cancel(MouseEvent event) {
         editProjectModal.hideModal();
+        // The shots were taken over by the copies of the timelines in the modal
+        controllerManager.getScriptingProject().getCameraTimelines()
+                .forEach(timeline -> timeline.getShots().track());
     }
     
     /**
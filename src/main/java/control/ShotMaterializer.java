@@ -0,0 +1,519 @@
+package control;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Consumer;
+
+import data.CameraShot;
+import data.CameraTimeline;
+import data.DirectorShot;
+import data.DirectorTimeline;
+import data.ScriptingProject;
+import data.Shot;
+import gui.misc.TweakingHelper;
+import gui.root.RootCenterArea;
+import gui.root.RootFooterArea;
+import javafx.animation.AnimationTimer;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.geometry.Bounds;
+import javafx.scene.control.ScrollPane;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Keeps shot blocks only for the part of a loaded project that is in view. Loading a project
+ * only builds the model, the counts of the project are split into pages and the shot blocks
+ * of a page are created when the page comes close to the visible part of the timelines. When
+ * a page moves away from it again, the shot blocks of the page are removed and their
+ * timetable blocks go back to the pool of the center area, so the number of blocks follows
+ * the size of the view instead of the size of the project. A controller that needs the block
+ * of a shot in a page that is not loaded faults the page in through {@link #load(Shot)}.
+ *
+ * <p>The shot blocks of the pages that come into view are created in the background, a few
+ * every frame, and the progress is shown in the footer. Pages that move out of view before
+ * they were filled are dropped from the queue.</p>
+ */
+@Log4j2
+public class ShotMaterializer {
+
+    // Counts in a page, the shot blocks of a page are created together.
+    private static final int PAGE_COUNTS = 32;
+
+    // Pages above and below the visible part of the timelines that get their blocks as well.
+    private static final int MARGIN_PAGES = 1;
+
+    // Nanoseconds of a frame that may be spent creating shot blocks in the background.
+    private static final long FRAME_BUDGET = 8_000_000L;
+
+    // Percentages in a whole.
+    private static final int PERCENT = 100;
+
+    private final ControllerManager controllerManager;
+
+    // Pages whose shot blocks were created.
+    private final BitSet loadedPages;
+
+    // Pages that are in view and wait for their shot blocks.
+    private final BitSet queuedPages;
+
+    // Queued pages in the order they are filled, pages that left the view are skipped.
+    private final ArrayDeque<Integer> pageOrder;
+
+    // Block creations of the page the populator is filling.
+    private final ArrayDeque<Runnable> pending;
+
+    // Loads the visible pages when the timelines are scrolled or resized.
+    private final InvalidationListener viewportListener;
+
+    // Creates the shot blocks of the queued pages, every frame.
+    private final AnimationTimer populator;
+
+    // Whether the populator runs every frame, false to only fill pages through populate.
+    private final boolean populate;
+
+    // Whether the populator is started.
+    private boolean populating;
+
+    // Page the populator is filling, -1 if it is between pages.
+    private int fillingPage;
+
+    // Pages queued since the populator was started, to show the progress.
+    private int queuedCount;
+
+    // Scroll pane of the camera timelines, null when every shot has its shot block.
+    private ScrollPane scrollPane;
+
+    /**
+     * Constructor.
+     * @param controllerManager the manager of the timeline controllers
+     */
+    public ShotMaterializer(ControllerManager controllerManager) {
+        this(controllerManager, true);
+    }
+
+    /**
+     * Constructor.
+     * @param controllerManager the manager of the timeline controllers
+     * @param populate whether to fill the queued pages every frame
+     */
+    ShotMaterializer(ControllerManager controllerManager, boolean populate) {
+        this.controllerManager = controllerManager;
+        this.loadedPages = new BitSet();
+        this.queuedPages = new BitSet();
+        this.pageOrder = new ArrayDeque<>();
+        this.pending = new ArrayDeque<>();
+        this.viewportListener = this::viewportChanged;
+        this.populate = populate;
+        this.fillingPage = -1;
+        this.populator = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                populate(now + FRAME_BUDGET);
+            }
+        };
+    }
+
+    /**
+     * Start creating the shot blocks of the current project as they scroll into view, and
+     * removing them as they scroll out of view. Shots that already have a shot block keep it
+     * until it scrolls out of view.
+     */
+    public void start() {
+        stop();
+        RootCenterArea area = controllerManager.getRootPane().getRootCenterArea();
+        if (area == null || area.getMainTimelineScrollpane() == null) {
+            return;
+        }
+        // Blocks of large projects paint their text instead of building labels
+        area.setPaintedBlocks(countShots() > TweakingHelper.getPaintedBlocksThreshold());
+        // The timelines have to reach the shots that do not have a block yet
+        area.fitCounts(highestCount());
+        scrollPane = area.getMainTimelineScrollpane();
+        scrollPane.vvalueProperty().addListener(viewportListener);
+        scrollPane.viewportBoundsProperty().addListener(viewportListener);
+        loadVisible();
+    }
+
+    /**
+     * Stop creating and removing shot blocks as they scroll into and out of view.
+     */
+    public void stop() {
+        if (scrollPane != null) {
+            scrollPane.vvalueProperty().removeListener(viewportListener);
+            scrollPane.viewportBoundsProperty().removeListener(viewportListener);
+            scrollPane = null;
+        }
+        stopPopulating();
+        loadedPages.clear();
+        queuedPages.clear();
+    }
+
+    /**
+     * Check if there may be shots without a shot block.
+     * @return true if shot blocks are created as they scroll into view
+     */
+    public boolean isActive() {
+        return scrollPane != null;
+    }
+
+    /**
+     * Create the shot blocks of the page a shot starts in, if they were not created yet.
+     * @param shot the shot that needs its shot block
+     */
+    public void load(Shot shot) {
+        if (isActive()) {
+            loadPage(pageOf(shot.getBeginCount()));
+        }
+    }
+
+    /**
+     * Create the shot blocks of all shots, before a change to the whole project.
+     */
+    public void loadAll() {
+        if (isActive()) {
+            loadPages(0, lastPage());
+            stop();
+        }
+    }
+
+    /**
+     * Create shot blocks of the queued pages, until the time is up. A page counts as loaded
+     * once all its blocks were created, faulting in a page that is being filled creates the
+     * rest of its blocks at once.
+     * @param deadline the value of {@link System#nanoTime()} to stop at
+     */
+    void populate(long deadline) {
+        if (!isActive()) {
+            return;
+        }
+        while (System.nanoTime() < deadline) {
+            if (!pending.isEmpty()) {
+                pending.poll().run();
+                continue;
+            }
+            if (fillingPage >= 0) {
+                loadedPages.set(fillingPage);
+                queuedPages.clear(fillingPage);
+                log.debug("Created the shot blocks of page {}", fillingPage);
+                fillingPage = -1;
+            }
+            int page = nextQueuedPage();
+            if (page < 0) {
+                stopPopulating();
+                return;
+            }
+            fillingPage = page;
+            forEachMissingBlock(page, pending::add);
+        }
+        if (queuedCount > 0) {
+            showStatus("Loading shots " + PERCENT * (queuedCount - queuedPages.cardinality())
+                    / queuedCount + "%");
+        }
+    }
+
+    /**
+     * Check if there are pages waiting for their shot blocks.
+     * @return true if the populator is started
+     */
+    boolean isPopulating() {
+        return populating;
+    }
+
+    /**
+     * Handler for a scrolled or resized viewport.
+     * @param observable the property that changed
+     */
+    private void viewportChanged(Observable observable) {
+        loadVisible();
+    }
+
+    /**
+     * Create the shot blocks of the pages in and around the visible part of the timelines,
+     * and remove the shot blocks of the other pages.
+     */
+    private void loadVisible() {
+        RootCenterArea area = controllerManager.getRootPane().getRootCenterArea();
+        Bounds viewport = scrollPane.getViewportBounds();
+        double contentHeight = scrollPane.getContent().getLayoutBounds().getHeight();
+        double range = scrollPane.getVmax() - scrollPane.getVmin();
+        double position = range <= 0 ? 0 : (scrollPane.getVvalue() - scrollPane.getVmin()) / range;
+        double top = position * Math.max(0, contentHeight - viewport.getHeight());
+        double bottom = top + viewport.getHeight();
+        int firstPage = pageOf(CountUtilities.rowToCount((int) (top / area.getCountHeight())));
+        int lastPage = pageOf(CountUtilities.rowToCount(
+                (int) Math.ceil(bottom / area.getCountHeight())));
+        unloadPages(firstPage - MARGIN_PAGES, lastPage + MARGIN_PAGES);
+        // The visible pages are filled before the margin around them
+        queuePages(firstPage, lastPage);
+        queuePages(firstPage - MARGIN_PAGES, firstPage - 1);
+        queuePages(lastPage + 1, lastPage + MARGIN_PAGES);
+    }
+
+    /**
+     * Remove the shot blocks of the loaded pages that are not in or around the visible part
+     * of the timelines. A shot that still reaches into the viewed pages keeps its block.
+     * @param first the first viewed page
+     * @param last the last viewed page
+     */
+    private void unloadPages(int first, int last) {
+        double low = (double) first * PAGE_COUNTS;
+        double high = (double) (last + 1) * PAGE_COUNTS;
+        for (int page = loadedPages.nextSetBit(0); page >= 0;
+                page = loadedPages.nextSetBit(page + 1)) {
+            if (page < first || page > last) {
+                unloadPage(page, low, high);
+            }
+        }
+        for (int page = queuedPages.nextSetBit(0); page >= 0;
+                page = queuedPages.nextSetBit(page + 1)) {
+            if (page < first || page > last) {
+                queuedPages.clear(page);
+                if (page == fillingPage) {
+                    // Part of its blocks were created already
+                    pending.clear();
+                    fillingPage = -1;
+                    unloadPage(page, low, high);
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove the shot blocks of the shots that overlap a page, unless they overlap the range
+     * of counts that is viewed.
+     * @param page the page to unload
+     * @param low the first viewed count
+     * @param high the last viewed count
+     */
+    private void unloadPage(int page, double low, double high) {
+        loadedPages.clear(page);
+        double pageLow = (double) page * PAGE_COUNTS;
+        double pageHigh = pageLow + PAGE_COUNTS;
+        ScriptingProject project = controllerManager.getScriptingProject();
+
+        TimelineController timelineControl = controllerManager.getTimelineControl();
+        for (CameraTimeline timeline : project.getCameraTimelines()) {
+            for (CameraShot shot : timeline.getShots().getOverlapping(pageLow, pageHigh)) {
+                if (!isViewed(shot, low, high)) {
+                    timelineControl.unloadShotBlock(shot);
+                }
+            }
+        }
+
+        DirectorTimeline director = project.getDirectorTimeline();
+        if (director != null) {
+            DirectorTimelineController directorControl = controllerManager
+                    .getDirectorTimelineControl();
+            for (DirectorShot shot : director.getShots().getOverlapping(pageLow, pageHigh)) {
+                if (!isViewed(shot, low, high)) {
+                    directorControl.unloadShotBlock(shot);
+                }
+            }
+        }
+        log.debug("Removed the shot blocks of page {}", page);
+    }
+
+    /**
+     * Queue a range of pages for the populator, unless they are loaded or queued already.
+     * @param first the first page
+     * @param last the last page
+     */
+    private void queuePages(int first, int last) {
+        for (int page = Math.max(0, first); page <= last; page++) {
+            if (!loadedPages.get(page) && !queuedPages.get(page)) {
+                queuedPages.set(page);
+                pageOrder.add(page);
+                queuedCount++;
+            }
+        }
+        if (populate && !populating && !queuedPages.isEmpty()) {
+            populating = true;
+            populator.start();
+        }
+    }
+
+    /**
+     * Take the next page from the queue that is still in view.
+     * @return the index of the page, -1 if no page is queued
+     */
+    private int nextQueuedPage() {
+        while (!pageOrder.isEmpty()) {
+            int page = pageOrder.poll();
+            if (queuedPages.get(page)) {
+                return page;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Stop the populator and forget the queued pages.
+     */
+    private void stopPopulating() {
+        if (populating) {
+            populating = false;
+            populator.stop();
+        }
+        pageOrder.clear();
+        pending.clear();
+        fillingPage = -1;
+        if (queuedCount > 0) {
+            queuedCount = 0;
+            showStatus("");
+        }
+    }
+
+    /**
+     * Create the shot blocks of a range of pages.
+     * @param first the first page
+     * @param last the last page
+     */
+    private void loadPages(int first, int last) {
+        for (int page = Math.max(0, first); page <= last; page++) {
+            loadPage(page);
+        }
+    }
+
+    /**
+     * Create the shot blocks of the shots that overlap a page and have no shot block yet.
+     * @param page the page to load
+     */
+    private void loadPage(int page) {
+        if (page < 0 || loadedPages.get(page)) {
+            return;
+        }
+        // Marked first, creating a block may ask for the blocks around it
+        loadedPages.set(page);
+        queuedPages.clear(page);
+        if (page == fillingPage) {
+            pending.clear();
+            fillingPage = -1;
+        }
+        forEachMissingBlock(page, Runnable::run);
+        log.debug("Created the shot blocks of page {}", page);
+    }
+
+    /**
+     * Hand out the creation of the shot blocks of a page. A creation does nothing if the shot
+     * got its block in the meantime, so creations may be run late or twice.
+     * @param page the page to create the shot blocks of
+     * @param creations consumer of the block creations
+     */
+    private void forEachMissingBlock(int page, Consumer<Runnable> creations) {
+        double low = (double) page * PAGE_COUNTS;
+        double high = low + PAGE_COUNTS;
+        ScriptingProject project = controllerManager.getScriptingProject();
+
+        TimelineController timelineControl = controllerManager.getTimelineControl();
+        List<CameraTimeline> timelines = project.getCameraTimelines();
+        for (int i = 0; i < timelines.size(); i++) {
+            int index = i;
+            for (CameraShot shot : timelines.get(i).getShots().getOverlapping(low, high)) {
+                creations.accept(() -> {
+                        if (timelineControl.getShotRegistry().getBlock(shot) == null) {
+                            timelineControl.initShotBlock(index, shot, true);
+                        }
+                    });
+            }
+        }
+
+        DirectorTimelineController directorControl = controllerManager
+                .getDirectorTimelineControl();
+        DirectorTimeline director = project.getDirectorTimeline();
+        if (director != null) {
+            for (DirectorShot shot : director.getShots().getOverlapping(low, high)) {
+                creations.accept(() -> {
+                        if (directorControl.getShotRegistry().getBlock(shot) == null) {
+                            directorControl.initShotBlock(shot, true);
+                        }
+                    });
+            }
+        }
+    }
+
+    /**
+     * Get the last page with shots of the current project.
+     * @return the index of the page the last shot begins in
+     */
+    private int lastPage() {
+        ScriptingProject project = controllerManager.getScriptingProject();
+        // Every shot overlaps the page it begins in, so the last begin is far enough
+        double lastBegin = 0;
+        for (CameraTimeline timeline : project.getCameraTimelines()) {
+            if (!timeline.getShots().isEmpty()) {
+                lastBegin = Math.max(lastBegin, timeline.getShots().getLast().getBeginCount());
+            }
+        }
+        DirectorTimeline director = project.getDirectorTimeline();
+        if (director != null && !director.getShots().isEmpty()) {
+            lastBegin = Math.max(lastBegin, director.getShots().getLast().getBeginCount());
+        }
+        return pageOf(lastBegin);
+    }
+
+    /**
+     * Show the progress of the background loading in the footer.
+     * @param status the status to show, empty to show nothing
+     */
+    private void showStatus(String status) {
+        RootFooterArea footer = controllerManager.getRootPane().getRootFooterArea();
+        if (footer != null) {
+            footer.setStatus(status);
+        }
+    }
+
+    /**
+     * Get the highest count of the shots of the current project.
+     * @return the highest end count
+     */
+    private double highestCount() {
+        ScriptingProject project = controllerManager.getScriptingProject();
+        double highest = 0;
+        for (CameraTimeline timeline : project.getCameraTimelines()) {
+            highest = Math.max(highest, timeline.getShots().getHighestCount());
+        }
+        DirectorTimeline director = project.getDirectorTimeline();
+        if (director != null) {
+            highest = Math.max(highest, director.getShots().getHighestCount());
+        }
+        return highest;
+    }
+
+    /**
+     * Count the shots of the current project.
+     * @return the number of camera and director shots
+     */
+    private int countShots() {
+        ScriptingProject project = controllerManager.getScriptingProject();
+        int shots = 0;
+        for (CameraTimeline timeline : project.getCameraTimelines()) {
+            shots += timeline.getShots().size();
+        }
+        DirectorTimeline director = project.getDirectorTimeline();
+        if (director != null) {
+            shots += director.getShots().size();
+        }
+        return shots;
+    }
+
+    /**
+     * Check if a shot reaches into a range of counts.
+     * @param shot the shot
+     * @param low the first count of the range
+     * @param high the last count of the range
+     * @return true if the shot shares a count with the range
+     */
+    private static boolean isViewed(Shot shot, double low, double high) {
+        return shot.getEndCount() >= low && shot.getBeginCount() <= high;
+    }
+
+    /**
+     * Get the page a count is in.
+     * @param count the count
+     * @return the index of the page
+     */
+    private static int pageOf(double count) {
+        return (int) Math.floor(count / PAGE_COUNTS);
+    }
+}
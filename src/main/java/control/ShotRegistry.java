@@ -0,0 +1,172 @@
+package control;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import data.InstanceTable;
+import data.Shot;
+import gui.centerarea.ShotBlock;
+
+/**
+ * Lookup from the instance number of a shot to the shot, its shot block and the index of the
+ * timeline it is in. The entries are kept in an {@link InstanceTable}, so finding the block of
+ * a shot takes constant time instead of a walk over all blocks. Instance numbers are only
+ * unique per kind of shot, so camera shots and director shots each have their own registry.
+ *
+ * @param <S> the type of shot in the registry
+ * @param <B> the type of shot block in the registry
+ */
+public class ShotRegistry<S extends Shot, B extends ShotBlock> {
+
+    // Capacity of the table when it is created, must be a power of two.
+    private static final int INITIAL_CAPACITY = 16;
+
+    // The registered shots, by their instance number.
+    private final InstanceTable<Entry<S, B>> entries;
+
+    /**
+     * Constructor.
+     */
+    public ShotRegistry() {
+        this.entries = new InstanceTable<>(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Register a shot with its shot block, replacing any shot with the same instance number.
+     * @param shot the shot to register
+     * @param block the shot block of the shot
+     * @param timelineIndex the index of the timeline the shot is in
+     */
+    public void register(S shot, B block, int timelineIndex) {
+        entries.put(shot.getInstance(), new Entry<>(shot, block, timelineIndex));
+    }
+
+    /**
+     * Remove a shot from the registry.
+     * @param shot the shot to remove
+     * @return true if the shot was registered
+     */
+    public boolean unregister(Shot shot) {
+        return entries.remove(shot.getInstance()) != null;
+    }
+
+    /**
+     * Store the new timeline of a registered shot.
+     * @param shot the shot that was moved
+     * @param timelineIndex the index of the timeline the shot is in now
+     */
+    public void move(Shot shot, int timelineIndex) {
+        Entry<S, B> entry = entries.get(shot.getInstance());
+        if (entry != null) {
+            entry.timelineIndex = timelineIndex;
+        }
+    }
+
+    /**
+     * Get the shot block of a shot.
+     * @param shot the shot to look up
+     * @return the shot block, or null if the shot is not registered
+     */
+    public B getBlock(Shot shot) {
+        return getBlock(shot.getInstance());
+    }
+
+    /**
+     * Get the shot block of the shot with an instance number.
+     * @param instance the instance number of the shot
+     * @return the shot block, or null if no shot with the number is registered
+     */
+    public B getBlock(int instance) {
+        Entry<S, B> entry = entries.get(instance);
+        return entry == null ? null : entry.block;
+    }
+
+    /**
+     * Get the shot with an instance number.
+     * @param instance the instance number of the shot
+     * @return the shot, or null if no shot with the number is registered
+     */
+    public S getShot(int instance) {
+        Entry<S, B> entry = entries.get(instance);
+        return entry == null ? null : entry.shot;
+    }
+
+    /**
+     * Get the index of the timeline a shot is in.
+     * @param shot the shot to look up
+     * @return the index of the timeline, or -1 if the shot is not registered
+     */
+    public int getTimelineIndex(Shot shot) {
+        Entry<S, B> entry = entries.get(shot.getInstance());
+        return entry == null ? -1 : entry.timelineIndex;
+    }
+
+    /**
+     * Get the number of registered shots.
+     * @return the number of shots
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Remove all shots from the registry.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Run an action for every registered shot and its shot block. The action is run on a
+     * copy of the table, so it may change the registry.
+     * @param action the action to run
+     */
+    public void forEach(BiConsumer<? super S, ? super B> action) {
+        entries.forEach(entry -> action.accept(entry.shot, entry.block));
+    }
+
+    /**
+     * Get all registered shot blocks.
+     * @return a new list with the shot blocks
+     */
+    public List<B> getBlocks() {
+        List<B> blocks = new ArrayList<>(entries.size());
+        forEach((shot, block) -> blocks.add(block));
+        return blocks;
+    }
+
+    /**
+     * Get all registered shots.
+     * @return a new list with the shots
+     */
+    public List<S> getShots() {
+        List<S> shots = new ArrayList<>(entries.size());
+        forEach((shot, block) -> shots.add(shot));
+        return shots;
+    }
+
+    /**
+     * A registered shot with its shot block and timeline.
+     *
+     * @param <S> the type of shot
+     * @param <B> the type of shot block
+     */
+    private static final class Entry<S, B> {
+        private final S shot;
+        private final B block;
+        private int timelineIndex;
+
+        /**
+         * Constructor.
+         * @param shot the shot
+         * @param block the shot block of the shot
+         * @param timelineIndex the index of the timeline the shot is in
+         */
+        private Entry(S shot, B block, int timelineIndex) {
+            this.shot = shot;
+            this.block = block;
+            this.timelineIndex = timelineIndex;
+        }
+    }
+}
@@ -2,11 +2,7 @@ package control;
 
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.function.Supplier;
-import java.util.stream.Collectors;
 
 import data.CameraShot;
 import data.CameraTimeline;
@@ -38,15 +34,17 @@ public class TimelineController {
     @Getter
     private ControllerManager controllerManager;
 
-    @Getter @Setter
+    @Getter
     // List of all camerashotblocks in this timelinecontroller
     private List<CameraShotBlock> cameraShotBlocks;
 
-    // List of all currently colliding camerashotblocks
+    // Lookup from camera shot instance numbers to their shot blocks and timelines
     @Getter
-    private List<CameraShotBlock> overlappingCameraShotBlocks;
+    private ShotRegistry<CameraShot, CameraShotBlock> shotRegistry;
 
-    private Map<CameraShot, CameraShotBlock> cameraShotBlockMap;
+    // Engine that rechecks the collisions of edited shots only
+    @Getter
+    private CollisionEngine collisionEngine;
 
     /**
      * Constructor.
@@ -58,8 +56,8 @@ public class TimelineController {
         this.controllerManager = controllerManager;
         this.rootPane = controllerManager.getRootPane();
         this.cameraShotBlocks = new ArrayList<>();
-        this.overlappingCameraShotBlocks = new ArrayList<>();
-        this.cameraShotBlockMap = new HashMap<>();
+        this.shotRegistry = new ShotRegistry<>();
+        this.collisionEngine = new CollisionEngine();
     }
 
     
@@ -83,11 +81,17 @@ public class TimelineController {
      * @param instrument the instrument to remove
      */
     public void removeInstrumentFromAllShots(Instrument instrument) {
-        this.cameraShotBlocks.forEach(shotBlock -> {
-                shotBlock.getInstruments().remove(instrument);
-                shotBlock.getShot().getInstruments().remove(instrument);
-                shotBlock.getTimetableBlock().removeInstrument(instrument);
-                shotBlock.recompute();
+        // Only the shots with the instrument, a shot block shares the instruments of its shot
+        new ArrayList<>(instrument.getShots()).forEach(shot -> {
+                if (shot instanceof CameraShot) {
+                    shot.getInstruments().remove(instrument);
+                    CameraShotBlock shotBlock = this.shotRegistry.getBlock(shot);
+                    // Shots that did not scroll into view yet have no shot block
+                    if (shotBlock != null) {
+                        shotBlock.getTimetableBlock().removeInstrument(instrument);
+                        shotBlock.recompute();
+                    }
+                }
             });
     }
 
@@ -106,11 +110,18 @@ public class TimelineController {
             controllerManager.setActiveShotBlock(shotBlock);
         }
         this.cameraShotBlocks.add(shotBlock);
-        this.cameraShotBlockMap.put(newShot, shotBlock);
-        controllerManager.getScriptingProject().changed();
+        this.shotRegistry.register(newShot, shotBlock, cameraIndex);
 
-        // Check for collisions
-        checkCollisions(cameraIndex, shotBlock);
+        // Check for collisions, shots from file are checked in one batch after loading
+        if (!fromFile) {
+            controllerManager.getScriptingProject().changed();
+            collisionEngine.markDirty(newShot, controllerManager.getScriptingProject()
+                    .getCameraTimelines().get(cameraIndex));
+            flushCollisions();
+            controllerManager.shotChanged(newShot);
+        } else if (newShot.isColliding()) {
+            setBlockColliding(newShot, true);
+        }
     }
 
     /**
@@ -129,10 +140,15 @@ public class TimelineController {
                 .get(cameraShotBlock.getTimetableNumber());
         cameraTimeline.removeShot(cameraShotBlock.getShot());
         controllerManager.getScriptingProject().changed();
+        controllerManager.shotRemoved(cameraShotBlock.getShot());
+        // Unlink the removed shot, so its instruments do not keep it
+        cameraShotBlock.getShot().getInstruments().clear();
+        collisionEngine.markRemoved(cameraShotBlock.getShot(), cameraTimeline);
+        flushCollisions();
 
         this.decoupleShot(cameraShotBlock.getTimetableNumber(), cameraShotBlock.getShot());
 
-        this.cameraShotBlockMap.remove(cameraShotBlock.getShot());
+        this.shotRegistry.unregister(cameraShotBlock.getShot());
         this.cameraShotBlocks.remove(cameraShotBlock);
 
         // Then remove the shot from the view
@@ -144,13 +160,29 @@ public class TimelineController {
      * @param shot Camera Shot to be removed
      */
     public void removeCameraShot(CameraShot shot) {
-        CameraShotBlock shotBlock = cameraShotBlockMap.get(shot);
+        CameraShotBlock shotBlock = getShotBlockForShot(shot);
 
         if (shotBlock != null) {
             this.removeCameraShot(shotBlock);
         }
     }
 
+    /**
+     * Remove the shot block of a shot from the view, after it scrolled out of view. The shot
+     * stays in the model, and gets a new shot block when it scrolls into view again. The
+     * active shot block is kept.
+     * @param shot the shot whose block to remove
+     */
+    public void unloadShotBlock(CameraShot shot) {
+        CameraShotBlock shotBlock = shotRegistry.getBlock(shot);
+        if (shotBlock == null || shotBlock.equals(controllerManager.getActiveShotBlock())) {
+            return;
+        }
+        shotRegistry.unregister(shot);
+        cameraShotBlocks.remove(shotBlock);
+        shotBlock.removeFromView();
+    }
+
     /**
      * Handle updated camera shot. The previous timeline is used to retrieve the corresponding
      * shot. The correct {@link CameraShot} is then updated using the latest {@link CameraShotBlock}
@@ -160,9 +192,6 @@ public class TimelineController {
      */
     public void shotChangedHandler(CameraShotBlockUpdatedEvent event) {
         CameraShotBlock changedBlock = event.getCameraShotBlock();
-        cameraShotBlocks.forEach(shotBlock -> {  
-                this.checkCollisions(shotBlock.getTimetableNumber(), shotBlock);
-            });
 
         // If coupled to DirectorShot, confirm separation
         this.decoupleAndModify(event, changedBlock);
@@ -198,124 +227,94 @@ public class TimelineController {
         if (event.getOldTimelineNumber() != changedBlock.getTimetableNumber()) {
             previousTimeline.removeShot(shot);
             newCameraTimeline.addShot(shot);
+            shotRegistry.move(shot, changedBlock.getTimetableNumber());
         }
 
-        // check for collisions
-        checkCollisions(changedBlock.getTimetableNumber(),
-                        event.getOldTimelineNumber(), changedBlock);
+        // check for collisions with the neighbours on both timelines
+        collisionEngine.markMoved(shot, previousTimeline, newCameraTimeline);
+        flushCollisions();
+        controllerManager.shotChanged(shot);
     }
 
-    
     /**
-     * Get the shot block corresponding to the shot.
-     * @param shot the shot to search for
-     * @return the shot block with shot as shot.
+     * Mark a camera shot as changed, its collisions are updated on the next flush. A shot that
+     * has no shot block is looked up in the timelines, no shot block is created for it.
+     * @param shot the shot that was changed
      */
-    public CameraShotBlock getShotBlockForShot(CameraShot shot) {
-        for (int i = 0;i < this.cameraShotBlocks.size();i++) {
-            if (cameraShotBlocks.get(i).getShot().getInstance() == shot.getInstance()) {
-                return cameraShotBlocks.get(i);
+    public void markShotDirty(CameraShot shot) {
+        List<CameraTimeline> timelines = controllerManager.getScriptingProject()
+                .getCameraTimelines();
+        int timelineIndex = shotRegistry.getTimelineIndex(shot);
+        for (int i = 0; timelineIndex < 0 && i < timelines.size(); i++) {
+            if (timelines.get(i).getShots().containsShot(shot)) {
+                timelineIndex = i;
             }
         }
-        return null;
+        if (timelineIndex >= 0) {
+            collisionEngine.markDirty(shot, timelines.get(timelineIndex));
+        }
     }
-    
 
     /**
-     * Check collisions for new camerablock.
-     * @param timelineNumber - the timelinenumber where the camerashotblock is added
-     * @param cameraShotBlock - the camerashotblock to check collisions with
+     * Update the collisions of all changed shots and apply them to their shot blocks.
      */
-    protected void checkCollisions(int timelineNumber, CameraShotBlock cameraShotBlock) {
-        checkCollisions(timelineNumber, -1, cameraShotBlock);
+    public void flushCollisions() {
+        CollisionEngine.CollisionDelta delta = collisionEngine.flush();
+        delta.getColliding().forEach(shot -> setBlockColliding(shot, true));
+        delta.getCleared().forEach(shot -> setBlockColliding(shot, false));
     }
 
     /**
-     * Check for collisions (added and removed).
-     * @param timelineNumber - the current timeline number to check new collisions
-     * @param oldTimelineNumber - the old timeline number to check which collisions are not valid
-     *                          anymore should be negative when adding new block
-     * @param cameraShotBlock - the shotblock to check collisions with
+     * Set the colliding state of the shot block belonging to a shot.
+     * @param shot the shot to find the shot block for
+     * @param colliding the new colliding state
      */
-    protected void checkCollisions(int timelineNumber, int oldTimelineNumber,
-                                 CameraShotBlock cameraShotBlock) {
-       
-        CameraTimeline timeline = controllerManager.getScriptingProject()
-                                                   .getCameraTimelines()
-                                                   .get(timelineNumber);
-        if (oldTimelineNumber >= 0) {
-            removeCollisionFromCameraShotBlock(cameraShotBlock);
-            ArrayList<CameraShotBlock> toRemove = new ArrayList<>();
-            this.overlappingCameraShotBlocks.stream()
-                    .filter(shotBlock ->
-                        shotBlock.getShot().getCollidesWith().isEmpty()).forEach(shotBlock -> {
-                                shotBlock.setColliding(false);
-                                toRemove.add(shotBlock);
-                            });
-            this.overlappingCameraShotBlocks.removeAll(toRemove);
-        }
-        ArrayList<CameraShot> overlappingShots = timeline
-                .getOverlappingShots(cameraShotBlock.getShot());
-        if (overlappingShots.size() > 1) {
-            ArrayList<CameraShotBlock> overlappingShotBlocks = new ArrayList<>();
-            Supplier<ArrayList<Integer>> supplier = ArrayList::new;
-            ArrayList<Integer> myInts = overlappingShots.stream().map(Shot::getInstance)
-                    .collect(Collectors.toCollection(supplier));
-            this.cameraShotBlocks.stream().filter(shotBlock ->
-                    myInts.contains(shotBlock.getShotId())).forEach(shotBlock -> {
-                            overlappingShotBlocks.add(shotBlock);
-                            if (!this.overlappingCameraShotBlocks.contains(shotBlock)) {
-                                this.overlappingCameraShotBlocks.add(shotBlock);
-                            }
-                        });
-            for (CameraShotBlock shotBlock : overlappingShotBlocks) {
-                shotBlock.setColliding(true);
-            }
-        } else {
-            resetColliding(cameraShotBlock);
+    private void setBlockColliding(Shot shot, boolean colliding) {
+        CameraShotBlock shotBlock = shotRegistry.getBlock(shot);
+        if (shotBlock == null) {
+            return;
         }
+        shotBlock.setColliding(colliding);
     }
+
     
     /**
-     * Recompute all the collissions.
+     * Get the shot block corresponding to the shot. The shot block is created if the shot did
+     * not scroll into view yet.
+     * @param shot the shot to search for
+     * @return the shot block with shot as shot.
      */
-    public void recomputeAllCollisions() {
-        this.cameraShotBlocks.forEach(shotBlock -> {
-                this.checkCollisions(shotBlock.getTimetableNumber(), shotBlock);
-            });
+    public CameraShotBlock getShotBlockForShot(CameraShot shot) {
+        CameraShotBlock shotBlock = shotRegistry.getBlock(shot);
+        if (shotBlock == null) {
+            controllerManager.loadShotBlock(shot);
+            shotBlock = shotRegistry.getBlock(shot);
+        }
+        return shotBlock;
     }
-    
+
     /**
-     * Reset colliding status on camera shot block.
-     * @param cameraShotBlock the shot block to do that on
+     * Replace all camera shot blocks, the registry is rebuilt from the new blocks.
+     * @param cameraShotBlocks the new camera shot blocks
      */
-    protected void resetColliding(CameraShotBlock cameraShotBlock) {
-        cameraShotBlock.setColliding(false);
-        cameraShotBlock.getShot().setColliding(false);
-        cameraShotBlock.getShot().getCollidesWith().forEach(e -> {
-                CameraShotBlock toReset = this.getShotBlockForShot((CameraShot) e);
-                if (toReset != null) {
-                    this.checkCollisions(
-                            toReset.getTimetableNumber(), toReset);
-                }
-            });
-        removeCollisionFromCameraShotBlock(cameraShotBlock);
+    public void setCameraShotBlocks(List<CameraShotBlock> cameraShotBlocks) {
+        this.cameraShotBlocks = cameraShotBlocks;
+        shotRegistry.clear();
+        cameraShotBlocks.forEach(shotBlock -> shotRegistry.register(
+                shotBlock.getShot(), shotBlock, shotBlock.getTimetableNumber()));
     }
+    
 
     /**
-     * Remove all collisions and from this shotblock.
-     * Removes the collisions from the counterpart in each collision as well
-     * @param shotBlock - the shotblock to remove the collisions from
+     * Recompute all collisions in one batch in the background, used after bulk changes.
+     * The shot blocks are updated on the FX thread once all timelines are done.
      */
-    protected void removeCollisionFromCameraShotBlock(CameraShotBlock shotBlock) {
-        ArrayList<Shot> toRemove = new ArrayList<>();
-        for (Shot shot : shotBlock.getShot().getCollidesWith()) {
-            toRemove.add(shot);
-            if (shot.getCollidesWith().contains(shotBlock.getShot())) {
-                shot.getCollidesWith().remove(shotBlock.getShot());
-            }
-        }
-        shotBlock.getShot().getCollidesWith().removeAll(toRemove);
+    public void recomputeCollisionsInBatch() {
+        BatchCollisionDetector.recompute(
+            controllerManager.getScriptingProject().getCameraTimelines(), () -> {
+                    cameraShotBlocks.forEach(shotBlock ->
+                            shotBlock.setColliding(shotBlock.getShot().isColliding()));
+                });
     }
 
     /**
@@ -377,6 +376,7 @@ public class TimelineController {
             directorShot.removeCameraShot(shot, timelineIndex);
 
             shot.setDirectorShot(null);
+            controllerManager.shotChanged(directorShot);
         }
     }
 
@@ -151,7 +151,7 @@ public class ToolViewController {
             double cameraStart = shot.getBeginCount() - shot.getFrontShotPadding();
             double cameraEnd = shot.getEndCount() + shot.getEndShotPadding();
 
-            shot.getTimelineIndices().forEach(index -> {
+            shot.forEachTimelineIndex(index -> {
                     CameraShot subShot = new CameraShot(
                                              new GeneralShotData(
                                                 shot.getName(), shot.getDescription(),
@@ -0,0 +1,869 @@
+package data;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Project codec for the binary project format. A file starts with the magic bytes, the
+ * version of the format and a directory with the offset and length of every section. The
+ * sections hold the parts of the project as primitives, the counts of the shots of a timeline
+ * as columns of ticks, and all strings as indices into a string table.
+ * Reading a file maps it into memory, and only the sections that are asked for are decoded.
+ * Strings are only decoded when a decoded section uses them.
+ */
+public class BinaryProjectCodec implements ProjectCodec {
+
+    // Extension of project files in the binary format.
+    public static final String EXTENSION = ".scpb";
+
+    // Version of the format that is written, files with a higher version can not be read.
+    public static final int VERSION = 3;
+
+    // First version that stores the instance of director shots.
+    private static final int DIRECTOR_INSTANCE_VERSION = 2;
+
+    // First version that stores the camera shots of director shots by their instance.
+    private static final int CAMERA_SHOT_REFERENCE_VERSION = 3;
+
+    // Bytes every file in the binary format starts with.
+    private static final byte[] MAGIC = {'S', 'C', 'P', 'B'};
+
+    // Bytes of the header: the magic bytes, the version and the number of sections.
+    private static final int HEADER_BYTES = MAGIC.length + 2 * Integer.BYTES;
+
+    // Bytes of a section in the directory: its id, offset and length.
+    private static final int DIRECTORY_ENTRY_BYTES = 3 * Integer.BYTES;
+
+    // Index of a null string, and count of a null collection.
+    private static final int NULL = -1;
+
+    /**
+     * The sections of a file, with the id they are stored with.
+     */
+    public enum Section {
+        STRINGS(1), PROJECT(2), CAMERA_TYPES(3), INSTRUMENTS(4), CAMERAS(5), USERS(6),
+        DIRECTOR_SHOTS(7), CAMERA_TIMELINES(8);
+
+        private final int id;
+
+        /**
+         * Section constructor.
+         * @param id the id the section is stored with
+         */
+        Section(int id) {
+            this.id = id;
+        }
+
+        /**
+         * Get the section stored with an id.
+         * @param id the id of the section
+         * @return the section, or null if the id is not known
+         */
+        private static Section of(int id) {
+            for (Section section : values()) {
+                if (section.id == id) {
+                    return section;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Check if a file is in the binary format, by its magic bytes.
+     * @param file the file to check
+     * @return true if the file starts with the magic bytes
+     */
+    public static boolean isBinary(File file) {
+        byte[] start = new byte[MAGIC.length];
+        try (InputStream in = new FileInputStream(file)) {
+            int read = 0;
+            while (read < start.length) {
+                int bytes = in.read(start, read, start.length - read);
+                if (bytes < 0) {
+                    return false;
+                }
+                read += bytes;
+            }
+            return Arrays.equals(MAGIC, start);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void write(ScriptingProject project, OutputStream out) throws IOException {
+        StringTable strings = new StringTable();
+        Map<Section, byte[]> sections = new EnumMap<>(Section.class);
+        sections.put(Section.PROJECT, encode(strings, o -> writeProject(o, project)));
+        sections.put(Section.CAMERA_TYPES, encode(strings, o -> writeList(o,
+            project.getCameraTypes(), BinaryProjectCodec::writeCameraType)));
+        sections.put(Section.INSTRUMENTS, encode(strings, o -> writeList(o,
+            project.getInstruments(), BinaryProjectCodec::writeInstrument)));
+        sections.put(Section.CAMERAS, encode(strings, o -> writeList(o,
+            project.getCameras(), BinaryProjectCodec::writeCamera)));
+        sections.put(Section.USERS, encode(strings, o -> writeList(o,
+            project.getUsers(), BinaryProjectCodec::writeUser)));
+        sections.put(Section.DIRECTOR_SHOTS, encode(strings, o -> writeDirectorShots(o,
+            project.getDirectorTimeline())));
+        sections.put(Section.CAMERA_TIMELINES, encode(strings, o -> writeList(o,
+            project.getCameraTimelines(), BinaryProjectCodec::writeCameraTimeline)));
+        sections.put(Section.STRINGS, strings.encode());
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.write(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(sections.size());
+        int offset = HEADER_BYTES + sections.size() * DIRECTORY_ENTRY_BYTES;
+        for (Map.Entry<Section, byte[]> section : sections.entrySet()) {
+            data.writeInt(section.getKey().id);
+            data.writeInt(offset);
+            data.writeInt(section.getValue().length);
+            offset += section.getValue().length;
+        }
+        for (byte[] section : sections.values()) {
+            data.write(section);
+        }
+        data.flush();
+    }
+
+    @Override
+    public ScriptingProject read(InputStream in) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] chunk = new byte[1 << Short.SIZE];
+        int read = in.read(chunk);
+        while (read >= 0) {
+            bytes.write(chunk, 0, read);
+            read = in.read(chunk);
+        }
+        return read(ByteBuffer.wrap(bytes.toByteArray()), EnumSet.allOf(Section.class));
+    }
+
+    @Override
+    public ScriptingProject read(File file) throws IOException {
+        return read(file, EnumSet.allOf(Section.class));
+    }
+
+    /**
+     * Read some sections of a project from a file. The file is read into a buffer on the heap
+     * and closed before decoding; a mapped buffer would keep the file locked on Windows until
+     * it is garbage collected, and the lazily decoded strings keep the buffer alive. The parts
+     * of the project in other sections keep the values of a new project.
+     * @param file the file to read from
+     * @param sections the sections to decode
+     * @return the project that was read
+     * @throws IOException when the file does not contain a valid project
+     */
+    public ScriptingProject read(File file, EnumSet<Section> sections) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Binary project is too large: " + size + " bytes");
+            }
+            buffer = ByteBuffer.allocate((int) size);
+            int read = 0;
+            while (read >= 0 && buffer.hasRemaining()) {
+                read = channel.read(buffer);
+            }
+        }
+        buffer.flip();
+        return read(buffer, sections);
+    }
+
+    /**
+     * Read some sections of a project from a buffer.
+     * @param buffer the buffer holding the whole file
+     * @param sections the sections to decode
+     * @return the project that was read
+     * @throws IOException when the buffer does not contain a valid project
+     */
+    private ScriptingProject read(ByteBuffer buffer, EnumSet<Section> sections)
+            throws IOException {
+        try {
+            Map<Section, ByteBuffer> directory = readDirectory(buffer);
+            int version = buffer.getInt(MAGIC.length);
+            LazyStrings strings = new LazyStrings(directory.get(Section.STRINGS));
+            ScriptingProject project = new ScriptingProject();
+            for (Section section : sections) {
+                ByteBuffer bytes = directory.get(section);
+                if (bytes != null) {
+                    SectionInput in = new SectionInput(bytes, strings, version);
+                    readSection(section, in, project);
+                }
+            }
+            return project;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException
+                | IllegalArgumentException | NegativeArraySizeException e) {
+            throw new IOException("Invalid binary project", e);
+        }
+    }
+
+    /**
+     * Read the header and the directory of the sections.
+     * @param buffer the buffer holding the whole file
+     * @return the contents of the known sections
+     * @throws IOException when the header is not valid
+     */
+    private static Map<Section, ByteBuffer> readDirectory(ByteBuffer buffer) throws IOException {
+        byte[] magic = new byte[MAGIC.length];
+        buffer.get(magic);
+        if (!Arrays.equals(MAGIC, magic)) {
+            throw new IOException("Not a binary project");
+        }
+        int version = buffer.getInt();
+        if (version > VERSION) {
+            throw new IOException("Unsupported binary project version " + version);
+        }
+        int count = buffer.getInt();
+        Map<Section, ByteBuffer> directory = new EnumMap<>(Section.class);
+        for (int i = 0; i < count; i++) {
+            Section section = Section.of(buffer.getInt());
+            int offset = buffer.getInt();
+            int length = buffer.getInt();
+            if (section != null) {
+                ByteBuffer bytes = buffer.duplicate();
+                bytes.limit(offset + length);
+                bytes.position(offset);
+                directory.put(section, bytes.slice());
+            }
+        }
+        return directory;
+    }
+
+    /**
+     * Decode a section into the project.
+     * @param section the section to decode
+     * @param in the contents of the section
+     * @param project the project to decode into
+     */
+    private static void readSection(Section section, SectionInput in, ScriptingProject project) {
+        switch (section) {
+            case PROJECT:
+                readProject(in, project);
+                break;
+            case CAMERA_TYPES:
+                project.setCameraTypes(readList(in, BinaryProjectCodec::readCameraType));
+                break;
+            case INSTRUMENTS:
+                project.setInstruments(readList(in, BinaryProjectCodec::readInstrument));
+                break;
+            case CAMERAS:
+                project.setCameras(readList(in, BinaryProjectCodec::readCamera));
+                break;
+            case USERS:
+                project.setUsers(readList(in, BinaryProjectCodec::readUser));
+                break;
+            case DIRECTOR_SHOTS:
+                readDirectorShots(in, project.getDirectorTimeline());
+                break;
+            case CAMERA_TIMELINES:
+                project.setCameraTimelines(readList(in, BinaryProjectCodec::readCameraTimeline));
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Encode a section.
+     * @param strings the string table of the file
+     * @param encoder the encoder of the section
+     * @return the contents of the section
+     * @throws IOException when encoding fails
+     */
+    private static byte[] encode(StringTable strings, SectionEncoder encoder) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        SectionOutput out = new SectionOutput(bytes, strings);
+        encoder.encode(out);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Write the top-level properties of a project.
+     * @param out the section to write to
+     * @param project the project to write
+     * @throws IOException when writing fails
+     */
+    private static void writeProject(SectionOutput out, ScriptingProject project)
+            throws IOException {
+        out.writeString(project.getName());
+        out.writeString(project.getDescription());
+        out.writeDouble(project.getSecondsPerCount());
+        out.writeString(project.getFilePath());
+        out.writeBoolean(project.isChanged());
+        out.writeBoolean(project.getDirectorTimeline() != null);
+        if (project.getDirectorTimeline() != null) {
+            out.writeString(project.getDirectorTimeline().getDescription());
+        }
+    }
+
+    /**
+     * Read the top-level properties of a project.
+     * @param in the section to read from
+     * @param project the project to read into
+     */
+    private static void readProject(SectionInput in, ScriptingProject project) {
+        project.setName(in.readString());
+        project.setDescription(in.readString());
+        project.setSecondsPerCount(in.readDouble());
+        project.setFilePath(in.readString());
+        project.setChanged(in.readBoolean());
+        if (in.readBoolean()) {
+            project.getDirectorTimeline().setDescription(in.readString());
+        } else {
+            project.setDirectorTimeline(null);
+        }
+    }
+
+    /**
+     * Write a camera type.
+     * @param out the section to write to
+     * @param type the camera type to write
+     * @throws IOException when writing fails
+     */
+    private static void writeCameraType(SectionOutput out, CameraType type) throws IOException {
+        out.writeString(type.getName());
+        out.writeString(type.getDescription());
+        out.writeDouble(type.getMovementMargin());
+    }
+
+    /**
+     * Read a camera type.
+     * @param in the section to read from
+     * @return the camera type
+     */
+    private static CameraType readCameraType(SectionInput in) {
+        return new CameraType(in.readString(), in.readString(), in.readDouble());
+    }
+
+    /**
+     * Write an instrument.
+     * @param out the section to write to
+     * @param instrument the instrument to write
+     * @throws IOException when writing fails
+     */
+    private static void writeInstrument(SectionOutput out, Instrument instrument)
+            throws IOException {
+        out.writeString(instrument.getName());
+        out.writeString(instrument.getDescription());
+    }
+
+    /**
+     * Read an instrument.
+     * @param in the section to read from
+     * @return the instrument
+     */
+    private static Instrument readInstrument(SectionInput in) {
+        return new Instrument(in.readString(), in.readString());
+    }
+
+    /**
+     * Write a camera.
+     * @param out the section to write to
+     * @param camera the camera to write
+     * @throws IOException when writing fails
+     */
+    private static void writeCamera(SectionOutput out, Camera camera) throws IOException {
+        out.writeInt(camera.getRemoteCameraId());
+        out.writeString(camera.getName());
+        out.writeString(camera.getDescription());
+        out.writeBoolean(camera.getCameraType() != null);
+        if (camera.getCameraType() != null) {
+            writeCameraType(out, camera.getCameraType());
+        }
+        out.writeString(camera.getIp());
+        out.writeDouble(camera.getStoredMovementMargin());
+        out.writeInt(camera.getInstance());
+    }
+
+    /**
+     * Read a camera.
+     * @param in the section to read from
+     * @return the camera
+     */
+    private static Camera readCamera(SectionInput in) {
+        Camera camera = new Camera();
+        camera.setRemoteCameraId(in.readInt());
+        camera.setName(in.readString());
+        camera.setDescription(in.readString());
+        if (in.readBoolean()) {
+            camera.setCameraType(readCameraType(in));
+        }
+        camera.setIp(in.readString());
+        camera.setMovementMargin(in.readDouble());
+        camera.setInstance(in.readInt());
+        return camera;
+    }
+
+    /**
+     * Write a user.
+     * @param out the section to write to
+     * @param user the user to write
+     * @throws IOException when writing fails
+     */
+    private static void writeUser(SectionOutput out, User user) throws IOException {
+        out.writeString(user.getName());
+        out.writeInt(user.getRoleValue());
+        writeList(out, user.getChosenTimelines(), (o, index) -> o.writeInt(index));
+    }
+
+    /**
+     * Read a user.
+     * @param in the section to read from
+     * @return the user
+     */
+    private static User readUser(SectionInput in) {
+        User user = new User();
+        user.setName(in.readString());
+        user.setRoleValue(in.readInt());
+        user.setChosenTimelines(readList(in, SectionInput::readInt));
+        return user;
+    }
+
+    /**
+     * Write the shots of the director timeline, their counts as columns and their camera shots
+     * by instance.
+     * @param out the section to write to
+     * @param timeline the director timeline, may be null
+     * @throws IOException when writing fails
+     */
+    private static void writeDirectorShots(SectionOutput out, DirectorTimeline timeline)
+            throws IOException {
+        if (timeline == null) {
+            out.writeInt(NULL);
+            return;
+        }
+        ShotColumns<DirectorShot> columns = timeline.getShots().columns();
+        out.writeInt(columns.size());
+        out.writeLongs(columns.getBegins());
+        out.writeLongs(columns.getEnds());
+        for (int i = 0; i < columns.size(); i++) {
+            DirectorShot shot = columns.getShot(i);
+            writeShotDetails(out, shot);
+            out.writeDouble(shot.getFrontShotPadding());
+            out.writeDouble(shot.getEndShotPadding());
+            out.writeInt(shot.getInstance());
+            writeList(out, shot.getTimelineIndices(), (o, index) -> o.writeInt(index));
+            writeList(out, shot.getCameraShots(), (o, cameraShot) ->
+                    o.writeInt(cameraShot.getInstance()));
+        }
+    }
+
+    /**
+     * Read the shots of the director timeline. Their camera shots are read as placeholders, or
+     * as copies from files written before camera shots were stored by reference.
+     * @param in the section to read from
+     * @param timeline the director timeline to read into, may be null
+     */
+    private static void readDirectorShots(SectionInput in, DirectorTimeline timeline) {
+        int count = in.readInt();
+        if (count == NULL || timeline == null) {
+            return;
+        }
+        long[] begins = in.readLongs(count);
+        long[] ends = in.readLongs(count);
+        List<DirectorShot> shots = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            DirectorShot shot = new DirectorShot();
+            shot.setBeginTicks(begins[i]);
+            shot.setEndTicks(ends[i]);
+            readShotDetails(in, shot);
+            shot.setFrontShotPadding(in.readDouble());
+            shot.setEndShotPadding(in.readDouble());
+            if (in.version >= DIRECTOR_INSTANCE_VERSION) {
+                shot.setInstance(in.readInt());
+            }
+            ArrayList<Integer> indices = readList(in, SectionInput::readInt);
+            if (indices != null) {
+                indices.forEach(shot::addCameraTimelineIndex);
+            }
+            ArrayList<CameraShot> cameraShots;
+            if (in.version >= CAMERA_SHOT_REFERENCE_VERSION) {
+                cameraShots = readList(in, r -> CameraShot.reference(r.readInt()));
+            } else {
+                cameraShots = readList(in, BinaryProjectCodec::readCameraShot);
+            }
+            if (cameraShots != null) {
+                cameraShots.forEach(shot::addCameraShot);
+            }
+            shots.add(shot);
+        }
+        timeline.setShots(shots);
+    }
+
+    /**
+     * Write a camera timeline, the counts of its shots as columns.
+     * @param out the section to write to
+     * @param timeline the timeline to write
+     * @throws IOException when writing fails
+     */
+    private static void writeCameraTimeline(SectionOutput out, CameraTimeline timeline)
+            throws IOException {
+        out.writeInt(timeline.getInstance());
+        out.writeBoolean(timeline.getCamera() != null);
+        if (timeline.getCamera() != null) {
+            writeCamera(out, timeline.getCamera());
+        }
+        ShotColumns<CameraShot> columns = timeline.getShots().columns();
+        out.writeInt(columns.size());
+        out.writeLongs(columns.getBegins());
+        out.writeLongs(columns.getEnds());
+        for (int instance : columns.getInstances()) {
+            out.writeInt(instance);
+        }
+        for (int i = 0; i < columns.size(); i++) {
+            out.writeInt(columns.getShot(i).getPresetId());
+        }
+        for (int i = 0; i < columns.size(); i++) {
+            writeShotDetails(out, columns.getShot(i));
+        }
+    }
+
+    /**
+     * Read a camera timeline.
+     * @param in the section to read from
+     * @return the timeline, not linked to a project yet
+     */
+    private static CameraTimeline readCameraTimeline(SectionInput in) {
+        CameraTimeline timeline = new CameraTimeline();
+        timeline.setInstance(in.readInt());
+        if (in.readBoolean()) {
+            timeline.setCamera(readCamera(in));
+        }
+        int count = in.readInt();
+        long[] begins = in.readLongs(count);
+        long[] ends = in.readLongs(count);
+        List<CameraShot> shots = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            CameraShot shot = new CameraShot();
+            shot.setBeginTicks(begins[i]);
+            shot.setEndTicks(ends[i]);
+            shot.setInstance(in.readInt());
+            shots.add(shot);
+        }
+        shots.forEach(shot -> shot.setPresetId(in.readInt()));
+        shots.forEach(shot -> readShotDetails(in, shot));
+        timeline.setShots(shots);
+        return timeline;
+    }
+
+    /**
+     * Read a copy of a camera shot of a director shot, from a file written before camera shots
+     * were stored by reference.
+     * @param in the section to read from
+     * @return the shot
+     */
+    private static CameraShot readCameraShot(SectionInput in) {
+        CameraShot shot = new CameraShot();
+        shot.setBeginTicks(in.readLong());
+        shot.setEndTicks(in.readLong());
+        shot.setInstance(in.readInt());
+        shot.setPresetId(in.readInt());
+        readShotDetails(in, shot);
+        return shot;
+    }
+
+    /**
+     * Write the properties all shots have, except for their counts.
+     * @param out the section to write to
+     * @param shot the shot to write
+     * @throws IOException when writing fails
+     */
+    private static void writeShotDetails(SectionOutput out, Shot shot) throws IOException {
+        out.writeString(shot.getName());
+        out.writeString(shot.getDescription());
+        out.writeBoolean(shot.isColliding());
+        writeList(out, shot.getInstruments(), BinaryProjectCodec::writeInstrument);
+    }
+
+    /**
+     * Read the properties all shots have, except for their counts.
+     * @param in the section to read from
+     * @param shot the shot to read into
+     */
+    private static void readShotDetails(SectionInput in, Shot shot) {
+        shot.setName(in.readString());
+        shot.setDescription(in.readString());
+        shot.setColliding(in.readBoolean());
+        shot.setInstruments(readList(in, BinaryProjectCodec::readInstrument));
+    }
+
+    /**
+     * Write a collection, prefixed with its size. Null is written as size -1.
+     * @param out the section to write to
+     * @param items the items to write
+     * @param writer the writer of a single item
+     * @param <T> the type of the items
+     * @throws IOException when writing fails
+     */
+    private static <T> void writeList(SectionOutput out, Collection<? extends T> items,
+                                      ItemWriter<T> writer) throws IOException {
+        if (items == null) {
+            out.writeInt(NULL);
+            return;
+        }
+        out.writeInt(items.size());
+        for (T item : items) {
+            writer.write(out, item);
+        }
+    }
+
+    /**
+     * Read a collection that was written with {@link #writeList}.
+     * @param in the section to read from
+     * @param reader the reader of a single item
+     * @param <T> the type of the items
+     * @return the items, or null if a null collection was written
+     */
+    private static <T> ArrayList<T> readList(SectionInput in, ItemReader<T> reader) {
+        int count = in.readInt();
+        if (count == NULL) {
+            return null;
+        }
+        ArrayList<T> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(reader.read(in));
+        }
+        return items;
+    }
+
+    /**
+     * Encodes the contents of a section.
+     */
+    @FunctionalInterface
+    private interface SectionEncoder {
+        /**
+         * Encode the section.
+         * @param out the section to write to
+         * @throws IOException when writing fails
+         */
+        void encode(SectionOutput out) throws IOException;
+    }
+
+    /**
+     * Writes a single item of a collection.
+     * @param <T> the type of the item
+     */
+    @FunctionalInterface
+    private interface ItemWriter<T> {
+        /**
+         * Write the item.
+         * @param out the section to write to
+         * @param item the item to write
+         * @throws IOException when writing fails
+         */
+        void write(SectionOutput out, T item) throws IOException;
+    }
+
+    /**
+     * Reads a single item of a collection.
+     * @param <T> the type of the item
+     */
+    @FunctionalInterface
+    private interface ItemReader<T> {
+        /**
+         * Read the item.
+         * @param in the section to read from
+         * @return the item
+         */
+        T read(SectionInput in);
+    }
+
+    /**
+     * Strings of a file being written, every distinct string is stored once.
+     */
+    private static final class StringTable {
+        private final Map<String, Integer> indices = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+
+        /**
+         * Get the index of a string, adding it to the table if it is new.
+         * @param string the string
+         * @return the index of the string, -1 for null
+         */
+        private int indexOf(String string) {
+            if (string == null) {
+                return NULL;
+            }
+            return indices.computeIfAbsent(string, s -> {
+                    strings.add(s);
+                    return strings.size() - 1;
+                });
+        }
+
+        /**
+         * Encode the strings section: the number of strings, then every string as its length
+         * in bytes followed by its bytes in UTF-8.
+         * @return the contents of the section
+         * @throws IOException when encoding fails
+         */
+        private byte[] encode() throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(strings.size());
+            for (String string : strings) {
+                byte[] utf = string.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(utf.length);
+                out.write(utf);
+            }
+            out.flush();
+            return bytes.toByteArray();
+        }
+    }
+
+    /**
+     * Strings of a file being read. The positions of the strings are found up front, the
+     * strings themselves are decoded when they are first used.
+     */
+    private static final class LazyStrings {
+        private final ByteBuffer bytes;
+        private final int[] positions;
+        private final String[] strings;
+
+        /**
+         * Constructor.
+         * @param bytes the contents of the strings section, null if there is none
+         */
+        private LazyStrings(ByteBuffer bytes) {
+            this.bytes = bytes == null ? ByteBuffer.allocate(Integer.BYTES) : bytes;
+            int count = this.bytes.getInt();
+            this.positions = new int[count];
+            this.strings = new String[count];
+            for (int i = 0; i < count; i++) {
+                positions[i] = this.bytes.position();
+                int length = this.bytes.getInt();
+                this.bytes.position(this.bytes.position() + length);
+            }
+        }
+
+        /**
+         * Get a string from the table.
+         * @param index the index of the string
+         * @return the string, null for index -1
+         */
+        private String get(int index) {
+            if (index == NULL) {
+                return null;
+            }
+            if (strings[index] == null) {
+                int length = bytes.getInt(positions[index]);
+                byte[] utf = new byte[length];
+                ByteBuffer string = bytes.duplicate();
+                string.position(positions[index] + Integer.BYTES);
+                string.get(utf);
+                strings[index] = new String(utf, StandardCharsets.UTF_8);
+            }
+            return strings[index];
+        }
+    }
+
+    /**
+     * Output of a section, which stores strings as indices into the string table.
+     */
+    private static final class SectionOutput extends DataOutputStream {
+        private final StringTable strings;
+
+        /**
+         * Constructor.
+         * @param out the stream to write the section to
+         * @param strings the string table of the file
+         */
+        private SectionOutput(OutputStream out, StringTable strings) {
+            super(out);
+            this.strings = strings;
+        }
+
+        /**
+         * Write a string as its index in the string table.
+         * @param string the string to write, may be null
+         * @throws IOException when writing fails
+         */
+        private void writeString(String string) throws IOException {
+            writeInt(strings.indexOf(string));
+        }
+
+        /**
+         * Write a column of longs, without its length.
+         * @param values the values to write
+         * @throws IOException when writing fails
+         */
+        private void writeLongs(long[] values) throws IOException {
+            for (long value : values) {
+                writeLong(value);
+            }
+        }
+    }
+
+    /**
+     * Input of a section, reading strings through the string table.
+     */
+    private static final class SectionInput {
+        private final ByteBuffer bytes;
+        private final LazyStrings strings;
+        private final int version;
+
+        /**
+         * Constructor.
+         * @param bytes the contents of the section
+         * @param strings the string table of the file
+         * @param version the version of the file
+         */
+        private SectionInput(ByteBuffer bytes, LazyStrings strings, int version) {
+            this.bytes = bytes;
+            this.strings = strings;
+            this.version = version;
+        }
+
+        private int readInt() {
+            return bytes.getInt();
+        }
+
+        private long readLong() {
+            return bytes.getLong();
+        }
+
+        private double readDouble() {
+            return bytes.getDouble();
+        }
+
+        private boolean readBoolean() {
+            return bytes.get() != 0;
+        }
+
+        private String readString() {
+            return strings.get(bytes.getInt());
+        }
+
+        /**
+         * Read a column of longs.
+         * @param count the number of values in the column
+         * @return the values
+         */
+        private long[] readLongs(int count) {
+            long[] values = new long[count];
+            bytes.asLongBuffer().get(values);
+            bytes.position(bytes.position() + count * Long.BYTES);
+            return values;
+        }
+    }
+}
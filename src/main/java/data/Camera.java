@@ -8,6 +8,7 @@ import lombok.extern.log4j.Log4j2;
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
 
 /**
  * Class to store information about cameras.
@@ -29,8 +30,9 @@ public class Camera implements Cloneable {
     @Getter @Setter
     private String description;
 
-    // Type of this camera
+    // Type of this camera, one of the camera types of the project, stored by reference
     @Getter @Setter
+    @XmlJavaTypeAdapter(CameraTypeReferenceAdapter.class)
     private CameraType cameraType;
     
     @Getter @Setter
@@ -75,6 +77,22 @@ public class Camera implements Cloneable {
         this.remoteCameraId = -1;
     }
     
+    /**
+     * Copy constructor for a snapshot of the project. The copy keeps the instance of the
+     * camera instead of taking a new one.
+     * @param camera the camera to copy
+     * @param cameraType the copy of the camera type of the camera
+     */
+    Camera(Camera camera, CameraType cameraType) {
+        this.remoteCameraId = camera.remoteCameraId;
+        this.name = camera.name;
+        this.description = camera.description;
+        this.cameraType = cameraType;
+        this.ip = camera.ip;
+        this.movementMargin = camera.movementMargin;
+        this.instance = camera.instance;
+    }
+
     @Override
     public Camera clone() {
         try {
@@ -82,7 +100,8 @@ public class Camera implements Cloneable {
         } catch (CloneNotSupportedException e) {
             e.printStackTrace();
         }
-        Camera camera = new Camera(name, description, cameraType.clone());
+        // Camera types are shared, the clone has the same camera type
+        Camera camera = new Camera(name, description, cameraType);
         camera.setInstance(this.getInstance());
         camera.setIp(getIp());
         camera.setRemoteCameraId(getRemoteCameraId());
@@ -103,6 +122,14 @@ public class Camera implements Cloneable {
         return movementMargin;
     }
 
+    /**
+     * Get the movement margin as it is stored, without falling back to the camera type.
+     * @return the movement margin, negative if the margin of the camera type is used
+     */
+    double getStoredMovementMargin() {
+        return movementMargin;
+    }
+
     /**
      * Reset the movementMargin overwrite.
      * This means the default value in the camera type is used
@@ -125,7 +152,9 @@ public class Camera implements Cloneable {
     public int hashCode() {
         final int prime = 31;
         int result = 1;
-        result = prime * result + ((cameraType == null) ? 0 : cameraType.hashCode());
+        // Camera types are compared by identity, their name keeps the hash the same across runs
+        result = prime * result + ((cameraType == null || cameraType.getName() == null)
+                ? 0 : cameraType.getName().hashCode());
         result = prime * result + ((description == null) ? 0 : description.hashCode());
         result = prime * result + ((ip == null) ? 0 : ip.hashCode());
         long temp;
@@ -160,8 +189,7 @@ public class Camera implements Cloneable {
                 || (description == null && camera.description != null)) {
             return false;
         }
-        if ((cameraType != null && !cameraType.equals(camera.cameraType))
-                || (cameraType == null && camera.cameraType != null)) {
+        if (cameraType != camera.cameraType) {
             return false;
         }
         if (ip != null) {
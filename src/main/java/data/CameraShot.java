@@ -43,6 +43,18 @@ public class CameraShot extends Shot implements Cloneable {
         CameraShot.incrementCounter();
     }
 
+    /**
+     * Copy constructor for a snapshot of the project. The copy keeps the instance of the
+     * shot instead of taking a new one, the snapshot sets its counts, instruments and
+     * director shot.
+     * @param shot the shot to copy
+     */
+    CameraShot(CameraShot shot) {
+        super(shot.getName(), shot.getDescription(), 0, 0);
+        this.instance = shot.instance;
+        this.presetId = shot.presetId;
+    }
+
     /**
      * The constructor for the Shot.
      * @param shotData the shot data
@@ -82,6 +94,19 @@ public class CameraShot extends Shot implements Cloneable {
         return result;
     }
 
+    /**
+     * Create a placeholder for a camera shot that is stored by reference. The placeholder only
+     * has the instance of the shot, linking the project replaces it by the shot itself.
+     * @param instance the instance of the referenced shot
+     * @return the placeholder
+     * @see ScriptingProject#linkDirectorShots()
+     */
+    public static CameraShot reference(int instance) {
+        CameraShot shot = new CameraShot();
+        shot.setInstance(instance);
+        return shot;
+    }
+
     /**
      * Static method to increment the instance counter.
      */
@@ -0,0 +1,22 @@
+package data;
+
+import javax.xml.bind.annotation.adapters.XmlAdapter;
+
+/**
+ * Maps the camera shots of a director shot to their instance in xml. The shots themselves are
+ * stored on the camera timelines, a reference is read as a placeholder until the project is
+ * linked.
+ * @see ScriptingProject#linkDirectorShots()
+ */
+public class CameraShotReferenceAdapter extends XmlAdapter<Integer, CameraShot> {
+
+    @Override
+    public CameraShot unmarshal(Integer instance) {
+        return instance == null ? null : CameraShot.reference(instance);
+    }
+
+    @Override
+    public Integer marshal(CameraShot shot) {
+        return shot == null ? null : shot.getInstance();
+    }
+}
@@ -0,0 +1,142 @@
+package data;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Set of the camera shots of a director shot, kept in a small array in the order they were
+ * added. A director shot has a camera shot for a handful of cameras at most, so looking a shot
+ * up by its instance number in the array is cheaper than hashing it. Unlike a hash set, the set
+ * does not depend on the hash code of a camera shot, which changes with its director shot.
+ */
+public class CameraShotSet extends AbstractSet<CameraShot> {
+
+    // Shared array of the empty set, no array is allocated until the first shot is added.
+    private static final CameraShot[] EMPTY = new CameraShot[0];
+
+    // Capacity of the array when the first shot is added.
+    private static final int INITIAL_CAPACITY = 2;
+
+    // The shots in the set, the first size slots are used.
+    private CameraShot[] shots;
+
+    // Number of shots in the set.
+    private int size;
+
+    /**
+     * Constructor for an empty set.
+     */
+    public CameraShotSet() {
+        this.shots = EMPTY;
+        this.size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean add(CameraShot shot) {
+        if (indexOf(shot.getInstance()) >= 0) {
+            return false;
+        }
+        if (size == shots.length) {
+            shots = Arrays.copyOf(shots, Math.max(INITIAL_CAPACITY, size * 2));
+        }
+        shots[size] = shot;
+        size++;
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object object) {
+        return object instanceof CameraShot && indexOf(((CameraShot) object).getInstance()) >= 0;
+    }
+
+    @Override
+    public boolean remove(Object object) {
+        if (!(object instanceof CameraShot)) {
+            return false;
+        }
+        int index = indexOf(((CameraShot) object).getInstance());
+        if (index < 0) {
+            return false;
+        }
+        size--;
+        System.arraycopy(shots, index + 1, shots, index, size - index);
+        shots[size] = null;
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        shots = EMPTY;
+        size = 0;
+    }
+
+    /**
+     * Runs the action for every shot in a copy of the array, so the action may change the set.
+     * @param action the action to run for every shot
+     */
+    @Override
+    public void forEach(Consumer<? super CameraShot> action) {
+        for (CameraShot shot : Arrays.copyOf(shots, size)) {
+            action.accept(shot);
+        }
+    }
+
+    /**
+     * Iterates over a copy of the array, so the set may be changed while iterating.
+     * @return an iterator over the shots in the order they were added
+     */
+    @Override
+    public Iterator<CameraShot> iterator() {
+        CameraShot[] copy = Arrays.copyOf(shots, size);
+        return new Iterator<CameraShot>() {
+            private int next = 0;
+            private CameraShot last;
+
+            @Override
+            public boolean hasNext() {
+                return next < copy.length;
+            }
+
+            @Override
+            public CameraShot next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                last = copy[next];
+                next++;
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) {
+                    throw new IllegalStateException();
+                }
+                CameraShotSet.this.remove(last);
+                last = null;
+            }
+        };
+    }
+
+    /**
+     * Find a shot in the array, camera shots are equal when their instance numbers are.
+     * @param instance the instance number of the shot
+     * @return the index of the shot in the array, -1 if it is not in the set
+     */
+    private int indexOf(int instance) {
+        for (int i = 0; i < size; i++) {
+            if (shots[i].getInstance() == instance) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
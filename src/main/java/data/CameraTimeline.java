@@ -7,18 +7,21 @@ import lombok.ToString;
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
 import javax.xml.bind.annotation.XmlElementWrapper;
 import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlTransient;
 import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.stream.Collectors;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Class to store information about a camera timeline.
  */
 @XmlRootElement(name = "cameraTimeline")
 @XmlAccessorType(XmlAccessType.FIELD)   
-@ToString
+@ToString(exclude = "shotList")
 public class CameraTimeline extends Timeline implements Cloneable {
 
     // The camera that is associated with this timeline.
@@ -26,17 +29,21 @@ public class CameraTimeline extends Timeline implements Cloneable {
     private Camera camera;
     
     // Collection of all Shot elements in this Timeline.
+    @XmlTransient
+    @Getter
+    private ShotIndex<CameraShot> shots;
+
+    // The shots as written to and read from file, only set while (un)marshalling.
     @XmlElementWrapper(name = "shotList")
     @XmlElement(name = "shot")
-    @Getter @Setter
-    private LinkedList<CameraShot> shots;
+    private ArrayList<CameraShot> shotList;
 
     // Counter that ensures no timelines with duplicate numbers will be created.
     @Getter
     private static int instanceCounter = 0;
 
     // The instancenumber of the timeline.
-    @Getter
+    @Getter @Setter
     private int instance;
     
     /**
@@ -45,7 +52,7 @@ public class CameraTimeline extends Timeline implements Cloneable {
     public CameraTimeline() {
         super(null);
         camera = null;
-        shots = null;
+        shots = new ShotIndex<>();
     }
 
     /**
@@ -59,9 +66,32 @@ public class CameraTimeline extends Timeline implements Cloneable {
         this.camera = camera;
         this.instance = CameraTimeline.getInstanceCounter();
         CameraTimeline.incrementCounter();
-        shots = new LinkedList<>();
+        shots = new ShotIndex<>();
     }
     
+    /**
+     * Copy constructor for a snapshot of the project. The copy keeps the instance of the
+     * timeline instead of taking a new one.
+     * @param timeline the timeline to copy
+     * @param camera the copy of the camera of the timeline
+     * @param project the snapshot that contains the copy
+     * @param shots the copies of the shots of the timeline
+     */
+    CameraTimeline(CameraTimeline timeline, Camera camera, ScriptingProject project,
+                   Collection<CameraShot> shots) {
+        super(project);
+        this.camera = camera;
+        this.instance = timeline.instance;
+        this.shots = new ShotIndex<>(shots);
+    }
+
+    /**
+     * Copy this timeline with a fresh index of the same shots. The shots report their count
+     * changes to the index of the copy from then on, so the index of this timeline has to
+     * {@link ShotIndex#track() track} them again if the copy is dropped.
+     *
+     * @return the copy of this timeline
+     */
     @Override
     public CameraTimeline clone() {
         try {
@@ -70,7 +100,7 @@ public class CameraTimeline extends Timeline implements Cloneable {
             e.printStackTrace();
         }
         CameraTimeline timeline = new CameraTimeline(camera.clone(), getProject());
-        timeline.shots = (LinkedList) shots.clone();
+        timeline.shots = new ShotIndex<>(shots);
         return timeline;
     }
 
@@ -104,19 +134,7 @@ public class CameraTimeline extends Timeline implements Cloneable {
        shots are found, the shot that was added will be the last one in the list.
      */
     public ArrayList<CameraShot> addShot(CameraShot shot) {
-        boolean added = false;
-
-        // Add the new Shot the the shots
-        for (int i = 0; i < shots.size(); i++) {
-            CameraShot other = shots.get(i);
-            if (!added && shot.compareTo(other) <= 0) {
-                shots.add(i, shot);
-                added = true; 
-            }
-        }
-        if (!added) {
-            shots.add(shot);
-        }
+        shots.add(shot);
         return getOverlappingShots(shot);
     }
 
@@ -126,15 +144,28 @@ public class CameraTimeline extends Timeline implements Cloneable {
      * @return - only the shot when no overlap, list of colliding shots otherwise
      */
     public ArrayList<CameraShot> getOverlappingShots(CameraShot shot) {
-        ArrayList<CameraShot> result = new ArrayList<>();
+        return findOverlappingShots(shots, shot, getCollisionMargin());
+    }
 
-        // check for colliding shots
-        result.addAll(shots.stream()
-                .filter(other -> shot != other)
-                .filter(other -> checkOverlap(shot, other, camera.getMovementMargin()))
-                .collect(Collectors.toList()));
-        result.add(shot);
-        return result;
+    @Override
+    public double getCollisionMargin() {
+        return camera.getMovementMargin();
+    }
+
+    @Override
+    public ArrayList<CameraShot> updateCollisions(Shot shot) {
+        return getOverlappingShots((CameraShot) shot);
+    }
+
+    /**
+     * Replace all shots in the Timeline.
+     * @param shots the new shots of this Timeline
+     */
+    public void setShots(List<CameraShot> shots) {
+        if (this.shots != null) {
+            this.shots.clear();
+        }
+        this.shots = new ShotIndex<>(shots);
     }
 
     /**
@@ -152,6 +183,36 @@ public class CameraTimeline extends Timeline implements Cloneable {
         shots.remove(shot);
     }
 
+    /**
+     * Copy the shots to the list that is written to file.
+     * @param marshaller the marshaller writing this timeline
+     * @return always true
+     */
+    boolean beforeMarshal(Marshaller marshaller) {
+        shotList = new ArrayList<>(shots);
+        return true;
+    }
+
+    /**
+     * Release the list that was written to file.
+     * @param marshaller the marshaller writing this timeline
+     */
+    void afterMarshal(Marshaller marshaller) {
+        shotList = null;
+    }
+
+    /**
+     * Build the index from the shots that were read from file.
+     * @param unmarshaller the unmarshaller reading this timeline
+     * @param parent the object containing this timeline
+     */
+    void afterUnmarshal(Unmarshaller unmarshaller, Object parent) {
+        if (shotList != null) {
+            setShots(shotList);
+        }
+        shotList = null;
+    }
+
     /**
      * Static method to increment the instance counter.
      */
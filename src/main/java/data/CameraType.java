@@ -8,9 +8,10 @@ import lombok.extern.log4j.Log4j2;
 import javax.xml.bind.annotation.XmlRootElement;
 
 /**
- * Class that represents a camera type.
+ * Class that represents a camera type. A project holds one instance of every camera type and
+ * its cameras share these instances, so camera types are compared by identity.
  */
-@ToString
+@ToString(exclude = "reference")
 @XmlRootElement(name = "cameraType")
 @Log4j2
 public class CameraType implements Cloneable {
@@ -28,6 +29,9 @@ public class CameraType implements Cloneable {
      * Defined in seconds */
     @Getter @Setter
     private double movementMargin;
+
+    // Index of the camera type in the project if this is a placeholder for it, -1 otherwise.
+    private transient int reference = -1;
     
     /**
      * Default constructor.
@@ -50,6 +54,27 @@ public class CameraType implements Cloneable {
             name, description, movementMargin);
     }
     
+    /**
+     * Create a placeholder for a camera type that is stored by reference. Interning the
+     * references of the project replaces it by the camera type itself.
+     * @param index the index of the camera type in the project
+     * @return the placeholder
+     * @see ScriptingProject#internReferences()
+     */
+    static CameraType reference(int index) {
+        CameraType type = new CameraType(null, null, -1);
+        type.reference = index;
+        return type;
+    }
+
+    /**
+     * Get the index of the camera type this placeholder refers to.
+     * @return the index in the project, -1 if this is not a placeholder
+     */
+    int getReference() {
+        return reference;
+    }
+
     /**
      * Clone this camera type.
      * @return A clone of this camera type
@@ -63,44 +88,4 @@ public class CameraType implements Cloneable {
         CameraType type = new CameraType(name, description, movementMargin);
         return type;
     }
-
-    /* (non-Javadoc)
-     * @see java.lang.Object#hashCode()
-     */
-    @Override
-    public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + ((description == null) ? 0 : description.hashCode());
-        long temp;
-        temp = Double.doubleToLongBits(movementMargin);
-        result = prime * result + (int) (temp ^ (temp >>> Integer.SIZE));
-        result = prime * result + ((name == null) ? 0 : name.hashCode());
-        return result;
-    }
-
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) {
-            return true;
-        }
-        if (o == null || !(o instanceof CameraType)) {
-            return false;
-        }
-
-        CameraType that = (CameraType) o;
-
-        if (Double.compare(that.getMovementMargin(), getMovementMargin()) != 0) {
-            return false;
-        }
-        if ((getName() != null && !getName().equals(that.getName()))
-                || (getName() == null && that.getName() != null)) {
-            return false;
-        }
-        if (getDescription() != null) {
-            return getDescription().equals(that.getDescription());
-        } else {
-            return that.getDescription() == null;
-        }
-    }
 }
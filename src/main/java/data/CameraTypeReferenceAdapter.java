@@ -0,0 +1,96 @@
+package data;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlType;
+import javax.xml.bind.annotation.adapters.XmlAdapter;
+
+/**
+ * Maps the camera type of a camera to its index in the camera types of the project in xml.
+ * A camera type that is not in the project is written as a copy. A reference is read as a
+ * placeholder until the references of the project are interned.
+ * @see ScriptingProject#internReferences()
+ */
+public class CameraTypeReferenceAdapter
+        extends XmlAdapter<CameraTypeReferenceAdapter.Element, CameraType> {
+
+    // Index of every camera type of the project that is written.
+    private final Map<CameraType, Integer> indices;
+
+    /**
+     * Constructor for reading, every camera type is written as a copy.
+     */
+    public CameraTypeReferenceAdapter() {
+        this(Collections.emptyList());
+    }
+
+    /**
+     * Constructor.
+     * @param types the camera types of the project that is written, may be null
+     */
+    public CameraTypeReferenceAdapter(List<CameraType> types) {
+        this.indices = new IdentityHashMap<>();
+        if (types != null) {
+            for (int i = 0; i < types.size(); i++) {
+                indices.putIfAbsent(types.get(i), i);
+            }
+        }
+    }
+
+    @Override
+    public CameraType unmarshal(Element element) {
+        if (element == null) {
+            return null;
+        } else if (element.ref != null) {
+            return CameraType.reference(element.ref);
+        }
+        CameraType type = new CameraType();
+        if (element.name != null) {
+            type.setName(element.name);
+        }
+        if (element.description != null) {
+            type.setDescription(element.description);
+        }
+        if (element.movementMargin != null) {
+            type.setMovementMargin(element.movementMargin);
+        }
+        return type;
+    }
+
+    @Override
+    public Element marshal(CameraType type) {
+        if (type == null) {
+            return null;
+        }
+        Element element = new Element();
+        element.ref = indices.get(type);
+        if (element.ref == null && type.getReference() >= 0) {
+            // A placeholder that was not interned keeps its reference
+            element.ref = type.getReference();
+        }
+        if (element.ref == null) {
+            element.name = type.getName();
+            element.description = type.getDescription();
+            element.movementMargin = type.getMovementMargin();
+        }
+        return element;
+    }
+
+    /**
+     * A camera type as it is stored in a camera, either a reference or a copy.
+     */
+    @XmlAccessorType(XmlAccessType.FIELD)
+    @XmlType(name = "cameraTypeReference",
+            propOrder = {"description", "movementMargin", "name", "ref"})
+    public static class Element {
+        private String description;
+        private Double movementMargin;
+        private String name;
+        private Integer ref;
+    }
+}
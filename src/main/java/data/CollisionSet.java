@@ -0,0 +1,100 @@
+package data;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Set of the shots a shot collides with, keyed on the instance number of the shots. The
+ * shots are kept in an {@link InstanceTable}, so adding, removing and looking up a shot takes
+ * constant time and does not allocate once the table is big enough.
+ * Only shots of the same kind may be added, as their instance numbers have to be unique.
+ */
+public class CollisionSet extends AbstractSet<Shot> {
+
+    // Capacity of the table when the first shot is added, must be a power of two.
+    private static final int INITIAL_CAPACITY = 4;
+
+    // The shots in the set, by their instance number.
+    private final InstanceTable<Shot> shots;
+
+    /**
+     * Constructor. No table is allocated until the first shot is added.
+     */
+    public CollisionSet() {
+        this.shots = new InstanceTable<>(INITIAL_CAPACITY);
+    }
+
+    @Override
+    public int size() {
+        return shots.size();
+    }
+
+    @Override
+    public boolean add(Shot shot) {
+        if (shots.get(shot.getInstance()) != null) {
+            return false;
+        }
+        shots.put(shot.getInstance(), shot);
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object object) {
+        return object instanceof Shot && shots.get(((Shot) object).getInstance()) != null;
+    }
+
+    @Override
+    public boolean remove(Object object) {
+        return object instanceof Shot && shots.remove(((Shot) object).getInstance()) != null;
+    }
+
+    @Override
+    public void clear() {
+        shots.clear();
+    }
+
+    /**
+     * Runs the action for every shot in the set. The action may change the set, the shots that
+     * were in the set when this was called are visited.
+     * @param action the action to run for every shot
+     */
+    @Override
+    public void forEach(Consumer<? super Shot> action) {
+        shots.forEach(action);
+    }
+
+    /**
+     * Iterates over the set. The set may be changed while iterating, the shots that were in
+     * the set when this was called are returned. Prefer {@link #forEach(Consumer)}, the first
+     * change after an iterator was handed out copies the table.
+     * @return an iterator over the shots in the set
+     */
+    @Override
+    public Iterator<Shot> iterator() {
+        Iterator<Shot> copy = shots.iterator();
+        return new Iterator<Shot>() {
+            private Shot last;
+
+            @Override
+            public boolean hasNext() {
+                return copy.hasNext();
+            }
+
+            @Override
+            public Shot next() {
+                last = copy.next();
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) {
+                    throw new IllegalStateException();
+                }
+                CollisionSet.this.remove(last);
+                last = null;
+            }
+        };
+    }
+}
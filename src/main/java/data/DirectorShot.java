@@ -6,10 +6,11 @@ import lombok.ToString;
 import lombok.extern.log4j.Log4j2;
 
 import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntConsumer;
 
 
 /**
@@ -24,11 +25,11 @@ public class DirectorShot extends Shot {
     @Setter @Getter
     private static int instanceCounter = 0;
 
-    @Getter @Setter
-    private Set<Integer> timelineIndices;
+    // The camera timelines this shot uses, as a bit mask.
+    private final TimelineIndexSet timelineIndices;
 
-    @Getter @Setter
-    private Set<CameraShot> cameraShots;
+    // The camera shots of this shot, stored by reference as they are on the camera timelines.
+    private final CameraShotSet cameraShots;
 
     // Additional time to film before the real shot starts
     @Getter
@@ -40,8 +41,9 @@ public class DirectorShot extends Shot {
     @Setter
     private double endShotPadding = 0.0;
     
- // The instancenumber of the Shot.
-    @Getter
+    // The instancenumber of the Shot. Saved as the instance element of the shot, because the
+    // journal refers to director shots by it. Older files without it get a new number.
+    @Getter @Setter
     private int instance;
 
     /**
@@ -64,18 +66,73 @@ public class DirectorShot extends Shot {
                 shotData.getStartCount(), shotData.getEndCount());
         this.frontShotPadding = frontShotPadding;
         this.endShotPadding = endShotPadding;
-        this.timelineIndices = ConcurrentHashMap.newKeySet();
+        this.timelineIndices = new TimelineIndexSet();
         this.timelineIndices.addAll(cameras);
-        this.cameraShots = ConcurrentHashMap.newKeySet();
+        this.cameraShots = new CameraShotSet();
         this.instance = instanceCounter;
         log.debug("Created new DirectorShot");
         DirectorShot.incrementCounter();
     }
 
+    /**
+     * Copy constructor for a snapshot of the project. The copy keeps the instance of the
+     * shot instead of taking a new one, the snapshot sets its counts, instruments and
+     * camera shots.
+     * @param shot the shot to copy
+     */
+    DirectorShot(DirectorShot shot) {
+        super(shot.getName(), shot.getDescription(), 0, 0);
+        this.frontShotPadding = shot.frontShotPadding;
+        this.endShotPadding = shot.endShotPadding;
+        this.timelineIndices = new TimelineIndexSet();
+        this.timelineIndices.addAll(shot.timelineIndices);
+        this.cameraShots = new CameraShotSet();
+        this.instance = shot.instance;
+    }
+
     public static void incrementCounter() {
         instanceCounter++;
     }
 
+    public Set<Integer> getTimelineIndices() {
+        return timelineIndices;
+    }
+
+    /**
+     * Set the camera timelines this shot uses.
+     * @param timelineIndices the indices of the timelines, copied into this shot
+     */
+    public void setTimelineIndices(Set<Integer> timelineIndices) {
+        if (timelineIndices != this.timelineIndices) {
+            this.timelineIndices.clear();
+            this.timelineIndices.addAll(timelineIndices);
+        }
+    }
+
+    /**
+     * Run an action for the index of every camera timeline this shot uses, in increasing order.
+     * @param action the action to run for every index
+     */
+    public void forEachTimelineIndex(IntConsumer action) {
+        timelineIndices.forEachIndex(action);
+    }
+
+    @XmlJavaTypeAdapter(CameraShotReferenceAdapter.class)
+    public Set<CameraShot> getCameraShots() {
+        return cameraShots;
+    }
+
+    /**
+     * Set the camera shots of this shot.
+     * @param cameraShots the camera shots, copied into this shot
+     */
+    public void setCameraShots(Set<CameraShot> cameraShots) {
+        if (cameraShots != this.cameraShots) {
+            this.cameraShots.clear();
+            this.cameraShots.addAll(cameraShots);
+        }
+    }
+
     /**
      * Add a camera timeline index (but not an actual shot).
      * @param index timeline index to add
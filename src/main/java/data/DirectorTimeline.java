@@ -1,12 +1,14 @@
 package data;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.stream.Collectors;
+import java.util.List;
 
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlElementWrapper;
 import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlTransient;
 
 import lombok.Getter;
 import lombok.Setter;
@@ -16,14 +18,16 @@ import lombok.ToString;
  * Class to store information about a directors timeline.
  */
 @XmlRootElement(name = "directorTimeline")
-@ToString
+@ToString(exclude = "shotList")
 public class DirectorTimeline extends Timeline {
 
     // Collection of all Shot elements in this Timeline.
-    @Getter
+    private ShotIndex<DirectorShot> shots;
+
+    // The shots as written to and read from file, only set while (un)marshalling.
     @XmlElementWrapper(name = "shotList")
     @XmlElement(name = "shot")
-    private LinkedList<DirectorShot> shots;
+    private ArrayList<DirectorShot> shotList;
     
     @Getter @Setter
     private String description;
@@ -34,7 +38,7 @@ public class DirectorTimeline extends Timeline {
     public DirectorTimeline() {
         super();
         description = "";
-        shots = null;
+        shots = new ShotIndex<>();
     }
 
     /**
@@ -46,7 +50,7 @@ public class DirectorTimeline extends Timeline {
     public DirectorTimeline(String description, ScriptingProject project) {
         super(project);
         this.description = description;
-        shots = new LinkedList<>();
+        shots = new ShotIndex<>();
     }
 
     /**
@@ -62,25 +66,17 @@ public class DirectorTimeline extends Timeline {
        shots are found, the shot that was added will be the last one in the list.
      */
     public ArrayList<DirectorShot> addShot(DirectorShot shot) {
-        ArrayList<DirectorShot> result = new ArrayList<>();
-        boolean added = false;
-
-        // Add the new Shot the the shots
-        for (int i = 0; i < shots.size(); i++) {
-            DirectorShot other = shots.get(i);
-            if (!added && shot.compareTo(other) <= 0) {
-                shots.add(i, shot);
-                added = true;
-            }
-            if (checkOverlap(shot, other, 0)) {
-                result.add(other);
-            }
-        }
-        if (!added) {
-            shots.add(shot);
-        }
-        result.add(shot);
-        return result;
+        shots.add(shot);
+        return getOverlappingShots(shot);
+    }
+
+    /**
+     * Replace all shots in the Timeline.
+     * @param shots the new shots of this Timeline
+     */
+    public void setShots(List<DirectorShot> shots) {
+        this.shots.clear();
+        this.shots = new ShotIndex<>(shots);
     }
 
     /**
@@ -104,14 +100,55 @@ public class DirectorTimeline extends Timeline {
      * @return - only the shot when no overlap, list of colliding shots otherwise
      */
     public ArrayList<DirectorShot> getOverlappingShots(DirectorShot shot) {
-        ArrayList<DirectorShot> result = new ArrayList<>();
-
-        // check for colliding shots
-        result.addAll(shots.stream()
-                .filter(other -> shot != other)
-                .filter(other -> checkOverlap(shot, other, 0))
-                .collect(Collectors.toList()));
-        result.add(shot);
-        return result;
+        return findOverlappingShots(shots, shot, 0);
+    }
+
+    @Override
+    @XmlTransient
+    public double getCollisionMargin() {
+        return 0;
+    }
+
+    @Override
+    public ArrayList<DirectorShot> updateCollisions(Shot shot) {
+        return getOverlappingShots((DirectorShot) shot);
+    }
+
+    /**
+     * Get the shots in this timeline.
+     * @return the shots, sorted on begin count and end count
+     */
+    @Override
+    @XmlTransient
+    public ShotIndex<DirectorShot> getShots() {
+        return shots;
+    }
+
+    /**
+     * Copy the shots to the list that is written to file.
+     * @param marshaller the marshaller writing this timeline
+     * @return always true
+     */
+    boolean beforeMarshal(Marshaller marshaller) {
+        shotList = new ArrayList<>(shots);
+        return true;
+    }
+
+    /**
+     * Release the list that was written to file.
+     * @param marshaller the marshaller writing this timeline
+     */
+    void afterMarshal(Marshaller marshaller) {
+        shotList = null;
+    }
+
+    /**
+     * Build the index from the shots that were read from file.
+     * @param unmarshaller the unmarshaller reading this timeline
+     * @param parent the object containing this timeline
+     */
+    void afterUnmarshal(Unmarshaller unmarshaller, Object parent) {
+        setShots(shotList == null ? new ArrayList<>() : shotList);
+        shotList = null;
     }
 }
@@ -0,0 +1,291 @@
+package data;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Map from instance numbers to values, kept in an open addressing table of ints. Adding,
+ * removing and looking up a value takes constant time and does not allocate once the table is
+ * big enough. No table is allocated until the first value is added, so an empty table is
+ * cheap to keep around.
+ *
+ * <p>Iterating reads the table in place. The table may be changed while it is iterated, the
+ * first change then copies the table and the iteration goes on over the values it started
+ * with. Iterating without changing the table copies nothing.</p>
+ *
+ * @param <V> the type of the values
+ */
+public class InstanceTable<V> implements Iterable<V> {
+
+    // Multiplier and shift used to spread the bits of the instance numbers.
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+    private static final int HASH_SHIFT = 16;
+
+    // Capacity of the table when the first value is added, must be a power of two.
+    private final int initialCapacity;
+
+    // Instance numbers of the values, the slot is free when the value is null.
+    private int[] keys;
+
+    // The values, at the same slot as their instance number.
+    private Object[] values;
+
+    // Number of values in the table.
+    private int size;
+
+    // Number of forEach calls running over the arrays, they are copied before a change then.
+    private int visitors;
+
+    // Whether an iterator was handed out over the arrays, they are copied before a change then.
+    private boolean pinned;
+
+    /**
+     * Constructor.
+     * @param initialCapacity the capacity when the first value is added, a power of two
+     */
+    public InstanceTable(int initialCapacity) {
+        this.initialCapacity = initialCapacity;
+        this.size = 0;
+    }
+
+    /**
+     * Get the number of values in the table.
+     * @return the number of values
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the value of an instance number.
+     * @param key the instance number
+     * @return the value, or null if the instance number is not in the table
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        if (size == 0) {
+            return null;
+        }
+        return (V) values[find(key)];
+    }
+
+    /**
+     * Store the value of an instance number, replacing its old value.
+     * @param key the instance number
+     * @param value the value, not null
+     * @return the old value, or null if the instance number was not in the table
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (values == null) {
+            keys = new int[initialCapacity];
+            values = new Object[initialCapacity];
+        }
+        own();
+        int slot = find(key);
+        V old = (V) values[slot];
+        keys[slot] = key;
+        values[slot] = value;
+        if (old == null) {
+            size++;
+            if (size * 2 > values.length) {
+                resize(values.length * 2);
+            }
+        }
+        return old;
+    }
+
+    /**
+     * Remove an instance number from the table.
+     * @param key the instance number
+     * @return the removed value, or null if the instance number was not in the table
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        if (size == 0) {
+            return null;
+        }
+        int slot = find(key);
+        V old = (V) values[slot];
+        if (old != null) {
+            own();
+            values[slot] = null;
+            size--;
+            shiftBack(slot);
+        }
+        return old;
+    }
+
+    /**
+     * Remove all values, the table keeps its capacity.
+     */
+    public void clear() {
+        if (isShared()) {
+            // The iterations keep the old arrays
+            keys = new int[values.length];
+            values = new Object[values.length];
+            visitors = 0;
+            pinned = false;
+        } else if (values != null) {
+            Arrays.fill(values, null);
+        }
+        size = 0;
+    }
+
+    /**
+     * Runs the action for every value in the table. The action may change the table, the
+     * values that were in the table when this was called are visited.
+     * @param action the action to run for every value
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super V> action) {
+        if (size == 0) {
+            return;
+        }
+        Object[] current = values;
+        visitors++;
+        try {
+            for (Object value : current) {
+                if (value != null) {
+                    action.accept((V) value);
+                }
+            }
+        } finally {
+            // A change made its own copy, which nothing iterates
+            if (values == current) {
+                visitors--;
+            }
+        }
+    }
+
+    /**
+     * Iterates over the table in place. The table may be changed while iterating, the values
+     * that were in the table when this was called are returned. The iterator does not remove
+     * values.
+     * @return an iterator over the values
+     */
+    @Override
+    public Iterator<V> iterator() {
+        Object[] copy = size == 0 ? new Object[0] : values;
+        // The iterator may be dropped at any point, so the next change always copies
+        pinned = pinned || size > 0;
+        return new Iterator<V>() {
+            private int next = advance(0);
+
+            /**
+             * Find the next used slot in the copy.
+             * @param from the slot to start looking at
+             * @return the next used slot, or the length of the copy if there is none
+             */
+            private int advance(int from) {
+                int slot = from;
+                while (slot < copy.length && copy[slot] == null) {
+                    slot++;
+                }
+                return slot;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next < copy.length;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public V next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                V value = (V) copy[next];
+                next = advance(next + 1);
+                return value;
+            }
+        };
+    }
+
+    /**
+     * Copy the arrays before they are changed, if they are being iterated.
+     */
+    private void own() {
+        if (isShared()) {
+            keys = keys.clone();
+            values = values.clone();
+            visitors = 0;
+            pinned = false;
+        }
+    }
+
+    /**
+     * Check if the arrays are being iterated.
+     * @return true if a change has to copy the arrays first
+     */
+    private boolean isShared() {
+        return visitors > 0 || pinned;
+    }
+
+    /**
+     * Find the slot of an instance number, or the free slot where it should be added.
+     * @param key the instance number to look for
+     * @return the slot of the instance number
+     */
+    private int find(int key) {
+        int mask = values.length - 1;
+        int slot = hash(key) & mask;
+        while (values[slot] != null && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Move the values after a freed slot back, so no lookup stops at the free slot too early.
+     * @param freed the slot that was freed
+     */
+    private void shiftBack(int freed) {
+        int mask = values.length - 1;
+        int gap = freed;
+        int slot = (gap + 1) & mask;
+        while (values[slot] != null) {
+            int home = hash(keys[slot]) & mask;
+            // Move the value if its home slot is not between the gap and its current slot
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                values[gap] = values[slot];
+                values[slot] = null;
+                gap = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Move all values to a table with a new capacity.
+     * @param capacity the new capacity, must be a power of two
+     */
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Spread the bits of an instance number, as instance numbers are mostly sequential.
+     * @param key the instance number
+     * @return the hash of the instance number
+     */
+    private static int hash(int key) {
+        int hash = key * HASH_MULTIPLIER;
+        return hash ^ (hash >>> HASH_SHIFT);
+    }
+}
@@ -3,11 +3,26 @@ package data;
 import lombok.Getter;
 import lombok.Setter;
 
+import javax.xml.bind.annotation.XmlTransient;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * An instrument that can be filmed in a shot. A project holds one instance of every instrument
+ * and its shots share these instances, so instruments are compared by identity.
+ */
 public class Instrument implements Cloneable {
     @Getter @Setter
     private String name;
     @Getter @Setter
     private String description;
+
+    // Index of the instrument in the project if this is a placeholder for it, -1 otherwise.
+    private transient int reference = -1;
+
+    // The shots this instrument is in, kept up to date by the instruments of the shots.
+    private final transient Set<Shot> shots = Collections.newSetFromMap(new IdentityHashMap<>());
     
     /**
      * Construct a new Instrument.
@@ -26,48 +41,69 @@ public class Instrument implements Cloneable {
         this("", "");
     }
     
-    @Override
-    public Instrument clone() {
-        try {
-            super.clone();
-        } catch (CloneNotSupportedException e) {
-            e.printStackTrace();
-        }
-        Instrument instrument = new Instrument(this.name, this.description);
+    /**
+     * Create a placeholder for an instrument that is stored by reference. Interning the
+     * references of the project replaces it by the instrument itself.
+     * @param index the index of the instrument in the project
+     * @return the placeholder
+     * @see ScriptingProject#internReferences()
+     */
+    static Instrument reference(int index) {
+        Instrument instrument = new Instrument(null, null);
+        instrument.reference = index;
         return instrument;
     }
 
-    /* (non-Javadoc)
-     * @see java.lang.Object#hashCode()
+    /**
+     * Get the index of the instrument this placeholder refers to.
+     * @return the index in the project, -1 if this is not a placeholder
      */
-    @Override
-    public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + ((description == null) ? 0 : description.hashCode());
-        result = prime * result + ((name == null) ? 0 : name.hashCode());
-        return result;
+    int getReference() {
+        return reference;
     }
 
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) {
-            return true;
-        }
-        if (o == null || !(o instanceof Instrument)) {
-            return false;
-        }
+    /**
+     * Get the shots this instrument is in.
+     * @return the shots, as a view that can not be changed
+     */
+    @XmlTransient
+    public Set<Shot> getShots() {
+        return Collections.unmodifiableSet(shots);
+    }
 
-        Instrument that = (Instrument) o;
+    /**
+     * Check if this instrument is in a shot.
+     * @param shot the shot
+     * @return true if the instruments of the shot contain this instrument
+     */
+    boolean isInShot(Shot shot) {
+        return shots.contains(shot);
+    }
 
-        if ((getName() != null && !getName().equals(that.getName()))
-                || (getName() == null && that.getName() != null)) {
-            return false;
-        }
-        if (getDescription() != null) {
-            return getDescription().equals(that.getDescription());
-        } else {
-            return that.getDescription() == null;
+    /**
+     * Called when this instrument is added to the instruments of a shot.
+     * @param shot the shot
+     */
+    void addShot(Shot shot) {
+        shots.add(shot);
+    }
+
+    /**
+     * Called when this instrument is removed from the instruments of a shot.
+     * @param shot the shot
+     */
+    void removeShot(Shot shot) {
+        shots.remove(shot);
+    }
+
+    @Override
+    public Instrument clone() {
+        try {
+            super.clone();
+        } catch (CloneNotSupportedException e) {
+            e.printStackTrace();
         }
+        Instrument instrument = new Instrument(this.name, this.description);
+        return instrument;
     }
 }
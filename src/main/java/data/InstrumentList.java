@@ -0,0 +1,99 @@
+package data;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.RandomAccess;
+
+/**
+ * The instruments of a shot. Every instrument is told when it is added to or removed from the
+ * shot, so the shots an instrument is in are known without visiting every shot.
+ * @see Instrument#getShots()
+ */
+class InstrumentList extends AbstractList<Instrument> implements RandomAccess {
+
+    // The shot these are the instruments of.
+    private final Shot shot;
+
+    // The instruments, in the order they were added.
+    private final ArrayList<Instrument> instruments;
+
+    /**
+     * Constructor.
+     * @param shot the shot these are the instruments of
+     */
+    InstrumentList(Shot shot) {
+        this.shot = shot;
+        this.instruments = new ArrayList<>();
+    }
+
+    @Override
+    public Instrument get(int index) {
+        return instruments.get(index);
+    }
+
+    @Override
+    public int size() {
+        return instruments.size();
+    }
+
+    /**
+     * Check if the shot has an instrument, without searching the instruments.
+     * @param o the instrument to look for
+     * @return true if the instrument is in the shot
+     */
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Instrument && ((Instrument) o).isInShot(shot);
+    }
+
+    @Override
+    public Instrument set(int index, Instrument instrument) {
+        Instrument old = instruments.set(index, instrument);
+        unlink(old);
+        link(instrument);
+        return old;
+    }
+
+    @Override
+    public void add(int index, Instrument instrument) {
+        instruments.add(index, instrument);
+        link(instrument);
+        modCount++;
+    }
+
+    @Override
+    public Instrument remove(int index) {
+        Instrument old = instruments.remove(index);
+        unlink(old);
+        modCount++;
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        ArrayList<Instrument> old = new ArrayList<>(instruments);
+        instruments.clear();
+        old.forEach(this::unlink);
+        modCount++;
+    }
+
+    /**
+     * Tell an instrument that it is in the shot.
+     * @param instrument the instrument that was added, may be null
+     */
+    private void link(Instrument instrument) {
+        if (instrument != null) {
+            instrument.addShot(shot);
+        }
+    }
+
+    /**
+     * Tell an instrument that it is no longer in the shot, unless the shot has it twice.
+     * @param instrument the instrument that was removed, may be null
+     */
+    private void unlink(Instrument instrument) {
+        if (instrument != null && !instruments.contains(instrument)) {
+            instrument.removeShot(shot);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package data;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlType;
+import javax.xml.bind.annotation.adapters.XmlAdapter;
+
+/**
+ * Maps the instruments of a shot to their index in the instruments of the project in xml.
+ * An instrument that is not in the project is written as a copy. A reference is read as a
+ * placeholder until the references of the project are interned.
+ * @see ScriptingProject#internReferences()
+ */
+public class InstrumentReferenceAdapter
+        extends XmlAdapter<InstrumentReferenceAdapter.Element, Instrument> {
+
+    // Index of every instrument of the project that is written.
+    private final Map<Instrument, Integer> indices;
+
+    /**
+     * Constructor for reading, every instrument is written as a copy.
+     */
+    public InstrumentReferenceAdapter() {
+        this(Collections.emptyList());
+    }
+
+    /**
+     * Constructor.
+     * @param instruments the instruments of the project that is written, may be null
+     */
+    public InstrumentReferenceAdapter(List<Instrument> instruments) {
+        this.indices = new IdentityHashMap<>();
+        if (instruments != null) {
+            for (int i = 0; i < instruments.size(); i++) {
+                indices.putIfAbsent(instruments.get(i), i);
+            }
+        }
+    }
+
+    @Override
+    public Instrument unmarshal(Element element) {
+        if (element == null) {
+            return null;
+        } else if (element.ref != null) {
+            return Instrument.reference(element.ref);
+        }
+        Instrument instrument = new Instrument();
+        if (element.name != null) {
+            instrument.setName(element.name);
+        }
+        if (element.description != null) {
+            instrument.setDescription(element.description);
+        }
+        return instrument;
+    }
+
+    @Override
+    public Element marshal(Instrument instrument) {
+        if (instrument == null) {
+            return null;
+        }
+        Element element = new Element();
+        element.ref = indices.get(instrument);
+        if (element.ref == null && instrument.getReference() >= 0) {
+            // A placeholder that was not interned keeps its reference
+            element.ref = instrument.getReference();
+        }
+        if (element.ref == null) {
+            element.name = instrument.getName();
+            element.description = instrument.getDescription();
+        }
+        return element;
+    }
+
+    /**
+     * An instrument as it is stored in a shot, either a reference or a copy.
+     */
+    @XmlAccessorType(XmlAccessType.FIELD)
+    @XmlType(name = "instrumentReference", propOrder = {"description", "name", "ref"})
+    public static class Element {
+        private String description;
+        private String name;
+        private Integer ref;
+    }
+}
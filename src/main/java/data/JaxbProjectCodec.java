@@ -0,0 +1,65 @@
+package data;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+
+/**
+ * Project codec using JAXB and the annotations on the data classes. The context is built once
+ * and shared, as building it is far more expensive than the (un)marshalling itself.
+ */
+public class JaxbProjectCodec implements ProjectCodec {
+
+    @Override
+    public void write(ScriptingProject project, OutputStream out) throws IOException {
+        try {
+            Marshaller marshaller = ContextHolder.CONTEXT.createMarshaller();
+            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+            marshaller.setAdapter(new CameraTypeReferenceAdapter(project.getCameraTypes()));
+            marshaller.setAdapter(new InstrumentReferenceAdapter(project.getInstruments()));
+            marshaller.marshal(project, out);
+        } catch (JAXBException e) {
+            throw new IOException("Could not marshal project", e);
+        }
+    }
+
+    @Override
+    public ScriptingProject read(InputStream in) throws IOException {
+        try {
+            Unmarshaller unmarshaller = ContextHolder.CONTEXT.createUnmarshaller();
+            return (ScriptingProject) unmarshaller.unmarshal(in);
+        } catch (JAXBException | ClassCastException e) {
+            throw new IOException("Could not unmarshal project", e);
+        }
+    }
+
+    /**
+     * Holder of the shared context, so it is only built when JAXB is actually used.
+     */
+    private static final class ContextHolder {
+        private static final JAXBContext CONTEXT = createContext();
+
+        /**
+         * Private constructor, only holds the context.
+         */
+        private ContextHolder() {
+        }
+
+        /**
+         * Build the context for the project classes.
+         * @return the context
+         */
+        private static JAXBContext createContext() {
+            try {
+                return JAXBContext.newInstance(ScriptingProject.class);
+            } catch (JAXBException e) {
+                throw new IllegalStateException("Could not create JAXB context", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package data;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Applies the records of a project journal to a project that was read from file. Every record
+ * holds the complete new state of what it describes, so applying a record twice or applying a
+ * record that is already part of the project file gives the same project. The shots of the
+ * project are indexed by their instance once, so a record is applied without searching the
+ * timelines.
+ */
+@Log4j2
+class JournalReplayer {
+
+    // Length of a string or count of a collection that is null.
+    private static final int NULL = -1;
+
+    // Capacity of the shot indices when the first shot is added.
+    private static final int INITIAL_CAPACITY = 16;
+
+    @Getter
+    private ScriptingProject project;
+
+    // The camera shots on the camera timelines, by their instance.
+    private final InstanceTable<Placement> cameraShots;
+
+    // The director shots on the director timeline, by their instance.
+    private final InstanceTable<DirectorShot> directorShots;
+
+    // The director shots holding a camera shot, by the instance of the camera shot.
+    private final InstanceTable<DirectorShot> cameraShotOwners;
+
+    /**
+     * Constructor.
+     * @param project the project to apply the records to
+     */
+    JournalReplayer(ScriptingProject project) {
+        this.project = project;
+        this.cameraShots = new InstanceTable<>(INITIAL_CAPACITY);
+        this.directorShots = new InstanceTable<>(INITIAL_CAPACITY);
+        this.cameraShotOwners = new InstanceTable<>(INITIAL_CAPACITY);
+        index();
+    }
+
+    /**
+     * Apply a record.
+     * @param type the type of the record
+     * @param payload the payload of the record
+     * @throws IOException when the payload is not valid
+     */
+    void apply(byte type, byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        switch (type) {
+            case ProjectJournal.CAMERA_SHOT:
+                int timelineIndex = in.readInt();
+                putCameraShot(timelineIndex, readCameraShot(in));
+                break;
+            case ProjectJournal.CAMERA_SHOT_REMOVED:
+                removeCameraShot(in.readInt());
+                break;
+            case ProjectJournal.DIRECTOR_SHOT:
+                putDirectorShot(readDirectorShot(in));
+                break;
+            case ProjectJournal.DIRECTOR_SHOT_REMOVED:
+                removeDirectorShot(in.readInt());
+                break;
+            case ProjectJournal.PROJECT:
+                String filePath = project.getFilePath();
+                project = new BinaryProjectCodec().read(in);
+                project.setFilePath(filePath);
+                index();
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Index the shots of the project by their instance.
+     */
+    private void index() {
+        cameraShots.clear();
+        directorShots.clear();
+        cameraShotOwners.clear();
+        for (CameraTimeline timeline : project.getCameraTimelines()) {
+            for (CameraShot shot : timeline.getShots()) {
+                cameraShots.put(shot.getInstance(), new Placement(timeline, shot));
+            }
+        }
+        DirectorTimeline director = project.getDirectorTimeline();
+        if (director != null) {
+            for (DirectorShot shot : director.getShots()) {
+                directorShots.put(shot.getInstance(), shot);
+                own(shot);
+            }
+        }
+    }
+
+    /**
+     * Add a camera shot to a camera timeline, or update it if it already exists. A shot that
+     * exists on another timeline is moved to the given timeline.
+     * @param timelineIndex the index of the camera timeline holding the shot
+     * @param state the new state of the shot
+     */
+    private void putCameraShot(int timelineIndex, CameraShot state) {
+        List<CameraTimeline> timelines = project.getCameraTimelines();
+        if (timelineIndex < 0 || timelineIndex >= timelines.size()) {
+            log.warn("Skipping camera shot {} on unknown timeline {}", state.getInstance(),
+                timelineIndex);
+            return;
+        }
+        CameraTimeline timeline = timelines.get(timelineIndex);
+        Placement existing = cameraShots.get(state.getInstance());
+        if (existing != null && existing.timeline == timeline) {
+            copyCameraShot(state, existing.shot);
+            return;
+        }
+        if (existing != null) {
+            existing.timeline.removeShot(existing.shot);
+        }
+        timeline.addShot(state);
+        cameraShots.put(state.getInstance(), new Placement(timeline, state));
+    }
+
+    /**
+     * Remove a camera shot from its camera timeline and its director shot.
+     * @param instance the instance of the shot
+     */
+    private void removeCameraShot(int instance) {
+        Placement placement = cameraShots.remove(instance);
+        if (placement != null) {
+            placement.timeline.removeShot(placement.shot);
+        }
+        DirectorShot owner = cameraShotOwners.remove(instance);
+        if (owner != null) {
+            owner.getCameraShots().removeIf(shot -> shot.getInstance() == instance);
+        }
+    }
+
+    /**
+     * Add a director shot, or update it if it already exists. The camera shots of the director
+     * shot are updated on the camera timelines as well, the director shot keeps copies of them
+     * until the project is linked after the replay.
+     * @param state the new state of the shot
+     */
+    private void putDirectorShot(DirectorShot state) {
+        DirectorShot existing = directorShots.get(state.getInstance());
+        if (existing == null) {
+            project.getDirectorTimeline().addShot(state);
+            directorShots.put(state.getInstance(), state);
+            own(state);
+        } else {
+            disown(existing);
+            copyShot(state, existing);
+            existing.setFrontShotPadding(state.getFrontShotPadding());
+            existing.setEndShotPadding(state.getEndShotPadding());
+            existing.setTimelineIndices(state.getTimelineIndices());
+            existing.setCameraShots(state.getCameraShots());
+            own(existing);
+        }
+        for (CameraShot cameraShot : state.getCameraShots()) {
+            Placement placement = cameraShots.get(cameraShot.getInstance());
+            if (placement != null) {
+                copyCameraShot(cameraShot, placement.shot);
+            }
+        }
+    }
+
+    /**
+     * Remove a director shot.
+     * @param instance the instance of the shot
+     */
+    private void removeDirectorShot(int instance) {
+        DirectorShot shot = directorShots.remove(instance);
+        if (shot != null) {
+            project.getDirectorTimeline().removeShot(shot);
+            disown(shot);
+        }
+    }
+
+    /**
+     * Index a director shot as the owner of its camera shots.
+     * @param shot the director shot
+     */
+    private void own(DirectorShot shot) {
+        for (CameraShot cameraShot : shot.getCameraShots()) {
+            cameraShotOwners.put(cameraShot.getInstance(), shot);
+        }
+    }
+
+    /**
+     * Drop a director shot as the owner of its camera shots.
+     * @param shot the director shot
+     */
+    private void disown(DirectorShot shot) {
+        for (CameraShot cameraShot : shot.getCameraShots()) {
+            if (cameraShotOwners.get(cameraShot.getInstance()) == shot) {
+                cameraShotOwners.remove(cameraShot.getInstance());
+            }
+        }
+    }
+
+    /**
+     * Copy the state of a camera shot to another camera shot.
+     * @param from the shot to copy from
+     * @param to the shot to copy to
+     */
+    private static void copyCameraShot(CameraShot from, CameraShot to) {
+        copyShot(from, to);
+        to.setPresetId(from.getPresetId());
+    }
+
+    /**
+     * Copy the state shared by all shots to another shot. The counts are set in ticks, so the
+     * camera shots of a director shot are not moved along.
+     * @param from the shot to copy from
+     * @param to the shot to copy to
+     */
+    private static void copyShot(Shot from, Shot to) {
+        to.setName(from.getName());
+        to.setDescription(from.getDescription());
+        to.setBeginTicks(from.getBeginTicks());
+        to.setEndTicks(from.getEndTicks());
+        to.setColliding(from.isColliding());
+        to.setInstruments(from.getInstruments());
+    }
+
+    /**
+     * Read the state shared by all shots.
+     * @param in the payload to read from
+     * @param shot the shot to read into
+     * @throws IOException when the payload is not valid
+     */
+    private static void readShot(DataInputStream in, Shot shot) throws IOException {
+        shot.setName(readString(in));
+        shot.setDescription(readString(in));
+        shot.setBeginTicks(in.readLong());
+        shot.setEndTicks(in.readLong());
+        shot.setColliding(in.readBoolean());
+        int count = in.readInt();
+        if (count != NULL) {
+            ArrayList<Instrument> instruments = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                instruments.add(new Instrument(readString(in), readString(in)));
+            }
+            shot.setInstruments(instruments);
+        }
+    }
+
+    /**
+     * Read the state of a camera shot.
+     * @param in the payload to read from
+     * @return the shot
+     * @throws IOException when the payload is not valid
+     */
+    private static CameraShot readCameraShot(DataInputStream in) throws IOException {
+        CameraShot shot = new CameraShot();
+        readShot(in, shot);
+        shot.setInstance(in.readInt());
+        shot.setPresetId(in.readInt());
+        return shot;
+    }
+
+    /**
+     * Read the state of a director shot and its camera shots.
+     * @param in the payload to read from
+     * @return the shot
+     * @throws IOException when the payload is not valid
+     */
+    private static DirectorShot readDirectorShot(DataInputStream in) throws IOException {
+        DirectorShot shot = new DirectorShot();
+        readShot(in, shot);
+        shot.setInstance(in.readInt());
+        shot.setFrontShotPadding(in.readDouble());
+        shot.setEndShotPadding(in.readDouble());
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            shot.addCameraTimelineIndex(in.readInt());
+        }
+        count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            shot.addCameraShot(readCameraShot(in));
+        }
+        return shot;
+    }
+
+    /**
+     * Read a string that may be null.
+     * @param in the payload to read from
+     * @return the string
+     * @throws IOException when the payload is not valid
+     */
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length == NULL) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A camera shot with the camera timeline holding it.
+     */
+    private static final class Placement {
+        private final CameraTimeline timeline;
+        private final CameraShot shot;
+
+        /**
+         * Constructor.
+         * @param timeline the timeline holding the shot
+         * @param shot the shot
+         */
+        private Placement(CameraTimeline timeline, CameraShot shot) {
+            this.timeline = timeline;
+            this.shot = shot;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package data;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Reads and writes scripting projects in one of the project file formats. The streams are
+ * not closed by the codec.
+ */
+public interface ProjectCodec {
+
+    /**
+     * Write a project to a stream.
+     * @param project the project to write
+     * @param out the stream to write to
+     * @throws IOException when the project could not be written
+     */
+    void write(ScriptingProject project, OutputStream out) throws IOException;
+
+    /**
+     * Read a project from a stream. The project and its timelines are not linked yet, and
+     * neither are the camera shots of the director shots. The camera types and instruments
+     * of the cameras and shots may be references or copies of those of the project.
+     * @see ScriptingProject#linkDirectorShots()
+     * @see ScriptingProject#internReferences()
+     * @param in the stream to read from
+     * @return the project that was read
+     * @throws IOException when the stream does not contain a valid project
+     */
+    ScriptingProject read(InputStream in) throws IOException;
+
+    /**
+     * Read a project from a file. The project and its timelines are not linked yet, and
+     * neither are the camera shots of the director shots.
+     * @param file the file to read from
+     * @return the project that was read
+     * @throws IOException when the file does not contain a valid project
+     */
+    default ScriptingProject read(File file) throws IOException {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            return read(in);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package data;
+
+import java.io.File;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Converts project files between the xml and the binary format. The format of the source is
+ * detected from its contents, the format of the target is picked by its extension.
+ */
+@Log4j2
+public final class ProjectConverter {
+
+    /**
+     * Private constructor, only static methods.
+     */
+    private ProjectConverter() {
+    }
+
+    /**
+     * Convert a project file.
+     * @param source the file to convert
+     * @param target the file to write the converted project to
+     * @return true if the conversion succeeded
+     */
+    public static boolean convert(File source, File target) {
+        log.info("Converting project {} to {}", source.getAbsolutePath(),
+            target.getAbsolutePath());
+        ScriptingProject project = ScriptingProject.read(source);
+        if (project == null) {
+            return false;
+        }
+        project.setFilePath(target.getAbsolutePath());
+        return project.write(target);
+    }
+
+    /**
+     * Convert a project file from the command line.
+     * @param args the file to convert and the file to write the converted project to
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: ProjectConverter <source> <target>");
+            System.err.println("Targets ending in " + BinaryProjectCodec.EXTENSION
+                + " are written in the binary format, other targets as xml.");
+            System.exit(2);
+        }
+        if (!convert(new File(args[0]), new File(args[1]))) {
+            System.err.println("Could not convert " + args[0]);
+            System.exit(1);
+        }
+    }
+}
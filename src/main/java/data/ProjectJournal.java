@@ -0,0 +1,729 @@
+package data;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Append-only journal of the edits made to a project since its file was last written. The
+ * journal is stored next to the project file, every edit is appended as one record holding
+ * the new state of what was edited. Saving only appends a commit record instead of writing
+ * the whole project, and opening a project replays the journal on top of the project file.
+ * Compacting writes the project file again and drops the records that are part of it.
+ *
+ * <p>A record is stored as its length, its type, its payload and a checksum over the type and
+ * payload. A record that was only partly written when the application stopped fails its
+ * checksum, it and everything after it is dropped when the journal is opened. The journal
+ * file is only created once the first record is written.</p>
+ */
+@Log4j2
+public class ProjectJournal implements Closeable {
+
+    // Extension added to the name of the project file to get the name of its journal.
+    public static final String EXTENSION = ".journal";
+
+    // Version of the journal format.
+    private static final int VERSION = 1;
+
+    // Bytes every journal starts with.
+    private static final byte[] MAGIC = {'S', 'C', 'P', 'J'};
+
+    // Bytes of the header: the magic bytes and the version.
+    private static final int HEADER_BYTES = MAGIC.length + Integer.BYTES;
+
+    // Bytes around the payload of a record: its length, type and checksum.
+    private static final int RECORD_OVERHEAD = Integer.BYTES + 1 + Integer.BYTES;
+
+    // Record types.
+    static final byte CAMERA_SHOT = 1;
+    static final byte CAMERA_SHOT_REMOVED = 2;
+    static final byte DIRECTOR_SHOT = 3;
+    static final byte DIRECTOR_SHOT_REMOVED = 4;
+    static final byte PROJECT = 5;
+    static final byte COMMIT = 6;
+
+    // Length of a string that is null.
+    private static final int NULL = -1;
+
+    private final Path path;
+
+    // The opened journal file, null until the file exists.
+    private FileChannel channel;
+
+    // Position after the last commit record, or after the header if there is none.
+    private long committed;
+
+    // Number of records in the journal.
+    private int recordCount;
+
+    // Bytes of records removed from the start of the journal since it was opened.
+    private long dropped;
+
+    /**
+     * Constructor.
+     * @param path the journal file
+     * @param channel the opened journal file, positioned after the last valid record, or null
+     *     if the file does not exist
+     * @param committed the position after the last commit record
+     * @param recordCount the number of valid records
+     */
+    private ProjectJournal(Path path, FileChannel channel, long committed, int recordCount) {
+        this.path = path;
+        this.channel = channel;
+        this.committed = committed;
+        this.recordCount = recordCount;
+    }
+
+    /**
+     * Get the journal file of a project file.
+     * @param projectFile the project file
+     * @return the journal file next to it
+     */
+    public static File journalFile(File projectFile) {
+        return new File(projectFile.getPath() + EXTENSION);
+    }
+
+    /**
+     * Open the journal of a project file. Records at the end of the journal that were not
+     * completely written are removed.
+     * @param projectFile the project file
+     * @return the journal
+     * @throws IOException when the journal could not be opened
+     */
+    public static ProjectJournal open(File projectFile) throws IOException {
+        Path path = journalFile(projectFile).toPath();
+        if (!Files.exists(path)) {
+            return new ProjectJournal(path, null, HEADER_BYTES, 0);
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < HEADER_BYTES || !hasHeader(channel)) {
+                channel.truncate(0);
+                channel.write(header(), 0);
+                channel.force(false);
+            }
+            long position = HEADER_BYTES;
+            long committed = position;
+            int count = 0;
+            Record record;
+            while ((record = readRecord(channel, position)) != null) {
+                position += record.size();
+                count++;
+                if (record.type == COMMIT) {
+                    committed = position;
+                }
+            }
+            if (position < channel.size()) {
+                log.warn("Dropping {} bytes of incomplete records from journal {}",
+                    channel.size() - position, path);
+                channel.truncate(position);
+                channel.force(false);
+            }
+            channel.position(position);
+            return new ProjectJournal(path, channel, committed, count);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Apply the records of this journal to a project that was read from the project file.
+     * @param project the project read from file, not linked to its timelines yet
+     * @return the project with the records applied, a different object if the journal
+     *     replaced the whole project
+     * @throws IOException when the journal could not be read
+     */
+    public synchronized ScriptingProject replay(ScriptingProject project) throws IOException {
+        if (channel == null) {
+            return project;
+        }
+        JournalReplayer replayer = new JournalReplayer(project);
+        long position = HEADER_BYTES;
+        Record record;
+        while ((record = readRecord(channel, position)) != null) {
+            replayer.apply(record.type, record.payload);
+            position += record.size();
+        }
+        ScriptingProject replayed = replayer.getProject();
+        replayed.linkDirectorShots();
+        replayed.internReferences();
+        return replayed;
+    }
+
+    /**
+     * Check if there are records after the last commit.
+     * @return true if there are edits that were not saved
+     */
+    public synchronized boolean hasUncommittedRecords() {
+        if (channel == null) {
+            return false;
+        }
+        try {
+            return channel.size() > committed;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Get the number of records in the journal.
+     * @return the number of records
+     */
+    public synchronized int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Get the size of the journal, including the records that were compacted or cleared since
+     * it was opened. The size stays a valid cut for a compaction after earlier compactions.
+     * @return the size in bytes
+     * @throws IOException when the size could not be read
+     */
+    public synchronized long size() throws IOException {
+        return dropped + (channel == null ? HEADER_BYTES : channel.size());
+    }
+
+    /**
+     * Record the state of a camera shot that was added or edited.
+     * @param timelineIndex index of the camera timeline holding the shot
+     * @param shot the shot
+     * @throws IOException when the record could not be written
+     */
+    public synchronized void cameraShotChanged(int timelineIndex, CameraShot shot)
+            throws IOException {
+        append(cameraShotRecord(timelineIndex, shot));
+    }
+
+    /**
+     * Record the removal of a camera shot.
+     * @param shot the shot that was removed
+     * @throws IOException when the record could not be written
+     */
+    public synchronized void cameraShotRemoved(CameraShot shot) throws IOException {
+        append(cameraShotRemovedRecord(shot));
+    }
+
+    /**
+     * Record the state of a director shot that was added or edited, including its camera
+     * shots.
+     * @param shot the shot
+     * @throws IOException when the record could not be written
+     */
+    public synchronized void directorShotChanged(DirectorShot shot) throws IOException {
+        append(directorShotRecord(shot));
+    }
+
+    /**
+     * Record the removal of a director shot.
+     * @param shot the shot that was removed
+     * @throws IOException when the record could not be written
+     */
+    public synchronized void directorShotRemoved(DirectorShot shot) throws IOException {
+        append(directorShotRemovedRecord(shot));
+    }
+
+    /**
+     * Record the whole project, for edits that change more than a few shots.
+     * @param project the project
+     * @throws IOException when the record could not be written
+     */
+    public synchronized void projectReplaced(ScriptingProject project) throws IOException {
+        append(projectRecord(project));
+    }
+
+    /**
+     * Append a record that was encoded before, possibly on another thread.
+     * @param record the record
+     * @throws IOException when the record could not be written
+     */
+    public synchronized void append(PendingRecord record) throws IOException {
+        append(record.type, record.payload);
+    }
+
+    /**
+     * Encode the state of a camera shot that was added or edited.
+     * @param timelineIndex index of the camera timeline holding the shot
+     * @param shot the shot
+     * @return the record, to be appended
+     * @throws IOException when the record could not be encoded
+     */
+    public static PendingRecord cameraShotRecord(int timelineIndex, CameraShot shot)
+            throws IOException {
+        RecordOutput out = new RecordOutput();
+        out.writeInt(timelineIndex);
+        writeCameraShot(out, shot);
+        return new PendingRecord(CAMERA_SHOT, out);
+    }
+
+    /**
+     * Encode the removal of a camera shot.
+     * @param shot the shot that was removed
+     * @return the record, to be appended
+     * @throws IOException when the record could not be encoded
+     */
+    public static PendingRecord cameraShotRemovedRecord(CameraShot shot) throws IOException {
+        RecordOutput out = new RecordOutput();
+        out.writeInt(shot.getInstance());
+        return new PendingRecord(CAMERA_SHOT_REMOVED, out);
+    }
+
+    /**
+     * Encode the state of a director shot that was added or edited, including its camera
+     * shots.
+     * @param shot the shot
+     * @return the record, to be appended
+     * @throws IOException when the record could not be encoded
+     */
+    public static PendingRecord directorShotRecord(DirectorShot shot) throws IOException {
+        RecordOutput out = new RecordOutput();
+        writeShot(out, shot);
+        out.writeInt(shot.getInstance());
+        out.writeDouble(shot.getFrontShotPadding());
+        out.writeDouble(shot.getEndShotPadding());
+        writeInts(out, shot.getTimelineIndices());
+        List<CameraShot> cameraShots = new ArrayList<>(shot.getCameraShots());
+        out.writeInt(cameraShots.size());
+        for (CameraShot cameraShot : cameraShots) {
+            writeCameraShot(out, cameraShot);
+        }
+        return new PendingRecord(DIRECTOR_SHOT, out);
+    }
+
+    /**
+     * Encode the removal of a director shot.
+     * @param shot the shot that was removed
+     * @return the record, to be appended
+     * @throws IOException when the record could not be encoded
+     */
+    public static PendingRecord directorShotRemovedRecord(DirectorShot shot)
+            throws IOException {
+        RecordOutput out = new RecordOutput();
+        out.writeInt(shot.getInstance());
+        return new PendingRecord(DIRECTOR_SHOT_REMOVED, out);
+    }
+
+    /**
+     * Encode the whole project. Encoding a large project takes a while, so pass a
+     * {@link ScriptingProject#snapshot() snapshot} when encoding on another thread.
+     * @param project the project
+     * @return the record, to be appended
+     * @throws IOException when the record could not be encoded
+     */
+    public static PendingRecord projectRecord(ScriptingProject project) throws IOException {
+        RecordOutput out = new RecordOutput();
+        new BinaryProjectCodec().write(project, out);
+        return new PendingRecord(PROJECT, out);
+    }
+
+    /**
+     * Mark the records written so far as saved and flush them to disk.
+     * @throws IOException when the commit could not be written
+     */
+    public synchronized void commit() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        append(COMMIT, new RecordOutput());
+        channel.force(false);
+        committed = channel.position();
+    }
+
+    /**
+     * Flush the records written so far to disk, without marking them as saved.
+     * @throws IOException when the journal could not be flushed
+     */
+    public synchronized void flush() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Remove the records after the last commit.
+     * @throws IOException when the journal could not be truncated
+     */
+    public synchronized void discard() throws IOException {
+        if (channel != null && channel.size() > committed) {
+            channel.truncate(committed);
+            channel.force(false);
+            recordCount = countRecords(channel, HEADER_BYTES);
+        }
+    }
+
+    /**
+     * Remove all records, after the whole project was written to the project file.
+     * @throws IOException when the journal could not be truncated
+     */
+    public synchronized void clear() throws IOException {
+        if (channel != null) {
+            dropped += channel.size() - HEADER_BYTES;
+            channel.truncate(HEADER_BYTES);
+            channel.force(false);
+        }
+        committed = HEADER_BYTES;
+        recordCount = 0;
+    }
+
+    /**
+     * Write the whole project to the project file and remove all records. The journal is held
+     * while writing, so a running compaction can not replace the file with an older snapshot.
+     * @param project the project to write
+     * @return true if the project was written
+     * @throws IOException when the journal could not be truncated
+     */
+    public synchronized boolean write(ScriptingProject project) throws IOException {
+        if (!project.write()) {
+            return false;
+        }
+        clear();
+        return true;
+    }
+
+    /**
+     * Replace the project file with a snapshot of the project and remove the records that
+     * are part of the snapshot from the journal. The snapshot is written without holding the
+     * journal, so edits can be recorded while compacting. A snapshot taken before the project
+     * was last written in whole, or before the journal was closed, is dropped.
+     * @param projectFile the project file
+     * @param snapshot the encoded project
+     * @param cut the size of the journal when the snapshot was taken
+     * @throws IOException when the project file or the journal could not be replaced
+     */
+    public void compact(File projectFile, byte[] snapshot, long cut) throws IOException {
+        Path target = projectFile.toPath();
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(snapshot);
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(true);
+        }
+        synchronized (this) {
+            if (cut < dropped + HEADER_BYTES || (channel != null && !channel.isOpen())) {
+                Files.delete(temporary);
+                return;
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+            truncateHead(cut);
+        }
+        log.info("Compacted journal of {}", projectFile.getAbsolutePath());
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    /**
+     * Rewrite the journal without the records before a position.
+     * @param cut the size of the journal at the first record to keep
+     * @throws IOException when the journal could not be rewritten
+     */
+    private void truncateHead(long cut) throws IOException {
+        long start = cut - dropped;
+        if (channel == null || start <= HEADER_BYTES) {
+            return;
+        }
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        long end = channel.size();
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            out.write(header());
+            long position = start;
+            while (position < end) {
+                position += channel.transferTo(position, end - position, out);
+            }
+            out.force(true);
+        }
+        channel.close();
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        committed = Math.max(HEADER_BYTES, committed - start + HEADER_BYTES);
+        recordCount = countRecords(channel, HEADER_BYTES);
+        dropped += start - HEADER_BYTES;
+    }
+
+    /**
+     * Append a record to the journal.
+     * @param type the type of the record
+     * @param out the payload of the record
+     * @throws IOException when the record could not be written
+     */
+    private void append(byte type, RecordOutput out) throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+            channel.write(header());
+        }
+        int length = out.size();
+        ByteBuffer buffer = ByteBuffer.allocate(length + RECORD_OVERHEAD);
+        buffer.putInt(length);
+        buffer.put(type);
+        buffer.put(out.buffer(), 0, length);
+        buffer.putInt(checksum(type, out.buffer(), 0, length));
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        recordCount++;
+    }
+
+    /**
+     * Read the record at a position.
+     * @param channel the journal
+     * @param position the position of the record
+     * @return the record, or null if there is no complete and valid record at the position
+     * @throws IOException when the journal could not be read
+     */
+    private static Record readRecord(FileChannel channel, long position) throws IOException {
+        long available = channel.size() - position;
+        if (available < RECORD_OVERHEAD) {
+            return null;
+        }
+        ByteBuffer head = ByteBuffer.allocate(Integer.BYTES + 1);
+        readFully(channel, head, position);
+        int length = head.getInt(0);
+        if (length < 0 || length > available - RECORD_OVERHEAD) {
+            return null;
+        }
+        ByteBuffer body = ByteBuffer.allocate(length + Integer.BYTES);
+        readFully(channel, body, position + head.capacity());
+        byte type = head.get(Integer.BYTES);
+        byte[] payload = Arrays.copyOf(body.array(), length);
+        if (body.getInt(length) != checksum(type, payload, 0, length)) {
+            return null;
+        }
+        return new Record(type, payload);
+    }
+
+    /**
+     * Count the valid records from a position.
+     * @param channel the journal
+     * @param position the position of the first record
+     * @return the number of records
+     * @throws IOException when the journal could not be read
+     */
+    private static int countRecords(FileChannel channel, long position) throws IOException {
+        int count = 0;
+        Record record;
+        while ((record = readRecord(channel, position)) != null) {
+            position += record.size();
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Fill a buffer from a channel.
+     * @param channel the channel to read from
+     * @param buffer the buffer to fill
+     * @param position the position to read from
+     * @throws IOException when the channel could not be read
+     */
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position)
+            throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of journal");
+            }
+        }
+    }
+
+    /**
+     * Check if the journal starts with a valid header.
+     * @param channel the journal
+     * @return true if the header is valid
+     * @throws IOException when the journal could not be read
+     */
+    private static boolean hasHeader(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES);
+        readFully(channel, buffer, 0);
+        return Arrays.equals(Arrays.copyOf(buffer.array(), MAGIC.length), MAGIC)
+            && buffer.getInt(MAGIC.length) == VERSION;
+    }
+
+    /**
+     * Create the header of a journal.
+     * @return the header, ready to be written
+     */
+    private static ByteBuffer header() {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES);
+        buffer.put(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Compute the checksum of a record.
+     * @param type the type of the record
+     * @param payload the bytes holding the payload
+     * @param offset the offset of the payload
+     * @param length the length of the payload
+     * @return the checksum
+     */
+    private static int checksum(byte type, byte[] payload, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(payload, offset, length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Write the state shared by all shots.
+     * @param out the record to write to
+     * @param shot the shot
+     * @throws IOException when writing fails
+     */
+    private static void writeShot(RecordOutput out, Shot shot) throws IOException {
+        out.writeString(shot.getName());
+        out.writeString(shot.getDescription());
+        out.writeLong(shot.getBeginTicks());
+        out.writeLong(shot.getEndTicks());
+        out.writeBoolean(shot.isColliding());
+        List<Instrument> instruments = shot.getInstruments();
+        out.writeInt(instruments == null ? NULL : instruments.size());
+        if (instruments != null) {
+            for (Instrument instrument : instruments) {
+                out.writeString(instrument.getName());
+                out.writeString(instrument.getDescription());
+            }
+        }
+    }
+
+    /**
+     * Write the state of a camera shot.
+     * @param out the record to write to
+     * @param shot the shot
+     * @throws IOException when writing fails
+     */
+    private static void writeCameraShot(RecordOutput out, CameraShot shot) throws IOException {
+        writeShot(out, shot);
+        out.writeInt(shot.getInstance());
+        out.writeInt(shot.getPresetId());
+    }
+
+    /**
+     * Write a collection of integers.
+     * @param out the record to write to
+     * @param values the integers, may be null
+     * @throws IOException when writing fails
+     */
+    private static void writeInts(RecordOutput out, Collection<Integer> values)
+            throws IOException {
+        out.writeInt(values == null ? NULL : values.size());
+        if (values != null) {
+            for (int value : values) {
+                out.writeInt(value);
+            }
+        }
+    }
+
+    /**
+     * A record read from the journal.
+     */
+    private static final class Record {
+        private final byte type;
+        private final byte[] payload;
+
+        /**
+         * Constructor.
+         * @param type the type of the record
+         * @param payload the payload of the record
+         */
+        private Record(byte type, byte[] payload) {
+            this.type = type;
+            this.payload = payload;
+        }
+
+        private long size() {
+            return payload.length + RECORD_OVERHEAD;
+        }
+    }
+
+    /**
+     * A record that was encoded but not appended yet. The state of the project is encoded on
+     * the JavaFX thread, the record can then be appended on another thread.
+     */
+    public static final class PendingRecord {
+        private final byte type;
+        private final RecordOutput payload;
+
+        /**
+         * Constructor.
+         * @param type the type of the record
+         * @param payload the payload of the record
+         */
+        private PendingRecord(byte type, RecordOutput payload) {
+            this.type = type;
+            this.payload = payload;
+        }
+    }
+
+    /**
+     * Payload of a record that is being written.
+     */
+    private static final class RecordOutput extends DataOutputStream {
+
+        /**
+         * Constructor.
+         */
+        private RecordOutput() {
+            super(new Bytes());
+        }
+
+        private byte[] buffer() {
+            return ((Bytes) out).buffer();
+        }
+
+        /**
+         * Write a string that may be null.
+         * @param value the string
+         * @throws IOException when writing fails
+         */
+        private void writeString(String value) throws IOException {
+            if (value == null) {
+                writeInt(NULL);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeInt(bytes.length);
+            write(bytes);
+        }
+    }
+
+    /**
+     * Byte array output stream that exposes its buffer.
+     */
+    private static final class Bytes extends ByteArrayOutputStream {
+        private byte[] buffer() {
+            return buf;
+        }
+    }
+}
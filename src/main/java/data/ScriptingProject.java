@@ -1,24 +1,29 @@
 package data;
 
-import control.ProjectController;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 import lombok.extern.log4j.Log4j2;
 
-import javax.xml.bind.JAXBContext;
-import javax.xml.bind.JAXBException;
-import javax.xml.bind.Marshaller;
-import javax.xml.bind.Unmarshaller;
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlElementWrapper;
 import javax.xml.bind.annotation.XmlRootElement;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 /**
@@ -26,7 +31,7 @@ import java.util.Set;
  */
 @XmlRootElement(name = "scriptingProject")
 @XmlAccessorType(XmlAccessType.FIELD)
-@ToString
+@ToString(exclude = "version")
 @Log4j2
 public class ScriptingProject {
     
@@ -77,6 +82,10 @@ public class ScriptingProject {
     
     @Getter @Setter
     private boolean changed;
+
+    // Incremented on every change, tells whether a snapshot of the project is still current.
+    @Getter
+    private transient long version;
     
     /**
      * Default constructor.
@@ -130,6 +139,7 @@ public class ScriptingProject {
      */
     public void changed() {
         this.changed = true;
+        this.version++;
     }
     
     /**
@@ -141,6 +151,16 @@ public class ScriptingProject {
     
     @Setter @Getter
     private static int res = Integer.MIN_VALUE;
+
+    // The codec used to read and write project files.
+    @Setter @Getter
+    private static ProjectCodec codec = new StaxProjectCodec();
+
+    // The codec used when the codec fails to read or write a project file.
+    private static final ProjectCodec FALLBACK_CODEC = new JaxbProjectCodec();
+
+    // The codec used for project files in the binary format.
+    private static final BinaryProjectCodec BINARY_CODEC = new BinaryProjectCodec();
     
     /**
      * Get the maximum instance used so far.
@@ -155,9 +175,9 @@ public class ScriptingProject {
             });
         for (int i = 0;i < cameraTimelines.size();i++) {
             CameraTimeline timeline = cameraTimelines.get(i);
-            for (int j = 0;j < timeline.getShots().size();j++) {
-                if (timeline.getShots().get(j).getInstance() > getRes()) {
-                    setRes(timeline.getShots().get(j).getInstance());
+            for (CameraShot shot : timeline.getShots()) {
+                if (shot.getInstance() > getRes()) {
+                    setRes(shot.getInstance());
                 }
             }
         }
@@ -179,20 +199,179 @@ public class ScriptingProject {
     }
     
     /**
-     * Write the current project to file.
+     * Write the current project to file. Files with the binary extension are written in the
+     * binary format, other files as xml.
      * @param file the file to write to
      * @return true if write succeeded, false otherwise
      */
     public boolean write(File file) {
         log.info("Writing ScriptingProject to file {}", file.getAbsolutePath());
-        try {
-            JAXBContext context = JAXBContext.newInstance(ScriptingProject.class);
-            Marshaller m = context.createMarshaller();
-            m.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-            m.marshal(this, file);
+        boolean written;
+        if (file.getName().endsWith(BinaryProjectCodec.EXTENSION)) {
+            written = write(file, BINARY_CODEC);
+        } else {
+            written = write(file, codec)
+                || (codec != FALLBACK_CODEC && write(file, FALLBACK_CODEC));
+        }
+        if (written) {
             saved();
+        }
+        return written;
+    }
+
+    /**
+     * Encode the current project in the format of a project file, without marking it saved.
+     * @param file the project file whose format to use
+     * @return the encoded project
+     * @throws IOException when the project could not be encoded
+     */
+    public byte[] encode(File file) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (file.getName().endsWith(BinaryProjectCodec.EXTENSION)) {
+            BINARY_CODEC.write(this, out);
+        } else {
+            codec.write(this, out);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Copy the values of this project, so the copy can be encoded on another thread while
+     * this project is edited. The camera types, instruments, cameras, timelines, shots and
+     * users are copied, and the copies refer to each other as the originals do. Only values
+     * are copied, which is a fraction of the work of encoding the project. The copies keep
+     * their instances and take no new ones.
+     * @return the snapshot
+     */
+    public ScriptingProject snapshot() {
+        ScriptingProject copy = new ScriptingProject(name, description, secondsPerCount);
+        copy.filePath = filePath;
+        copy.changed = changed;
+        copy.version = version;
+
+        Map<CameraType, CameraType> types = new IdentityHashMap<>();
+        if (cameraTypes == null) {
+            copy.cameraTypes = null;
+        } else {
+            for (CameraType type : cameraTypes) {
+                copy.cameraTypes.add(types.computeIfAbsent(type, CameraType::clone));
+            }
+        }
+        Map<Instrument, Instrument> instrumentCopies = new IdentityHashMap<>();
+        if (instruments == null) {
+            copy.instruments = null;
+        } else {
+            for (Instrument instrument : instruments) {
+                copy.instruments.add(
+                    instrumentCopies.computeIfAbsent(instrument, Instrument::clone));
+            }
+        }
+        Map<Camera, Camera> cameraCopies = new IdentityHashMap<>();
+        for (Camera camera : cameras) {
+            copy.cameras.add(copyCamera(camera, types, cameraCopies));
+        }
+
+        Map<CameraShot, CameraShot> shots = new IdentityHashMap<>();
+        for (CameraTimeline timeline : cameraTimelines) {
+            List<CameraShot> shotCopies = new ArrayList<>(timeline.getShots().size());
+            for (CameraShot shot : timeline.getShots()) {
+                CameraShot shotCopy = new CameraShot(shot);
+                copyShot(shot, shotCopy, instrumentCopies);
+                shots.put(shot, shotCopy);
+                shotCopies.add(shotCopy);
+            }
+            Camera camera = copyCamera(timeline.getCamera(), types, cameraCopies);
+            copy.cameraTimelines.add(new CameraTimeline(timeline, camera, copy, shotCopies));
+        }
+        copy.directorTimeline = directorTimeline == null ? null
+            : copyDirectorTimeline(copy, shots, instrumentCopies);
+
+        for (User user : users) {
+            User userCopy = new User();
+            userCopy.setName(user.getName());
+            userCopy.setRoleValue(user.getRoleValue());
+            if (user.getChosenTimelines() != null) {
+                userCopy.setChosenTimelines(new ArrayList<>(user.getChosenTimelines()));
+            }
+            copy.users.add(userCopy);
+        }
+        return copy;
+    }
+
+    /**
+     * Copy the director timeline of this project for a snapshot.
+     * @param copy the snapshot
+     * @param shots the copies of the camera shots
+     * @param instrumentCopies the copies of the instruments
+     * @return the copy of the director timeline
+     */
+    private DirectorTimeline copyDirectorTimeline(ScriptingProject copy,
+                                                  Map<CameraShot, CameraShot> shots,
+                                                  Map<Instrument, Instrument> instrumentCopies) {
+        DirectorTimeline timeline = new DirectorTimeline(directorTimeline.getDescription(), copy);
+        for (DirectorShot shot : directorTimeline.getShots()) {
+            DirectorShot shotCopy = new DirectorShot(shot);
+            copyShot(shot, shotCopy, instrumentCopies);
+            for (CameraShot cameraShot : shot.getCameraShots()) {
+                CameraShot cameraShotCopy = shots.get(cameraShot);
+                if (cameraShotCopy != null) {
+                    cameraShotCopy.setDirectorShot(shotCopy);
+                    shotCopy.addCameraShot(cameraShotCopy);
+                }
+            }
+            timeline.getShots().add(shotCopy);
+        }
+        return timeline;
+    }
+
+    /**
+     * Get the copy of a camera for a snapshot, copying it on first use.
+     * @param camera the camera, may be null
+     * @param types the copies of the camera types
+     * @param cameraCopies the cameras copied so far
+     * @return the copy of the camera, null for null
+     */
+    private static Camera copyCamera(Camera camera, Map<CameraType, CameraType> types,
+                                     Map<Camera, Camera> cameraCopies) {
+        if (camera == null) {
+            return null;
+        }
+        return cameraCopies.computeIfAbsent(camera, original -> {
+                CameraType type = original.getCameraType();
+                return new Camera(original, type == null ? null
+                    : types.computeIfAbsent(type, CameraType::clone));
+            });
+    }
+
+    /**
+     * Copy the values shared by all shots to the copy of a shot.
+     * @param shot the shot
+     * @param copy the copy of the shot
+     * @param instrumentCopies the copies of the instruments
+     */
+    private static void copyShot(Shot shot, Shot copy,
+                                 Map<Instrument, Instrument> instrumentCopies) {
+        copy.setBeginTicks(shot.getBeginTicks());
+        copy.setEndTicks(shot.getEndTicks());
+        copy.setColliding(shot.isColliding());
+        for (Instrument instrument : shot.getInstruments()) {
+            copy.addInstrument(instrumentCopies.computeIfAbsent(instrument, Instrument::clone));
+        }
+    }
+
+    /**
+     * Write the current project to file with a codec.
+     * @param file the file to write to
+     * @param projectCodec the codec to write with
+     * @return true if write succeeded, false otherwise
+     */
+    private boolean write(File file, ProjectCodec projectCodec) {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            projectCodec.write(this, out);
             return true;
-        } catch (JAXBException e) {
+        } catch (IOException e) {
+            log.error("Could not write ScriptingProject with {}",
+                projectCodec.getClass().getSimpleName(), e);
             return false;
         }
     }
@@ -209,22 +388,47 @@ public class ScriptingProject {
     }
     
     /**
-     * Read a project from file.
+     * Read a project from file. Files starting with the magic bytes of the binary format are
+     * read as binary, other files as xml.
      * @param file the file to read from
      * @return null if read failed, the read project otherwise
      */
     public static ScriptingProject read(File file) {
         log.info("Reading ScriptingProject from file {}", file.getAbsolutePath());
+        ScriptingProject read;
+        if (BinaryProjectCodec.isBinary(file)) {
+            read = read(file, BINARY_CODEC);
+        } else {
+            read = read(file, codec);
+            if (read == null && codec != FALLBACK_CODEC) {
+                read = read(file, FALLBACK_CODEC);
+            }
+        }
+        if (read == null) {
+            return null;
+        }
+        ScriptingProject result = read;
+        result.linkDirectorShots();
+        result.internReferences();
+        result.getDirectorTimeline().setProject(result);
+        result.getCameraTimelines().forEach(e -> e.setProject(result));
+        result.setFilePath(file.getAbsolutePath());
+        result.saved();
+        return result;
+    }
+
+    /**
+     * Read a project from file with a codec.
+     * @param file the file to read from
+     * @param projectCodec the codec to read with
+     * @return null if read failed, the read project otherwise
+     */
+    private static ScriptingProject read(File file, ProjectCodec projectCodec) {
         try {
-            JAXBContext context = JAXBContext.newInstance(ScriptingProject.class);
-            Unmarshaller um = context.createUnmarshaller();
-            ScriptingProject result = (ScriptingProject) um.unmarshal(file);
-            result.getDirectorTimeline().setProject(result);
-            result.getCameraTimelines().forEach(e -> e.setProject(result));
-            result.setFilePath(file.getAbsolutePath());
-            result.saved();
-            return result;
-        } catch (JAXBException e) {
+            return projectCodec.read(file);
+        } catch (IOException e) {
+            log.error("Could not read ScriptingProject with {}",
+                projectCodec.getClass().getSimpleName(), e);
             return null;
         }
     }
@@ -252,19 +456,138 @@ public class ScriptingProject {
     }
     
     /**
-     * Removes the offsetted camera blocks from this project
-     Needed because of loading functionality. 
+     * Link the camera shots of the director shots to the shots on the camera timelines. The
+     * camera shots of a director shot are stored by their instance, and are read as
+     * placeholders or, from older files, as copies. Both are replaced by the shot with the
+     * same instance on a camera timeline, which gets the director shot as its director shot.
+     * References to shots that are on no camera timeline are dropped.
      */
-    public void removeOffsettedCameraBlocks() {
+    public void linkDirectorShots() {
+        if (directorTimeline == null) {
+            return;
+        }
+        Map<Integer, CameraShot> shots = new HashMap<>();
         for (CameraTimeline timeline : cameraTimelines) {
-            Iterator<CameraShot> iterator = timeline.getShots().iterator();
-            while (iterator.hasNext()) {
-                CameraShot shot = iterator.next();
-                if (shot.getBeginCount() == ProjectController.UNUSED_BLOCK_OFFSET) {
-                    iterator.remove();
+            for (CameraShot shot : timeline.getShots()) {
+                shots.put(shot.getInstance(), shot);
+            }
+        }
+        for (DirectorShot directorShot : directorTimeline.getShots()) {
+            Set<CameraShot> linked = new CameraShotSet();
+            for (CameraShot reference : directorShot.getCameraShots()) {
+                CameraShot shot = shots.get(reference.getInstance());
+                if (shot == null) {
+                    log.warn("Dropping camera shot {} of director shot {}, it is on no timeline",
+                        reference.getInstance(), directorShot.getInstance());
+                } else {
+                    shot.setDirectorShot(directorShot);
+                    linked.add(shot);
                 }
             }
+            directorShot.setCameraShots(linked);
+        }
+    }
+
+    /**
+     * Make the cameras and shots of this project share the camera types and instruments of
+     * this project. A placeholder of a reference is replaced by the camera type or instrument
+     * at its index, a copy from an older file by the one with the same values. Copies that
+     * are not in this project are shared with the copies that have the same values.
+     */
+    public void internReferences() {
+        Map<List<Object>, CameraType> types = new HashMap<>();
+        if (cameraTypes != null) {
+            cameraTypes.forEach(type -> types.putIfAbsent(valuesOf(type), type));
+        }
+        for (Camera camera : cameras) {
+            camera.setCameraType(internCameraType(camera.getCameraType(), types));
+        }
+        for (CameraTimeline timeline : cameraTimelines) {
+            Camera camera = timeline.getCamera();
+            if (camera != null) {
+                camera.setCameraType(internCameraType(camera.getCameraType(), types));
+            }
+        }
+
+        Map<List<Object>, Instrument> shared = new HashMap<>();
+        if (instruments != null) {
+            instruments.forEach(instrument -> shared.putIfAbsent(valuesOf(instrument), instrument));
+        }
+        for (CameraTimeline timeline : cameraTimelines) {
+            timeline.getShots().forEach(shot -> internInstruments(shot, shared));
         }
+        if (directorTimeline != null) {
+            directorTimeline.getShots().forEach(shot -> internInstruments(shot, shared));
+        }
+    }
+
+    /**
+     * Replace instruments in the shots they are in, after they were edited as copies.
+     * @param replacements the replacement of each instrument, other instruments are kept
+     */
+    public void replaceInstruments(Map<Instrument, Instrument> replacements) {
+        replacements.forEach((instrument, replacement) -> {
+                // Only the shots the instrument is in
+                for (Shot shot : new ArrayList<>(instrument.getShots())) {
+                    shot.getInstruments().replaceAll(
+                        other -> other == instrument ? replacement : other);
+                }
+            });
+    }
+
+    /**
+     * Get the shared instance of a camera type.
+     * @param type the camera type, a placeholder or a copy
+     * @param types the shared camera types by their values
+     * @return the shared camera type, null for null or a reference to an unknown camera type
+     */
+    private CameraType internCameraType(CameraType type, Map<List<Object>, CameraType> types) {
+        if (type == null) {
+            return null;
+        } else if (type.getReference() < 0) {
+            return types.computeIfAbsent(valuesOf(type), values -> type);
+        } else if (cameraTypes != null && type.getReference() < cameraTypes.size()) {
+            return cameraTypes.get(type.getReference());
+        }
+        log.warn("Dropping reference to unknown camera type {}", type.getReference());
+        return null;
+    }
+
+    /**
+     * Replace the instruments of a shot by their shared instances.
+     * @param shot the shot
+     * @param shared the shared instruments by their values
+     */
+    private void internInstruments(Shot shot, Map<List<Object>, Instrument> shared) {
+        shot.getInstruments().replaceAll(instrument -> {
+                if (instrument == null || instrument.getReference() < 0) {
+                    return instrument == null ? null
+                        : shared.computeIfAbsent(valuesOf(instrument), values -> instrument);
+                } else if (instruments != null && instrument.getReference() < instruments.size()) {
+                    return instruments.get(instrument.getReference());
+                }
+                log.warn("Dropping reference to unknown instrument {}", instrument.getReference());
+                return null;
+            });
+        shot.getInstruments().removeIf(Objects::isNull);
+    }
+
+    /**
+     * Get the values of a camera type, to find camera types with the same values.
+     * @param type the camera type
+     * @return the values
+     */
+    private static List<Object> valuesOf(CameraType type) {
+        return Arrays.asList(type.getName(), type.getDescription(), type.getMovementMargin());
+    }
+
+    /**
+     * Get the values of an instrument, to find instruments with the same values.
+     * @param instrument the instrument
+     * @return the values
+     */
+    private static List<Object> valuesOf(Instrument instrument) {
+        return Arrays.asList(instrument.getName(), instrument.getDescription());
     }
 
     /**
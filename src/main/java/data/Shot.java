@@ -12,7 +12,9 @@ import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlElementWrapper;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlTransient;
-import java.util.ArrayList;
+import javax.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * This class contains information about a Shot.
@@ -34,23 +36,31 @@ public abstract class Shot {
     @Getter
     private int instance;
 
-    
+    // The instruments in this Shot, instruments of the project stored by reference.
     @XmlElementWrapper(name = "instruments")
     @XmlElement(name = "instrument")
-    private ArrayList<Instrument> instruments;
+    @XmlJavaTypeAdapter(InstrumentReferenceAdapter.class)
+    private InstrumentList instruments;
+
+    // The start count of the Shot, in ticks.
+    private long beginTicks;
 
-    // The start count of the Shot.
-    private SimpleDoubleProperty beginCount;
+    // The end count of the Shot, in ticks.
+    private long endTicks;
 
-    // The end count of the Shot.
-    private SimpleDoubleProperty endCount;
+    // Properties of the counts, only created once a view binds to them.
+    private CountProperty beginCountProperty;
+    private CountProperty endCountProperty;
 
     // True if the shot is colliding with another Shot.
     @Getter @Setter
     private boolean colliding;
 
-    @Getter
-    private ArrayList<Shot> collidesWith;
+    // The shots this Shot is colliding with.
+    private CollisionSet collidesWith;
+
+    // The index of the timeline this Shot is in, notified when the counts change.
+    private ShotIndex<?> index;
     
     /**
      * Default Constructor.
@@ -58,10 +68,10 @@ public abstract class Shot {
     public Shot() {
         name = "";
         description = "";
-        beginCount = new SimpleDoubleProperty(0);
-        endCount = new SimpleDoubleProperty(0);
-        collidesWith = new ArrayList<>();
-        instruments = new ArrayList<>();
+        beginTicks = 0;
+        endTicks = 0;
+        collidesWith = new CollisionSet();
+        instruments = new InstrumentList(this);
     }
 
     /**
@@ -78,19 +88,35 @@ public abstract class Shot {
 
         this.name = name;
         this.description = description;
-        this.beginCount = new SimpleDoubleProperty(beginCount);
-        this.endCount = new SimpleDoubleProperty(endCount);
-        this.collidesWith = new ArrayList<>();
-        this.instruments = new ArrayList<>();
+        this.beginTicks = Ticks.fromCounts(beginCount);
+        this.endTicks = Ticks.fromCounts(endCount);
+        this.collidesWith = new CollisionSet();
+        this.instruments = new InstrumentList(this);
     }
     
+    /**
+     * Get the instruments in this Shot. Every instrument knows the shots it is in, so
+     * {@code contains} does not search the list.
+     * @return the instruments
+     * @see Instrument#getShots()
+     */
     @XmlTransient
-    public ArrayList<Instrument> getInstruments() {
+    public List<Instrument> getInstruments() {
         return instruments;
     }
     
-    public void setInstruments(ArrayList<Instrument> instruments) {
-        this.instruments = instruments;
+    /**
+     * Set the instruments in this Shot, copied so the list of another shot is not shared.
+     * @param instruments the instruments, null for none
+     */
+    public void setInstruments(List<Instrument> instruments) {
+        if (instruments == this.instruments) {
+            return;
+        }
+        this.instruments.clear();
+        if (instruments != null) {
+            this.instruments.addAll(instruments);
+        }
     }
     
     public void addInstrument(Instrument instrument) {
@@ -105,12 +131,12 @@ public abstract class Shot {
      */
     public int compareTo(Shot other) {
         log.debug("Comparing this(beginCount={}, endCount={}) to other(beginCount={}, endCount={})",
-                beginCount, endCount, other.getBeginCount(), other.getEndCount());
+                getBeginCount(), getEndCount(), other.getBeginCount(), other.getEndCount());
 
-        int result = Double.compare(getBeginCount(), other.getBeginCount());
+        int result = Long.compare(beginTicks, other.getBeginTicks());
 
         if (result == 0) {
-            result = Double.compare(getEndCount(), other.getEndCount());
+            result = Long.compare(endTicks, other.getEndTicks());
         }
 
         log.debug("Compare returns {}", result);
@@ -127,41 +153,71 @@ public abstract class Shot {
      */
     public boolean areOverlapping(Shot other, double movementOffset) {
         log.debug("Checking overlap of this(beginCount={}, endCount={}) to other(beginCount={}, "
-            + "endCount={})", beginCount, endCount, other.getBeginCount(), other.getEndCount());
+            + "endCount={})", getBeginCount(), getEndCount(), other.getBeginCount(),
+            other.getEndCount());
 
-        boolean result = false;
+        boolean result = overlaps(beginTicks, endTicks, other.getBeginTicks(),
+                other.getEndTicks(), Ticks.fromCounts(movementOffset));
 
+        editCollidesWith(result, other);
+
+        // Update collides fields
+        this.colliding = !this.collidesWith.isEmpty();
+        other.setColliding(!other.getCollidesWith().isEmpty());
+
+        log.debug("No overlap found");
+
+        return result;
+    }
+
+    /**
+     * Checks whether two shots, given by their counts, are colliding. This does not change
+     * the shots, so it can be used on counts copied from the shots.
+     *
+     * @param begin the begin count of this shot
+     * @param end the end count of this shot
+     * @param otherBegin the begin count of the other shot
+     * @param otherEnd the end count of the other shot
+     * @param movementOffset the offset the camera needs to move to the shot.
+     * @return true when shots are colliding, false when there are not colliding
+     */
+    public static boolean overlaps(double begin, double end, double otherBegin, double otherEnd,
+                                   double movementOffset) {
+        return overlaps(Ticks.fromCounts(begin), Ticks.fromCounts(end),
+                Ticks.fromCounts(otherBegin), Ticks.fromCounts(otherEnd),
+                Ticks.fromCounts(movementOffset));
+    }
+
+    /**
+     * Checks whether two shots, given by their counts in ticks, are colliding.
+     *
+     * @param begin the begin of this shot
+     * @param end the end of this shot
+     * @param otherBegin the begin of the other shot
+     * @param otherEnd the end of the other shot
+     * @param movementOffset the offset the camera needs to move to the shot.
+     * @return true when shots are colliding, false when there are not colliding
+     */
+    public static boolean overlaps(long begin, long end, long otherBegin, long otherEnd,
+                                   long movementOffset) {
         // Other shot starts during this shot
-        if (other.getBeginCount() > getBeginCount() - movementOffset
-            && other.getBeginCount() - movementOffset < getEndCount()) {
+        if (otherBegin > begin - movementOffset && otherBegin - movementOffset < end) {
             log.debug("Other shot starts during this shot");
-            result = true;
+            return true;
         }
 
         // This shot starts during other shot
-        if (other.getEndCount() > getBeginCount() - movementOffset
-                && other.getEndCount() < getEndCount()) {
+        if (otherEnd > begin - movementOffset && otherEnd < end) {
             log.debug("Other shot ends during this shot");
-            result = true;
+            return true;
         }
 
         // This shot entirely in other shot or the other way around
-        if (other.getBeginCount() <= getBeginCount() && other.getEndCount() >= getEndCount()
-            || getBeginCount() < other.getBeginCount() && getEndCount() > other.getEndCount()) {
+        if (otherBegin <= begin && otherEnd >= end || begin < otherBegin && end > otherEnd) {
             log.debug("One of the two shots completely overlaps the other");
-
-            result = true;
+            return true;
         }
-
-        editCollidesWith(result, other);
-
-        // Update collides fields
-        this.colliding = !this.collidesWith.isEmpty();
-        other.setColliding(!other.getCollidesWith().isEmpty());
-
-        log.debug("No overlap found");
-
-        return result;
+        return false;
     }
 
     /**
@@ -171,30 +227,29 @@ public abstract class Shot {
      */
     private void editCollidesWith(boolean addCollisioin, Shot other) {
         if (addCollisioin) {
-            // Add to collideswith if it is not in there
-            if (!this.collidesWith.contains(other)) {
-                this.collidesWith.add(other);
-            }
-            if (!other.getCollidesWith().contains(this)) {
-                other.getCollidesWith().add(this);
-            }
+            this.collidesWith.add(other);
+            other.getCollidesWith().add(this);
         } else {
-            // Remove from collideswith if it is in there, doesn't collide anymore
-            if (this.collidesWith.contains(other)) {
-                this.collidesWith.remove(other);
-            }
-            if (other.getCollidesWith().contains(this)) {
-                other.getCollidesWith().remove(this);
-            }
+            // Doesn't collide anymore
+            this.collidesWith.remove(other);
+            other.getCollidesWith().remove(this);
         }
     }
 
+    /**
+     * Get the shots this shot is colliding with.
+     * @return the colliding shots, keyed on their instance number
+     */
+    public Collection<Shot> getCollidesWith() {
+        return collidesWith;
+    }
+
     /**
      * Get the begin count of this shot.
      * @return The begin count
      */
     public double getBeginCount() {
-        return this.beginCount.get();
+        return Ticks.toCounts(beginTicks);
     }
 
     /**
@@ -202,15 +257,42 @@ public abstract class Shot {
      * @param beginCount The new begin count
      */
     public void setBeginCount(double beginCount) {
-        this.beginCount.set(beginCount);
+        setBeginTicks(Ticks.fromCounts(beginCount));
     }
 
     /**
-     * Get the begin count's property (useful for bindings).
+     * Get the begin count of this shot in ticks.
+     * @return The begin count in ticks
+     */
+    @XmlTransient
+    public long getBeginTicks() {
+        return beginTicks;
+    }
+
+    /**
+     * Set the begin count of this shot in ticks, for the codecs that restore a shot. Unlike
+     * {@link #setBeginCount(double)}, a director shot does not move its camera shots along.
+     * @param beginTicks The new begin count in ticks
+     */
+    void setBeginTicks(long beginTicks) {
+        if (beginCountProperty == null) {
+            this.beginTicks = beginTicks;
+            countsChanged();
+        } else {
+            beginCountProperty.set(Ticks.toCounts(beginTicks));
+        }
+    }
+
+    /**
+     * Get the begin count's property (useful for bindings). The property is created on the
+     * first call, setting it changes the begin count in ticks.
      * @return The Begin Count Property
      */
     public DoubleProperty getBeginCountProperty() {
-        return this.beginCount;
+        if (beginCountProperty == null) {
+            beginCountProperty = new CountProperty(true);
+        }
+        return beginCountProperty;
     }
 
     /**
@@ -218,7 +300,7 @@ public abstract class Shot {
      * @return The end count
      */
     public double getEndCount() {
-        return this.endCount.get();
+        return Ticks.toCounts(endTicks);
     }
 
     /**
@@ -226,14 +308,97 @@ public abstract class Shot {
      * @param endCount The new end count
      */
     public void setEndCount(double endCount) {
-        this.endCount.set(endCount);
+        setEndTicks(Ticks.fromCounts(endCount));
+    }
+
+    /**
+     * Get the end count of this shot in ticks.
+     * @return The end count in ticks
+     */
+    @XmlTransient
+    public long getEndTicks() {
+        return endTicks;
     }
 
     /**
-     * Get the end count's property (useful for bindings).
+     * Set the end count of this shot in ticks, for the codecs that restore a shot. Unlike
+     * {@link #setEndCount(double)}, a director shot does not move its camera shots along.
+     * @param endTicks The new end count in ticks
+     */
+    void setEndTicks(long endTicks) {
+        if (endCountProperty == null) {
+            this.endTicks = endTicks;
+            countsChanged();
+        } else {
+            endCountProperty.set(Ticks.toCounts(endTicks));
+        }
+    }
+
+    /**
+     * Get the end count's property (useful for bindings). The property is created on the
+     * first call, setting it changes the end count in ticks.
      * @return The End Count Property
      */
     public DoubleProperty getEndCountProperty() {
-        return this.endCount;
+        if (endCountProperty == null) {
+            endCountProperty = new CountProperty(false);
+        }
+        return endCountProperty;
+    }
+
+    /**
+     * Set the index this Shot is kept in.
+     * @param index the index of the timeline containing this Shot
+     */
+    void setIndex(ShotIndex<?> index) {
+        this.index = index;
+    }
+
+    /**
+     * Release this Shot from an index, if it is still the index this Shot reports to.
+     * @param index the index the Shot was removed from
+     */
+    void clearIndex(ShotIndex<?> index) {
+        if (this.index == index) {
+            this.index = null;
+        }
+    }
+
+    /**
+     * Move this Shot in the index of its timeline after one of its counts changed.
+     */
+    private void countsChanged() {
+        if (index != null) {
+            index.reposition(this);
+        }
+    }
+
+    /**
+     * Count property that stores its count in ticks and moves the Shot in its timeline
+     * index when it changes.
+     */
+    private final class CountProperty extends SimpleDoubleProperty {
+
+        // True for the begin count, false for the end count.
+        private final boolean begin;
+
+        /**
+         * Constructor.
+         * @param begin true for the begin count, false for the end count
+         */
+        private CountProperty(boolean begin) {
+            super(Ticks.toCounts(begin ? beginTicks : endTicks));
+            this.begin = begin;
+        }
+
+        @Override
+        protected void invalidated() {
+            if (begin) {
+                beginTicks = Ticks.fromCounts(get());
+            } else {
+                endTicks = Ticks.fromCounts(get());
+            }
+            countsChanged();
+        }
     }
 }
@@ -0,0 +1,78 @@
+package data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Getter;
+
+/**
+ * The ticks and instance numbers of the shots in a timeline, stored column by column in
+ * primitive arrays. Sweeps over a whole timeline read the arrays instead of asking every
+ * shot for its counts, so they do not touch the shot objects or their properties.
+ * The columns are a copy, made in the sorted order of the timeline.
+ *
+ * @param <T> the type of shot in the columns
+ */
+public final class ShotColumns<T extends Shot> {
+
+    // The shots, at the same position as their counts.
+    private final List<T> shots;
+
+    // The begin counts of the shots, in ticks.
+    @Getter
+    private final long[] begins;
+
+    // The end counts of the shots, in ticks.
+    @Getter
+    private final long[] ends;
+
+    // The instance numbers of the shots.
+    @Getter
+    private final int[] instances;
+
+    // Number of shots added so far.
+    private int size;
+
+    /**
+     * Constructor.
+     * @param capacity the number of shots the columns will hold
+     */
+    ShotColumns(int capacity) {
+        this.shots = new ArrayList<>(capacity);
+        this.begins = new long[capacity];
+        this.ends = new long[capacity];
+        this.instances = new int[capacity];
+        this.size = 0;
+    }
+
+    /**
+     * Add a shot to the end of the columns.
+     * @param shot the shot to add
+     * @param begin the begin count of the shot in ticks
+     * @param end the end count of the shot in ticks
+     */
+    void add(T shot, long begin, long end) {
+        shots.add(shot);
+        begins[size] = begin;
+        ends[size] = end;
+        instances[size] = shot.getInstance();
+        size++;
+    }
+
+    /**
+     * Get the number of shots in the columns.
+     * @return the number of shots
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the shot at a position.
+     * @param position the position of the shot
+     * @return the shot at the position
+     */
+    public T getShot(int position) {
+        return shots.get(position);
+    }
+}
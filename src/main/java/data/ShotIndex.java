@@ -0,0 +1,500 @@
+package data;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Sorted collection of the shots in a timeline. The shots are kept in a balanced interval
+ * tree ordered on begin count and end count, so inserting, removing and finding the shots
+ * that overlap a range of counts does not have to walk the whole timeline. Shots that are
+ * added to an index report changes to their counts back to it, which keeps the order
+ * intact when a shot is moved.
+ *
+ * @param <T> the type of shot in this index
+ */
+public class ShotIndex<T extends Shot> extends AbstractList<T> {
+
+    // Root of the tree, null when the index is empty.
+    private Node<T> root;
+
+    // Lookup from shot to the node that holds it, compared on identity.
+    private final IdentityHashMap<Shot, Node<T>> nodes;
+
+    // Insertion stamp, shots with equal counts are ordered newest first.
+    private long stamp;
+
+    /**
+     * Constructor.
+     */
+    public ShotIndex() {
+        this.nodes = new IdentityHashMap<>();
+        this.stamp = 0;
+    }
+
+    /**
+     * Constructor that fills the index with the given shots.
+     *
+     * @param shots the shots to add to the index
+     */
+    public ShotIndex(Collection<? extends T> shots) {
+        this();
+        shots.forEach(this::add);
+    }
+
+    /**
+     * Make the shots in this index report their count changes to it again, after another
+     * index was filled with them. A shot only reports to the index it was added to last.
+     */
+    public void track() {
+        nodes.keySet().forEach(shot -> shot.setIndex(this));
+    }
+
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        Node<T> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node.shot;
+            }
+        }
+    }
+
+    /**
+     * Get the first shot in this index.
+     * @return the shot with the lowest begin count
+     */
+    public T getFirst() {
+        if (root == null) {
+            throw new NoSuchElementException();
+        }
+        Node<T> node = root;
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node.shot;
+    }
+
+    /**
+     * Get the last shot in this index.
+     * @return the shot with the highest begin count
+     */
+    public T getLast() {
+        if (root == null) {
+            throw new NoSuchElementException();
+        }
+        Node<T> node = root;
+        while (node.right != null) {
+            node = node.right;
+        }
+        return node.shot;
+    }
+
+    /**
+     * Get the highest count of the shots in this index, read from the root of the tree.
+     * @return the highest count, 0 when the index is empty
+     */
+    public double getHighestCount() {
+        return root == null ? 0 : Ticks.toCounts(root.maxHigh);
+    }
+
+    /**
+     * Add a shot to the index at its sorted position. If the shot is already in the index,
+     * it is moved to the position that matches its current counts.
+     *
+     * @param shot the shot to add
+     * @return always true
+     */
+    @Override
+    public boolean add(T shot) {
+        Node<T> old = nodes.get(shot);
+        if (old != null) {
+            root = delete(root, old);
+        }
+        Node<T> node = new Node<>(shot, stamp++);
+        root = insert(root, node);
+        nodes.put(shot, node);
+        shot.setIndex(this);
+        return true;
+    }
+
+    /**
+     * Remove a shot from the index. The shot is looked up on identity first, if it is not
+     * found the first shot equal to it is removed.
+     *
+     * @param object the shot to remove
+     * @return true if a shot was removed
+     */
+    @Override
+    public boolean remove(Object object) {
+        Node<T> node = nodes.get(object);
+        if (node == null) {
+            int index = super.indexOf(object);
+            if (index < 0) {
+                return false;
+            }
+            node = nodes.get(get(index));
+        }
+        removeNode(node);
+        return true;
+    }
+
+    @Override
+    public T remove(int index) {
+        T shot = get(index);
+        removeNode(nodes.get(shot));
+        return shot;
+    }
+
+    @Override
+    public boolean contains(Object object) {
+        return nodes.containsKey(object) || super.contains(object);
+    }
+
+    /**
+     * Check whether this exact shot is in the index, without falling back on equality.
+     * @param shot the shot to look for
+     * @return true if the shot is in the index
+     */
+    public boolean containsShot(Shot shot) {
+        return nodes.containsKey(shot);
+    }
+
+    @Override
+    public void clear() {
+        nodes.keySet().forEach(shot -> shot.clearIndex(this));
+        nodes.clear();
+        root = null;
+    }
+
+    /**
+     * Iterates over a snapshot of the index, so the index may be changed while iterating.
+     * @return an iterator over the shots in sorted order
+     */
+    @Override
+    public Iterator<T> iterator() {
+        ArrayList<T> snapshot = new ArrayList<>(size());
+        collect(root, snapshot);
+        Iterator<T> iterator = snapshot.iterator();
+        return new Iterator<T>() {
+            private T last;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public T next() {
+                last = iterator.next();
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) {
+                    throw new IllegalStateException();
+                }
+                ShotIndex.this.remove(last);
+                last = null;
+            }
+        };
+    }
+
+    /**
+     * Get all shots that share at least one count with the range between low and high.
+     * The shots are returned in sorted order.
+     *
+     * @param low the lowest count of the range
+     * @param high the highest count of the range
+     * @return the shots overlapping the range
+     */
+    public List<T> getOverlapping(double low, double high) {
+        return getOverlappingTicks(Ticks.fromCounts(low), Ticks.fromCounts(high));
+    }
+
+    /**
+     * Get all shots that share at least one tick with the range between low and high.
+     * The shots are returned in sorted order.
+     *
+     * @param low the lowest tick of the range
+     * @param high the highest tick of the range
+     * @return the shots overlapping the range
+     */
+    public List<T> getOverlappingTicks(long low, long high) {
+        ArrayList<T> result = new ArrayList<>();
+        collectOverlapping(root, low, high, result);
+        return result;
+    }
+
+    /**
+     * Copy the ticks of the shots into columns, in sorted order. The ticks are read from
+     * the index itself, so the shots are not touched.
+     * @return the columns of this index
+     */
+    public ShotColumns<T> columns() {
+        ShotColumns<T> columns = new ShotColumns<>(size());
+        collectColumns(root, columns);
+        return columns;
+    }
+
+    /**
+     * Move a shot to the position matching its counts, called when the counts change.
+     * @param shot the shot that was changed
+     */
+    void reposition(Shot shot) {
+        Node<T> node = nodes.get(shot);
+        if (node != null) {
+            add(node.shot);
+        }
+    }
+
+    /**
+     * Remove a node from the tree and release its shot.
+     * @param node the node to remove
+     */
+    private void removeNode(Node<T> node) {
+        root = delete(root, node);
+        nodes.remove(node.shot);
+        node.shot.clearIndex(this);
+    }
+
+    /**
+     * Add all shots in the subtree to the list in sorted order.
+     * @param node the root of the subtree
+     * @param result the list to add the shots to
+     */
+    private void collect(Node<T> node, List<T> result) {
+        if (node != null) {
+            collect(node.left, result);
+            result.add(node.shot);
+            collect(node.right, result);
+        }
+    }
+
+    /**
+     * Add the counts of all shots in the subtree to the columns in sorted order.
+     * @param node the root of the subtree
+     * @param columns the columns to add the counts to
+     */
+    private void collectColumns(Node<T> node, ShotColumns<T> columns) {
+        if (node != null) {
+            collectColumns(node.left, columns);
+            columns.add(node.shot, node.begin, node.end);
+            collectColumns(node.right, columns);
+        }
+    }
+
+    /**
+     * Add all shots in the subtree that overlap the range to the list in sorted order.
+     * @param node the root of the subtree
+     * @param low the lowest tick of the range
+     * @param high the highest tick of the range
+     * @param result the list to add the shots to
+     */
+    private void collectOverlapping(Node<T> node, long low, long high, List<T> result) {
+        if (node == null || node.minLow > high || node.maxHigh < low) {
+            return;
+        }
+        collectOverlapping(node.left, low, high, result);
+        if (node.low <= high && node.high >= low) {
+            result.add(node.shot);
+        }
+        collectOverlapping(node.right, low, high, result);
+    }
+
+    /**
+     * Insert a node in the subtree.
+     * @param tree the root of the subtree
+     * @param node the node to insert
+     * @return the new root of the subtree
+     */
+    private Node<T> insert(Node<T> tree, Node<T> node) {
+        if (tree == null) {
+            return node;
+        }
+        if (node.compareTo(tree) < 0) {
+            tree.left = insert(tree.left, node);
+        } else {
+            tree.right = insert(tree.right, node);
+        }
+        return balance(tree);
+    }
+
+    /**
+     * Delete a node from the subtree.
+     * @param tree the root of the subtree
+     * @param node the node to delete
+     * @return the new root of the subtree
+     */
+    private Node<T> delete(Node<T> tree, Node<T> node) {
+        if (tree == null) {
+            return null;
+        }
+        if (tree == node) {
+            if (tree.left == null) {
+                return tree.right;
+            }
+            if (tree.right == null) {
+                return tree.left;
+            }
+            Node<T> successor = tree.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = delete(tree.right, successor);
+            successor.left = tree.left;
+            return balance(successor);
+        }
+        if (node.compareTo(tree) < 0) {
+            tree.left = delete(tree.left, node);
+        } else {
+            tree.right = delete(tree.right, node);
+        }
+        return balance(tree);
+    }
+
+    /**
+     * Restore the balance of a subtree after one of its children changed.
+     * @param node the root of the subtree
+     * @return the new root of the subtree
+     */
+    private Node<T> balance(Node<T> node) {
+        node.update();
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    /**
+     * Rotate a subtree to the left.
+     * @param node the root of the subtree
+     * @return the new root of the subtree
+     */
+    private Node<T> rotateLeft(Node<T> node) {
+        Node<T> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    /**
+     * Rotate a subtree to the right.
+     * @param node the root of the subtree
+     * @return the new root of the subtree
+     */
+    private Node<T> rotateRight(Node<T> node) {
+        Node<T> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static int height(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    /**
+     * Node in the tree. The counts of the shot are copied when the node is created, so the
+     * node can still be found after the shot itself has been changed.
+     *
+     * @param <T> the type of shot in the node
+     */
+    private static final class Node<T extends Shot> implements Comparable<Node<T>> {
+        private final T shot;
+        private final long begin;
+        private final long end;
+        private final long low;
+        private final long high;
+        private final long stamp;
+
+        private Node<T> left;
+        private Node<T> right;
+        private int size;
+        private int height;
+        private long minLow;
+        private long maxHigh;
+
+        /**
+         * Constructor.
+         * @param shot the shot held by this node
+         * @param stamp the insertion stamp of the shot
+         */
+        private Node(T shot, long stamp) {
+            this.shot = shot;
+            this.begin = shot.getBeginTicks();
+            this.end = shot.getEndTicks();
+            this.low = Math.min(begin, end);
+            this.high = Math.max(begin, end);
+            this.stamp = stamp;
+            update();
+        }
+
+        /**
+         * Recompute the size, height and count bounds of the subtree from its children.
+         */
+        private void update() {
+            size = 1 + ShotIndex.size(left) + ShotIndex.size(right);
+            height = 1 + Math.max(ShotIndex.height(left), ShotIndex.height(right));
+            minLow = low;
+            maxHigh = high;
+            if (left != null) {
+                minLow = Math.min(minLow, left.minLow);
+                maxHigh = Math.max(maxHigh, left.maxHigh);
+            }
+            if (right != null) {
+                minLow = Math.min(minLow, right.minLow);
+                maxHigh = Math.max(maxHigh, right.maxHigh);
+            }
+        }
+
+        @Override
+        public int compareTo(Node<T> other) {
+            int result = Long.compare(begin, other.begin);
+            if (result == 0) {
+                result = Long.compare(end, other.end);
+            }
+            if (result == 0) {
+                result = Long.compare(other.stamp, stamp);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,1025 @@
+package data;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Project codec that streams the scriptingProject xml format with javax.xml.stream. It writes
+ * the same documents as the JAXB mapping of the data classes, element for element, and reads
+ * them without reflection. Elements may come in any order when reading, unknown elements are
+ * skipped.
+ */
+public class StaxProjectCodec implements ProjectCodec {
+
+    // Declaration written before the root element, the same as the one JAXB writes.
+    private static final String HEADER =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>";
+
+    // Number of spaces per level of indentation.
+    private static final int INDENT = 4;
+
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+    @Override
+    public void write(ScriptingProject project, OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        writer.write(HEADER);
+        try {
+            XMLStreamWriter xml = OUTPUT_FACTORY.createXMLStreamWriter(writer);
+            Output output = new Output(xml, project);
+            writeProject(output, "scriptingProject", project);
+            output.finish();
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("Could not write project", e);
+        }
+        writer.flush();
+    }
+
+    @Override
+    public ScriptingProject read(InputStream in) throws IOException {
+        try {
+            XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(in);
+            try {
+                reader.nextTag();
+                if (!"scriptingProject".equals(reader.getLocalName())) {
+                    throw new XMLStreamException("Not a scripting project: "
+                            + reader.getLocalName(), reader.getLocation());
+                }
+                return readProject(reader);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException | IllegalArgumentException e) {
+            throw new IOException("Could not read project", e);
+        }
+    }
+
+    /**
+     * Create the input factory, without support for dtds and external entities.
+     * @return the input factory
+     */
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        return factory;
+    }
+
+    /**
+     * Write a project.
+     * @param out the output to write to
+     * @param name the name of the element
+     * @param project the project to write
+     * @throws XMLStreamException when writing fails
+     */
+    private static void writeProject(Output out, String name, ScriptingProject project)
+            throws XMLStreamException {
+        out.start(name);
+        if (project.getCameraTypes() != null) {
+            for (CameraType type : project.getCameraTypes()) {
+                writeCameraType(out, "cameraTypes", type);
+            }
+        }
+        out.text("name", project.getName());
+        out.text("description", project.getDescription());
+        writeList(out, "cameraList", "camera", project.getCameras(),
+            StaxProjectCodec::writeCamera);
+        writeList(out, "instrumentList", "instrument", project.getInstruments(),
+            StaxProjectCodec::writeInstrument);
+        if (project.getDirectorTimeline() != null) {
+            writeDirectorTimeline(out, "directorTimeline", project.getDirectorTimeline());
+        }
+        writeList(out, "camera-centerarea", "cameraTimeline", project.getCameraTimelines(),
+            StaxProjectCodec::writeCameraTimeline);
+        writeList(out, "users", "user", project.getUsers(), StaxProjectCodec::writeUser);
+        out.text("secondsPerCount", project.getSecondsPerCount());
+        out.text("filePath", project.getFilePath());
+        out.text("changed", project.isChanged());
+        out.end();
+    }
+
+    /**
+     * Write a camera type.
+     * @param out the output to write to
+     * @param name the name of the element
+     * @param type the camera type to write
+     * @throws XMLStreamException when writing fails
+     */
+    private static void writeCameraType(Output out, String name, CameraType type)
+            throws XMLStreamException {
+        out.start(name);
+        out.text("description", type.getDescription());
+        out.text("movementMargin", type.getMovementMargin());
+        out.text("name", type.getName());
+        out.end();
+    }
+
+    /**
+     * Write a camera.
+     * @param out the output to write to
+     * @param name the name of the element
+     * @param camera the camera to write
+     * @throws XMLStreamException when writing fails
+     */
+    private static void writeCamera(Output out, String name, Camera camera)
+            throws XMLStreamException {
+        out.start(name);
+        out.text("remoteCameraId", camera.getRemoteCameraId());
+        out.text("name", camera.getName());
+        out.text("description", camera.getDescription());
+        if (camera.getCameraType() != null) {
+            writeCameraTypeReference(out, "cameraType", camera.getCameraType());
+        }
+        out.text("ip", camera.getIp());
+        out.text("movementMargin", camera.getStoredMovementMargin());
+        out.text("instance", camera.getInstance());
+        out.end();
+    }
+
+    /**
+     * Write a reference to a camera type of the project, or a copy of a camera type that is
+     * not in the project.
+     * @param out the output to write to
+     * @param name the name of the element
+     * @param type the camera type to write
+     * @throws XMLStreamException when writing fails
+     */
+    private static void writeCameraTypeReference(Output out, String name, CameraType type)
+            throws XMLStreamException {
+        Integer index = out.typeIndices.get(type);
+        if (index == null && type.getReference() >= 0) {
+            // A placeholder that was not interned keeps its reference
+            index = type.getReference();
+        }
+        if (index == null) {
+            writeCameraType(out, name, type);
+        } else {
+            out.start(name);
+            out.text("ref", index.intValue());
+            out.end();
+        }
+    }
+
+    /**
+     * Write a reference to an instrument of the project, or a copy of an instrument that is
+     * not in the project.
+     * @param out the output to write to
+     * @param name the name of the element
+     * @param instrument the instrument to write
+     * @throws XMLStreamException when writing fails
+     */
+    private static void writeInstrumentReference(Output out, String name, Instrument instrument)
+            throws XMLStreamException {
+        Integer index = out.instrumentIndices.get(instrument);
+        if (index == null && instrument.getReference() >= 0) {
+            // A placeholder that was not interned keeps its reference
+            index = instrument.getReference();
+        }
+        if (index == null) {
+            writeInstrument(out, name, instrument);
+        } else {
+            out.start(name);
+            out.text("ref", index.intValue());
+            out.end();
+        }
+    }
+
+    /**
+     * Write an instrument.
+     * @param out the output to write to
+     * @param name the name of the element
+     * @param instrument the instrument to write
+     * @throws XMLStreamException when writing fails
+     */
+    private static void writeInstrument(Output out, String name, Instrument instrument)
+            throws XMLStreamException {
+        out.start(name);
+        out.text("description", instrument.getDescription());
+        out.text("name", instrument.getName());
+        out.end();
+    }
+
+    /**
+     * Write the director timeline.
+     * @param out the output to write to
+     * @param name the name of the element
+     * @param timeline the timeline to write
+     * @throws XMLStreamException when writing fails
+     */
+    private static void writeDirectorTimeline(Output out, String name, DirectorTimeline timeline)
+            throws XMLStreamException {
+        out.start(name);
+        writeList(out, "shotList", "shot", timeline.getShots(),
+            StaxProjectCodec::writeDirectorShot);
+        out.text("description", timeline.getDescription());
+        out.end();
+    }
+
+    /**
+     * Write a camera timeline.
+     * @param out the output to write to
+     * @param name the name of the element
+     * @param timeline the timeline to write
+     * @throws XMLStreamException when writing fails
+     */
+    private static void writeCameraTimeline(Output out, String name, CameraTimeline timeline)
+            throws XMLStreamException {
+        out.start(name);
+        if (timeline.getCamera() != null) {
+            writeCamera(out, "camera", timeline.getCamera());
+        }
+        writeList(out, "shotList", "shot", timeline.getShots(),
+            StaxProjectCodec::writeCameraShot);
+        out.text("instance", timeline.getInstance());
+        out.end();
+    }
+
+    /**
+     * Write the elements that all shots have.
+     * @param out the output to write to
+     * @param shot the shot to write
+     * @throws XMLStreamException when writing fails
+     */
+    private static void writeShotElements(Output out, Shot shot) throws XMLStreamException {
+        writeList(out, "instruments", "instrument", shot.getInstruments(),
+            StaxProjectCodec::writeInstrumentReference);
+        out.text("beginCount", shot.getBeginCount());
+        out.text("colliding", shot.isColliding());
+        out.text("description", shot.getDescription());
+        out.text("endCount", shot.getEndCount());
+        out.text("name", shot.getName());
+    }
+
+    /**
+     * Write a camera shot.
+     * @param out the output to write to
+     * @param name the name of the element
+     * @param shot the shot to write
+     * @throws XMLStreamException when writing fails
+     */
+    private static void writeCameraShot(Output out, String name, CameraShot shot)
+            throws XMLStreamException {
+        out.start(name);
+        writeShotElements(out, shot);
+        out.text("instance", shot.getInstance());
+        out.text("presetId", shot.getPresetId());
+        out.end();
+    }
+
+    /**
+     * Write a director shot, its camera shots by their instance.
+     * @param out the output to write to
+     * @param name the name of the element
+     * @param shot the shot to write
+     * @throws XMLStreamException when writing fails
+     */
+    private static void writeDirectorShot(Output out, String name, DirectorShot shot)
+            throws XMLStreamException {
+        out.start(name);
+        writeShotElements(out, shot);
+        if (shot.getCameraShots() != null) {
+            for (CameraShot cameraShot : shot.getCameraShots()) {
+                out.text("cameraShots", cameraShot.getInstance());
+            }
+        }
+        out.text("endShotPadding", shot.getEndShotPadding());
+        out.text("frontShotPadding", shot.getFrontShotPadding());
+        out.text("instance", shot.getInstance());
+        if (shot.getTimelineIndices() != null) {
+            for (Integer index : shot.getTimelineIndices()) {
+                if (index != null) {
+                    out.text("timelineIndices", index.intValue());
+                }
+            }
+        }
+        out.end();
+    }
+
+    /**
+     * Write a user.
+     * @param out the output to write to
+     * @param name the name of the element
+     * @param user the user to write
+     * @throws XMLStreamException when writing fails
+     */
+    private static void writeUser(Output out, String name, User user)
+            throws XMLStreamException {
+        out.start(name);
+        out.text("name", user.getName());
+        out.text("roleValue", user.getRoleValue());
+        if (user.getChosenTimelines() != null) {
+            out.start("chosenTimelines");
+            for (Integer timeline : user.getChosenTimelines()) {
+                if (timeline != null) {
+                    out.text("chosenTimeline", timeline.intValue());
+                }
+            }
+            out.end();
+        }
+        out.end();
+    }
+
+    /**
+     * Write a collection in a wrapper element. Nothing is written for a null collection.
+     * @param out the output to write to
+     * @param wrapper the name of the wrapper element
+     * @param item the name of the elements of the items
+     * @param items the items to write
+     * @param writer the writer of a single item
+     * @param <T> the type of the items
+     * @throws XMLStreamException when writing fails
+     */
+    private static <T> void writeList(Output out, String wrapper, String item,
+                                      Collection<? extends T> items, ElementWriter<T> writer)
+            throws XMLStreamException {
+        if (items == null) {
+            return;
+        }
+        out.start(wrapper);
+        for (T value : items) {
+            if (value != null) {
+                writer.write(out, item, value);
+            }
+        }
+        out.end();
+    }
+
+    /**
+     * Read a project, the reader is at the start of its element.
+     * @param reader the reader to read from
+     * @return the project
+     * @throws XMLStreamException when the project is not valid
+     */
+    private static ScriptingProject readProject(XMLStreamReader reader)
+            throws XMLStreamException {
+        ScriptingProject project = new ScriptingProject();
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case "cameraTypes":
+                    project.getCameraTypes().add(readCameraType(reader));
+                    break;
+                case "name":
+                    project.setName(reader.getElementText());
+                    break;
+                case "description":
+                    project.setDescription(reader.getElementText());
+                    break;
+                case "cameraList":
+                    project.setCameras(readList(reader, "camera", StaxProjectCodec::readCamera));
+                    break;
+                case "instrumentList":
+                    project.setInstruments(
+                        readList(reader, "instrument", StaxProjectCodec::readInstrument));
+                    break;
+                case "directorTimeline":
+                    project.setDirectorTimeline(readDirectorTimeline(reader));
+                    break;
+                default:
+                    readProjectElement(reader, project);
+                    break;
+            }
+        }
+        return project;
+    }
+
+    /**
+     * Read the elements of a project that are not read by {@link #readProject}.
+     * @param reader the reader to read from, at the start of the element
+     * @param project the project to read into
+     * @throws XMLStreamException when the element is not valid
+     */
+    private static void readProjectElement(XMLStreamReader reader, ScriptingProject project)
+            throws XMLStreamException {
+        switch (reader.getLocalName()) {
+            case "camera-centerarea":
+                project.setCameraTimelines(
+                    readList(reader, "cameraTimeline", StaxProjectCodec::readCameraTimeline));
+                break;
+            case "users":
+                project.setUsers(readList(reader, "user", StaxProjectCodec::readUser));
+                break;
+            case "secondsPerCount":
+                project.setSecondsPerCount(parseDouble(reader.getElementText()));
+                break;
+            case "filePath":
+                project.setFilePath(reader.getElementText());
+                break;
+            case "changed":
+                project.setChanged(parseBoolean(reader.getElementText()));
+                break;
+            default:
+                skipElement(reader);
+                break;
+        }
+    }
+
+    /**
+     * Read a camera type, the reader is at the start of its element.
+     * @param reader the reader to read from
+     * @return the camera type, or a placeholder if the element is a reference
+     * @throws XMLStreamException when the camera type is not valid
+     */
+    private static CameraType readCameraType(XMLStreamReader reader) throws XMLStreamException {
+        CameraType type = new CameraType();
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case "description":
+                    type.setDescription(reader.getElementText());
+                    break;
+                case "movementMargin":
+                    type.setMovementMargin(parseDouble(reader.getElementText()));
+                    break;
+                case "name":
+                    type.setName(reader.getElementText());
+                    break;
+                case "ref":
+                    type = CameraType.reference(parseInt(reader.getElementText()));
+                    break;
+                default:
+                    skipElement(reader);
+                    break;
+            }
+        }
+        return type;
+    }
+
+    /**
+     * Read a camera, the reader is at the start of its element.
+     * @param reader the reader to read from
+     * @return the camera
+     * @throws XMLStreamException when the camera is not valid
+     */
+    private static Camera readCamera(XMLStreamReader reader) throws XMLStreamException {
+        Camera camera = new Camera();
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case "remoteCameraId":
+                    camera.setRemoteCameraId(parseInt(reader.getElementText()));
+                    break;
+                case "name":
+                    camera.setName(reader.getElementText());
+                    break;
+                case "description":
+                    camera.setDescription(reader.getElementText());
+                    break;
+                case "cameraType":
+                    camera.setCameraType(readCameraType(reader));
+                    break;
+                case "ip":
+                    camera.setIp(reader.getElementText());
+                    break;
+                case "movementMargin":
+                    camera.setMovementMargin(parseDouble(reader.getElementText()));
+                    break;
+                case "instance":
+                    camera.setInstance(parseInt(reader.getElementText()));
+                    break;
+                default:
+                    skipElement(reader);
+                    break;
+            }
+        }
+        return camera;
+    }
+
+    /**
+     * Read an instrument, the reader is at the start of its element.
+     * @param reader the reader to read from
+     * @return the instrument, or a placeholder if the element is a reference
+     * @throws XMLStreamException when the instrument is not valid
+     */
+    private static Instrument readInstrument(XMLStreamReader reader) throws XMLStreamException {
+        Instrument instrument = new Instrument();
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case "description":
+                    instrument.setDescription(reader.getElementText());
+                    break;
+                case "name":
+                    instrument.setName(reader.getElementText());
+                    break;
+                case "ref":
+                    instrument = Instrument.reference(parseInt(reader.getElementText()));
+                    break;
+                default:
+                    skipElement(reader);
+                    break;
+            }
+        }
+        return instrument;
+    }
+
+    /**
+     * Read the director timeline, the reader is at the start of its element.
+     * @param reader the reader to read from
+     * @return the timeline, not linked to a project yet
+     * @throws XMLStreamException when the timeline is not valid
+     */
+    private static DirectorTimeline readDirectorTimeline(XMLStreamReader reader)
+            throws XMLStreamException {
+        DirectorTimeline timeline = new DirectorTimeline();
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case "shotList":
+                    timeline.setShots(readList(reader, "shot",
+                        StaxProjectCodec::readDirectorShot));
+                    break;
+                case "description":
+                    timeline.setDescription(reader.getElementText());
+                    break;
+                default:
+                    skipElement(reader);
+                    break;
+            }
+        }
+        return timeline;
+    }
+
+    /**
+     * Read a camera timeline, the reader is at the start of its element.
+     * @param reader the reader to read from
+     * @return the timeline, not linked to a project yet
+     * @throws XMLStreamException when the timeline is not valid
+     */
+    private static CameraTimeline readCameraTimeline(XMLStreamReader reader)
+            throws XMLStreamException {
+        CameraTimeline timeline = new CameraTimeline();
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case "camera":
+                    timeline.setCamera(readCamera(reader));
+                    break;
+                case "shotList":
+                    timeline.setShots(readList(reader, "shot", StaxProjectCodec::readCameraShot));
+                    break;
+                case "instance":
+                    timeline.setInstance(parseInt(reader.getElementText()));
+                    break;
+                default:
+                    skipElement(reader);
+                    break;
+            }
+        }
+        return timeline;
+    }
+
+    /**
+     * Read an element that all shots have into a shot.
+     * @param reader the reader to read from, at the start of the element
+     * @param shot the shot to read into
+     * @return false if the element is not one that all shots have, it is not read then
+     * @throws XMLStreamException when the element is not valid
+     */
+    private static boolean readShotElement(XMLStreamReader reader, Shot shot)
+            throws XMLStreamException {
+        switch (reader.getLocalName()) {
+            case "instruments":
+                shot.setInstruments(
+                    readList(reader, "instrument", StaxProjectCodec::readInstrument));
+                return true;
+            case "beginCount":
+                shot.setBeginCount(parseDouble(reader.getElementText()));
+                return true;
+            case "colliding":
+                shot.setColliding(parseBoolean(reader.getElementText()));
+                return true;
+            case "description":
+                shot.setDescription(reader.getElementText());
+                return true;
+            case "endCount":
+                shot.setEndCount(parseDouble(reader.getElementText()));
+                return true;
+            case "name":
+                shot.setName(reader.getElementText());
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Read a camera shot, the reader is at the start of its element.
+     * @param reader the reader to read from
+     * @return the shot
+     * @throws XMLStreamException when the shot is not valid
+     */
+    private static CameraShot readCameraShot(XMLStreamReader reader) throws XMLStreamException {
+        CameraShot shot = new CameraShot();
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            readCameraShotElement(reader, shot);
+        }
+        return shot;
+    }
+
+    /**
+     * Read an element of a camera shot into a shot, unknown elements are skipped.
+     * @param reader the reader to read from, at the start of the element
+     * @param shot the shot to read into
+     * @throws XMLStreamException when the element is not valid
+     */
+    private static void readCameraShotElement(XMLStreamReader reader, CameraShot shot)
+            throws XMLStreamException {
+        if (readShotElement(reader, shot)) {
+            return;
+        }
+        switch (reader.getLocalName()) {
+            case "instance":
+                shot.setInstance(parseInt(reader.getElementText()));
+                break;
+            case "presetId":
+                shot.setPresetId(parseInt(reader.getElementText()));
+                break;
+            default:
+                skipElement(reader);
+                break;
+        }
+    }
+
+    /**
+     * Read a camera shot of a director shot, the reader is at the start of its element. The
+     * element holds the instance of the shot, or a copy of the whole shot in files written
+     * before camera shots were stored by reference.
+     * @param reader the reader to read from
+     * @return a placeholder for the referenced shot, or the copy
+     * @throws XMLStreamException when the shot is not valid
+     */
+    private static CameraShot readCameraShotReference(XMLStreamReader reader)
+            throws XMLStreamException {
+        StringBuilder text = new StringBuilder();
+        int event = reader.next();
+        while (event != XMLStreamConstants.END_ELEMENT) {
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                CameraShot copy = new CameraShot();
+                do {
+                    readCameraShotElement(reader, copy);
+                } while (reader.nextTag() == XMLStreamConstants.START_ELEMENT);
+                return copy;
+            } else if (event == XMLStreamConstants.CHARACTERS
+                    || event == XMLStreamConstants.CDATA) {
+                text.append(reader.getText());
+            }
+            event = reader.next();
+        }
+        return CameraShot.reference(parseInt(text.toString()));
+    }
+
+    /**
+     * Read a director shot, the reader is at the start of its element. The camera shots are
+     * added last, so setting the counts of the director shot does not move copies of them.
+     * @param reader the reader to read from
+     * @return the shot
+     * @throws XMLStreamException when the shot is not valid
+     */
+    private static DirectorShot readDirectorShot(XMLStreamReader reader)
+            throws XMLStreamException {
+        DirectorShot shot = new DirectorShot();
+        List<CameraShot> cameraShots = new ArrayList<>();
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            if (readShotElement(reader, shot)) {
+                continue;
+            }
+            switch (reader.getLocalName()) {
+                case "cameraShots":
+                    cameraShots.add(readCameraShotReference(reader));
+                    break;
+                case "endShotPadding":
+                    shot.setEndShotPadding(parseDouble(reader.getElementText()));
+                    break;
+                case "frontShotPadding":
+                    shot.setFrontShotPadding(parseDouble(reader.getElementText()));
+                    break;
+                case "instance":
+                    shot.setInstance(parseInt(reader.getElementText()));
+                    break;
+                case "timelineIndices":
+                    shot.addCameraTimelineIndex(parseInt(reader.getElementText()));
+                    break;
+                default:
+                    skipElement(reader);
+                    break;
+            }
+        }
+        cameraShots.forEach(shot::addCameraShot);
+        return shot;
+    }
+
+    /**
+     * Read a user, the reader is at the start of its element.
+     * @param reader the reader to read from
+     * @return the user
+     * @throws XMLStreamException when the user is not valid
+     */
+    private static User readUser(XMLStreamReader reader) throws XMLStreamException {
+        User user = new User();
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case "name":
+                    user.setName(reader.getElementText());
+                    break;
+                case "roleValue":
+                    user.setRoleValue(parseInt(reader.getElementText()));
+                    break;
+                case "chosenTimelines":
+                    user.setChosenTimelines(readList(reader, "chosenTimeline",
+                        r -> parseInt(r.getElementText())));
+                    break;
+                default:
+                    skipElement(reader);
+                    break;
+            }
+        }
+        return user;
+    }
+
+    /**
+     * Read the items in a wrapper element, the reader is at the start of the wrapper.
+     * Other elements in the wrapper are skipped.
+     * @param reader the reader to read from
+     * @param item the name of the elements of the items
+     * @param itemReader the reader of a single item
+     * @param <T> the type of the items
+     * @return the items, in document order
+     * @throws XMLStreamException when an item is not valid
+     */
+    private static <T> ArrayList<T> readList(XMLStreamReader reader, String item,
+                                             ElementReader<T> itemReader)
+            throws XMLStreamException {
+        ArrayList<T> items = new ArrayList<>();
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            if (item.equals(reader.getLocalName())) {
+                items.add(itemReader.read(reader));
+            } else {
+                skipElement(reader);
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Skip an element and everything in it, the reader is at the start of the element.
+     * @param reader the reader to read from
+     * @throws XMLStreamException when the document is not valid
+     */
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Parse an xml double, the way JAXB does.
+     * @param text the text to parse
+     * @return the value
+     */
+    private static double parseDouble(String text) {
+        String value = text.trim();
+        switch (value) {
+            case "INF":
+                return Double.POSITIVE_INFINITY;
+            case "-INF":
+                return Double.NEGATIVE_INFINITY;
+            default:
+                return Double.parseDouble(value);
+        }
+    }
+
+    /**
+     * Parse an xml int.
+     * @param text the text to parse
+     * @return the value
+     */
+    private static int parseInt(String text) {
+        return Integer.parseInt(text.trim());
+    }
+
+    /**
+     * Parse an xml boolean.
+     * @param text the text to parse
+     * @return the value, false if the text is not a boolean
+     */
+    private static boolean parseBoolean(String text) {
+        String value = text.trim();
+        return "true".equals(value) || "1".equals(value);
+    }
+
+    /**
+     * Print an xml double, the way JAXB does.
+     * @param value the value to print
+     * @return the text
+     */
+    private static String printDouble(double value) {
+        if (value == Double.POSITIVE_INFINITY) {
+            return "INF";
+        } else if (value == Double.NEGATIVE_INFINITY) {
+            return "-INF";
+        }
+        return String.valueOf(value);
+    }
+
+    /**
+     * Reads a single value from its element.
+     * @param <T> the type of the value
+     */
+    @FunctionalInterface
+    private interface ElementReader<T> {
+        /**
+         * Read the value, the reader is at the start of its element and should be left at the
+         * end of it.
+         * @param reader the reader to read from
+         * @return the value
+         * @throws XMLStreamException when the value is not valid
+         */
+        T read(XMLStreamReader reader) throws XMLStreamException;
+    }
+
+    /**
+     * Writes a single value as an element.
+     * @param <T> the type of the value
+     */
+    @FunctionalInterface
+    private interface ElementWriter<T> {
+        /**
+         * Write the value.
+         * @param out the output to write to
+         * @param name the name of the element
+         * @param value the value to write
+         * @throws XMLStreamException when writing fails
+         */
+        void write(Output out, String name, T value) throws XMLStreamException;
+    }
+
+    /**
+     * Stream writer with the indentation of the formatted JAXB output. Elements with only text
+     * stay on one line, other elements put every child on its own line, and an element
+     * without content is written as an empty element.
+     */
+    private static final class Output {
+        private final XMLStreamWriter writer;
+
+        // Element that has been started, but not written as it may still turn out to be empty.
+        private String pending;
+
+        // Number of open elements that have been written.
+        private int depth;
+
+        // Index of every camera type and instrument of the project, to write references.
+        private final Map<CameraType, Integer> typeIndices = new IdentityHashMap<>();
+        private final Map<Instrument, Integer> instrumentIndices = new IdentityHashMap<>();
+
+        /**
+         * Constructor.
+         * @param writer the stream writer to write to
+         * @param project the project that will be written
+         */
+        private Output(XMLStreamWriter writer, ScriptingProject project) {
+            this.writer = writer;
+            indexOf(project.getCameraTypes(), typeIndices);
+            indexOf(project.getInstruments(), instrumentIndices);
+        }
+
+        /**
+         * Put the index of every item in a list in a map, the first index of an item wins.
+         * @param items the items, may be null
+         * @param indices the map to put the indices in
+         * @param <T> the type of the items
+         */
+        private static <T> void indexOf(List<T> items, Map<T, Integer> indices) {
+            if (items != null) {
+                for (int i = 0; i < items.size(); i++) {
+                    indices.putIfAbsent(items.get(i), i);
+                }
+            }
+        }
+
+        /**
+         * Start an element that will get child elements.
+         * @param name the name of the element
+         * @throws XMLStreamException when writing fails
+         */
+        private void start(String name) throws XMLStreamException {
+            open();
+            pending = name;
+        }
+
+        /**
+         * End the last started element.
+         * @throws XMLStreamException when writing fails
+         */
+        private void end() throws XMLStreamException {
+            if (pending != null) {
+                newLine();
+                writer.writeEmptyElement(pending);
+                pending = null;
+            } else {
+                depth--;
+                newLine();
+                writer.writeEndElement();
+            }
+        }
+
+        /**
+         * Write an element with text, nothing is written for null.
+         * @param name the name of the element
+         * @param value the text of the element
+         * @throws XMLStreamException when writing fails
+         */
+        private void text(String name, String value) throws XMLStreamException {
+            if (value == null) {
+                return;
+            }
+            open();
+            newLine();
+            writer.writeStartElement(name);
+            writer.writeCharacters(value);
+            writer.writeEndElement();
+        }
+
+        /**
+         * Write an element with a double.
+         * @param name the name of the element
+         * @param value the value of the element
+         * @throws XMLStreamException when writing fails
+         */
+        private void text(String name, double value) throws XMLStreamException {
+            text(name, printDouble(value));
+        }
+
+        /**
+         * Write an element with an int.
+         * @param name the name of the element
+         * @param value the value of the element
+         * @throws XMLStreamException when writing fails
+         */
+        private void text(String name, int value) throws XMLStreamException {
+            text(name, Integer.toString(value));
+        }
+
+        /**
+         * Write an element with a boolean.
+         * @param name the name of the element
+         * @param value the value of the element
+         * @throws XMLStreamException when writing fails
+         */
+        private void text(String name, boolean value) throws XMLStreamException {
+            text(name, Boolean.toString(value));
+        }
+
+        /**
+         * Write the pending element, as it gets content.
+         * @throws XMLStreamException when writing fails
+         */
+        private void open() throws XMLStreamException {
+            if (pending != null) {
+                newLine();
+                writer.writeStartElement(pending);
+                pending = null;
+                depth++;
+            }
+        }
+
+        /**
+         * Start a new line at the current depth.
+         * @throws XMLStreamException when writing fails
+         */
+        private void newLine() throws XMLStreamException {
+            StringBuilder builder = new StringBuilder(1 + depth * INDENT).append('\n');
+            for (int i = 0; i < depth * INDENT; i++) {
+                builder.append(' ');
+            }
+            writer.writeCharacters(builder.toString());
+        }
+
+        /**
+         * End the document with a new line, like JAXB does.
+         * @throws XMLStreamException when writing fails
+         */
+        private void finish() throws XMLStreamException {
+            writer.writeCharacters("\n");
+            writer.flush();
+        }
+    }
+}
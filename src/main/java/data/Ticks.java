@@ -0,0 +1,78 @@
+package data;
+
+/**
+ * Fixed point representation of counts. A count is split in a power of two number of ticks,
+ * so every count that can be placed on the grid is a whole number of ticks, comparing counts
+ * is exact and converting between ticks and grid cells is a shift.
+ */
+public final class Ticks {
+
+    // Number of bits used for the part of a count behind the point.
+    public static final int FRACTION_BITS = 10;
+
+    // Number of ticks in one count.
+    public static final long TICKS_PER_COUNT = 1L << FRACTION_BITS;
+
+    // Number of bits used for the cells of one count in the grid.
+    public static final int CELL_BITS = 2;
+
+    // Number of cells of one count in the grid.
+    public static final int CELLS_PER_COUNT = 1 << CELL_BITS;
+
+    // Shift between ticks and cells.
+    private static final int CELL_SHIFT = FRACTION_BITS - CELL_BITS;
+
+    // Half a cell in ticks, added before shifting to round to the nearest cell.
+    private static final long HALF_CELL = 1L << (CELL_SHIFT - 1);
+
+    /**
+     * Private constructor, only static methods.
+     */
+    private Ticks() {
+    }
+
+    /**
+     * Convert counts to the nearest number of ticks.
+     * @param counts the counts to convert
+     * @return the number of ticks
+     */
+    public static long fromCounts(double counts) {
+        return Math.round(counts * TICKS_PER_COUNT);
+    }
+
+    /**
+     * Convert ticks to counts.
+     * @param ticks the ticks to convert
+     * @return the number of counts
+     */
+    public static double toCounts(long ticks) {
+        return ticks / (double) TICKS_PER_COUNT;
+    }
+
+    /**
+     * Convert ticks to the nearest grid cell.
+     * @param ticks the ticks to convert
+     * @return the number of cells
+     */
+    public static int toCells(long ticks) {
+        return (int) ((ticks + HALF_CELL) >> CELL_SHIFT);
+    }
+
+    /**
+     * Convert grid cells to ticks.
+     * @param cells the cells to convert
+     * @return the number of ticks
+     */
+    public static long fromCells(int cells) {
+        return (long) cells << CELL_SHIFT;
+    }
+
+    /**
+     * Round counts to the nearest grid cell.
+     * @param counts the counts to round
+     * @return the rounded counts
+     */
+    public static double roundToCells(double counts) {
+        return toCounts(fromCells(toCells(fromCounts(counts))));
+    }
+}
@@ -2,6 +2,11 @@ package data;
 
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlTransient;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
 
 import lombok.Setter;
 
@@ -54,6 +59,66 @@ public abstract class Timeline {
         return false;
     }
 
+    /**
+     * Get the shots in this timeline.
+     * @return the shots, sorted on begin count and end count
+     */
+    @XmlTransient
+    public abstract ShotIndex<? extends Shot> getShots();
+
+    /**
+     * Get the margin in seconds that shots in this timeline need between them.
+     * @return the margin in seconds
+     */
+    @XmlTransient
+    public abstract double getCollisionMargin();
+
+    /**
+     * Update the collisions of a shot with the other shots in this timeline.
+     * @param shot the shot to check with
+     * @return the colliding shots, followed by the shot itself
+     */
+    public abstract List<? extends Shot> updateCollisions(Shot shot);
+
+    /**
+     * Get the shots in the index that collide with the given shot. Only the shots near the
+     * shot and the shots it collided with before are checked, the collision state of those
+     * shots is updated.
+     *
+     * @param shots the index of the timeline
+     * @param shot the shot to check with
+     * @param seconds the seconds to use for the margin
+     * @param <T> the type of shot in the timeline
+     * @return the colliding shots in sorted order, followed by the shot itself
+     */
+    protected <T extends Shot> ArrayList<T> findOverlappingShots(ShotIndex<T> shots, T shot,
+                                                                 double seconds) {
+        long margin = Math.abs(Ticks.fromCounts(project.secondsToCounts(seconds)));
+        long low = Math.min(shot.getBeginTicks(), shot.getEndTicks()) - margin;
+        long high = Math.max(shot.getBeginTicks(), shot.getEndTicks()) + margin;
+        List<T> candidates = shots.getOverlappingTicks(low, high);
+
+        // Shots that moved away from this shot still have to lose their collision
+        if (!shot.getCollidesWith().isEmpty()) {
+            Set<Shot> near = Collections.newSetFromMap(new IdentityHashMap<>());
+            near.addAll(candidates);
+            shot.getCollidesWith().forEach(other -> {
+                    if (shots.containsShot(other) && !near.contains(other)) {
+                        checkOverlap(shot, other, seconds);
+                    }
+                });
+        }
+
+        ArrayList<T> result = new ArrayList<>();
+        candidates.stream()
+            .filter(other -> shot != other)
+            .filter(other -> checkOverlap(shot, other, seconds))
+            .forEach(result::add);
+        shot.setColliding(!shot.getCollidesWith().isEmpty());
+        result.add(shot);
+        return result;
+    }
+
     @XmlTransient
     public ScriptingProject getProject() {
         return project;
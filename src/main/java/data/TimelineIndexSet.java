@@ -0,0 +1,218 @@
+package data;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Set of the camera timelines a director shot uses, as a bit mask over the timeline indices.
+ * The first 64 timelines fit in a single long, so a director shot of a typical project does
+ * not allocate anything for its timelines. Iterating visits the set bits in increasing order.
+ */
+public class TimelineIndexSet extends AbstractSet<Integer> {
+
+    // Number of timeline indices in a word of the mask.
+    private static final int WORD_BITS = Long.SIZE;
+
+    // Bits of the timeline indices below 64.
+    private long mask;
+
+    // Bits of the timeline indices from 64 on, word i holds indices 64 * (i + 1) and up.
+    // Null until such an index is added.
+    private long[] overflow;
+
+    // Number of timeline indices in the set.
+    private int size;
+
+    /**
+     * Constructor for an empty set.
+     */
+    public TimelineIndexSet() {
+        this.size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check if a timeline index is in the set, without boxing it.
+     * @param index the timeline index
+     * @return true if the index is in the set
+     */
+    public boolean containsIndex(int index) {
+        if (index < 0) {
+            return false;
+        }
+        return (word(index / WORD_BITS) & bit(index)) != 0;
+    }
+
+    @Override
+    public boolean contains(Object object) {
+        return object instanceof Integer && containsIndex((Integer) object);
+    }
+
+    /**
+     * Add a timeline index to the set.
+     * @param index the timeline index, may not be negative
+     * @return true if the index was not in the set yet
+     */
+    @Override
+    public boolean add(Integer index) {
+        if (index < 0) {
+            throw new IllegalArgumentException("Timeline index can not be negative: " + index);
+        }
+        if (containsIndex(index)) {
+            return false;
+        }
+        int word = index / WORD_BITS;
+        if (word == 0) {
+            mask |= bit(index);
+        } else {
+            if (overflow == null || overflow.length < word) {
+                overflow = overflow == null ? new long[word] : Arrays.copyOf(overflow, word);
+            }
+            overflow[word - 1] |= bit(index);
+        }
+        size++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object object) {
+        if (!contains(object)) {
+            return false;
+        }
+        int index = (Integer) object;
+        int word = index / WORD_BITS;
+        if (word == 0) {
+            mask &= ~bit(index);
+        } else {
+            overflow[word - 1] &= ~bit(index);
+        }
+        size--;
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        mask = 0;
+        overflow = null;
+        size = 0;
+    }
+
+    /**
+     * Run an action for every timeline index in increasing order, without boxing them. The
+     * indices are taken from a copy of the mask, so the action may change the set.
+     * @param action the action to run for every index
+     */
+    public void forEachIndex(IntConsumer action) {
+        long[] words = overflow == null ? null : overflow.clone();
+        forEachBit(mask, 0, action);
+        if (words != null) {
+            for (int word = 0; word < words.length; word++) {
+                forEachBit(words[word], (word + 1) * WORD_BITS, action);
+            }
+        }
+    }
+
+    @Override
+    public void forEach(Consumer<? super Integer> action) {
+        forEachIndex(action::accept);
+    }
+
+    /**
+     * Iterates over a copy of the mask, so the set may be changed while iterating.
+     * @return an iterator over the timeline indices in increasing order
+     */
+    @Override
+    public Iterator<Integer> iterator() {
+        long[] words = words();
+        return new Iterator<Integer>() {
+            private int word = 0;
+            private long bits = words.length == 0 ? 0 : words[0];
+            private int last = -1;
+
+            @Override
+            public boolean hasNext() {
+                while (bits == 0 && word + 1 < words.length) {
+                    word++;
+                    bits = words[word];
+                }
+                return bits != 0;
+            }
+
+            @Override
+            public Integer next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                last = word * WORD_BITS + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                if (last < 0) {
+                    throw new IllegalStateException();
+                }
+                TimelineIndexSet.this.remove(last);
+                last = -1;
+            }
+        };
+    }
+
+    /**
+     * Get a word of the mask.
+     * @param word the number of the word
+     * @return the bits of the word, 0 if it was never allocated
+     */
+    private long word(int word) {
+        if (word == 0) {
+            return mask;
+        }
+        return overflow == null || overflow.length < word ? 0 : overflow[word - 1];
+    }
+
+    /**
+     * Copy all words of the mask.
+     * @return the words, starting with the indices below 64
+     */
+    private long[] words() {
+        int length = overflow == null ? 1 : overflow.length + 1;
+        long[] words = new long[length];
+        words[0] = mask;
+        if (overflow != null) {
+            System.arraycopy(overflow, 0, words, 1, overflow.length);
+        }
+        return words;
+    }
+
+    /**
+     * Run an action for every set bit of a word.
+     * @param bits the bits of the word
+     * @param base the timeline index of the lowest bit
+     * @param action the action to run for every index
+     */
+    private static void forEachBit(long bits, int base, IntConsumer action) {
+        long remaining = bits;
+        while (remaining != 0) {
+            action.accept(base + Long.numberOfTrailingZeros(remaining));
+            remaining &= remaining - 1;
+        }
+    }
+
+    /**
+     * Get the bit of a timeline index within its word.
+     * @param index the timeline index
+     * @return the bit
+     */
+    private static long bit(int index) {
+        return 1L << (index % WORD_BITS);
+    }
+}
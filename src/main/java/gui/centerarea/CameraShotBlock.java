@@ -4,6 +4,7 @@ import data.CameraShot;
 import gui.root.RootCenterArea;
 import gui.events.CameraShotBlockUpdatedEvent;
 import gui.events.ShotblockUpdatedEvent;
+import javafx.beans.value.ChangeListener;
 import javafx.event.EventHandler;
 import lombok.Getter;
 
@@ -27,6 +28,10 @@ public class CameraShotBlock extends ShotBlock {
     // The grid this camershotblock belongs to
     @Getter
     private TimelinesGridPane grid;
+
+    // Listeners on the counts of the shot, removed with the view.
+    private ChangeListener<Number> beginCountListener;
+    private ChangeListener<Number> endCountListener;
     
 
     /**
@@ -39,7 +44,7 @@ public class CameraShotBlock extends ShotBlock {
     public CameraShotBlock(int timetableNumber, RootCenterArea rootCenterArea,
                            EventHandler<CameraShotBlockUpdatedEvent> handler, CameraShot shot) {
 
-        super(rootCenterArea, shot, CameraTimetableBlock.class);
+        super(rootCenterArea, shot, CameraTimetableBlock.class, CameraTimetableBlock::new);
 
         this.shotId = shot.getInstance();
         this.timetableNumber = timetableNumber;
@@ -49,15 +54,17 @@ public class CameraShotBlock extends ShotBlock {
         this.previousEndCount = -1;
         this.previousTimetableNumber = -1;
 
-        this.getShot().getBeginCountProperty().addListener((observable, oldValue, newValue) -> {
+        this.beginCountListener = (observable, oldValue, newValue) -> {
                 this.forceSetBeginCount(newValue.doubleValue());
-            });
+            };
+        this.getShot().getBeginCountProperty().addListener(beginCountListener);
 
-        this.getShot().getEndCountProperty().addListener(((observable, oldValue, newValue) -> {
+        this.endCountListener = (observable, oldValue, newValue) -> {
                 this.forceSetEndCount(newValue.doubleValue());
-            }));
+            };
+        this.getShot().getEndCountProperty().addListener(endCountListener);
 
-        this.getTimetableBlock().addEventHandler(ShotblockUpdatedEvent.SHOTBLOCK_UPDATED, e -> {
+        this.attachEventHandler(e -> {
                 this.previousTimetableNumber = this.timetableNumber;
                 this.timetableNumber = TimelinesGridPane.getColumnIndex(
                     this.getTimetableBlock());
@@ -115,10 +122,14 @@ public class CameraShotBlock extends ShotBlock {
     }
 
     /**
-     * Remove this CameraShotBlock's view from the view that it's in.
+     * Remove this CameraShotBlock's view from the view that it's in. The timetable block
+     * can be reused by a new shot block, so this block stops following its shot.
      */
     public void removeFromView() {
         this.grid.removeCameraShotBlock(this);
+        this.getShot().getBeginCountProperty().removeListener(beginCountListener);
+        this.getShot().getEndCountProperty().removeListener(endCountListener);
+        releaseTimetableBlock();
     }
 
     /**
@@ -19,8 +19,6 @@ public class CameraTimetableBlock extends TimetableBlock {
 
         // pane helpers
         initNormalPane();
-        initDraggedPane();
-        initFeedbackPane();
 
         // Mouse event handlers
         super.addMouseEventHandlers(true);
@@ -31,16 +29,4 @@ public class CameraTimetableBlock extends TimetableBlock {
         // Add width/height properties, title label, count label and description label
         super.initNormalPane();
     }
-
-    /**
-     * Initialize the dragpane with blur, title, count and description labels.
-     */
-    void initDraggedPane() {
-        super.initDraggedPane(getRootCenterArea().getMainTimeLineAnchorPane());
-    }
-
-    void initFeedbackPane() {
-        // Init feedbackpane with blur and darken
-        super.initFeedbackPane(getRootCenterArea().getMainTimeLineGridPane());
-    }
 }
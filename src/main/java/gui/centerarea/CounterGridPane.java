@@ -1,22 +1,22 @@
 package gui.centerarea;
 
 import control.CountUtilities;
-import javafx.geometry.HPos;
-import javafx.scene.control.Label;
-import javafx.scene.layout.Priority;
-import javafx.scene.layout.RowConstraints;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
 
 /**
  * Class that represents the grid pane in the scrollable counter bar.
  */
 public class CounterGridPane extends ScrollableGridPane {
 
-    /**
-     * Styling string here is temporary, until my (Mark's) big CSS branch is ready.
-     * It has separate CSS files for all stylized elements, but I'm not merging it
-     * until its done.
-     */
-    private String labelStyle = "-fx-padding: 0 5 0 0;";
+    // Space between the numbers and the right of the counter bar.
+    private static final double NUMBER_PADDING = 5;
+
+    // Color of the numbers.
+    private static final Color NUMBER_COLOR = Color.gray(0.2);
 
     /**
      * Constructor for a CounterGridPane.
@@ -27,46 +27,26 @@ public class CounterGridPane extends ScrollableGridPane {
     public CounterGridPane(int numberOfCounts, int width, int verticalElementSize) {
         super(1, numberOfCounts, width, verticalElementSize);
         setStyle("-fx-background-color: rgba(0,0,0,0.0.15);");
-        initGridConstaints(numberOfCounts, verticalElementSize);
-        initGridNumbers(numberOfCounts);
-    }
-
-    /**
-     * Initialize grid constraints, offset by half a count size.
-     * @param numberOfCounts number of counts used.
-     * @param verticalElementSize size of usual vertical elements.
-     */
-    private void initGridConstaints(int numberOfCounts, int verticalElementSize) {
-        // remove row constraints, as we want to override them
-        getRowConstraints().clear();
-
-        // offset our grid by half a grid size, so grid numbers are located in the middle!
-        RowConstraints rcPre = new RowConstraints();
-        rcPre.setMinHeight(verticalElementSize / 2.0);
-        rcPre.setVgrow(Priority.ALWAYS);
-        this.getRowConstraints().add(rcPre);
-
-        // set actual vertical constraints to grid.
-        for (int i = 0; i < numberOfCounts; i++) {
-            RowConstraints rc = new RowConstraints();
-            rc.setMinHeight(verticalElementSize);
-            rc.setPercentHeight(100.0 / numberOfCounts);
-            rc.setVgrow(Priority.ALWAYS);
-            this.getRowConstraints().add(rc);
-        }
     }
 
     /**
-     * Add number labels to all the correct grids.
-     * @param numberOfCounts number of counts used.
+     * Draw the number of every visible count, in the middle of the line above the count.
+     * @param gc the graphics context, in the coordinates of the grid
+     * @param firstRow the first visible row
+     * @param lastRow the last visible row
      */
-    private void initGridNumbers(int numberOfCounts) {
+    @Override
+    protected void drawBackground(GraphicsContext gc, int firstRow, int lastRow) {
         int cellsPerCount = CountUtilities.NUMBER_OF_CELLS_PER_COUNT;
-        for (int i = cellsPerCount; i < numberOfCounts; i += cellsPerCount) {
-            Label label = new Label(Integer.toString(i / cellsPerCount));
-            label.setStyle(labelStyle);
-            setHalignment(label, HPos.RIGHT);
-            this.add(label, 0, i);
+        gc.setFill(NUMBER_COLOR);
+        gc.setFont(Font.getDefault());
+        gc.setTextAlign(TextAlignment.RIGHT);
+        gc.setTextBaseline(VPos.CENTER);
+        // A number sticks out of its row, the one just below the visible rows shows as well
+        int first = Math.max(cellsPerCount, firstRow - firstRow % cellsPerCount);
+        for (int row = first; row <= lastRow + 1; row += cellsPerCount) {
+            gc.fillText(Integer.toString(row / cellsPerCount), getWidth() - NUMBER_PADDING,
+                    row * getVerticalElementSize());
         }
     }
 }
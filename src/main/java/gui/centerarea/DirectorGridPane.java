@@ -1,8 +1,7 @@
 package gui.centerarea;
 
-import java.util.ArrayList;
-
 import control.CountUtilities;
+import javafx.scene.canvas.GraphicsContext;
 
 /**
  * Class that represents the grid pane in the scrollable director timeline.
@@ -18,7 +17,6 @@ public class DirectorGridPane extends ScrollableGridPane {
     public DirectorGridPane(int numberOfCounts, int width, int verticalElementSize) {
         super(1, numberOfCounts, width, verticalElementSize);
         setStyle("-fx-background-color: rgba(0,0,0,0.04);");
-        addPanes();
     }
 
     /**
@@ -27,14 +25,12 @@ public class DirectorGridPane extends ScrollableGridPane {
      */
     public void addDirectorShotBlock(DirectorShotBlock block) {
         this.add(block.getTimetableBlock(), 0,
-            (int) Math.round(block.getBeginCount() * CountUtilities.NUMBER_OF_CELLS_PER_COUNT),
-                1, (int) Math.round(block.getEndCount() - block.getBeginCount())
-                    * CountUtilities.NUMBER_OF_CELLS_PER_COUNT);
-        ((DirectorTimetableBlock) block.getTimetableBlock()).getPaddingBeforeLabel().setText(
-                "Front Padding: " + Double.toString(block.getPaddingBefore()));
-        ((DirectorTimetableBlock) block.getTimetableBlock()).getPaddingAfterLabel().setText(
-                "Back Padding: " + Double.toString(block.getPaddingAfter()));
-        block.getTimetableBlock().getInstrumentBox().getChildren().clear();
+            CountUtilities.countToRow(block.getBeginCount()), 1,
+                CountUtilities.countToRow(block.getEndCount() - block.getBeginCount()));
+        DirectorTimetableBlock timetableBlock = (DirectorTimetableBlock) block.getTimetableBlock();
+        timetableBlock.setPaddingBefore(block.getPaddingBefore());
+        timetableBlock.setPaddingAfter(block.getPaddingAfter());
+        timetableBlock.clearInstruments();
         
         block.getInstruments().forEach(e -> {
                 block.getTimetableBlock().addInstrument(e);
@@ -47,25 +43,13 @@ public class DirectorGridPane extends ScrollableGridPane {
     }
 
     /**
-     * Add snapping panes to grid. Also apply line separators to grid, once every few skips.
+     * Draw the lines of the counts.
+     * @param gc the graphics context, in the coordinates of the grid
+     * @param firstRow the first visible row
+     * @param lastRow the last visible row
      */
-    private void addPanes() {
-        setPanes(new ArrayList<>());
-        int c;
-        for (int i = 0; i < getNumberOfHorizontalGrids(); i++) {
-            c = 1;
-            for (int j = 0; j < getNumberOfVerticalGrids(); j++) {
-                SnappingPane pane = new SnappingPane(j, i);
-                this.add(pane, i, j);
-                getPanes().add(pane);
-                if (c > CountUtilities.NUMBER_OF_CELLS_PER_COUNT) {
-                    pane.getStyleClass().add("director_Background_Lines");
-                    c = 2;
-                } else {
-                    pane.getStyleClass().add("director_Background_Empty");
-                    c++;
-                }
-            }
-        }
+    @Override
+    protected void drawBackground(GraphicsContext gc, int firstRow, int lastRow) {
+        drawCountLines(gc, firstRow, lastRow);
     }
 }
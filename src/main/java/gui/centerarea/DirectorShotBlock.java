@@ -43,7 +43,7 @@ public class DirectorShotBlock extends ShotBlock {
                              EventHandler<DirectorShotBlockUpdatedEvent> handler,
                              DirectorShot shot) {
 
-        super(rootCenterArea, shot, DirectorTimetableBlock.class);
+        super(rootCenterArea, shot, DirectorTimetableBlock.class, DirectorTimetableBlock::new);
         
         this.paddingBefore = shot.getFrontShotPadding();
         this.paddingAfter = shot.getEndShotPadding();
@@ -53,7 +53,7 @@ public class DirectorShotBlock extends ShotBlock {
         this.shotId = shot.getInstance();
         this.grid = rootCenterArea.getDirectorGridPane();
 
-        this.getTimetableBlock().addEventHandler(ShotblockUpdatedEvent.SHOTBLOCK_UPDATED, e -> {
+        this.attachEventHandler(e -> {
 
                 if (e instanceof DirectorShotBlockUpdatedEvent) {
                     handler.handle((DirectorShotBlockUpdatedEvent) e);
@@ -82,12 +82,7 @@ public class DirectorShotBlock extends ShotBlock {
      */
     public void setPaddingBefore(double padding) {
         this.paddingBefore = padding;
-        ((DirectorTimetableBlock) this.getTimetableBlock())
-            .getPaddingBeforeLabel().setText(
-                "Front Padding: " + Double.toString(padding));
-        ((DirectorTimetableBlock) this.getTimetableBlock())
-                .getPaddingBeforeDraggedLabel().setText(
-                "Front Padding: " + Double.toString(padding));
+        ((DirectorTimetableBlock) this.getTimetableBlock()).setPaddingBefore(padding);
     }
     
     /**
@@ -96,12 +91,7 @@ public class DirectorShotBlock extends ShotBlock {
      */
     public void setPaddingAfter(double padding) {
         this.paddingAfter = padding;
-        ((DirectorTimetableBlock) this.getTimetableBlock())
-            .getPaddingAfterLabel().setText(
-                    "Back Padding: " + Double.toString(padding));
-        ((DirectorTimetableBlock) this.getTimetableBlock())
-                .getPaddingAfterDraggedLabel().setText(
-                "Back Padding: " + Double.toString(padding));
+        ((DirectorTimetableBlock) this.getTimetableBlock()).setPaddingAfter(padding);
     }
     
     @Override
@@ -119,6 +109,7 @@ public class DirectorShotBlock extends ShotBlock {
      */
     public void removeFromView() {
         this.grid.removeDirectorShotBlock(this);
+        releaseTimetableBlock();
     }
     
     /**
@@ -1,24 +1,16 @@
 package gui.centerarea;
 
-import gui.misc.TweakingHelper;
 import gui.root.RootCenterArea;
-import javafx.scene.control.Label;
-import javafx.scene.layout.VBox;
-import lombok.Getter;
 
 /**
  *      This class is used to display DirectorShotBlocks on the DirectorGridPane.
  *      All styling and labels should be added here.
  */
 public class DirectorTimetableBlock extends TimetableBlock {
-    @Getter
-    private Label paddingBeforeLabel;
-    @Getter
-    private Label paddingAfterLabel;
-    @Getter
-    private Label paddingBeforeDraggedLabel;
-    @Getter
-    private Label paddingAfterDraggedLabel;
+
+    // Indices of the padding lines after the instruments.
+    private int paddingBeforeLine;
+    private int paddingAfterLine;
 
     /**
      * Constructor for DirectorTimetableBlock class.
@@ -31,8 +23,6 @@ public class DirectorTimetableBlock extends TimetableBlock {
 
         // pane helpers
         initNormalPane();
-        initDraggedPane();
-        initFeedbackPane();
 
         // Mouse event handlers
         super.addMouseEventHandlers(false);
@@ -42,55 +32,49 @@ public class DirectorTimetableBlock extends TimetableBlock {
     void initNormalPane() {
         // Add width/height properties, title label, count label and description label
         super.initNormalPane();
-        super.addSeparator(this.getContentPane());
-        paddingBeforeLabel = initFrontPaddingLabel(this.getContentPane());
-        paddingAfterLabel = initEndPaddingLabel(this.getContentPane());
+        DirectorShotBlock parent = (DirectorShotBlock) this.getParentBlock();
+        paddingBeforeLine = addExtraLine(paddingBeforeText(parent.getPaddingBefore()));
+        paddingAfterLine = addExtraLine(paddingAfterText(parent.getPaddingAfter()));
+    }
+
+    @Override
+    void rebind(ShotBlock parent) {
+        super.rebind(parent);
+        setPaddingBefore(((DirectorShotBlock) parent).getPaddingBefore());
+        setPaddingAfter(((DirectorShotBlock) parent).getPaddingAfter());
     }
-    
+
     /**
-     * Init the front padding label.
-     * @param vbox the content pane to put the label in
-     * @return the initialized label
+     * Set the padding before the shot shown in this block.
+     * @param padding the padding
      */
-    private Label initFrontPaddingLabel(VBox vbox) {
-        Label res = new Label("Front Padding: " + Double.toString(
-                (((DirectorShotBlock) this.getParentBlock()).getPaddingBefore())));
-        res.maxWidthProperty().bind(super.widthProperty());
-        res.getStyleClass().add("block_Text_Normal");
-        res.setStyle("-fx-text-fill:" + TweakingHelper.getColorString(2) + ";");
-        vbox.getChildren().add(res);
-        return res;
+    public void setPaddingBefore(double padding) {
+        setExtraLine(paddingBeforeLine, paddingBeforeText(padding));
     }
-    
+
     /**
-     * Init the after padding label.
-     * @param vbox the content pane to put the label in
-     * @return the initialized label
+     * Set the padding after the shot shown in this block.
+     * @param padding the padding
      */
-    private Label initEndPaddingLabel(VBox vbox) {
-        Label res = new Label("Back Padding: " + Double.toString(
-                (((DirectorShotBlock) this.getParentBlock()).getPaddingAfter())));
-        res.maxWidthProperty().bind(super.widthProperty());
-        res.getStyleClass().add("block_Text_Normal");
-        res.setStyle("-fx-text-fill:" + TweakingHelper.getColorString(2) + ";");
-        vbox.getChildren().add(res);
-        return res;
+    public void setPaddingAfter(double padding) {
+        setExtraLine(paddingAfterLine, paddingAfterText(padding));
     }
 
     /**
-     * Init the dragpane with blur, title, count and description labels.
+     * Get the text of the front padding line.
+     * @param padding the padding before the shot
+     * @return the text
      */
-    private void initDraggedPane() {
-        super.initDraggedPane(getRootCenterArea().getDirectorAnchorPane());
-        super.addSeparator(this.getDraggedContentPane());
-        paddingBeforeDraggedLabel = initFrontPaddingLabel(this.getDraggedContentPane());
-        paddingAfterDraggedLabel = initEndPaddingLabel(this.getDraggedContentPane());
+    private static String paddingBeforeText(double padding) {
+        return "Front Padding: " + Double.toString(padding);
     }
 
     /**
-     * Init feedbackpane with blur and darken.
+     * Get the text of the back padding line.
+     * @param padding the padding after the shot
+     * @return the text
      */
-    private void initFeedbackPane() {
-        super.initFeedbackPane(getRootCenterArea().getDirectorGridPane());
+    private static String paddingAfterText(double padding) {
+        return "Back Padding: " + Double.toString(padding);
     }
 }
@@ -0,0 +1,189 @@
+package gui.centerarea;
+
+import gui.misc.BlurHelper;
+import javafx.animation.AnimationTimer;
+import javafx.geometry.Point2D;
+import javafx.scene.Node;
+import javafx.scene.effect.BlendMode;
+import javafx.scene.effect.ColorAdjust;
+import javafx.scene.effect.DropShadow;
+import javafx.scene.effect.GaussianBlur;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+import lombok.Getter;
+
+/**
+ * The panes shown while a block is dragged, shared by all blocks. The dragged pane follows
+ * the mouse over a blurred background, the feedback pane shows in the grid where the block
+ * will snap to. Both show a snapshot of the dragged block, and are moved into the timeline
+ * of the block when a drag starts. Mouse positions during a drag are coalesced, the last one
+ * is applied once per pulse.
+ */
+public class DragOverlay {
+
+    // Height of the border at the bottom of a block, that the content is clipped to leave.
+    private static final double VERTICAL_BORDER_SIZE = 6.0;
+
+    @Getter
+    private Pane draggedPane; // pane shown when dragging
+    @Getter
+    private Pane feedbackPane; // pane shown when snapping
+    @Getter
+    private BlurHelper blurHelper; // blurs behind the dragged pane
+
+    private ImageView draggedImage; // content of the dragged pane
+    private ImageView feedbackImage; // content of the feedback pane
+
+    private AnimationTimer pulse; // applies the last mouse position in the next pulse
+    private TimetableBlock dragBlock; // block with a mouse position to apply, null if none
+    private double dragX; // last x coordinate of the mouse in the scene
+    private double dragY; // last y coordinate of the mouse in the scene
+    private boolean dragCameraTimeline; // whether the block is on a camera timeline
+
+    /**
+     * Constructor, the panes are added to a timeline when a drag starts.
+     */
+    public DragOverlay() {
+        initDraggedPane();
+        initFeedbackPane();
+        pulse = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                flush();
+            }
+        };
+    }
+
+    /**
+     * Initialize the pane that follows the mouse, with blur and drop shadow.
+     */
+    private void initDraggedPane() {
+        draggedPane = new Pane();
+        draggedPane.setVisible(false);
+
+        blurHelper = new BlurHelper(draggedPane);
+        blurHelper.setOffset(new Point2D(8,8));
+        addWithClipRegion(blurHelper.getImageView(), draggedPane);
+
+        draggedImage = new ImageView();
+        draggedImage.setBlendMode(BlendMode.MULTIPLY);
+        draggedImage.setOpacity(0.9);
+        addWithClipRegion(draggedImage, draggedPane);
+
+        draggedPane.setEffect(new DropShadow(15.0, 5.0, 5.0, Color.GRAY));
+        draggedPane.getStyleClass().add("block_Background");
+    }
+
+    /**
+     * Initialize the pane that shows where the block snaps to, with blur and darken.
+     */
+    private void initFeedbackPane() {
+        feedbackPane = new Pane();
+        feedbackPane.setVisible(false);
+        ColorAdjust darken = new ColorAdjust(0, -0.4, -0.2, 0.2);
+        darken.setInput(new GaussianBlur(15.0));
+        feedbackImage = new ImageView();
+        feedbackImage.fitHeightProperty().bind(feedbackPane.heightProperty());
+        feedbackImage.setEffect(darken);
+        feedbackPane.getChildren().add(feedbackImage);
+    }
+
+    /**
+     * Show the overlay for a block that starts being dragged.
+     * @param block the block that is dragged
+     * @param dragLayer the pane of the timeline the dragged pane moves in
+     * @param gridPane the grid of the timeline the feedback pane snaps to
+     */
+    void begin(TimetableBlock block, Pane dragLayer, GridPane gridPane) {
+        moveTo(draggedPane, dragLayer);
+        moveTo(feedbackPane, gridPane);
+
+        Image snapshot = block.getSnapshot();
+        draggedImage.setImage(snapshot);
+        feedbackImage.setImage(snapshot);
+
+        GridPane.setColumnIndex(feedbackPane, GridPane.getColumnIndex(block));
+        GridPane.setRowIndex(feedbackPane, GridPane.getRowIndex(block));
+        GridPane.setRowSpan(feedbackPane, GridPane.getRowSpan(block));
+
+        // init correct object ordering
+        feedbackPane.toBack();
+        draggedPane.toFront();
+        block.toFront();
+
+        draggedPane.setLayoutX(block.getLayoutX());
+        draggedPane.setLayoutY(block.getLayoutY());
+        feedbackPane.setVisible(true);
+    }
+
+    /**
+     * Record the position of the mouse while a block is dragged, to apply in the next pulse.
+     * @param block the block that is dragged
+     * @param x the x coordinate of the mouse in the scene
+     * @param y the y coordinate of the mouse in the scene
+     * @param isCameraTimeline whether the block is on a camera timeline
+     */
+    void drag(TimetableBlock block, double x, double y, boolean isCameraTimeline) {
+        dragBlock = block;
+        dragX = x;
+        dragY = y;
+        dragCameraTimeline = isCameraTimeline;
+        pulse.start();
+    }
+
+    /**
+     * Apply the last recorded mouse position now, if there is one.
+     */
+    void flush() {
+        pulse.stop();
+        if (dragBlock != null) {
+            TimetableBlock block = dragBlock;
+            dragBlock = null;
+            block.onMouseDraggedHelper(dragX, dragY, dragCameraTimeline);
+            blurHelper.processBlurUsingBounds();
+        }
+    }
+
+    /**
+     * Hide the overlay after a drag. The panes stay in their timeline for the next drag.
+     */
+    void end() {
+        pulse.stop();
+        dragBlock = null;
+        draggedPane.setVisible(false);
+        feedbackPane.setVisible(false);
+        draggedImage.setImage(null);
+        feedbackImage.setImage(null);
+    }
+
+    /**
+     * Move a pane of the overlay to another parent, if it is not there yet.
+     * @param node the pane to move
+     * @param parent the new parent
+     */
+    private static void moveTo(Node node, Pane parent) {
+        if (node.getParent() != parent) {
+            if (node.getParent() instanceof Pane) {
+                ((Pane) node.getParent()).getChildren().remove(node);
+            }
+            parent.getChildren().add(node);
+        }
+    }
+
+    /**
+     * Add content to a pane, but with a clipping region bound to the pane's size.
+     * @param content the content to add
+     * @param pane the pane to add the content to
+     */
+    private static void addWithClipRegion(Node content, Pane pane) {
+        Rectangle clipRegion = new Rectangle(); // clip region to restrict content
+        clipRegion.widthProperty().bind(pane.widthProperty());
+        clipRegion.heightProperty().bind(pane.heightProperty().subtract(VERTICAL_BORDER_SIZE));
+        content.setClip(clipRegion);
+        pane.getChildren().add(content);
+    }
+}
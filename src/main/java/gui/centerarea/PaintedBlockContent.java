@@ -0,0 +1,402 @@
+package gui.centerarea;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javafx.css.CssMetaData;
+import javafx.css.SimpleStyleableObjectProperty;
+import javafx.css.StyleConverter;
+import javafx.css.Styleable;
+import javafx.css.StyleableObjectProperty;
+import javafx.css.StyleableProperty;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * Content of a timetable block that paints its text on a single canvas, instead of building
+ * a label for every line. It shows the same title, count, description, instruments and extra
+ * lines as the labels of a block, in the same places. The lines of the description are only
+ * wrapped again when the description or the width changes, and the canvas is only redrawn
+ * when the text or the size changes.
+ *
+ * <p>The colors of the text are styleable, the block_Painted_Text style sets them to the
+ * looked-up main colors. When the stylesheet of the color choice is swapped, the new colors
+ * are applied to the content and the canvas is painted again.</p>
+ */
+class PaintedBlockContent extends Region {
+
+    // Css properties for the color of the title and of the other lines.
+    private static final CssMetaData<PaintedBlockContent, Paint> TITLE_COLOR =
+            new ColorMetaData("-block-title-color") {
+                @Override
+                public StyleableProperty<Paint> getStyleableProperty(PaintedBlockContent node) {
+                    return node.titleColor;
+                }
+            };
+    private static final CssMetaData<PaintedBlockContent, Paint> TEXT_COLOR =
+            new ColorMetaData("-block-text-color") {
+                @Override
+                public StyleableProperty<Paint> getStyleableProperty(PaintedBlockContent node) {
+                    return node.textColor;
+                }
+            };
+
+    // Css properties of a region, followed by the colors of the text.
+    private static final List<CssMetaData<? extends Styleable, ?>> CSS_META_DATA;
+
+    static {
+        List<CssMetaData<? extends Styleable, ?>> metaData =
+                new ArrayList<>(Region.getClassCssMetaData());
+        metaData.add(TITLE_COLOR);
+        metaData.add(TEXT_COLOR);
+        CSS_META_DATA = Collections.unmodifiableList(metaData);
+    }
+
+    // Fonts of the title and of the other lines, as in the block_Text styles.
+    private static final Font TITLE_FONT = Font.font(16);
+    private static final Font NORMAL_FONT = Font.font(14);
+
+    // Padding on the left of the text, and below every line but the title.
+    private static final double TEXT_PADDING = 5.0;
+
+    // Space above and below a separator, and the opacity of its line.
+    private static final double SEPARATOR_SPACE = 2.0;
+    private static final double SEPARATOR_OPACITY = 0.25;
+
+    // Indent of the instrument names below the instruments title.
+    private static final String INSTRUMENT_INDENT = "   ";
+
+    // Text used to measure lines, never shown.
+    private static final Text MEASURE = new Text();
+
+    // Canvas the text is painted on, only as high as the text needs.
+    private final Canvas canvas;
+
+    private String title;
+    private String count;
+    private String description;
+    private final List<String> instruments;
+    private final List<String> extraLines;
+
+    // Lines of the description wrapped to wrapWidth, null when they have to be wrapped again.
+    private List<String> descriptionLines;
+    private double wrapWidth;
+
+    // Whether the text changed since the canvas was painted.
+    private boolean dirty;
+
+    // Colors of the title and of the other lines, set by the stylesheets.
+    private final StyleableObjectProperty<Paint> titleColor = new ColorProperty(TITLE_COLOR);
+    private final StyleableObjectProperty<Paint> textColor = new ColorProperty(TEXT_COLOR);
+
+    /**
+     * Constructor.
+     * @param title the title of the block
+     * @param count the text of the counts of the block
+     * @param description the text of the description of the block
+     */
+    PaintedBlockContent(String title, String count, String description) {
+        this.title = title;
+        this.count = count;
+        this.description = description;
+        this.instruments = new ArrayList<>();
+        this.extraLines = new ArrayList<>();
+        this.canvas = new Canvas();
+        this.canvas.setMouseTransparent(true);
+        this.dirty = true;
+        getStyleClass().add("block_Painted_Text");
+        getChildren().add(canvas);
+    }
+
+    /**
+     * Get the css properties of the content, including the colors of the text.
+     * @return the css properties
+     */
+    @Override
+    public List<CssMetaData<? extends Styleable, ?>> getCssMetaData() {
+        return CSS_META_DATA;
+    }
+
+    /**
+     * Set the title of the block.
+     * @param title the title
+     */
+    void setTitle(String title) {
+        this.title = title;
+        changed();
+    }
+
+    /**
+     * Set the text of the counts of the block.
+     * @param count the text
+     */
+    void setCount(String count) {
+        this.count = count;
+        changed();
+    }
+
+    /**
+     * Set the text of the description of the block.
+     * @param description the text
+     */
+    void setDescription(String description) {
+        this.description = description;
+        descriptionLines = null;
+        changed();
+    }
+
+    /**
+     * Add an instrument to the list of instruments.
+     * @param name the name of the instrument
+     */
+    void addInstrument(String name) {
+        instruments.add(name);
+        changed();
+    }
+
+    /**
+     * Remove an instrument from the list of instruments.
+     * @param name the name of the instrument
+     */
+    void removeInstrument(String name) {
+        if (instruments.remove(name)) {
+            changed();
+        }
+    }
+
+    /**
+     * Remove all instruments from the list of instruments.
+     */
+    void clearInstruments() {
+        instruments.clear();
+        changed();
+    }
+
+    /**
+     * Add a line below a separator after the instruments.
+     * @param text the text of the line
+     * @return the index of the line
+     */
+    int addExtraLine(String text) {
+        extraLines.add(text);
+        changed();
+        return extraLines.size() - 1;
+    }
+
+    /**
+     * Change a line that was added after the instruments.
+     * @param index the index of the line
+     * @param text the new text of the line
+     */
+    void setExtraLine(int index, String text) {
+        extraLines.set(index, text);
+        changed();
+    }
+
+    /**
+     * Size the canvas to the text that fits in the content, and paint it if anything changed.
+     */
+    @Override
+    protected void layoutChildren() {
+        double left = snappedLeftInset();
+        double top = snappedTopInset();
+        double width = Math.max(0, getWidth() - left - snappedRightInset());
+        double height = Math.max(0, getHeight() - top - snappedBottomInset());
+
+        if (descriptionLines == null || width != wrapWidth) {
+            descriptionLines = wrap(description, width - 2 * TEXT_PADDING);
+            wrapWidth = width;
+            dirty = true;
+        }
+
+        // The canvas does not have to reach below the text of a long block
+        double canvasHeight = Math.min(height, Math.ceil(textHeight()));
+        canvas.relocate(left, top);
+        if (canvas.getWidth() != width || canvas.getHeight() != canvasHeight) {
+            canvas.setWidth(width);
+            canvas.setHeight(canvasHeight);
+            dirty = true;
+        }
+        if (dirty) {
+            paint();
+            dirty = false;
+        }
+    }
+
+    /**
+     * Paint the text on the canvas, line by line.
+     */
+    private void paint() {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        gc.setTextAlign(TextAlignment.LEFT);
+        gc.setTextBaseline(VPos.TOP);
+
+        Paint text = textColor.get();
+        double y = paintLine(gc, title, TITLE_FONT, titleColor.get(), 0, 0);
+        y = paintLine(gc, count, NORMAL_FONT, text, y, TEXT_PADDING);
+        y = paintSeparator(gc, y);
+        for (String line : descriptionLines) {
+            y = paintLine(gc, line, NORMAL_FONT, text, y, 0);
+        }
+        y += TEXT_PADDING;
+        y = paintSeparator(gc, y);
+        if (!instruments.isEmpty()) {
+            y = paintLine(gc, "Instruments:", NORMAL_FONT, text, y, TEXT_PADDING);
+            for (String instrument : instruments) {
+                y = paintLine(gc, INSTRUMENT_INDENT + instrument, NORMAL_FONT, text, y,
+                        TEXT_PADDING);
+            }
+        }
+        if (!extraLines.isEmpty()) {
+            y = paintSeparator(gc, y);
+            for (String line : extraLines) {
+                y = paintLine(gc, line, NORMAL_FONT, text, y, TEXT_PADDING);
+            }
+        }
+    }
+
+    /**
+     * Paint a line of text.
+     * @param gc the graphics context of the canvas
+     * @param text the text of the line
+     * @param font the font of the line
+     * @param color the color of the text
+     * @param y the top of the line
+     * @param bottomPadding the space below the line
+     * @return the top of the next line
+     */
+    private double paintLine(GraphicsContext gc, String text, Font font,
+                             Paint color, double y, double bottomPadding) {
+        gc.setFont(font);
+        gc.setFill(color);
+        gc.fillText(text, TEXT_PADDING, y);
+        return y + lineHeight(font) + bottomPadding;
+    }
+
+    /**
+     * Paint a separator line.
+     * @param gc the graphics context of the canvas
+     * @param y the top of the separator, including the space above it
+     * @return the top of the next line
+     */
+    private double paintSeparator(GraphicsContext gc, double y) {
+        double line = y + SEPARATOR_SPACE + 0.5;
+        gc.setStroke(textColor.get());
+        gc.setGlobalAlpha(SEPARATOR_OPACITY);
+        gc.setLineWidth(1);
+        gc.strokeLine(0, line, canvas.getWidth(), line);
+        gc.setGlobalAlpha(1);
+        return y + 2 * SEPARATOR_SPACE + 1;
+    }
+
+    /**
+     * Compute the height of all painted text, with the same steps as painting it.
+     * @return the height
+     */
+    private double textHeight() {
+        double normal = lineHeight(NORMAL_FONT);
+        double separator = 2 * SEPARATOR_SPACE + 1;
+        double height = lineHeight(TITLE_FONT) + normal + TEXT_PADDING + separator
+                + descriptionLines.size() * normal + TEXT_PADDING + separator;
+        if (!instruments.isEmpty()) {
+            height += (instruments.size() + 1) * (normal + TEXT_PADDING);
+        }
+        if (!extraLines.isEmpty()) {
+            height += separator + extraLines.size() * (normal + TEXT_PADDING);
+        }
+        return height;
+    }
+
+    /**
+     * Mark the text as changed, the canvas is painted again in the next layout.
+     */
+    private void changed() {
+        dirty = true;
+        requestLayout();
+    }
+
+    /**
+     * Get the height of a line of text.
+     * @param font the font of the line
+     * @return the height
+     */
+    private static double lineHeight(Font font) {
+        MEASURE.setFont(font);
+        MEASURE.setText("Ag");
+        return MEASURE.getLayoutBounds().getHeight();
+    }
+
+    /**
+     * Wrap text at the spaces between words, to lines that fit a width. A word that is
+     * wider than the width gets a line of its own.
+     * @param text the text to wrap
+     * @param width the width of a line
+     * @return the lines
+     */
+    private static List<String> wrap(String text, double width) {
+        List<String> lines = new ArrayList<>();
+        MEASURE.setFont(NORMAL_FONT);
+        StringBuilder line = new StringBuilder();
+        for (String word : text.split(" ")) {
+            int length = line.length();
+            if (length > 0) {
+                line.append(' ');
+            }
+            line.append(word);
+            MEASURE.setText(line.toString());
+            if (length > 0 && MEASURE.getLayoutBounds().getWidth() > width) {
+                lines.add(line.substring(0, length));
+                line.delete(0, length + 1);
+            }
+        }
+        lines.add(line.toString());
+        return lines;
+    }
+
+    /**
+     * Css property of a color of the text, which can be set unless the color is bound.
+     */
+    private abstract static class ColorMetaData extends CssMetaData<PaintedBlockContent, Paint> {
+
+        /**
+         * Constructor.
+         * @param property the name of the css property
+         */
+        private ColorMetaData(String property) {
+            super(property, StyleConverter.getPaintConverter(), Color.BLACK);
+        }
+
+        @Override
+        public boolean isSettable(PaintedBlockContent node) {
+            return !((StyleableObjectProperty<?>) getStyleableProperty(node)).isBound();
+        }
+    }
+
+    /**
+     * Color of the text that paints the canvas again when it is changed by the stylesheets.
+     */
+    private final class ColorProperty extends SimpleStyleableObjectProperty<Paint> {
+
+        /**
+         * Constructor.
+         * @param metaData the css property of the color
+         */
+        private ColorProperty(CssMetaData<PaintedBlockContent, Paint> metaData) {
+            super(metaData, PaintedBlockContent.this, metaData.getProperty(), Color.BLACK);
+        }
+
+        @Override
+        protected void invalidated() {
+            changed();
+        }
+    }
+}
@@ -1,20 +1,31 @@
 package gui.centerarea;
 
-import javafx.geometry.Bounds;
-import javafx.scene.layout.ColumnConstraints;
+import control.CountUtilities;
+import javafx.geometry.HPos;
+import javafx.geometry.VPos;
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.ScrollPane;
 import javafx.scene.layout.GridPane;
-import javafx.scene.layout.Priority;
-import javafx.scene.layout.RowConstraints;
+import javafx.scene.paint.Color;
+import javafx.scene.transform.Transform;
 import lombok.Getter;
-import lombok.Setter;
-
-import java.util.ArrayList;
 
 /**
- * Class representing the grid inside a timeline.
+ * Class representing the grid inside a timeline. All rows and all columns of the grid have
+ * the same size, so the children are placed straight from their grid constraints, without
+ * row and column constraints or a node for every cell. The background of the grid is drawn
+ * on a canvas that only covers the visible part of the grid.
  */
 public class ScrollableGridPane extends GridPane {
 
+    // Color of the lines in the background.
+    protected static final Color LINE_COLOR = Color.GRAY;
+
+    // Width of the line above every count.
+    private static final double COUNT_LINE_WIDTH = 0.1;
+
     @Getter
     private int numberOfHorizontalGrids; // number of horizontal grid lanes.
     @Getter
@@ -23,8 +34,18 @@ public class ScrollableGridPane extends GridPane {
     private int horizontalElementMinimumSize; // minimal size of every horizontal grid lane.
     @Getter
     private int verticalElementSize; // size of every vertical grid lane.
-    @Getter @Setter
-    private ArrayList<SnappingPane> panes;
+
+    // Canvas the background is drawn on, placed over the visible part of the grid.
+    private final Canvas background;
+
+    // Top of the visible part of the grid.
+    private double viewportTop;
+
+    // Height of the visible part of the grid, 0 until the grid is shown in a scroll pane.
+    private double viewportHeight;
+
+    // Cell returned by getMyPane, reused so snapping while dragging does not allocate.
+    private final SnappingPane hit;
 
     /**
      * Constructor of class.
@@ -40,62 +61,191 @@ public class ScrollableGridPane extends GridPane {
         this.numberOfVerticalGrids = numberOfVerticalGrids;
         this.horizontalElementMinimumSize = horizontalElementMinimumSize;
         this.verticalElementSize = verticalElementSize;
+        this.hit = new SnappingPane(0, 0);
 
         // Enforce proper height of elements
         this.setMinHeight(numberOfVerticalGrids * verticalElementSize);
         this.setMaxHeight(numberOfVerticalGrids * verticalElementSize);
 
-        // set horizontal constraints to grid.
-        for (int i = 0; i < numberOfHorizontalGrids; i++) {
-            ColumnConstraints rc = new ColumnConstraints();
-            rc.setMinWidth(horizontalElementMinimumSize);
-            rc.setPercentWidth(100.0 / (double) numberOfHorizontalGrids);
-            rc.setHgrow(Priority.ALWAYS);
-            this.getColumnConstraints().add(rc);
-        }
+        // The background is not laid out as a cell and lets the mouse through to the blocks
+        background = new Canvas();
+        background.setManaged(false);
+        background.setMouseTransparent(true);
+        this.getChildren().add(background);
+        this.widthProperty().addListener((observable, oldValue, newValue) -> {
+                drawBackground();
+            });
+        this.heightProperty().addListener((observable, oldValue, newValue) -> {
+                drawBackground();
+            });
+    }
 
-        // set vertical constraints to grid.
-        for (int i = 0; i < numberOfVerticalGrids; i++) {
-            RowConstraints rc = new RowConstraints();
-            rc.setMinHeight(verticalElementSize);
-            rc.setPercentHeight(100.0 / numberOfVerticalGrids);
-            rc.setVgrow(Priority.ALWAYS);
-            this.getRowConstraints().add(rc);
-        }
+    /**
+     * Change the number of vertical grid lanes, the height of the grid follows.
+     * @param numberOfVerticalGrids - the new number of vertical grid lanes.
+     */
+    public void setNumberOfVerticalGrids(int numberOfVerticalGrids) {
+        this.numberOfVerticalGrids = numberOfVerticalGrids;
+        this.setMinHeight(numberOfVerticalGrids * verticalElementSize);
+        this.setMaxHeight(numberOfVerticalGrids * verticalElementSize);
+        requestLayout();
     }
 
     /**
-     * Get the pane in which the scene coordinates lie.
+     * Draw the background of the part of the grid that is visible in a scroll pane, and
+     * redraw it when the pane is scrolled or resized.
+     * @param scrollPane the scroll pane the grid is shown in, at the top of its content
+     */
+    public void trackViewport(ScrollPane scrollPane) {
+        scrollPane.viewportBoundsProperty().addListener((observable, oldValue, newValue) -> {
+                // The bounds of the viewport are offset by the scrolled distance
+                viewportTop = Math.max(0, -newValue.getMinY());
+                viewportHeight = newValue.getHeight();
+                drawBackground();
+            });
+    }
+
+    /**
+     * Get the pane in which the scene coordinates lie. The cell is computed from the row
+     * height and the column width, the returned pane is reused by the next call.
      * @param x - the x coordinate
      * @param y - the y coordinate
      * @return - the SnappingPane, null if none applicable
      */
     public SnappingPane getMyPane(double x, double y) {
+        if (numberOfHorizontalGrids == 0 || numberOfVerticalGrids == 0 || getWidth() <= 0) {
+            return null;
+        }
+
+        // Invert the cached transform of the grid, sceneToLocal would allocate a point
+        Transform transform = getLocalToSceneTransform();
+        double dx = x - transform.getTx();
+        double dy = y - transform.getTy();
+        double determinant = transform.getMxx() * transform.getMyy()
+                - transform.getMxy() * transform.getMyx();
+        double localX = (transform.getMyy() * dx - transform.getMxy() * dy) / determinant;
+        double localY = (transform.getMxx() * dy - transform.getMyx() * dx) / determinant;
 
         // Correct for points outside grid
-        Bounds sceneBounds = this.localToScene(this.getLayoutBounds());
-        if (sceneBounds.getMinX() > x) {
-            return getMyPane(sceneBounds.getMinX(), y);
-        } else if (sceneBounds.getMaxX() < x) {
-            return getMyPane(sceneBounds.getMaxX(), y);
-        } else if (sceneBounds.getMinY() > y) {
-            return getMyPane(x, sceneBounds.getMinY());
-        } else if (sceneBounds.getMaxY() < y) {
-            return getMyPane(x, sceneBounds.getMaxY());
-        } 
-
-        for (SnappingPane pane : panes) {
-            Bounds bounds = pane.localToScene(pane.getBoundsInLocal());
-            if (bounds.contains(x, y)) {
-                if (((y - bounds.getMinY()) * 2) > pane.getHeight()) {
-                    pane.setBottomHalf(true);
-                } else {
-                    pane.setBottomHalf(false);
-                }
-                return pane;
-            }
+        localX = Math.min(Math.max(localX, 0), getWidth());
+        localY = Math.min(Math.max(localY, 0), getHeight());
+
+        int column = Math.min((int) (localX / getColumnWidth()), numberOfHorizontalGrids - 1);
+        int row = Math.min((int) (localY / verticalElementSize), numberOfVerticalGrids - 1);
+        hit.setRow(row);
+        hit.setColumn(column);
+        hit.setBottomHalf((localY - row * verticalElementSize) * 2 > verticalElementSize);
+        return hit;
+    }
+
+    /**
+     * Get the width of a column, the columns share the width of the grid.
+     * @return the width of a column
+     */
+    public double getColumnWidth() {
+        if (numberOfHorizontalGrids == 0) {
+            return 0;
         }
+        return getWidth() / numberOfHorizontalGrids;
+    }
 
-        return null;
+    /**
+     * Place every child in the cells given by its grid constraints.
+     */
+    @Override
+    protected void layoutChildren() {
+        double columnWidth = getColumnWidth();
+        for (Node child : getManagedChildren()) {
+            int column = valueOf(getColumnIndex(child), 0);
+            int row = valueOf(getRowIndex(child), 0);
+            int columnSpan = valueOf(getColumnSpan(child), 1);
+            int rowSpan = valueOf(getRowSpan(child), 1);
+            HPos halignment = getHalignment(child);
+            VPos valignment = getValignment(child);
+            layoutInArea(child, column * columnWidth, row * verticalElementSize,
+                    columnSpan * columnWidth, rowSpan * verticalElementSize, 0,
+                    halignment == null ? HPos.LEFT : halignment,
+                    valignment == null ? VPos.CENTER : valignment);
+        }
+    }
+
+    @Override
+    protected double computeMinWidth(double height) {
+        return numberOfHorizontalGrids * horizontalElementMinimumSize;
+    }
+
+    @Override
+    protected double computePrefWidth(double height) {
+        return computeMinWidth(height);
+    }
+
+    @Override
+    protected double computeMinHeight(double width) {
+        return numberOfVerticalGrids * verticalElementSize;
+    }
+
+    @Override
+    protected double computePrefHeight(double width) {
+        return computeMinHeight(width);
+    }
+
+    /**
+     * Draw the rows of the background that are in the visible part of the grid.
+     * @param gc the graphics context, in the coordinates of the grid
+     * @param firstRow the first visible row
+     * @param lastRow the last visible row
+     */
+    protected void drawBackground(GraphicsContext gc, int firstRow, int lastRow) {
+    }
+
+    /**
+     * Draw a line at the top of every visible count, except the first.
+     * @param gc the graphics context, in the coordinates of the grid
+     * @param firstRow the first visible row
+     * @param lastRow the last visible row
+     */
+    protected void drawCountLines(GraphicsContext gc, int firstRow, int lastRow) {
+        int cellsPerCount = CountUtilities.NUMBER_OF_CELLS_PER_COUNT;
+        gc.setStroke(LINE_COLOR);
+        gc.setLineWidth(COUNT_LINE_WIDTH);
+        int first = Math.max(cellsPerCount, firstRow - firstRow % cellsPerCount);
+        for (int row = first; row <= lastRow; row += cellsPerCount) {
+            double y = row * verticalElementSize;
+            gc.strokeLine(0, y, getWidth(), y);
+        }
+    }
+
+    /**
+     * Draw the background on the canvas, which is moved to the visible part of the grid.
+     */
+    private void drawBackground() {
+        double width = getWidth();
+        double height = Math.min(viewportHeight, Math.max(0, getHeight() - viewportTop));
+        background.setLayoutY(viewportTop);
+        background.setWidth(width);
+        background.setHeight(height);
+
+        GraphicsContext gc = background.getGraphicsContext2D();
+        gc.clearRect(0, 0, width, height);
+        if (width <= 0 || height <= 0 || numberOfVerticalGrids == 0) {
+            return;
+        }
+        int firstRow = (int) (viewportTop / verticalElementSize);
+        int lastRow = Math.min((int) Math.ceil((viewportTop + height) / verticalElementSize),
+                numberOfVerticalGrids - 1);
+        gc.save();
+        gc.translate(0, -viewportTop);
+        drawBackground(gc, firstRow, lastRow);
+        gc.restore();
+    }
+
+    /**
+     * Get the value of a grid constraint.
+     * @param value the constraint, null if it is not set
+     * @param unset the value of an unset constraint
+     * @return the value
+     */
+    private static int valueOf(Integer value, int unset) {
+        return value == null ? unset : value;
     }
 }
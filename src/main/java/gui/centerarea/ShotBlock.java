@@ -3,17 +3,15 @@ package gui.centerarea;
 import control.CountUtilities;
 import data.Instrument;
 import data.Shot;
-import gui.misc.TweakingHelper;
 import gui.root.RootCenterArea;
 import gui.events.ShotblockUpdatedEvent;
+import javafx.css.PseudoClass;
 import javafx.event.EventHandler;
 import lombok.Getter;
 import lombok.Setter;
-import lombok.extern.log4j.Log4j2;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
-import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
 
 /**
  *      Abstract superclass for different kind of shots in the gui.
@@ -21,7 +19,6 @@ import java.util.ArrayList;
  *      The controller only talks with this class and all the gui stuff
  *      is done for him.
  */
-@Log4j2
 public abstract class ShotBlock {
 
     // The timetableBlock used for displaying this block
@@ -57,20 +54,28 @@ public abstract class ShotBlock {
     private boolean colliding;
     
     @Getter
-    private ArrayList<Instrument> instruments;
-    
-    private static String BACKGROUND_COLOR_STRING = "-fx-background-color: ";
+    private List<Instrument> instruments;
+
+    // Pool the timetable block is taken from and released to, null if there is none.
+    private TimetableBlockPool pool;
+
+    // Center area the block is shown in, its timelines grow to fit the block.
+    private RootCenterArea rootCenterArea;
+
+    // Pseudo class of the timetable block while the shot collides, styled in Misc.css.
+    private static final PseudoClass COLLIDING = PseudoClass.getPseudoClass("colliding");
 
     /**
      * Constructor.
      * @param rootCenterArea - the rootCenterArea this shot belongs to
      * @param shot - the shot of this ShotBlock
-     * @param timetableBlockClass - the class of the timetableblock implementation
-     *        that belongs to this shotblock. This must be a valid subclass of
-     *        TimetableBlock with its default constructor implemented. Otherwise
-     *        timetableBlock is initialized to null.
+     * @param type - the class of the timetableblock implementation that belongs to this
+     *        shotblock, a removed block of this class is reused if there is one.
+     * @param factory - creates a new timetableblock of the class
+     * @param <T> - the type of the timetableblock
      */
-    public ShotBlock(RootCenterArea rootCenterArea, Shot shot, Class<?> timetableBlockClass) {
+    public <T extends TimetableBlock> ShotBlock(RootCenterArea rootCenterArea, Shot shot,
+            Class<T> type, BiFunction<RootCenterArea, ShotBlock, T> factory) {
         this.description = shot.getDescription();
         this.name = shot.getName();
         this.beginCount = shot.getBeginCount();
@@ -81,47 +86,40 @@ public abstract class ShotBlock {
         this.tempBeginCount = -1;
         this.tempEndCount = -1;
 
-        // TimetableBlock set in subclass constructors!!
-        try {
-            Constructor<?> constructor = timetableBlockClass
-                    .getConstructor(RootCenterArea.class, ShotBlock.class);
+        // Reuse a removed timetable block if the center area has one
+        this.pool = rootCenterArea == null ? null : rootCenterArea.getBlockPool();
+        if (pool == null) {
+            this.timetableBlock = factory.apply(rootCenterArea, this);
+        } else {
+            this.timetableBlock = pool.obtain(type, factory, this);
+        }
+        // A reused block may still show the collision of its previous shot
+        this.timetableBlock.pseudoClassStateChanged(COLLIDING, false);
 
-            this.setTimetableBlock((TimetableBlock) constructor.newInstance(rootCenterArea, this));
-        } catch (NoSuchMethodException | InstantiationException | IllegalAccessException
-                | IllegalArgumentException | InvocationTargetException e) {
-            log.error("No valid timetableblock class, could not initialize timetableblock!");
-            this.timetableBlock = null;
+        this.rootCenterArea = rootCenterArea;
+        if (rootCenterArea != null) {
+            rootCenterArea.fitCounts(endCount);
+        }
+    }
+
+    /**
+     * Hand the timetable block to the pool of the center area, after it was removed from
+     * the view. This shot block may not use it anymore.
+     */
+    protected void releaseTimetableBlock() {
+        if (pool != null) {
+            pool.release(timetableBlock);
         }
     }
 
     /**
      * Set colliding field of this camerashotblock.
-     * Apply styling changes here
+     * The timetable block shows it through the colliding pseudo class.
      * @param colliding - the new colliding value
      */
     public void setColliding(boolean colliding) {
-        // TODO: Mark do styling stuff here
         this.colliding = colliding;
-
-        if (colliding) {
-            this.timetableBlock.setStyle(BACKGROUND_COLOR_STRING
-                    + TweakingHelper.getColorString(0) + ";"
-                    + "-fx-border-color: red;"
-                    + "-fx-border-width: 3;");
-            this.timetableBlock.getContentPane().setStyle(BACKGROUND_COLOR_STRING
-                    + TweakingHelper.getColorString(3) + ";"
-                    + "-fx-border-color: "
-                    + TweakingHelper.getColorString(2) + ";");
-        } else {
-            this.timetableBlock.setStyle(BACKGROUND_COLOR_STRING
-                    + TweakingHelper.getColorString(0) + ";"
-                    + "-fx-border-color: "
-                    + TweakingHelper.getColorString(1) + ";");
-            this.timetableBlock.getContentPane().setStyle(BACKGROUND_COLOR_STRING
-                    + TweakingHelper.getColorString(3) + ";"
-                    + "-fx-border-color: "
-                    + TweakingHelper.getColorString(2) + ";");
-        }
+        this.timetableBlock.pseudoClassStateChanged(COLLIDING, colliding);
     }
 
     /**
@@ -232,8 +230,7 @@ public abstract class ShotBlock {
      */
     public void setName(String name) {
         this.name = name;
-        timetableBlock.getTitleNormalLabel().setText(name);
-        timetableBlock.getTitleDraggedLabel().setText(name);
+        timetableBlock.setTitle(name);
     }
 
     /**
@@ -243,27 +240,26 @@ public abstract class ShotBlock {
     public void setDescription(String description) {
         this.description = description;
 
-        timetableBlock.getDescriptionNormalLabel().setText("Description: " + description);
-        timetableBlock.getDescriptionDraggedLabel().setText("Description: " + description);
+        timetableBlock.setDescription(description);
     }
 
     /**
      * Helper function to redraw block counts.
      */
     private void redrawCounts() {
-        timetableBlock.getCountNormalLabel().setText("Count: " + beginCount + " - " + endCount);
-        timetableBlock.getCountDraggedLabel().setText("Counnt: " + beginCount + " - " + endCount);
+        timetableBlock.setCounts(beginCount, endCount);
     }
 
     /**
      * Recompute position in grid and repaint with these settings.
      */
     public void recompute() {
-        TimelinesGridPane.setRowIndex(timetableBlock,
-                (int) Math.round(beginCount * CountUtilities.NUMBER_OF_CELLS_PER_COUNT));
+        TimelinesGridPane.setRowIndex(timetableBlock, CountUtilities.countToRow(beginCount));
         TimelinesGridPane.setRowSpan(timetableBlock,
-                (int) Math.round((endCount - beginCount)
-                        * CountUtilities.NUMBER_OF_CELLS_PER_COUNT));
+                CountUtilities.countToRow(endCount - beginCount));
+        if (rootCenterArea != null) {
+            rootCenterArea.fitCounts(endCount);
+        }
     }
 
     /**
@@ -271,7 +267,7 @@ public abstract class ShotBlock {
      * @param handler - the handler to attach
      */
     public void attachEventHandler(EventHandler<ShotblockUpdatedEvent> handler) {
-        this.getTimetableBlock().addEventHandler(ShotblockUpdatedEvent.SHOTBLOCK_UPDATED, handler);
+        this.getTimetableBlock().addUpdatedHandler(handler);
     }
 
     /**
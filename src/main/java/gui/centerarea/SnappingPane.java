@@ -1,14 +1,14 @@
 package gui.centerarea;
 
-import javafx.scene.layout.Pane;
 import lombok.Getter;
 import lombok.Setter;
 
 /**
- * Snapping Panes are invisible panes that are used for snapping detection.
- * Each cell in the grid gets a snapping pane
+ * Snapping Panes are the cells of the grid that are used for snapping detection.
+ * They are not shown, the grid computes the cell a point lies in.
+ * @see ScrollableGridPane#getMyPane(double, double)
  */
-public class SnappingPane extends Pane {
+public class SnappingPane {
 
     @Getter @Setter
     private int row;
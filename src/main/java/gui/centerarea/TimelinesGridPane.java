@@ -1,8 +1,7 @@
 package gui.centerarea;
 
-import java.util.ArrayList;
-
 import control.CountUtilities;
+import javafx.scene.canvas.GraphicsContext;
 import lombok.extern.log4j.Log4j2;
 
 /**
@@ -11,6 +10,9 @@ import lombok.extern.log4j.Log4j2;
 @Log4j2
 public class TimelinesGridPane extends ScrollableGridPane {
 
+    // Width of the line between the timelines.
+    private static final double TIMELINE_LINE_WIDTH = 0.5;
+
     /**
      * Constructor.
      * @param numberOfHorizontalGrids - number of horizontal grid lanes.
@@ -23,9 +25,6 @@ public class TimelinesGridPane extends ScrollableGridPane {
 
         super(numberOfHorizontalGrids, numberOfVerticalGrids,
                 horizontalElementMinimumSize, verticalElementSize);
-
-        // add snapping panes
-        addPanes();
     }
 
     /**
@@ -34,37 +33,33 @@ public class TimelinesGridPane extends ScrollableGridPane {
      */
     public void addCameraShotBlock(CameraShotBlock block) {
         this.add(block.getTimetableBlock(), block.getTimetableNumber(),
-                (int) Math.round(block.getBeginCount() * CountUtilities.NUMBER_OF_CELLS_PER_COUNT),
-                1, (int) Math.round((block.getEndCount()
-                        - block.getBeginCount()) * CountUtilities.NUMBER_OF_CELLS_PER_COUNT));
-        block.getTimetableBlock().getInstrumentBox().getChildren().clear();
+                CountUtilities.countToRow(block.getBeginCount()), 1,
+                CountUtilities.countToRow(block.getEndCount() - block.getBeginCount()));
+        block.getTimetableBlock().clearInstruments();
         block.getInstruments().forEach(e -> {
                 block.getTimetableBlock().addInstrument(e);
             });
     }
 
     /**
-     * Add snapping panes to grid. Also apply line separators to grid, once every few skips.
+     * Draw the lines of the counts, and a line on the right of every timeline.
+     * @param gc the graphics context, in the coordinates of the grid
+     * @param firstRow the first visible row
+     * @param lastRow the last visible row
      */
-    private void addPanes() {
-        setPanes(new ArrayList<>());
-        for (int i = 0; i < getNumberOfHorizontalGrids(); i++) {
-            int c = 1;
-            for (int j = 0; j < getNumberOfVerticalGrids(); j++) {
-                SnappingPane pane = new SnappingPane(j, i);
-                this.add(pane, i, j);
-                getPanes().add(pane);
-                if (c > CountUtilities.NUMBER_OF_CELLS_PER_COUNT) {
-                    pane.getStyleClass().add("timeline_Background_Lines");
-                    c = 2;
-                } else {
-                    pane.getStyleClass().add("timeline_Background_Empty");
-                    c++;
-                }
-            }
+    @Override
+    protected void drawBackground(GraphicsContext gc, int firstRow, int lastRow) {
+        drawCountLines(gc, firstRow, lastRow);
+        gc.setStroke(LINE_COLOR);
+        gc.setLineWidth(TIMELINE_LINE_WIDTH);
+        double top = firstRow * getVerticalElementSize();
+        double bottom = (lastRow + 1) * getVerticalElementSize();
+        for (int i = 1; i <= getNumberOfHorizontalGrids(); i++) {
+            double x = i * getColumnWidth() - TIMELINE_LINE_WIDTH / 2;
+            gc.strokeLine(x, top, x, bottom);
         }
     }
-    
+
     /**
      * Remove a CameraShotBlock from this gridpane.
      * @param block the block to remove
@@ -2,10 +2,12 @@ package gui.centerarea;
 
 import static gui.centerarea.TimetableBlock.DraggingTypes.Move;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import control.CountUtilities;
 import data.Instrument;
-import gui.misc.BlurHelper;
-import gui.misc.TweakingHelper;
+import gui.events.ShotblockUpdatedEvent;
 import gui.root.RootCenterArea;
 import javafx.event.EventHandler;
 import javafx.geometry.Bounds;
@@ -17,10 +19,6 @@ import javafx.scene.SnapshotParameters;
 import javafx.scene.control.Label;
 import javafx.scene.control.Separator;
 import javafx.scene.effect.BlendMode;
-import javafx.scene.effect.ColorAdjust;
-import javafx.scene.effect.DropShadow;
-import javafx.scene.effect.GaussianBlur;
-import javafx.scene.image.ImageView;
 import javafx.scene.image.WritableImage;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.AnchorPane;
@@ -28,8 +26,8 @@ import javafx.scene.layout.GridPane;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.VBox;
-import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
+import javafx.scene.transform.Transform;
 import lombok.Getter;
 
 
@@ -40,7 +38,6 @@ import lombok.Getter;
  */
 public abstract class TimetableBlock extends Pane {
     
-    private static final String TEXT_FILL = "-fx-text-fill:";
     private static final String BLOCK_TEXT_NORMAL = "block_Text_Normal";
 
     public enum DraggingTypes { Move, Resize_Top, Resize_Right, Resize_Bottom, Resize_Left }
@@ -60,19 +57,17 @@ public abstract class TimetableBlock extends Pane {
     @Getter
     private Label titleNormalLabel;
     @Getter
-    private Label titleDraggedLabel;
-    @Getter
     private Label countNormalLabel;
     @Getter
-    private Label countDraggedLabel;
-    @Getter
     private Label descriptionNormalLabel;
     @Getter
-    private Label descriptionDraggedLabel;
-    @Getter
     private VBox instrumentBox;
-    @Getter
-    private VBox draggedInstrumentBox;
+
+    // Labels of the lines added after the instruments.
+    private List<Label> extraLabels;
+
+    // Content that paints all text on a canvas, null when the content is built from labels.
+    private PaintedBlockContent paintedContent;
 
     /**
      * Misc variables.
@@ -81,20 +76,10 @@ public abstract class TimetableBlock extends Pane {
     @Getter
     private TimetableBlock thisBlock;
     @Getter
-    private Pane draggedPane; // rootCenterArea shown when dragging
-    @Getter
-    private Pane feedbackPane; // rootCenterArea shown when snapping
-    @Getter
-    private VBox contentPane; // content of this rootCenterArea
-    @Getter
-    private VBox draggedContentPane; // content of rootCenterArea shown when dragging
+    private Region contentPane; // content of this rootCenterArea
 
-    // for effects
-    private WritableImage feedbackImage; // content of feedbackPane (is just an image, sneaky!)
-    private GaussianBlur gaussianBlur;
-    private ColorAdjust darken;
-    private ImageView image;
-    private BlurHelper blurHelper;
+    // Snapshot of this block shown while dragging, null when the content changed.
+    private WritableImage snapshot;
 
     @Getter
     private double dragXOffset;
@@ -112,9 +97,9 @@ public abstract class TimetableBlock extends Pane {
 
     @Getter
     private double startingY;
-    
-    private static final String BACKGROUND_COLOR_STRING = "-fx-background-color: ";
-    private static final String BORDER_COLOR_STRING = "-fx-border-color: ";
+
+    // Update handlers of the parent block, removed when the block is bound to another one.
+    private final List<EventHandler<ShotblockUpdatedEvent>> updatedHandlers;
     
     /**
      * Constructor for TimetableBlock class.
@@ -126,6 +111,46 @@ public abstract class TimetableBlock extends Pane {
         this.thisBlock = this;
         this.parentBlock = parent;
         this.rootCenterArea = pane;
+        this.updatedHandlers = new ArrayList<>();
+    }
+
+    /**
+     * Bind this block to another shot block, when it is taken from the pool of removed blocks.
+     * The handlers of the old shot block are removed, and the content shows the new one.
+     * @param parent the new parent node
+     */
+    void rebind(ShotBlock parent) {
+        this.parentBlock = parent;
+        this.dragging = false;
+        this.snapshot = null;
+        updatedHandlers.forEach(handler -> {
+                removeEventHandler(ShotblockUpdatedEvent.SHOTBLOCK_UPDATED, handler);
+            });
+        updatedHandlers.clear();
+        setVisible(true);
+        setCursor(Cursor.DEFAULT);
+
+        setTitle(parent.getName());
+        setCounts(parent.getBeginCount(), parent.getEndCount());
+        setDescription(parent.getDescription());
+        clearInstruments();
+    }
+
+    /**
+     * Add a handler for the updates of the parent block.
+     * @param handler the handler
+     */
+    void addUpdatedHandler(EventHandler<ShotblockUpdatedEvent> handler) {
+        updatedHandlers.add(handler);
+        addEventHandler(ShotblockUpdatedEvent.SHOTBLOCK_UPDATED, handler);
+    }
+
+    /**
+     * Check if the text of this block is painted on a canvas.
+     * @return true if it is painted, false if it is built from labels
+     */
+    boolean isPainted() {
+        return paintedContent != null;
     }
     
     /**
@@ -133,8 +158,11 @@ public abstract class TimetableBlock extends Pane {
      * @param instrument the instrument to add
      */
     public void addInstrument(Instrument instrument) {
-        addInstrumentLabel(instrument, instrumentBox);
-        addInstrumentLabel(instrument, draggedInstrumentBox);
+        if (paintedContent != null) {
+            paintedContent.addInstrument(instrument.getName());
+        } else {
+            addInstrumentLabel(instrument, instrumentBox);
+        }
     }
 
     /**
@@ -146,13 +174,11 @@ public abstract class TimetableBlock extends Pane {
         if (box.getChildren().size() == 0) {
             Label title = new Label("Instruments:");
             title.getStyleClass().add(BLOCK_TEXT_NORMAL);
-            title.setStyle(TEXT_FILL + TweakingHelper.getColorString(2) + ";");
             box.getChildren().add(title);
         }
 
         Label label = new Label("   " + instrument.getName());
         label.getStyleClass().add(BLOCK_TEXT_NORMAL);
-        label.setStyle(TEXT_FILL + TweakingHelper.getColorString(2) + ";");
         box.getChildren().add(label);
     }
     
@@ -161,8 +187,95 @@ public abstract class TimetableBlock extends Pane {
      * @param instrument the instrument to remove
      */
     public void removeInstrument(Instrument instrument) {
-        removeInstrumentLabel(instrument, instrumentBox);
-        removeInstrumentLabel(instrument, draggedInstrumentBox);
+        if (paintedContent != null) {
+            paintedContent.removeInstrument(instrument.getName());
+        } else {
+            removeInstrumentLabel(instrument, instrumentBox);
+        }
+    }
+
+    /**
+     * Remove all instruments from this timetable block.
+     */
+    public void clearInstruments() {
+        if (paintedContent != null) {
+            paintedContent.clearInstruments();
+        } else {
+            instrumentBox.getChildren().clear();
+        }
+    }
+
+    /**
+     * Set the title of this timetable block.
+     * @param title the title
+     */
+    public void setTitle(String title) {
+        if (paintedContent != null) {
+            paintedContent.setTitle(title);
+        } else {
+            titleNormalLabel.setText(title);
+        }
+    }
+
+    /**
+     * Set the counts shown in this timetable block.
+     * @param beginCount the begin count
+     * @param endCount the end count
+     */
+    public void setCounts(double beginCount, double endCount) {
+        String text = "Count: " + beginCount + " - " + endCount;
+        if (paintedContent != null) {
+            paintedContent.setCount(text);
+        } else {
+            countNormalLabel.setText(text);
+        }
+    }
+
+    /**
+     * Set the description of this timetable block.
+     * @param description the description
+     */
+    public void setDescription(String description) {
+        String text = "Description: " + description;
+        if (paintedContent != null) {
+            paintedContent.setDescription(text);
+        } else {
+            descriptionNormalLabel.setText(text);
+        }
+    }
+
+    /**
+     * Add a line after the instruments, below a separator.
+     * @param text the text of the line
+     * @return the index of the line, to change it with setExtraLine
+     */
+    int addExtraLine(String text) {
+        if (paintedContent != null) {
+            return paintedContent.addExtraLine(text);
+        }
+        VBox box = (VBox) contentPane;
+        if (extraLabels.isEmpty()) {
+            addSeparator(box);
+        }
+        Label label = new Label(text);
+        label.maxWidthProperty().bind(this.widthProperty());
+        label.getStyleClass().add(BLOCK_TEXT_NORMAL);
+        box.getChildren().add(label);
+        extraLabels.add(label);
+        return extraLabels.size() - 1;
+    }
+
+    /**
+     * Change a line that was added after the instruments.
+     * @param index the index of the line
+     * @param text the new text of the line
+     */
+    void setExtraLine(int index, String text) {
+        if (paintedContent != null) {
+            paintedContent.setExtraLine(index, text);
+        } else {
+            extraLabels.get(index).setText(text);
+        }
     }
 
     /**
@@ -198,98 +311,68 @@ public abstract class TimetableBlock extends Pane {
     }
 
     /**
-     * Helper function to initialize normal (visible) blocks.
+     * Helper function to initialize normal (visible) blocks. The text of a block is painted
+     * on a canvas when the center area asks for painted blocks, and built from labels if not.
      */
     void initNormalPane() {
         setBlendMode(BlendMode.MULTIPLY);
 
-        contentPane = new VBox();
+        if (rootCenterArea != null && rootCenterArea.isPaintedBlocks()) {
+            paintedContent = new PaintedBlockContent(parentBlock.getName(),
+                    "Count: " + parentBlock.getBeginCount() + " - " + parentBlock.getEndCount(),
+                    "Description: " + parentBlock.getDescription());
+            contentPane = paintedContent;
+        } else {
+            contentPane = initLabelContent();
+        }
         contentPane.minWidthProperty().bind(widthProperty());
         contentPane.maxWidthProperty().bind(widthProperty());
         contentPane.minHeightProperty().bind(heightProperty());
         contentPane.maxHeightProperty().bind(heightProperty());
-
-        // add some labels etc
-        titleNormalLabel = initTitleLabel(contentPane);
-        countNormalLabel = initCountLabel(contentPane);
-        addSeparator(contentPane);
-        descriptionNormalLabel = initDescriptionLabel(contentPane);
-        descriptionNormalLabel.setWrapText(true);
-        addSeparator(contentPane);
-        instrumentBox = new VBox();
-        contentPane.getChildren().add(instrumentBox);
         addWithClipRegion(contentPane, this);
 
+        // Colors come from the stylesheet of the color choice, see TweakingHelper
         this.getStyleClass().add("block_Background");
         this.getContentPane().getStyleClass().add("block_Foreground");
-        this.setStyle(
-                BACKGROUND_COLOR_STRING  + TweakingHelper.getColorString(0) + ";"
-                + BORDER_COLOR_STRING + TweakingHelper.getColorString(1) + ";");
-        this.getContentPane().setStyle(
-                BACKGROUND_COLOR_STRING + TweakingHelper.getColorString(3) + ";"
-                + BORDER_COLOR_STRING + TweakingHelper.getColorString(2) + ";");
+
+        // Any change to the content of the block needs a new layout
+        needsLayoutProperty().addListener((observable, oldValue, newValue) -> {
+                if (newValue) {
+                    snapshot = null;
+                }
+            });
+        widthProperty().addListener(observable -> snapshot = null);
+        heightProperty().addListener(observable -> snapshot = null);
     }
 
     /**
-     * Helper function to initialize dragged (visible when dragging) blocks.
-     * @param anchorPane the AnchorPane drag on
+     * Build the content of the block from labels, a label for every line of text.
+     * @return the box holding the labels
      */
-    void initDraggedPane(AnchorPane anchorPane) {
-        draggedPane = new Pane();
-        draggedPane.setVisible(false);
-
-        blurHelper = new BlurHelper(draggedPane);
-        blurHelper.setOffset(new Point2D(8,8));
-        addWithClipRegion(blurHelper.getImageView(), draggedPane);
-
-        draggedContentPane = new VBox() ;
-        draggedContentPane.minWidthProperty().bind(draggedPane.widthProperty());
-        draggedContentPane.maxWidthProperty().bind(draggedPane.widthProperty());
-        draggedContentPane.minHeightProperty().bind(draggedPane.heightProperty());
-        draggedContentPane.maxHeightProperty().bind(draggedPane.heightProperty());
-
-        // add some labels etc
-        titleDraggedLabel = initTitleLabel(draggedContentPane);
-        countDraggedLabel = initCountLabel(draggedContentPane);
-        addSeparator(draggedContentPane);
-        descriptionDraggedLabel = initDescriptionLabel(draggedContentPane);
-        addSeparator(draggedContentPane);
-        draggedInstrumentBox = new VBox();
-        draggedContentPane.getChildren().add(draggedInstrumentBox);
-        descriptionDraggedLabel.setWrapText(true);
-
-        DropShadow ds = new DropShadow(15.0, 5.0, 5.0, Color.GRAY);
-        this.getDraggedPane().setEffect(ds);
-
-        addWithClipRegion(draggedContentPane, draggedPane);
-        anchorPane.getChildren().add(draggedPane);
-
-        this.getDraggedPane().getStyleClass().add("block_Background");
-        this.getDraggedContentPane().getStyleClass().add("block_Foreground");
-        this.getDraggedPane().setStyle(
-                BACKGROUND_COLOR_STRING + TweakingHelper.getColorString(0) + ";"
-                + BORDER_COLOR_STRING + TweakingHelper.getColorString(1) + ";");
-        this.getDraggedContentPane().setStyle(
-                BACKGROUND_COLOR_STRING + TweakingHelper.getColorString(3) + ";"
-                + BORDER_COLOR_STRING + TweakingHelper.getColorString(2) + ";"
-                + "-fx-blend-mode: multiply; -fx-opacity: 0.9;");
+    private VBox initLabelContent() {
+        VBox vbox = new VBox();
+        titleNormalLabel = initTitleLabel(vbox);
+        countNormalLabel = initCountLabel(vbox);
+        addSeparator(vbox);
+        descriptionNormalLabel = initDescriptionLabel(vbox);
+        descriptionNormalLabel.setWrapText(true);
+        addSeparator(vbox);
+        instrumentBox = new VBox();
+        vbox.getChildren().add(instrumentBox);
+        extraLabels = new ArrayList<>();
+        return vbox;
     }
 
     /**
-     * Helper function to initialize feedback (the snapping) blocks.
-     * @param gridPane the gridpane to have the feedback on
+     * Get a snapshot of this block, to show while it is dragged. The snapshot is taken once
+     * and kept until the content of the block is laid out again.
+     * @return the snapshot
      */
-    public void initFeedbackPane(GridPane gridPane) {
-        feedbackPane = new Pane();
-        feedbackPane.setVisible(false);
-        gaussianBlur = new GaussianBlur(15.0);
-        darken = new ColorAdjust(0, -0.4, -0.2, 0.2);
-        image = new ImageView();
-        image.fitHeightProperty().bind(feedbackPane.heightProperty());
-        darken.setInput(gaussianBlur);
-        image.setEffect(darken);
-        feedbackPane.getChildren().add(image);
-        gridPane.add(feedbackPane, 0, 0);
+    WritableImage getSnapshot() {
+        if (snapshot == null) {
+            snapshot = this.snapshot(new SnapshotParameters(), null);
+        }
+        return snapshot;
     }
 
     /**
@@ -309,11 +392,9 @@ public abstract class TimetableBlock extends Pane {
      * Adds horizontal separator to specified area.
      * @param pane the pane to add to.
      */
-    protected void addSeparator(Pane pane) {
+    private void addSeparator(Pane pane) {
         Separator separator = new Separator(Orientation.HORIZONTAL);
-        separator.setStyle("-fx-border-color: " + TweakingHelper.getColorString(2) + ";"
-            + "-fx-border-width: 1px 0 0 0; -fx-background-color: transparent; -fx-skin: null;"
-            + "-fx-opacity: 0.25;");
+        separator.getStyleClass().add("block_Separator");
         addEmptySpace(pane, 2);
         pane.getChildren().add(separator);
         addEmptySpace(pane, 2);
@@ -329,7 +410,6 @@ public abstract class TimetableBlock extends Pane {
         empty.setPrefHeight(height);
         empty.setMinHeight(height);
         empty.setMaxHeight(height);
-        empty.setStyle("-fx-background-color: transparent;");
         pane.getChildren().add(empty);
     }
 
@@ -342,7 +422,6 @@ public abstract class TimetableBlock extends Pane {
         Label res = new Label(parentBlock.getName());
         res.maxWidthProperty().bind(this.widthProperty());
         res.getStyleClass().add("block_Text_Title");
-        res.setStyle(TEXT_FILL + TweakingHelper.getColorString(1) + ";");
         vbox.getChildren().add(res);
         return res;
     }
@@ -356,7 +435,6 @@ public abstract class TimetableBlock extends Pane {
         Label res = new Label("Description: " + parentBlock.getDescription());
         res.maxWidthProperty().bind(this.widthProperty());
         res.getStyleClass().add(BLOCK_TEXT_NORMAL);
-        res.setStyle(TEXT_FILL + TweakingHelper.getColorString(2) + ";");
         vbox.getChildren().add(res);
         return res;
     }
@@ -371,7 +449,6 @@ public abstract class TimetableBlock extends Pane {
         Label res = new Label("Count: " + labelText);
         res.maxWidthProperty().bind(this.widthProperty());
         res.getStyleClass().add(BLOCK_TEXT_NORMAL);
-        res.setStyle(TEXT_FILL + TweakingHelper.getColorString(2) + ";");
         vbox.getChildren().add(res);
         return res;
     }
@@ -413,27 +490,20 @@ public abstract class TimetableBlock extends Pane {
      */
     private EventHandler<MouseEvent> getOnPressedHandler(boolean isCameraTimeline) {
         return e -> {
-            onPressedHandlerHelper(e);
-
             GridPane gridPane;
+            AnchorPane anchorPane;
             if (isCameraTimeline) {
                 gridPane = getRootCenterArea().getMainTimeLineGridPane();
-                TimelinesGridPane.setColumnIndex(
-                        feedbackPane, TimelinesGridPane.getColumnIndex(thisBlock));
-                TimelinesGridPane.setRowIndex(
-                        feedbackPane, TimelinesGridPane.getRowIndex(thisBlock));
-                TimelinesGridPane.setRowSpan(
-                        feedbackPane, TimelinesGridPane.getRowSpan(thisBlock));
+                anchorPane = getRootCenterArea().getMainTimeLineAnchorPane();
             } else {
                 gridPane = getRootCenterArea().getDirectorGridPane();
-                DirectorGridPane.setColumnIndex(
-                        feedbackPane, DirectorGridPane.getColumnIndex(thisBlock));
-                DirectorGridPane.setRowIndex(
-                        feedbackPane, DirectorGridPane.getRowIndex(thisBlock));
-                DirectorGridPane.setRowSpan(
-                        feedbackPane, DirectorGridPane.getRowSpan(thisBlock));
+                anchorPane = getRootCenterArea().getDirectorAnchorPane();
             }
 
+            // init draggingpane and feedbackpane
+            draggingType = findEdgeZone(e);
+            getRootCenterArea().getDragOverlay().begin(thisBlock, anchorPane, gridPane);
+
             // Set startingY if dragging
             double blockY = gridPane.localToScene(thisBlock.getLayoutX(),
                     thisBlock.getLayoutY()).getY();
@@ -443,33 +513,10 @@ public abstract class TimetableBlock extends Pane {
                 startingY = blockY;
             }
 
-            blurHelper.processBlurUsingBounds();
+            getRootCenterArea().getDragOverlay().getBlurHelper().processBlurUsingBounds();
         };
     }
 
-    /**
-     * Helper method for on Mouse Pressed.
-     * @param e the MouseEvent.
-     */
-    private void onPressedHandlerHelper(MouseEvent e) {
-        // init correct object ordering
-        feedbackPane.toBack();
-        draggedPane.toFront();
-        this.toFront();
-
-        // init draggingpane
-        draggingType = findEdgeZone(e);
-        draggedPane.setLayoutX(getLayoutX());
-        draggedPane.setLayoutY(getLayoutY());
-
-        // Init feedbackpane
-        image.setImage(null);
-        feedbackImage = null;
-        feedbackImage = this.snapshot(new SnapshotParameters(), null);
-        image.setImage(feedbackImage);
-        feedbackPane.setVisible(true);
-    }
-
     /**
      * Event handler for on mouse dragged.
      * @param isCameraTimeline - specifies if horizontal dragging
@@ -478,11 +525,13 @@ public abstract class TimetableBlock extends Pane {
      */
     private EventHandler<MouseEvent> getOnDraggedHandler(boolean isCameraTimeline) {
         return e -> {
+            DragOverlay overlay = getRootCenterArea().getDragOverlay();
             if (!dragging) {
                 dragXOffset = e.getX();
                 dragYOffset = e.getY();
 
                 dragging = true;
+                Pane draggedPane = overlay.getDraggedPane();
                 draggedPane.setVisible(true);
                 draggedPane.setPrefHeight(getHeight());
                 draggedPane.setMinHeight(getHeight());
@@ -491,8 +540,8 @@ public abstract class TimetableBlock extends Pane {
                 thisBlock.setVisible(false);
             }
 
-            onMouseDraggedHelper(e, isCameraTimeline);
-            blurHelper.processBlurUsingBounds();
+            // Only the last position before a pulse is applied
+            overlay.drag(thisBlock, e.getSceneX(), e.getSceneY(), isCameraTimeline);
             e.consume();
         };
     }
@@ -504,29 +553,31 @@ public abstract class TimetableBlock extends Pane {
      */
     private EventHandler<MouseEvent> getOnreleaseHandler(boolean isCameraTimeline) {
         return e -> {
-            draggedPane.setVisible(false);
+            DragOverlay overlay = getRootCenterArea().getDragOverlay();
+            overlay.flush();
             thisBlock.setVisible(true);
 
             if (dragging) {
-                snapPane(thisBlock, feedbackPane, e.getSceneY(), draggingType, isCameraTimeline);
+                snapPane(thisBlock, overlay.getFeedbackPane(), e.getSceneY(), draggingType,
+                        isCameraTimeline);
             }
 
-            feedbackPane.setVisible(false);
+            overlay.end();
             dragging = false;
 
             // Update ShotBlock
             if (isCameraTimeline) {
-                double newBeginCount = TimelinesGridPane.getRowIndex(thisBlock)
-                        / (double) CountUtilities.NUMBER_OF_CELLS_PER_COUNT;
+                double newBeginCount = CountUtilities.rowToCount(
+                        TimelinesGridPane.getRowIndex(thisBlock));
                 parentBlock.setBeginCount(newBeginCount, false);
-                parentBlock.setEndCount(newBeginCount + TimelinesGridPane.getRowSpan(thisBlock)
-                        / (double) CountUtilities.NUMBER_OF_CELLS_PER_COUNT, false);
+                parentBlock.setEndCount(newBeginCount + CountUtilities.rowToCount(
+                        TimelinesGridPane.getRowSpan(thisBlock)), false);
             } else {
-                double newBeginCount = DirectorGridPane.getRowIndex(thisBlock)
-                        / (double) CountUtilities.NUMBER_OF_CELLS_PER_COUNT;
+                double newBeginCount = CountUtilities.rowToCount(
+                        DirectorGridPane.getRowIndex(thisBlock));
                 parentBlock.setBeginCount(newBeginCount, false);
-                parentBlock.setEndCount(newBeginCount + DirectorGridPane.getRowSpan(thisBlock)
-                        / (double) CountUtilities.NUMBER_OF_CELLS_PER_COUNT, false);
+                parentBlock.setEndCount(newBeginCount + CountUtilities.rowToCount(
+                        DirectorGridPane.getRowSpan(thisBlock)), false);
             }
 
             this.fireEvent(parentBlock.getShotBlockUpdatedEvent());
@@ -535,13 +586,15 @@ public abstract class TimetableBlock extends Pane {
 
     /**
      * Helper function for MouseDragged event. Normal (actual dragging) part.
-     * @param event the mousedrag event in question.
+     * Called by the drag overlay once per pulse, with the last position of the mouse.
+     * @param sceneX the x coordinate of the mouse in the scene
+     * @param sceneY the y coordinate of the mouse in the scene
      * @param isCameraTimeline - specifies if horizontal dragging
      *                          (between timelines) is allowed
      */
-    private void onMouseDraggedHelper(MouseEvent event, boolean isCameraTimeline) {
-        double x = event.getSceneX();
-        double y = event.getSceneY();
+    void onMouseDraggedHelper(double sceneX, double sceneY, boolean isCameraTimeline) {
+        double x = sceneX;
+        double y = sceneY;
 
         // Fix dragging out of grid
         if (draggingType == DraggingTypes.Resize_Bottom
@@ -567,7 +620,9 @@ public abstract class TimetableBlock extends Pane {
         }
 
         // set feedbackpane
-        snapPane(feedbackPane, draggedPane, y, draggingType, isCameraTimeline);
+        DragOverlay overlay = getRootCenterArea().getDragOverlay();
+        snapPane(overlay.getFeedbackPane(), overlay.getDraggedPane(), y, draggingType,
+                isCameraTimeline);
     }
 
     /**
@@ -590,8 +645,9 @@ public abstract class TimetableBlock extends Pane {
             yCoordinate = y;
         }
 
-        xCoordinate = mappingPane.localToScene(mappingPane.getBoundsInLocal()).getMinX()
-                + mappingPane.getWidth() / 2;
+        // Middle of the pane in the scene, from its cached transform to not allocate bounds
+        Transform toScene = mappingPane.getLocalToSceneTransform();
+        xCoordinate = toScene.getTx() + toScene.getMxx() * mappingPane.getWidth() / 2;
 
         ScrollableGridPane gridPane;
         if (isCameraTimeline) {
@@ -633,6 +689,7 @@ public abstract class TimetableBlock extends Pane {
         }
         Bounds parentBounds = parentPane.localToScene(parentPane.getBoundsInLocal());
 
+        Pane draggedPane = rootCenterArea.getDragOverlay().getDraggedPane();
         draggedPane.setLayoutX(x - parentBounds.getMinX() - dragXOffset);
         draggedPane.setLayoutY(y - parentBounds.getMinY() - dragYOffset);
     }
@@ -677,6 +734,7 @@ public abstract class TimetableBlock extends Pane {
             }
         }
 
+        Pane draggedPane = rootCenterArea.getDragOverlay().getDraggedPane();
         draggedPane.setLayoutY(newLayoutY);
         draggedPane.setPrefHeight(newPrefHeight);
         draggedPane.setMinHeight(newPrefHeight);
@@ -0,0 +1,87 @@
+package gui.centerarea;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+import gui.root.RootCenterArea;
+import lombok.Getter;
+
+/**
+ * Pool of timetable blocks that were removed from the timelines. A new shot block takes a
+ * block of its type from the pool and binds it to its shot, instead of building the nodes of
+ * a block again. The pool keeps a limited number of blocks of every type, and counts how many
+ * blocks it could hand out.
+ */
+public class TimetableBlockPool {
+
+    // Number of removed blocks of every type that are kept.
+    private static final int MAX_POOLED = 64;
+
+    // Center area the pooled blocks are shown in.
+    private final RootCenterArea rootCenterArea;
+
+    // Removed blocks by their type, the last removed block is handed out first.
+    private final Map<Class<?>, ArrayDeque<TimetableBlock>> pooled;
+
+    @Getter
+    private long hits; // blocks that were taken from the pool
+    @Getter
+    private long misses; // blocks that had to be created
+
+    /**
+     * Constructor.
+     * @param rootCenterArea the center area the blocks are shown in
+     */
+    public TimetableBlockPool(RootCenterArea rootCenterArea) {
+        this.rootCenterArea = rootCenterArea;
+        this.pooled = new HashMap<>();
+    }
+
+    /**
+     * Get a timetable block for a new shot block, from the pool if it holds one of the type.
+     * A pooled block that shows its text in another way than new blocks do is dropped.
+     * @param type the type of the block
+     * @param factory creates a block of the type if the pool has none
+     * @param parent the shot block the block shows
+     * @param <T> the type of the block
+     * @return the block, bound to the shot block
+     */
+    <T extends TimetableBlock> T obtain(Class<T> type,
+                                        BiFunction<RootCenterArea, ShotBlock, T> factory,
+                                        ShotBlock parent) {
+        ArrayDeque<TimetableBlock> blocks = pooled.get(type);
+        while (blocks != null && !blocks.isEmpty()) {
+            T block = type.cast(blocks.pop());
+            if (block.isPainted() == rootCenterArea.isPaintedBlocks()) {
+                hits++;
+                block.rebind(parent);
+                return block;
+            }
+        }
+        misses++;
+        return factory.apply(rootCenterArea, parent);
+    }
+
+    /**
+     * Put a block that was removed from the timelines in the pool, if it is not full.
+     * @param block the block, it may not be shown anymore
+     */
+    void release(TimetableBlock block) {
+        ArrayDeque<TimetableBlock> blocks = pooled.computeIfAbsent(block.getClass(),
+                type -> new ArrayDeque<>());
+        if (blocks.size() < MAX_POOLED) {
+            blocks.push(block);
+        }
+    }
+
+    /**
+     * Get the share of the blocks that were taken from the pool.
+     * @return the hit rate, between 0 and 1
+     */
+    public double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
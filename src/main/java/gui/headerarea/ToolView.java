@@ -3,7 +3,6 @@ package gui.headerarea;
 import java.util.ArrayList;
 import java.util.List;
 
-import gui.misc.TweakingHelper;
 import javafx.geometry.Insets;
 import javafx.scene.layout.HBox;
 import lombok.Getter;
@@ -15,11 +14,10 @@ public class ToolView extends HBox {
 
     private List<ToolButton> buttonList;
 
-    private String style = "-fx-background-color: "
-            + TweakingHelper.getColorString(0) + ";"
+    // The main colors are looked up, so they follow the stylesheet of the color choice
+    private String style = "-fx-background-color: -c-main-0;"
             + "-fx-border-width: 0 0 8 0;"
-            + "-fx-border-color:"
-            + TweakingHelper.getColorString(1) + ";";
+            + "-fx-border-color: -c-main-1;";
 
     @Getter
     private ToolButton directorBlockCreationTool;
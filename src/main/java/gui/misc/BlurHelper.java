@@ -1,26 +1,48 @@
 package gui.misc;
 
+import javafx.animation.AnimationTimer;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import javafx.geometry.Bounds;
 import javafx.geometry.Point2D;
 import javafx.geometry.Rectangle2D;
 import javafx.scene.Node;
+import javafx.scene.Parent;
 import javafx.scene.SnapshotParameters;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.effect.GaussianBlur;
 import javafx.scene.image.ImageView;
 import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.transform.Transform;
 import lombok.Getter;
 import lombok.Setter;
 
 /**
  * Class to assist in quickly blurring behind a supplied node.
  * Also has support for moving elements.
- * Is kind of extremely buggy. May have horrible performance impact.
+ * Requests are coalesced to at most one snapshot per pulse. Only the parent of the node is
+ * rendered, at a reduced resolution and into a reused image. When a snapshot takes longer
+ * than the frame budget, or blurring is turned off in the preferences, a flat translucent
+ * fill is shown instead.
  */
 public class BlurHelper {
 
+    // Resolution of the snapshot relative to the node, the blur hides the lost detail.
+    private static final double SNAPSHOT_SCALE = 0.5;
+
+    // Nanoseconds a snapshot may take before falling back to the flat fill.
+    private static final long FRAME_BUDGET = 8_000_000L;
+
+    // Pulses to show the flat fill after a snapshot went over the budget.
+    private static final int BACKOFF_PULSES = 30;
+
+    // Color of the flat fill.
+    private static final Color FLAT_FILL_COLOR = Color.rgb(255, 255, 255, 0.6);
+
+    // Single pixel of the flat fill, stretched over the node. Created when first shown.
+    private static WritableImage flatFill;
+
     /*
      * Blur variables.
      */
@@ -36,7 +58,7 @@ public class BlurHelper {
     /*
      * Object and scene variables.
      */
-    private WritableImage writableImage; // writable image used to write snapshots to
+    private WritableImage writableImage; // writable image used to write snapshots to, reused
     @Getter
     private ImageView imageView; // ImageView region used to display blurred result.
     @Getter @Setter
@@ -47,6 +69,12 @@ public class BlurHelper {
     @Getter
     private Bounds bounds; // Bounds of node used for snapshot parameters (x, y, width, height)
 
+    /*
+     * Pulse variables.
+     */
+    private AnimationTimer pulse; // Renders the requested blur in the next pulse.
+    private int backoff; // Pulses left to show the flat fill instead of a snapshot.
+
 
     /**
      * Constructor of class.
@@ -76,9 +104,17 @@ public class BlurHelper {
         hideNode = true;
         gaussianBlur = new GaussianBlur(radius);
         parameters = new SnapshotParameters();
+        parameters.setTransform(Transform.scale(SNAPSHOT_SCALE, SNAPSHOT_SCALE));
         imageView = new ImageView();
         imageView.setEffect(gaussianBlur);
         offset = new Point2D(0,0);
+        pulse = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                stop();
+                render();
+            }
+        };
     }
 
     /**
@@ -99,41 +135,83 @@ public class BlurHelper {
 
     /**
      * Process blur for this BlurHelper, by using the bounds of the node.
-     * WARNING: if the node is being dragged or resized, make sure this is called AFTER
-     * the node has moved or resized. It may prevent jittering!
+     * The blur is rendered in the next pulse, after the node has moved or resized, so calling
+     * this for every mouse event takes a single snapshot per frame.
      */
     public void processBlurUsingBounds() {
-        // get information on current size of object in scene, and set proper parameters
-        bounds = node.localToScene(node.getBoundsInLocal());
-        Rectangle2D rect = new Rectangle2D(bounds.getMinX() + offset.getX() ,
-                bounds.getMinY() + offset.getY(),
-                bounds.getWidth(), bounds.getHeight());
-        parameters.setViewport(rect);
+        pulse.start();
+    }
+
+    /**
+     * Render the blur behind the node as it is now.
+     */
+    private void render() {
+        Parent source = node.getParent();
+        if (source == null || !node.isVisible()) {
+            return;
+        }
+
+        // get information on current size of object in parent, and set proper parameters
+        bounds = source.localToParent(node.getBoundsInParent());
+        int width = (int) Math.ceil(bounds.getWidth() * SNAPSHOT_SCALE);
+        int height = (int) Math.ceil(bounds.getHeight() * SNAPSHOT_SCALE);
 
         // just a catch, in case something goes horribly wrong.
-        Point2D imageSize = new Point2D(Math.round(bounds.getWidth()),
-                Math.round(bounds.getHeight()));
-        if (imageSize.getX() <= 0.0 || imageSize.getY() <= 0.0) {
+        if (width <= 0 || height <= 0) {
             return;
         }
+        imageView.setFitWidth(bounds.getWidth());
+        imageView.setFitHeight(bounds.getHeight());
 
-        // Clear old image fist
-        writableImage = null;
-        imageView.setImage(null);
+        if (!TweakingHelper.isDragBlur() || backoff > 0) {
+            backoff = Math.max(0, backoff - 1);
+            showFlatFill();
+            return;
+        }
 
-        // create new writable image using these bounds.
-        writableImage =  new WritableImage((int) imageSize.getX(), (int) imageSize.getY());
+        // the source is rendered with its own transform, so the viewport is in the scaled
+        // coordinates of the parent of the source
+        parameters.setViewport(new Rectangle2D(
+                (bounds.getMinX() + offset.getX()) * SNAPSHOT_SCALE,
+                (bounds.getMinY() + offset.getY()) * SNAPSHOT_SCALE, width, height));
+
+        // reuse the image while it is big enough, the rest of it is not shown
+        if (writableImage == null || writableImage.getWidth() < width
+                || writableImage.getHeight() < height) {
+            writableImage = new WritableImage(
+                    Math.max(width, writableImage == null ? 0 : (int) writableImage.getWidth()),
+                    Math.max(height, writableImage == null ? 0 : (int) writableImage.getHeight()));
+        }
 
+        long start = System.nanoTime();
         if (hideNode) { // blurs and returns content behind the node
             double opacity = node.getOpacity();
             node.setOpacity(0.0);
-            node.getScene().getRoot().snapshot(parameters, writableImage);
+            source.snapshot(parameters, writableImage);
             node.setOpacity(opacity); // restore old node opacity
         } else { // blurs and returns the node
-            node.getScene().getRoot().snapshot(parameters, writableImage);
+            source.snapshot(parameters, writableImage);
+        }
+        if (System.nanoTime() - start > FRAME_BUDGET) {
+            backoff = BACKOFF_PULSES;
         }
 
+        imageView.setEffect(gaussianBlur);
         imageView.setImage(writableImage);
+        imageView.setViewport(new Rectangle2D(0, 0, width, height));
+    }
+
+    /**
+     * Show a flat translucent fill instead of the blurred snapshot.
+     */
+    private void showFlatFill() {
+        if (flatFill == null) {
+            flatFill = new WritableImage(1, 1);
+            flatFill.getPixelWriter().setColor(0, 0, FLAT_FILL_COLOR);
+        }
+        imageView.setEffect(null);
+        imageView.setImage(flatFill);
+        imageView.setViewport(null);
     }
 
     /**
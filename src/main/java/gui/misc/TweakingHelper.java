@@ -1,19 +1,31 @@
 package gui.misc;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Arrays;
 
 import javafx.scene.paint.Color;
 import lombok.Getter;
 import lombok.Setter;
+import lombok.extern.log4j.Log4j2;
 
 /**
  * Statics to help with gui tweakability.
  */
+@Log4j2
 public final class TweakingHelper {
 
     @Getter @Setter
     private static int colorChoice = 0;
 
+    @Getter @Setter
+    private static boolean dragBlur = true; // Blur behind dragged blocks, flat fill if false.
+
+    @Getter @Setter
+    private static int paintedBlocksThreshold = 500; // Paint blocks of projects with more shots.
+
     /*
      * Constants used throughout application.
      */
@@ -54,6 +66,12 @@ public final class TweakingHelper {
             }
     };
 
+    /*
+     * Urls of the generated stylesheets of the color presets, null until a preset is used.
+     */
+
+    private static final String[] colorStylesheets = new String[colors.length];
+
     /*
      * Color names for the main colors. Used by settings menu, for example.
      */
@@ -128,6 +146,33 @@ public final class TweakingHelper {
         return getStringFromColor(getColor(i));
     }
 
+    /**
+     * Get the stylesheet of the current color choice. It defines the main colors as looked-up
+     * colors -c-main-0 to -c-main-3 on the root, which the stylesheets of the timetable blocks
+     * use. Changing the color choice only swaps this stylesheet, instead of restyling every
+     * block. The stylesheet of a preset is generated once, in a temporary file.
+     * @return the url of the stylesheet, null if it could not be written.
+     */
+    public static String getColorStylesheet() {
+        if (colorStylesheets[colorChoice] == null) {
+            StringBuilder css = new StringBuilder(".root {\n");
+            for (int i = 0; i < colors[colorChoice].length; i++) {
+                css.append("    -c-main-").append(i).append(": ")
+                        .append(getStringFromColor(colors[colorChoice][i])).append(";\n");
+            }
+            css.append("}\n");
+            try {
+                File file = File.createTempFile("colors-" + colorNames[colorChoice], ".css");
+                file.deleteOnExit();
+                Files.write(file.toPath(), css.toString().getBytes(StandardCharsets.UTF_8));
+                colorStylesheets[colorChoice] = file.toURI().toString();
+            } catch (IOException e) {
+                log.error("Could not write the stylesheet of the color choice.", e);
+            }
+        }
+        return colorStylesheets[colorChoice];
+    }
+
     /**
      * @return background color as string.
      */
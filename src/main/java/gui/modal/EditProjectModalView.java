@@ -23,6 +23,8 @@ import lombok.Setter;
 import lombok.extern.log4j.Log4j2;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Map;
 
 /**
  * Class responsible for displaying a modal view for editing a project.
@@ -128,6 +130,9 @@ public class EditProjectModalView extends ModalView {
     private ArrayList<CameraTimeline> timelines;
     @Getter
     private ArrayList<Instrument> instruments;
+    // The copy of each instrument of the project that is edited in this modal.
+    @Getter
+    private Map<Instrument, Instrument> instrumentCopies;
 
     private boolean fillWithCurrentProjectInfo;
     @Getter
@@ -168,15 +173,32 @@ public class EditProjectModalView extends ModalView {
         this.timelines = new ArrayList<>();
         this.instruments = new ArrayList<>();
 
+        this.instrumentCopies = new IdentityHashMap<>();
+
         if (fillWithCurrentProjectInfo) {
+            // Camera types are shared, so the cloned cameras share the cloned types
+            Map<CameraType, CameraType> typeCopies = new IdentityHashMap<>();
+            ArrayList<CameraType> projectTypes = project.getCameraTypes();
+            projectTypes.forEach(e -> {
+                    CameraType copy = e.clone();
+                    typeCopies.put(e, copy);
+                    cameraTypes.add(copy);
+                });
             ArrayList<Camera> projectCameras = project.getCameras();
             projectCameras.forEach(e -> cameras.add(e.clone()));
-            ArrayList<CameraType> projectTypes = project.getCameraTypes();
-            projectTypes.forEach(e -> cameraTypes.add(e.clone()));
             ArrayList<CameraTimeline> projectTimelines = project.getCameraTimelines();
             projectTimelines.forEach(e -> timelines.add(e.clone()));
+            cameras.forEach(e -> e.setCameraType(
+                    typeCopies.getOrDefault(e.getCameraType(), e.getCameraType())));
+            timelines.forEach(e -> e.getCamera().setCameraType(
+                    typeCopies.getOrDefault(e.getCamera().getCameraType(),
+                            e.getCamera().getCameraType())));
             ArrayList<Instrument> projectInstruments = project.getInstruments();
-            projectInstruments.forEach(e -> instruments.add(e.clone()));
+            projectInstruments.forEach(e -> {
+                    Instrument copy = e.clone();
+                    instrumentCopies.put(e, copy);
+                    instruments.add(copy);
+                });
         }
         initializeView();
     }
@@ -3,6 +3,7 @@ package gui.modal;
 import gui.misc.TweakingHelper;
 import gui.root.RootPane;
 import gui.styling.StyledButton;
+import gui.styling.StyledCheckbox;
 import gui.styling.StyledListview;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -22,7 +23,7 @@ public class PreferencesModalView extends ModalView {
 
     // width and height of screen. 680 and 350 work very, very well.
     private static final int width = 450;
-    private static final int height = 300;
+    private static final int height = 340;
 
     // variables for spacing
     protected static final int topAreaHeight = 50;
@@ -56,6 +57,8 @@ public class PreferencesModalView extends ModalView {
     private StyledButton cancelButton;
     @Getter
     private StyledListview colorList;
+    @Getter
+    private StyledCheckbox dragBlurCheckbox;
 
     /**
      * Class constructtor.
@@ -137,8 +140,12 @@ public class PreferencesModalView extends ModalView {
         // textlabel
         Label colorLabel = new Label("Application color");
 
+        // checkbox for the blur behind dragged blocks, which may be slow
+        this.dragBlurCheckbox = new StyledCheckbox("Blur behind dragged shots",
+                TweakingHelper.isDragBlur());
+
         // add everything together
-        this.centerPane.getChildren().addAll(colorLabel, colorList);
+        this.centerPane.getChildren().addAll(colorLabel, colorList, dragBlurCheckbox);
     }
 
     /**
@@ -1,8 +1,11 @@
 package gui.root;
 
+import control.CountUtilities;
 import gui.centerarea.CounterGridPane;
 import gui.centerarea.DirectorGridPane;
+import gui.centerarea.DragOverlay;
 import gui.centerarea.TimelinesGridPane;
+import gui.centerarea.TimetableBlockPool;
 import gui.misc.TweakingHelper;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -26,10 +29,16 @@ public class RootCenterArea extends VBox {
     
     private static final int DEFAULT_TIMELINES = 0;
 
+    // Counts the timelines show at least, and the counts shown below the last shot.
+    private static final int MINIMUM_COUNTS = 1000;
+    private static final int EXTRA_COUNTS = 500;
+
     @Getter @Setter
     private int numberOfTimelines = 8;
+    @Getter
+    private int numberOfCounts = MINIMUM_COUNTS * CountUtilities.NUMBER_OF_CELLS_PER_COUNT;
     @Getter @Setter
-    private int numberOfCounts = 200;
+    private boolean paintedBlocks = false; // paint the text of new blocks instead of labels
     @Getter
     private int countHeight = 10; // 10 works well, if you've changed this.
     @Getter
@@ -78,6 +87,18 @@ public class RootCenterArea extends VBox {
     private AnchorPane directorAnchorPane;
     @Getter
     private DirectorGridPane directorGridPane;
+
+    /**
+     * Panes shown while a block is dragged, shared by all blocks.
+     */
+    @Getter
+    private DragOverlay dragOverlay;
+
+    /**
+     * Timetable blocks that were removed, to reuse for new shots.
+     */
+    @Getter
+    private TimetableBlockPool blockPool;
     
     /**
      * Construct a new RootCenterArea.
@@ -110,6 +131,8 @@ public class RootCenterArea extends VBox {
             this.topScrollPaneContent = new HBox();
             this.timelinesPane = new HBox();
             this.getChildren().addAll(topPane, timelinesPane);
+            this.dragOverlay = new DragOverlay();
+            this.blockPool = new TimetableBlockPool(this);
 
             initCounterPane();
             initDirectorPane();
@@ -132,6 +155,23 @@ public class RootCenterArea extends VBox {
         this(rootPane, DEFAULT_TIMELINES, false);
     }
 
+    /**
+     * Make the timelines long enough to show a count, with room below it to add shots. The
+     * timelines only grow, so the scroll position stays put when a shot is moved up.
+     * @param count the count that has to be shown
+     */
+    public void fitCounts(double count) {
+        int rows = ((int) Math.ceil(count) + EXTRA_COUNTS)
+                * CountUtilities.NUMBER_OF_CELLS_PER_COUNT;
+        if (rows <= numberOfCounts || mainTimeLineGridPane == null) {
+            return;
+        }
+        numberOfCounts = rows;
+        mainTimeLineGridPane.setNumberOfVerticalGrids(rows);
+        counterGridPane.setNumberOfVerticalGrids(rows);
+        directorGridPane.setNumberOfVerticalGrids(rows);
+    }
+
     /**
      * Binds pane scrolling together bidirectionally,
      * so all the major scrollpanes (top, and the timelines, and the counter)
@@ -224,6 +264,7 @@ public class RootCenterArea extends VBox {
         mainTimelineScrollpane.setFitToWidth(true);
         mainTimelineScrollpane.setPrefWidth(TweakingHelper.GENERAL_SIZE);
         mainTimelineScrollpane.setContent(mainTimeLineAnchorPane);
+        mainTimeLineGridPane.trackViewport(mainTimelineScrollpane);
         mainTimelineScrollpane.setPadding(new Insets(0,0,0,0));
         timelinesPane.getChildren().add(mainTimelineScrollpane);
     }
@@ -240,6 +281,7 @@ public class RootCenterArea extends VBox {
         counterAnchorPane.setTopAnchor(counterGridPane, 0.0);
         counterAnchorPane.getChildren().add(counterGridPane);
         counterScrollpane.setContent(counterAnchorPane);
+        counterGridPane.trackViewport(counterScrollpane);
         counterScrollpane.setMinWidth(counterWidth);
         counterScrollpane.setFitToWidth(true);
         counterScrollpane.setHbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
@@ -260,11 +302,11 @@ public class RootCenterArea extends VBox {
         directorAnchorPane.setTopAnchor(directorGridPane, 0.0);
         directorAnchorPane.getChildren().add(directorGridPane);
         directorScrollpane.setContent(directorAnchorPane);
+        directorGridPane.trackViewport(directorScrollpane);
         directorScrollpane.setMinWidth(directorTimelineWidth);
         directorScrollpane.setFitToWidth(true);
         directorScrollpane.setVbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
         directorScrollpane.setHbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
-        directorGridPane.setGridLinesVisible(false);
         directorScrollpane.setPadding(new Insets(0,0,0,0));
         directorScrollpane.setStyle("-fx-border-width: 0 1px 0 0.5px;"
             + "-fx-border-color: rgba(0,0,0,0.40);");
@@ -1,22 +1,45 @@
 package gui.root;
 
 import gui.misc.TweakingHelper;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Label;
 import javafx.scene.layout.HBox;
 
 /**
  * Class that represents the whole of bottom-level elements in the gui.
  * In other words, the bar at the bottom, at the least, goes here.
  */
-class RootFooterArea extends HBox {
+public class RootFooterArea extends HBox {
 
     private static final int FOOTER_AREA_HEIGHT = 10;
+    private static final int STATUS_FONT_SIZE = 10;
+
+    // Label showing what happens in the background, like saving.
+    private Label statusLabel;
 
     /**
      * RootFooterArea Constructor.
      */
     RootFooterArea() {
-        setStyle("-fx-background-color: " + TweakingHelper.getColorString(1) + ";");
+        setStyle("-fx-background-color: -c-main-1;");
 
         this.setPrefHeight(FOOTER_AREA_HEIGHT);
+        this.setAlignment(Pos.CENTER_RIGHT);
+        this.setPadding(new Insets(0, TweakingHelper.GENERAL_SPACING, 0,
+                TweakingHelper.GENERAL_SPACING));
+
+        statusLabel = new Label();
+        statusLabel.setStyle("-fx-font-size: " + STATUS_FONT_SIZE + "px; -fx-text-fill: "
+                + TweakingHelper.getBackgroundString() + ";");
+        this.getChildren().add(statusLabel);
+    }
+
+    /**
+     * Show a status message in the footer.
+     * @param status the message to show, empty to show nothing
+     */
+    public void setStatus(String status) {
+        statusLabel.setText(status);
     }
 }
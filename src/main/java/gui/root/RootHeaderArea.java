@@ -2,7 +2,6 @@ package gui.root;
 
 import gui.headerarea.DetailView;
 import gui.headerarea.ToolView;
-import gui.misc.TweakingHelper;
 import javafx.scene.control.Menu;
 import javafx.scene.control.MenuBar;
 import javafx.scene.control.MenuItem;
@@ -105,8 +104,7 @@ public class RootHeaderArea extends VBox {
         Menu viewMenu = new Menu("View");
 
         MenuBar topMenuBar = new MenuBar();
-        topMenuBar.setStyle("-c-color-primary: "
-                + TweakingHelper.getColorString(0) + ";");
+        topMenuBar.setStyle("-c-color-primary: -c-main-0;");
         topMenuBar.setUseSystemMenuBar(true);
         topMenuBar.getMenus().addAll(fileMenu, editMenu, viewMenu, helpMenu);
         return topMenuBar;
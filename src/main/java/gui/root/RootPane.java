@@ -2,10 +2,12 @@ package gui.root;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Scanner;
 
 import control.ControllerManager;
+import gui.misc.TweakingHelper;
 import gui.modal.StartupModalView;
 import javafx.application.Application;
 import javafx.application.Platform;
@@ -52,6 +54,16 @@ public class RootPane extends Application {
         showRootPane();
     }
 
+    /**
+     * Write the saves and journal records that are still queued before the application stops.
+     */
+    @Override
+    public void stop() {
+        if (controllerManager != null) {
+            controllerManager.getProjectController().finishWrites();
+        }
+    }
+
     /**
      * Puts together and shows all window elements for the Root Pane.
      */
@@ -107,6 +119,25 @@ public class RootPane extends Application {
         }
     }
 
+    /**
+     * Show the colors of the current color choice, by replacing the stylesheet of the old
+     * color choice in the scene. The scene is not built again.
+     * @param oldColors the url of the stylesheet of the old color choice
+     */
+    public void swapColorStylesheet(String oldColors) {
+        String colors = TweakingHelper.getColorStylesheet();
+        if (colors == null) {
+            return;
+        }
+        List<String> stylesheets = primaryStage.getScene().getStylesheets();
+        int index = stylesheets.indexOf(oldColors);
+        if (index < 0) {
+            stylesheets.add(colors);
+        } else {
+            stylesheets.set(index, colors);
+        }
+    }
+
     /**
      * Load all main stylesheets for this scene.
      * @param scene scene to load.
@@ -118,6 +149,12 @@ public class RootPane extends Application {
         scene.getStylesheets().add("Stylesheets/StyledTextfield.css");
         scene.getStylesheets().add("Stylesheets/StyledListview.css");
         scene.getStylesheets().add("Stylesheets/StyledMenu.css");
+
+        // Colors of the current color choice, used by the timetable blocks
+        String colors = TweakingHelper.getColorStylesheet();
+        if (colors != null) {
+            scene.getStylesheets().add(colors);
+        }
     }
 
     /**
@@ -0,0 +1,141 @@
+package control;
+
+import data.Camera;
+import data.CameraShot;
+import data.CameraTimeline;
+import data.CameraType;
+import data.ProjectJournal;
+import data.ScriptingProject;
+import gui.root.RootPane;
+import javafx.stage.Stage;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.testfx.framework.junit.ApplicationTest;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+public class AutosaveServiceTest extends ApplicationTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File projectFile;
+    private ScriptingProject project;
+    private ProjectJournal journal;
+    private ProjectController projectController;
+    private AutosaveService autosave;
+
+    @Override
+    public void start(Stage stage) throws Exception {
+    }
+
+    @Before
+    public void initialize() throws IOException {
+        projectFile = folder.newFile("project.scp");
+        project = new ScriptingProject("autosave", "", 1);
+        CameraType type = new CameraType("type", "", 1);
+        project.getCameraTypes().add(type);
+        Camera camera = new Camera("camera", "", type);
+        project.addCamera(camera);
+        CameraTimeline timeline = new CameraTimeline(camera, project);
+        timeline.addShot(new CameraShot("shot", "", 0, 1));
+        project.addCameraTimeline(timeline);
+        assertTrue(project.write(projectFile));
+
+        journal = spy(ProjectJournal.open(projectFile));
+        ControllerManager controllerManager = mock(ControllerManager.class);
+        when(controllerManager.getScriptingProject()).thenReturn(project);
+        when(controllerManager.getRootPane()).thenReturn(mock(RootPane.class));
+        projectController = mock(ProjectController.class);
+        when(projectController.getControllerManager()).thenReturn(controllerManager);
+        when(projectController.getJournal()).thenReturn(journal);
+        autosave = new AutosaveService(projectController);
+    }
+
+    @Test
+    public void checkpointTest() throws IOException {
+        project.setName("autosaved");
+        project.changed();
+        autosave.checkpoint();
+        verify(journal, timeout(5000)).flush();
+        assertTrue(project.isChanged());
+        verify(journal, never()).commit();
+        verify(journal, never()).compact(any(File.class), any(byte[].class), anyLong());
+        assertEquals("autosave", ScriptingProject.read(projectFile).getName());
+    }
+
+    @Test
+    public void unchangedTest() throws IOException {
+        project.changed();
+        autosave.checkpoint();
+        autosave.checkpoint();
+        verify(journal, timeout(5000)).flush();
+        verify(journal, times(1)).flush();
+    }
+
+    @Test
+    public void noJournalTest() throws IOException {
+        when(projectController.getJournal()).thenReturn(null);
+        project.changed();
+        autosave.checkpoint();
+        autosave.awaitWrites();
+        assertTrue(project.isChanged());
+        verify(journal, never()).flush();
+        verify(journal, never()).commit();
+    }
+
+    @Test
+    public void recordTest() throws IOException {
+        CameraShot shot = project.getCameraTimelines().get(0).getShots().getFirst();
+        autosave.recordProject(journal, project);
+        autosave.record(journal, ProjectJournal.cameraShotRemovedRecord(shot));
+        autosave.awaitWrites();
+        assertEquals(2, journal.getRecordCount());
+        // The records are appended in order, the shot is removed after the project record
+        ScriptingProject replayed = journal.replay(ScriptingProject.read(projectFile));
+        assertEquals(0, replayed.getCameraTimelines().get(0).getShots().size());
+    }
+
+    @Test
+    public void commitTest() throws IOException {
+        project.setName("saved");
+        autosave.commit(journal, project);
+        autosave.awaitWrites();
+        verify(journal).commit();
+        verify(journal).compact(eq(projectFile), any(byte[].class), anyLong());
+        assertEquals("saved", ScriptingProject.read(projectFile).getName());
+    }
+
+    @Test
+    public void editedAfterCommitTest() throws IOException {
+        project.setName("saved");
+        autosave.commit(journal, project);
+        // The snapshot is taken at the save, later edits are not written
+        project.setName("edited");
+        project.getCameraTimelines().get(0).getShots().getFirst().setBeginCount(5);
+        autosave.awaitWrites();
+        ScriptingProject read = ScriptingProject.read(projectFile);
+        assertEquals("saved", read.getName());
+        assertEquals(0, read.getCameraTimelines().get(0).getShots().getFirst().getBeginCount(),
+                0);
+    }
+
+    @Test
+    public void writeTest() throws IOException {
+        project.setName("written");
+        journal.cameraShotChanged(0, project.getCameraTimelines().get(0).getShots().getFirst());
+        autosave.write(journal, project);
+        autosave.awaitWrites();
+        assertEquals(0, journal.getRecordCount());
+        assertEquals("written", ScriptingProject.read(projectFile).getName());
+    }
+}
@@ -0,0 +1,128 @@
+package control;
+
+import data.Camera;
+import data.CameraShot;
+import data.CameraTimeline;
+import data.CameraType;
+import data.ScriptingProject;
+import data.Shot;
+import javafx.application.Platform;
+import javafx.stage.Stage;
+import org.junit.Test;
+import org.testfx.framework.junit.ApplicationTest;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class BatchCollisionDetectorTest extends ApplicationTest {
+
+    @Override
+    public void start(Stage stage) throws Exception {
+    }
+
+    @Test
+    public void findCollisionsEmptyTest() {
+        assertTrue(BatchCollisionDetector.findCollisions(new double[0], new double[0], 0).isEmpty());
+    }
+
+    @Test
+    public void findCollisionsTest() {
+        double[] begins = {1, 2, 6};
+        double[] ends = {3, 4, 8};
+        List<int[]> pairs = BatchCollisionDetector.findCollisions(begins, ends, 0);
+        assertEquals(1, pairs.size());
+        assertEquals(1, pairs.get(0)[0] + pairs.get(0)[1]);
+    }
+
+    @Test
+    public void findCollisionsMarginTest() {
+        double[] begins = {1, 4};
+        double[] ends = {3, 5};
+        assertTrue(BatchCollisionDetector.findCollisions(begins, ends, 0).isEmpty());
+        assertEquals(1, BatchCollisionDetector.findCollisions(begins, ends, 2).size());
+    }
+
+    @Test
+    public void findCollisionsMatchesPairwiseTest() {
+        Random random = new Random(1);
+        for (int run = 0; run < 50; run++) {
+            int size = random.nextInt(40);
+            double margin = random.nextInt(4) / 2.0;
+            double[] begins = new double[size];
+            double[] ends = new double[size];
+            for (int i = 0; i < size; i++) {
+                begins[i] = random.nextInt(100) / 4.0;
+                ends[i] = begins[i] + random.nextInt(20) / 4.0;
+            }
+
+            Set<String> expected = new HashSet<>();
+            for (int i = 0; i < size; i++) {
+                for (int j = i + 1; j < size; j++) {
+                    if (Shot.overlaps(begins[i], ends[i], begins[j], ends[j], margin)
+                            || Shot.overlaps(begins[j], ends[j], begins[i], ends[i], margin)) {
+                        expected.add(i + "-" + j);
+                    }
+                }
+            }
+            Set<String> actual = new HashSet<>();
+            for (int[] pair : BatchCollisionDetector.findCollisions(begins, ends, margin)) {
+                actual.add(Math.min(pair[0], pair[1]) + "-" + Math.max(pair[0], pair[1]));
+            }
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void recomputeNowTest() {
+        ScriptingProject project = new ScriptingProject("test", "", 1);
+        CameraTimeline timeline = new CameraTimeline(new Camera("a", "b", new CameraType("", "", 0.0)), null);
+        project.addCameraTimeline(timeline);
+        CameraShot shot1 = new CameraShot("s1", "", 1, 3);
+        CameraShot shot2 = new CameraShot("s2", "", 2, 4);
+        CameraShot shot3 = new CameraShot("s3", "", 6, 8);
+        timeline.addShot(shot1);
+        timeline.addShot(shot2);
+        timeline.addShot(shot3);
+        shot3.getCollidesWith().add(shot1);
+        shot3.setColliding(true);
+
+        BatchCollisionDetector.recomputeNow(Collections.singletonList(timeline));
+
+        assertTrue(shot1.isColliding());
+        assertTrue(shot2.isColliding());
+        assertFalse(shot3.isColliding());
+        assertEquals(1, shot1.getCollidesWith().size());
+        assertTrue(shot1.getCollidesWith().contains(shot2));
+        assertTrue(shot3.getCollidesWith().isEmpty());
+    }
+
+    @Test
+    public void recomputeShotAddedDuringSweepTest() throws Exception {
+        ScriptingProject project = new ScriptingProject("test", "", 1);
+        CameraTimeline timeline = new CameraTimeline(new Camera("a", "b", new CameraType("", "", 0.0)), null);
+        project.addCameraTimeline(timeline);
+        CameraShot shot1 = new CameraShot("s1", "", 1, 3);
+        CameraShot shot2 = new CameraShot("s2", "", 2, 4);
+        timeline.addShot(shot1);
+
+        // The shot is added after the timeline was copied, but before the result is published
+        CompletableFuture<CompletableFuture<Void>> started = new CompletableFuture<>();
+        Platform.runLater(() -> {
+            started.complete(BatchCollisionDetector.recompute(
+                Collections.singletonList(timeline), () -> { }));
+            timeline.addShot(shot2);
+        });
+        started.get(5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS);
+
+        assertTrue(shot1.isColliding());
+        assertTrue(shot2.isColliding());
+        assertTrue(shot1.getCollidesWith().contains(shot2));
+    }
+}
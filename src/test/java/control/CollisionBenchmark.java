@@ -0,0 +1,128 @@
+package control;
+
+import data.Camera;
+import data.CameraShot;
+import data.CameraTimeline;
+import data.CameraType;
+import data.DirectorShot;
+import data.DirectorTimeline;
+import data.GeneralShotData;
+import data.ScriptingProject;
+import gui.centerarea.CameraShotBlock;
+import gui.centerarea.DirectorShotBlock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compares recomputing all collisions through the collision engine of the timeline
+ * controllers, with every shot marked dirty, with the batch sweep. The shot blocks are mocks,
+ * so only the collision checks of the controllers are measured. Run with the main method,
+ * this is not part of the unit tests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CollisionBenchmark {
+
+    @Param({"50", "500", "5000"})
+    int shotCount;
+
+    List<CameraTimeline> timelines;
+    List<DirectorTimeline> directorTimelines;
+    TimelineController timelineController;
+    DirectorTimelineController directorTimelineController;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        ScriptingProject project = new ScriptingProject("benchmark", "", 1);
+        CameraTimeline timeline = new CameraTimeline(
+                new Camera("a", "b", new CameraType("", "", 0.5)), null);
+        project.addCameraTimeline(timeline);
+        List<CameraShotBlock> cameraShotBlocks = new ArrayList<>();
+        Map<DirectorShot, DirectorShotBlock> directorShotBlocks = new HashMap<>();
+        for (int i = 0; i < shotCount; i++) {
+            double begin = random.nextInt(shotCount * 4) / 4.0;
+            double end = begin + 1 + random.nextInt(8);
+            CameraShot shot = new CameraShot("s" + i, "", begin, end);
+            timeline.addShot(shot);
+            CameraShotBlock shotBlock = mock(CameraShotBlock.class);
+            when(shotBlock.getShot()).thenReturn(shot);
+            when(shotBlock.getShotId()).thenReturn(shot.getInstance());
+            when(shotBlock.getTimetableNumber()).thenReturn(0);
+            cameraShotBlocks.add(shotBlock);
+
+            DirectorShot directorShot = new DirectorShot(
+                    new GeneralShotData("d" + i, "", begin, end), 0, 0, new ArrayList<>());
+            project.getDirectorTimeline().addShot(directorShot);
+            DirectorShotBlock directorShotBlock = mock(DirectorShotBlock.class);
+            when(directorShotBlock.getShot()).thenReturn(directorShot);
+            directorShotBlocks.put(directorShot, directorShotBlock);
+        }
+        timelines = Collections.singletonList(timeline);
+        directorTimelines = Collections.singletonList(project.getDirectorTimeline());
+
+        ControllerManager controllerManager = mock(ControllerManager.class);
+        when(controllerManager.getScriptingProject()).thenReturn(project);
+        timelineController = new TimelineController(controllerManager);
+        timelineController.setCameraShotBlocks(cameraShotBlocks);
+        directorTimelineController = new DirectorTimelineController(controllerManager);
+        directorTimelineController.setDirectorShotBlockMap(directorShotBlocks);
+    }
+
+    @Benchmark
+    public void flushAllCollisions() {
+        timelines.get(0).getShots().forEach(timelineController::markShotDirty);
+        timelineController.flushCollisions();
+    }
+
+    @Benchmark
+    public void flushAllDirectorCollisions() {
+        CollisionEngine engine = directorTimelineController.getCollisionEngine();
+        DirectorTimeline timeline = directorTimelines.get(0);
+        timeline.getShots().forEach(shot -> engine.markDirty(shot, timeline));
+        engine.flush();
+    }
+
+    @Benchmark
+    public void sweep() {
+        BatchCollisionDetector.recomputeNow(timelines);
+    }
+
+    @Benchmark
+    public void directorSweep() {
+        BatchCollisionDetector.recomputeNow(directorTimelines);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CollisionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
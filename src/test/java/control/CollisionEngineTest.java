@@ -0,0 +1,97 @@
+package control;
+
+import data.Camera;
+import data.CameraShot;
+import data.CameraTimeline;
+import data.CameraType;
+import data.ScriptingProject;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CollisionEngineTest {
+    CollisionEngine engine;
+    ScriptingProject project;
+    CameraTimeline timeline1;
+    CameraTimeline timeline2;
+    CameraShot shot1;
+    CameraShot shot2;
+    CameraShot shot3;
+
+    @Before
+    public void initialize() {
+        engine = new CollisionEngine();
+        project = new ScriptingProject("test", "", 1);
+        timeline1 = new CameraTimeline(new Camera("a", "b", new CameraType("", "", 0.0)), null);
+        timeline2 = new CameraTimeline(new Camera("c", "d", new CameraType("", "", 0.0)), null);
+        project.addCameraTimeline(timeline1);
+        project.addCameraTimeline(timeline2);
+        shot1 = new CameraShot("s1", "", 1, 3);
+        shot2 = new CameraShot("s2", "", 2, 4);
+        shot3 = new CameraShot("s3", "", 10, 12);
+        timeline1.addShot(shot1);
+        timeline1.addShot(shot2);
+        timeline1.addShot(shot3);
+    }
+
+    @Test
+    public void moveAwayTest() {
+        shot2.setBeginCount(20);
+        shot2.setEndCount(22);
+        engine.markDirty(shot2, timeline1);
+        CollisionEngine.CollisionDelta delta = engine.flush();
+
+        assertTrue(delta.getColliding().isEmpty());
+        assertTrue(delta.getCleared().contains(shot1));
+        assertTrue(delta.getCleared().contains(shot2));
+        assertFalse(delta.getCleared().contains(shot3));
+        assertFalse(shot1.isColliding());
+        assertTrue(shot1.getCollidesWith().isEmpty());
+    }
+
+    @Test
+    public void moveIntoTest() {
+        shot3.setBeginCount(2);
+        shot3.setEndCount(3);
+        engine.markDirty(shot3, timeline1);
+        CollisionEngine.CollisionDelta delta = engine.flush();
+
+        assertEquals(3, delta.getColliding().size());
+        assertTrue(shot3.getCollidesWith().contains(shot1));
+        assertTrue(shot1.getCollidesWith().contains(shot3));
+    }
+
+    @Test
+    public void moveTimelineTest() {
+        timeline1.removeShot(shot2);
+        timeline2.addShot(shot2);
+        engine.markMoved(shot2, timeline1, timeline2);
+        CollisionEngine.CollisionDelta delta = engine.flush();
+
+        assertTrue(delta.getColliding().isEmpty());
+        assertEquals(2, delta.getCleared().size());
+        assertTrue(shot1.getCollidesWith().isEmpty());
+        assertTrue(shot2.getCollidesWith().isEmpty());
+    }
+
+    @Test
+    public void removeTest() {
+        timeline1.removeShot(shot1);
+        engine.markRemoved(shot1, timeline1);
+        engine.flush();
+
+        assertFalse(shot2.isColliding());
+        assertTrue(shot2.getCollidesWith().isEmpty());
+    }
+
+    @Test
+    public void flushClearsDirtyTest() {
+        engine.markDirty(shot1, timeline1);
+        engine.flush();
+        CollisionEngine.CollisionDelta delta = engine.flush();
+
+        assertTrue(delta.getColliding().isEmpty());
+        assertTrue(delta.getCleared().isEmpty());
+    }
+}
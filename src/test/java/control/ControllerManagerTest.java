@@ -216,6 +216,7 @@ public class ControllerManagerTest extends ApplicationTest {
         controllerManager.handleDontSave(mouseEvent);
 
         Mockito.verify(projectController, times(0)).save();
+        Mockito.verify(projectController, times(1)).discardUnsavedEdits();
         Mockito.verify(saveModalView, times(1)).hideModal();
         Mockito.verify(stage, times(1)).close();
     }
@@ -27,4 +27,15 @@ public class CountUtilitiesTest {
         String parsed = CountUtilities.parseCountNumber(toFormat);
         assertEquals("3.25", parsed);
     }
+
+    @Test
+    public void countToRowTest() {
+        assertEquals(9, CountUtilities.countToRow(2.25));
+        assertEquals(3, CountUtilities.countToRow(0.8));
+    }
+
+    @Test
+    public void rowToCountTest() {
+        assertEquals(2.25, CountUtilities.rowToCount(9), 0);
+    }
 }
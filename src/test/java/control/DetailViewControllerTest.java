@@ -190,9 +190,10 @@ public class DetailViewControllerTest extends ApplicationTest {
         DirectorShot shot = Mockito.mock(DirectorShot.class);
         DirectorShotBlock shotBlock = Mockito.mock(DirectorShotBlock.class);
         ArrayList<Integer> changeList = new ArrayList<>(Arrays.asList(0));
-        ArrayList<Instrument> instrumentList1 = new ArrayList<>(Arrays.asList(new Instrument("name", "description")));
-        ArrayList<Instrument> instrumentList2 = new ArrayList<>(Arrays.asList(new Instrument("name", "description")));
-        ArrayList<Instrument> instrumentList3 = new ArrayList<>(Arrays.asList(new Instrument("name", "description")));
+        Instrument instrument = new Instrument("name", "description");
+        ArrayList<Instrument> instrumentList1 = new ArrayList<>(Arrays.asList(instrument));
+        ArrayList<Instrument> instrumentList2 = new ArrayList<>(Arrays.asList(instrument));
+        ArrayList<Instrument> instrumentList3 = new ArrayList<>(Arrays.asList(instrument));
         ScriptingProject project = Mockito.mock(ScriptingProject.class);
         TimetableBlock timetableBlock = Mockito.mock(TimetableBlock.class);
 
@@ -274,7 +275,7 @@ public class DetailViewControllerTest extends ApplicationTest {
         // Verify
         assertEquals(0.0, shot.getFrontShotPadding(), 0);
         assertEquals(0.0, shotBlock.getPaddingBefore(), 0);
-        Mockito.verify(timelineController, times(1)).recomputeAllCollisions();
+        Mockito.verify(timelineController, times(1)).modifyCameraShot(anyObject(), anyObject());
     }
 
     @Test
@@ -290,7 +291,7 @@ public class DetailViewControllerTest extends ApplicationTest {
         // Verify
         assertEquals(0.0, shot.getFrontShotPadding(), 0);
         assertEquals(0.0, shotBlock.getPaddingBefore(), 0);
-        Mockito.verify(timelineController, times(0)).recomputeAllCollisions();
+        Mockito.verify(timelineController, times(0)).modifyCameraShot(anyObject(), anyObject());
     }
 
     @Test
@@ -301,7 +302,7 @@ public class DetailViewControllerTest extends ApplicationTest {
         detailViewController.beforePaddingFocusListener(null, true, false);
 
         // Verify
-        Mockito.verify(timelineController, times(0)).recomputeAllCollisions();
+        Mockito.verify(timelineController, times(0)).modifyCameraShot(anyObject(), anyObject());
     }
 
     @Test
@@ -317,7 +318,7 @@ public class DetailViewControllerTest extends ApplicationTest {
         // Verify
         assertEquals(0.0, shot.getEndShotPadding(), 0);
         assertEquals(0.0, shotBlock.getPaddingAfter(), 0);
-        Mockito.verify(timelineController, times(1)).recomputeAllCollisions();
+        Mockito.verify(timelineController, times(1)).modifyCameraShot(anyObject(), anyObject());
     }
 
     @Test
@@ -331,7 +332,7 @@ public class DetailViewControllerTest extends ApplicationTest {
         detailViewController.afterPaddingFocusListener(null, false, true);
 
         // Verify
-        Mockito.verify(timelineController, times(0)).recomputeAllCollisions();
+        Mockito.verify(timelineController, times(0)).modifyCameraShot(anyObject(), anyObject());
     }
 
     @Test
@@ -342,7 +343,7 @@ public class DetailViewControllerTest extends ApplicationTest {
         detailViewController.afterPaddingFocusListener(null, true, false);
 
         // Verify
-        Mockito.verify(timelineController, times(0)).recomputeAllCollisions();
+        Mockito.verify(timelineController, times(0)).modifyCameraShot(anyObject(), anyObject());
     }
 
     @Test
@@ -49,13 +49,12 @@ public class DirectorTimelineControllerTest extends ApplicationTest {
         DirectorShot shot2 = Mockito.mock(DirectorShot.class);
         ArrayList<DirectorShot> collisionList = new ArrayList<>(Arrays.asList(shot1, shot2));
         DirectorShotBlock shotBlock = Mockito.mock(DirectorShotBlock.class);
-        when(timeline.getOverlappingShots(anyObject())).thenReturn(collisionList);
+        doReturn(collisionList).when(timeline).updateCollisions(anyObject());
 
         HashMap<DirectorShot, DirectorShotBlock> hashMap = new HashMap<>();
         hashMap.put(shot1, shotBlock);
         directorTimelineController.setDirectorShotBlockMap(hashMap);
 
-        directorTimelineController.setOverlappingShotBlocks(new ArrayList<>(Arrays.asList(shotBlock)));
         when(shotBlock.getShot()).thenReturn(shot1);
         when(shot1.getCollidesWith()).thenReturn(new ArrayList<>());
 
@@ -1,6 +1,7 @@
 package control;
 
 import data.ScriptingProject;
+import gui.misc.TweakingHelper;
 import gui.modal.PreferencesModalView;
 import gui.modal.ReloadModalView;
 import gui.root.RootPane;
@@ -63,6 +64,7 @@ public class PreferencesViewControllerTest extends ApplicationTest {
         assertNotNull(modalView.getSaveButton());
         assertNotNull(modalView.getCancelButton());
         assertNotNull(modalView.getColorList());
+        assertEquals(TweakingHelper.isDragBlur(), modalView.getDragBlurCheckbox().isSelected());
 
         tearDownPreferencesModalView();
     }
@@ -128,6 +130,10 @@ public class PreferencesViewControllerTest extends ApplicationTest {
         latch[0].await();
 
         verify(projectController, times(0)).save();
+        assertEquals(preferencesViewController.getPreferencesModalView().getDragBlurCheckbox()
+                .isSelected(), TweakingHelper.isDragBlur());
+        verify(rootPane, times(1)).swapColorStylesheet(any());
+        verify(rootPane, times(0)).showRootPane();
 
         tearDownReloadModalView();
         tearDownPreferencesModalView();
@@ -25,7 +25,9 @@ import javafx.scene.input.MouseButton;
 import javafx.scene.layout.HBox;
 import javafx.stage.FileChooser;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -70,6 +72,34 @@ public class ProjectControllerTest extends ApplicationTest {
         when(rootPane.getControllerManager()).thenReturn(controllerManager);
     }
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void journalShotChangedWithoutBlockTest() throws Exception {
+        ProjectJournal journal = spy(ProjectJournal.open(folder.newFile("project.scp")));
+        WhiteboxImpl.setInternalState(projectController, "journal", journal);
+        CameraShot shot = new CameraShot("shot", "", 1, 2);
+        CameraTimeline timeline = new CameraTimeline(new Camera("a", "b", new CameraType()), null);
+        timeline.addShot(shot);
+        ArrayList<CameraTimeline> timelines = new ArrayList<>();
+        timelines.add(new CameraTimeline(new Camera("c", "d", new CameraType()), null));
+        timelines.add(timeline);
+        when(project.getCameraTimelines()).thenReturn(timelines);
+
+        // The shot has no shot block, the timeline is found in the model
+        projectController.journalShotChanged(shot);
+        verify(journal, timeout(5000)).append(any(ProjectJournal.PendingRecord.class));
+        ScriptingProject replayed = new ScriptingProject("replayed", "", 1);
+        replayed.addCameraTimeline(new CameraTimeline(new Camera("c", "d", new CameraType()),
+                replayed));
+        replayed.addCameraTimeline(new CameraTimeline(new Camera("a", "b", new CameraType()),
+                replayed));
+        replayed = journal.replay(replayed);
+        assertEquals(0, replayed.getCameraTimelines().get(0).getShots().size());
+        assertEquals(1, replayed.getCameraTimelines().get(1).getShots().size());
+    }
+
     @Test
     public void constructorTest() {
         assertEquals(projectController.getControllerManager(), controllerManager);
@@ -85,9 +115,13 @@ public class ProjectControllerTest extends ApplicationTest {
     
     @Test
     public void saveTestWithExistingFilePath() {
+        ScriptingProject snapshot = mock(ScriptingProject.class);
         when(project.getFilePath()).thenReturn("Kek");
+        when(project.snapshot()).thenReturn(snapshot);
         projectController.save();
-        Mockito.verify(project).write();
+        // The snapshot is written on the writer thread, the project itself is not encoded
+        Mockito.verify(snapshot, timeout(5000)).write();
+        Mockito.verify(project, never()).write();
     }
     
     @Test
@@ -211,10 +245,11 @@ public class ProjectControllerTest extends ApplicationTest {
     }
 
     @Test
-    public void uploadToWebserverTest() {
+    public void uploadToWebserverTest() throws IOException {
         when(project.getFilePath()).thenReturn(null);
         Mockito.doNothing().when(projectController).saveAs();
         when(project.getFilePath()).thenReturn("src/test/files/upload_test4.scp");
+        when(project.encode(any(File.class))).thenReturn(new byte[0]);
         Mockito.doNothing().when(projectController).showErrorModal();
 
         projectController.uploadToWebserver();
@@ -223,6 +258,18 @@ public class ProjectControllerTest extends ApplicationTest {
         Mockito.verify(projectController).showErrorModal();
     }
 
+    @Test
+    public void uploadBinaryProjectTest() throws IOException {
+        Mockito.doNothing().when(projectController).save();
+        when(project.getFilePath()).thenReturn("src/test/files/upload_test4.scpb");
+        when(project.encode(any(File.class))).thenReturn(new byte[0]);
+        Mockito.doNothing().when(projectController).showErrorModal();
+
+        projectController.uploadToWebserver();
+
+        Mockito.verify(project).encode(new File("project.scp"));
+    }
+
     @Test
     public void testShowSuccessModal() throws InterruptedException {
         final CountDownLatch[] latch = {new CountDownLatch(1)};
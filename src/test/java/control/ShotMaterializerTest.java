@@ -0,0 +1,159 @@
+package control;
+
+import data.Camera;
+import data.CameraShot;
+import data.CameraTimeline;
+import data.DirectorShot;
+import data.GeneralShotData;
+import data.ScriptingProject;
+import gui.misc.TweakingHelper;
+import gui.root.RootCenterArea;
+import gui.root.RootPane;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.layout.Pane;
+import javafx.stage.Stage;
+import org.junit.Before;
+import org.junit.Test;
+import org.testfx.framework.junit.ApplicationTest;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ShotMaterializerTest extends ApplicationTest {
+
+    private ShotMaterializer materializer;
+    private TimelineController timelineController;
+    private DirectorTimelineController directorTimelineController;
+    private CameraShot nearShot;
+    private CameraShot farShot;
+    private DirectorShot farDirectorShot;
+    private RootCenterArea area;
+    private ScrollPane scrollPane;
+
+    @Override
+    public void start(Stage stage) throws Exception {
+    }
+
+    @Before
+    public void initialize() {
+        ScriptingProject project = new ScriptingProject("lazy", "", 1);
+        Camera camera = new Camera();
+        project.addCamera(camera);
+        CameraTimeline timeline = new CameraTimeline(camera, project);
+        nearShot = new CameraShot("near", "", 2, 4);
+        farShot = new CameraShot("far", "", 500, 502);
+        timeline.addShot(nearShot);
+        timeline.addShot(farShot);
+        project.addCameraTimeline(timeline);
+        farDirectorShot = new DirectorShot(new GeneralShotData("far", "", 300, 302), 0, 0,
+            Arrays.asList(0));
+        project.getDirectorTimeline().addShot(farDirectorShot);
+
+        scrollPane = new ScrollPane(new Pane());
+        area = mock(RootCenterArea.class);
+        when(area.getMainTimelineScrollpane()).thenReturn(scrollPane);
+        when(area.getCountHeight()).thenReturn(10);
+        RootPane rootPane = mock(RootPane.class);
+        when(rootPane.getRootCenterArea()).thenReturn(area);
+
+        timelineController = mock(TimelineController.class);
+        when(timelineController.getShotRegistry()).thenReturn(new ShotRegistry<>());
+        directorTimelineController = mock(DirectorTimelineController.class);
+        when(directorTimelineController.getShotRegistry()).thenReturn(new ShotRegistry<>());
+
+        ControllerManager manager = mock(ControllerManager.class);
+        when(manager.getRootPane()).thenReturn(rootPane);
+        when(manager.getScriptingProject()).thenReturn(project);
+        when(manager.getTimelineControl()).thenReturn(timelineController);
+        when(manager.getDirectorTimelineControl()).thenReturn(directorTimelineController);
+        materializer = new ShotMaterializer(manager, false);
+    }
+
+    @Test
+    public void startTest() {
+        materializer.start();
+        assertTrue(materializer.isActive());
+        verify(timelineController, never()).initShotBlock(0, nearShot, true);
+        materializer.populate(Long.MAX_VALUE);
+        verify(timelineController).initShotBlock(0, nearShot, true);
+        verify(timelineController, never()).initShotBlock(0, farShot, true);
+        verify(directorTimelineController, never()).initShotBlock(farDirectorShot, true);
+        verify(area).fitCounts(502.0);
+    }
+
+    @Test
+    public void loadTest() {
+        materializer.start();
+        materializer.load(farShot);
+        verify(timelineController).initShotBlock(0, farShot, true);
+        verify(directorTimelineController, never()).initShotBlock(farDirectorShot, true);
+    }
+
+    @Test
+    public void loadInactiveTest() {
+        materializer.load(farShot);
+        verify(timelineController, never()).initShotBlock(anyInt(), any(CameraShot.class),
+            anyBoolean());
+    }
+
+    @Test
+    public void loadAllTest() {
+        materializer.start();
+        materializer.loadAll();
+        assertFalse(materializer.isActive());
+        verify(timelineController).initShotBlock(0, nearShot, true);
+        verify(timelineController).initShotBlock(0, farShot, true);
+        verify(directorTimelineController).initShotBlock(farDirectorShot, true);
+    }
+
+    @Test
+    public void unloadTest() {
+        materializer.start();
+        materializer.load(farShot);
+        scrollPane.setVvalue(1);
+        verify(timelineController).unloadShotBlock(farShot);
+        verify(timelineController, never()).unloadShotBlock(nearShot);
+        verify(directorTimelineController, never()).unloadShotBlock(farDirectorShot);
+    }
+
+    @Test
+    public void populateDeadlineTest() {
+        materializer.start();
+        materializer.populate(0);
+        verify(timelineController, never()).initShotBlock(0, nearShot, true);
+        materializer.populate(Long.MAX_VALUE);
+        verify(timelineController).initShotBlock(0, nearShot, true);
+    }
+
+    @Test
+    public void populateInactiveTest() {
+        materializer.populate(Long.MAX_VALUE);
+        verify(timelineController, never()).initShotBlock(anyInt(), any(CameraShot.class),
+            anyBoolean());
+    }
+
+    @Test
+    public void populateLoadedTest() {
+        materializer.start();
+        materializer.load(nearShot);
+        materializer.populate(Long.MAX_VALUE);
+        verify(timelineController, times(1)).initShotBlock(0, nearShot, true);
+    }
+
+    @Test
+    public void startPaintedBlocksTest() {
+        int threshold = TweakingHelper.getPaintedBlocksThreshold();
+        try {
+            TweakingHelper.setPaintedBlocksThreshold(2);
+            materializer.start();
+            verify(area).setPaintedBlocks(true);
+            TweakingHelper.setPaintedBlocksThreshold(3);
+            materializer.start();
+            verify(area).setPaintedBlocks(false);
+        } finally {
+            TweakingHelper.setPaintedBlocksThreshold(threshold);
+        }
+    }
+}
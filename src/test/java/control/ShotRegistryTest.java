@@ -0,0 +1,106 @@
+package control;
+
+import data.CameraShot;
+import gui.centerarea.CameraShotBlock;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ShotRegistryTest {
+    ShotRegistry<CameraShot, CameraShotBlock> registry;
+    CameraShot shot1;
+    CameraShot shot2;
+    CameraShotBlock block1;
+    CameraShotBlock block2;
+
+    @Before
+    public void initialize() {
+        registry = new ShotRegistry<>();
+        shot1 = new CameraShot("s1", "d", 1, 3);
+        shot2 = new CameraShot("s2", "d", 2, 4);
+        block1 = Mockito.mock(CameraShotBlock.class);
+        block2 = Mockito.mock(CameraShotBlock.class);
+    }
+
+    @Test
+    public void registerTest() {
+        registry.register(shot1, block1, 2);
+        assertEquals(block1, registry.getBlock(shot1));
+        assertEquals(block1, registry.getBlock(shot1.getInstance()));
+        assertEquals(shot1, registry.getShot(shot1.getInstance()));
+        assertEquals(2, registry.getTimelineIndex(shot1));
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    public void notRegisteredTest() {
+        assertNull(registry.getBlock(shot1));
+        assertNull(registry.getShot(shot1.getInstance()));
+        assertEquals(-1, registry.getTimelineIndex(shot1));
+        assertFalse(registry.unregister(shot1));
+    }
+
+    @Test
+    public void registerTwiceTest() {
+        registry.register(shot1, block1, 0);
+        registry.register(shot1, block2, 1);
+        assertEquals(block2, registry.getBlock(shot1));
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    public void unregisterTest() {
+        registry.register(shot1, block1, 0);
+        registry.register(shot2, block2, 0);
+        assertTrue(registry.unregister(shot1));
+        assertNull(registry.getBlock(shot1));
+        assertEquals(block2, registry.getBlock(shot2));
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    public void moveTest() {
+        registry.register(shot1, block1, 0);
+        registry.move(shot1, 3);
+        assertEquals(3, registry.getTimelineIndex(shot1));
+    }
+
+    @Test
+    public void manyShotsTest() {
+        List<CameraShot> shots = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            CameraShot shot = new CameraShot("s", "d", i, i + 1);
+            shots.add(shot);
+            registry.register(shot, block1, i);
+        }
+        for (int i = 0; i < 200; i += 2) {
+            registry.unregister(shots.get(i));
+        }
+        assertEquals(100, registry.size());
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i % 2 == 0 ? -1 : i, registry.getTimelineIndex(shots.get(i)));
+        }
+    }
+
+    @Test
+    public void blocksAndShotsTest() {
+        registry.register(shot1, block1, 0);
+        registry.register(shot2, block2, 0);
+        assertEquals(2, registry.getBlocks().size());
+        assertTrue(registry.getBlocks().contains(block2));
+        assertTrue(registry.getShots().contains(shot1));
+    }
+
+    @Test
+    public void clearTest() {
+        registry.register(shot1, block1, 0);
+        registry.clear();
+        assertEquals(0, registry.size());
+        assertNull(registry.getBlock(shot1));
+    }
+}
@@ -151,7 +151,6 @@ public class TimelineControllerTest extends ApplicationTest {
         Mockito.doNothing().when(manager).setActiveShotBlock(anyObject());
         int curLength = timelineController.getCameraShotBlocks().size();
         Mockito.doNothing().when(project).changed();
-        Mockito.doNothing().when(timelineController).checkCollisions(anyInt(), anyObject());
 
         initRootPaneForCameraShotAdding();
 
@@ -164,7 +163,7 @@ public class TimelineControllerTest extends ApplicationTest {
         latch[0].await();
 
         // Do verifications
-        Mockito.verify(timelineController, times(1)).checkCollisions(anyInt(), anyObject());
+        Mockito.verify(timelineController, times(1)).flushCollisions();
         Mockito.verify(manager, times(1)).setActiveShotBlock(anyObject());
         assertEquals(curLength + 1, timelineController.getCameraShotBlocks().size());
         Mockito.verify(project, times(1)).changed();
@@ -233,85 +232,6 @@ public class TimelineControllerTest extends ApplicationTest {
         assertEquals(shotBlock, manager.getActiveShotBlock());
     }
 
-    @Test
-    public void checkCollisionsAdding() throws InterruptedException {
-        CameraShot shot = new CameraShot("name", "description", 2.0, 4.0);
-        CameraShot shot2 = new CameraShot("name2", "description2", 2.0, 5.0);
-
-        ArrayList<CameraTimeline> timelines = Mockito.mock(ArrayList.class);
-        CameraTimeline timeline = Mockito.mock(CameraTimeline.class);
-        when(timelines.get(0)).thenReturn(timeline);
-        when(project.getCameraTimelines()).thenReturn(timelines);
-        CameraShotBlock shotBlock = Mockito.mock(CameraShotBlock.class);
-        Mockito.doNothing().when(timelineController).removeCollisionFromCameraShotBlock(anyObject());
-        when(timeline.getOverlappingShots(anyObject())).thenReturn(new ArrayList<>(Arrays.asList(shot, shot2)));
-        timelineController.getCameraShotBlocks().add(shotBlock);
-        when(shotBlock.getShotId()).thenReturn(shot.getInstance());
-
-        // Call method under test
-        timelineController.checkCollisions(0, 1, shotBlock);
-
-        // Do verifications
-        assertTrue(timelineController.getOverlappingCameraShotBlocks().contains(shotBlock));
-        Mockito.verify(shotBlock, times(1)).setColliding(true);
-    }
-
-    @Test
-    public void checkCollisionsRemoving() throws InterruptedException {
-        CameraShot shot = new CameraShot("name", "description", 2.0, 4.0);
-
-        CameraShotBlock shotBlock = Mockito.mock(CameraShotBlock.class);
-        Mockito.doNothing().when(timelineController).removeCollisionFromCameraShotBlock(anyObject());
-        timelineController.getOverlappingCameraShotBlocks().add(shotBlock);
-        timelineController.getCameraShotBlocks().add(shotBlock);
-        when(shotBlock.getShot()).thenReturn(shot);
-
-        // Call method under test
-        timelineController.checkCollisions(0, 1, shotBlock);
-
-        // Do verifications
-        assertTrue(timelineController.getOverlappingCameraShotBlocks().isEmpty());
-        Mockito.verify(shotBlock, times(2)).setColliding(false);
-    }
-
-    @Test
-    public void checkCollisionsRemovingCollidesWith() throws InterruptedException {
-        CameraShot shot = Mockito.mock(CameraShot.class);
-        CameraShot shot2 = Mockito.mock(CameraShot.class);
-
-        CameraShotBlock shotBlock = Mockito.mock(CameraShotBlock.class);
-        CameraShotBlock shotBlock2 = Mockito.mock(CameraShotBlock.class);
-        when(shotBlock.getShot()).thenReturn(shot);
-        ArrayList shotList = new ArrayList<>(Collections.singletonList(shot2));
-        when(shot.getCollidesWith()).thenReturn(shotList);
-        doReturn(shotBlock2).when(timelineController).getShotBlockForShot(shot2);
-        when(shotBlock2.getShot()).thenReturn(shot2);
-        // Call method under test
-        timelineController.resetColliding(shotBlock);
-
-        // Do verifications
-        assertTrue(shotList.isEmpty());
-        Mockito.verify(shotBlock, times(1)).setColliding(false);
-    }
-
-    @Test
-    public void removeCollisionFromCameraShotBlock() {
-        CameraShot shot = new CameraShot("name", "description", 2.0, 4.0);
-        CameraShot shot2 = new CameraShot("name2", "description2", 2.0, 5.0);
-
-        CameraShotBlock shotBlock = Mockito.mock(CameraShotBlock.class);
-        when(shotBlock.getShot()).thenReturn(shot);
-        shot.getCollidesWith().add(shot2);
-        shot2.getCollidesWith().add(shot);
-
-        // Call method under test
-        timelineController.removeCollisionFromCameraShotBlock(shotBlock);
-
-        // Do verifications
-        assertTrue(shot.getCollidesWith().isEmpty());
-        assertTrue(shot2.getCollidesWith().isEmpty());
-    }
-
     @Test
     public void decoupleAndModify() throws InterruptedException {
         CameraShot shot = spy(new CameraShot("name", "description", 2.0, 4.0));
@@ -365,6 +285,24 @@ public class TimelineControllerTest extends ApplicationTest {
         assertEquals(5, timelineController.getNumTimelines());
     }
 
+    @Test
+    public void markShotDirtyWithoutBlock() {
+        CameraTimeline timeline = new CameraTimeline(new Camera("a", "b", new CameraType()),
+            project);
+        project.addCameraTimeline(timeline);
+        CameraShot first = new CameraShot("first", "", 1, 3);
+        CameraShot second = new CameraShot("second", "", 2, 4);
+        timeline.addShot(first);
+        timeline.addShot(second);
+
+        timelineController.markShotDirty(second);
+        timelineController.flushCollisions();
+
+        assertTrue(first.isColliding());
+        assertTrue(second.isColliding());
+        Mockito.verify(manager, never()).loadShotBlock(anyObject());
+    }
+
     @Test
     public void getShotBlockForShotNull() {
         CameraShot shot = Mockito.mock(CameraShot.class);
@@ -381,17 +319,6 @@ public class TimelineControllerTest extends ApplicationTest {
         assertEquals(shotBlock, timelineController.getShotBlockForShot(shot));
     }
 
-    @Test
-    public void recomputeAllCollisions() {
-        Mockito.doNothing().when(timelineController).checkCollisions(anyInt(), anyObject());
-        CameraShotBlock shotBlock = Mockito.mock(CameraShotBlock.class);
-        timelineController.setCameraShotBlocks(Arrays.asList(shotBlock));
-        when(shotBlock.getTimetableNumber()).thenReturn(0);
-
-        timelineController.recomputeAllCollisions();
-        Mockito.verify(timelineController, times(1)).checkCollisions(0, shotBlock);
-    }
-
     @Test
     public void cancelButtonListener() {
         ShotDecouplingModalView view = Mockito.mock(ShotDecouplingModalView.class);
@@ -419,4 +346,34 @@ public class TimelineControllerTest extends ApplicationTest {
     public void start(Stage stage) throws Exception {
 
     }
+
+    @Test
+    public void removeInstrumentFromAllShots() {
+        Instrument instrument = new Instrument("a", "b");
+        Instrument other = new Instrument("c", "d");
+        shot.addInstrument(instrument);
+        shot.addInstrument(other);
+        timelineController.removeInstrumentFromAllShots(instrument);
+        assertEquals(Collections.singletonList(other), shot.getInstruments());
+        assertTrue(instrument.getShots().isEmpty());
+    }
+
+    @Test
+    public void removeCameraShotUnlinksInstrumentsTest() throws InterruptedException {
+        Instrument instrument = new Instrument("a", "b");
+        CameraShot shot = new CameraShot("name", "description", 2.0, 3.0);
+        shot.addInstrument(instrument);
+        initRootPaneForCameraShotAdding();
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        Platform.runLater(() -> {
+            timelineController.addCameraShot(0, shot);
+            timelineController.removeCameraShot(shot);
+            latch.countDown();
+        });
+        latch.await();
+
+        assertFalse(manager.getScriptingProject().getCameraTimelines().get(0).getShots().contains(shot));
+        assertTrue(instrument.getShots().isEmpty());
+    }
 }
@@ -0,0 +1,152 @@
+package data;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+
+import static org.junit.Assert.*;
+
+public class BinaryProjectCodecTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    BinaryProjectCodec codec;
+    StaxProjectCodec xml;
+
+    @Before
+    public void initialize() {
+        codec = new BinaryProjectCodec();
+        xml = new StaxProjectCodec();
+    }
+
+    @Test
+    public void roundTripTest() throws IOException {
+        ScriptingProject project = StaxProjectCodecTest.generateProject(3, 10);
+        ScriptingProject read = codec.read(writeFile(project));
+        read.internReferences();
+        assertEquals(writeXml(project), writeXml(read));
+    }
+
+    @Test
+    public void overwriteAfterReadTest() throws IOException {
+        ScriptingProject project = StaxProjectCodecTest.generateProject(2, 4);
+        File file = writeFile(project);
+        ScriptingProject read = codec.read(file);
+        try (OutputStream out = new FileOutputStream(file)) {
+            codec.write(StaxProjectCodecTest.generateProject(1, 1), out);
+        }
+        read.internReferences();
+        assertEquals(writeXml(project), writeXml(read));
+    }
+
+    @Test
+    public void streamRoundTripTest() throws IOException {
+        ScriptingProject project = StaxProjectCodecTest.generateProject(2, 4);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.write(project, out);
+        ScriptingProject read = codec.read(new ByteArrayInputStream(out.toByteArray()));
+        read.internReferences();
+        assertEquals(writeXml(project), writeXml(read));
+    }
+
+    @Test
+    public void nullValuesTest() throws IOException {
+        ScriptingProject project = StaxProjectCodecTest.generateProject(1, 1);
+        project.setFilePath(null);
+        project.getCameras().get(0).setCameraType(null);
+        project.getUsers().get(0).setChosenTimelines(null);
+        ScriptingProject read = codec.read(writeFile(project));
+        assertNull(read.getFilePath());
+        assertNull(read.getCameras().get(0).getCameraType());
+        assertNull(read.getUsers().get(0).getChosenTimelines());
+    }
+
+    @Test
+    public void ticksTest() throws IOException {
+        ScriptingProject project = StaxProjectCodecTest.generateProject(1, 1);
+        CameraShot shot = project.getCameraTimelines().get(0).getShots().get(0);
+        shot.setBeginTicks(3);
+        CameraShot read = codec.read(writeFile(project)).getCameraTimelines().get(0)
+            .getShots().get(0);
+        assertEquals(3, read.getBeginTicks());
+        assertEquals(shot.getEndTicks(), read.getEndTicks());
+        assertEquals(shot.getInstance(), read.getInstance());
+    }
+
+    @Test
+    public void sectionsTest() throws IOException {
+        ScriptingProject project = StaxProjectCodecTest.generateProject(3, 10);
+        ScriptingProject read = codec.read(writeFile(project),
+            EnumSet.of(BinaryProjectCodec.Section.PROJECT, BinaryProjectCodec.Section.CAMERAS));
+        assertEquals(project.getName(), read.getName());
+        assertEquals(3, read.getCameras().size());
+        assertTrue(read.getCameraTimelines().isEmpty());
+        assertTrue(read.getDirectorTimeline().getShots().isEmpty());
+    }
+
+    @Test
+    public void isBinaryTest() throws IOException {
+        assertTrue(BinaryProjectCodec.isBinary(
+            writeFile(StaxProjectCodecTest.generateProject(1, 1))));
+        assertFalse(BinaryProjectCodec.isBinary(new File("src/test/files/general_test3.scp")));
+        assertFalse(BinaryProjectCodec.isBinary(folder.newFile("empty")));
+    }
+
+    @Test(expected = IOException.class)
+    public void notBinaryTest() throws IOException {
+        codec.read(new File("src/test/files/general_test3.scp"));
+    }
+
+    @Test(expected = IOException.class)
+    public void newerVersionTest() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.write(StaxProjectCodecTest.generateProject(1, 1), out);
+        byte[] bytes = out.toByteArray();
+        bytes[7] = (byte) (BinaryProjectCodec.VERSION + 1);
+        codec.read(new ByteArrayInputStream(bytes));
+    }
+
+    @Test(expected = IOException.class)
+    public void truncatedTest() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.write(StaxProjectCodecTest.generateProject(1, 1), out);
+        byte[] bytes = out.toByteArray();
+        codec.read(new ByteArrayInputStream(bytes, 0, bytes.length / 2));
+    }
+
+    @Test(timeout = 20000)
+    public void largeProjectTest() throws IOException {
+        ScriptingProject project = StaxProjectCodecTest.generateProject(10, 5000);
+        File file = writeFile(project);
+        for (int i = 0; i < 3; i++) {
+            ScriptingProject read = codec.read(file);
+            assertEquals(5000, read.getCameraTimelines().get(9).getShots().size());
+        }
+    }
+
+    private File writeFile(ScriptingProject project) throws IOException {
+        File file = folder.newFile("project" + BinaryProjectCodec.EXTENSION);
+        file.delete();
+        try (OutputStream out = new FileOutputStream(file)) {
+            codec.write(project, out);
+        }
+        return file;
+    }
+
+    private String writeXml(ScriptingProject project) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        xml.write(project, out);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,82 @@
+package data;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import static org.junit.Assert.*;
+
+public class CameraShotSetTest {
+    CameraShotSet set;
+    CameraShot shot1;
+    CameraShot shot2;
+    CameraShot shot3;
+
+    @Before
+    public void initialize() {
+        set = new CameraShotSet();
+        shot1 = new CameraShot("s1", "d", 1, 3);
+        shot2 = new CameraShot("s2", "d", 2, 4);
+        shot3 = new CameraShot("s3", "d", 3, 5);
+    }
+
+    @Test
+    public void emptyTest() {
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(shot1));
+        assertFalse(set.remove(shot1));
+        assertFalse(set.iterator().hasNext());
+    }
+
+    @Test
+    public void addTest() {
+        assertTrue(set.add(shot1));
+        assertFalse(set.add(shot1));
+        assertTrue(set.add(shot2));
+        assertTrue(set.add(shot3));
+        assertEquals(Arrays.asList(shot1, shot2, shot3), new ArrayList<>(set));
+    }
+
+    @Test
+    public void referenceTest() {
+        set.add(CameraShot.reference(shot1.getInstance()));
+        assertTrue(set.contains(shot1));
+        assertTrue(set.remove(shot1));
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    public void directorShotChangedTest() {
+        set.add(shot1);
+        shot1.setDirectorShot(new DirectorShot());
+        assertTrue(set.contains(shot1));
+    }
+
+    @Test
+    public void removeTest() {
+        set.addAll(Arrays.asList(shot1, shot2, shot3));
+        assertTrue(set.remove(shot2));
+        assertEquals(Arrays.asList(shot1, shot3), new ArrayList<>(set));
+    }
+
+    @Test
+    public void iteratorRemoveTest() {
+        set.addAll(Arrays.asList(shot1, shot2));
+        Iterator<CameraShot> iterator = set.iterator();
+        assertSame(shot1, iterator.next());
+        iterator.remove();
+        assertSame(shot2, iterator.next());
+        assertFalse(iterator.hasNext());
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    public void forEachRemoveTest() {
+        set.addAll(Arrays.asList(shot1, shot2));
+        set.forEach(set::remove);
+        assertTrue(set.isEmpty());
+    }
+}
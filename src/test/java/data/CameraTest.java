@@ -53,8 +53,8 @@ public class CameraTest {
 
     @Test
     public void getCameraTypeTest() {
-        CameraType type = new CameraType("cameratype-1", "A test cameratype", 2.00);
-        assertEquals(type, camera.getCameraType());
+        assertEquals("cameratype-1", camera.getCameraType().getName());
+        assertEquals("A test cameratype", camera.getCameraType().getDescription());
     }
 
     @Test
@@ -95,7 +95,7 @@ public class CameraTest {
 
     @Test
     public void equalsTestEquals() {
-        CameraType type2 = new CameraType("cameratype-1", "A test cameratype", 2.00);
+        CameraType type2 = camera.getCameraType();
         Camera camera2 = new Camera("camera-1", "A test camera", type2);
         camera2.setInstance(camera.getInstance());
         assertEquals(camera2, camera);
@@ -153,7 +153,7 @@ public class CameraTest {
 
     @Test
     public void equalsTestNameNullBoth() {
-        CameraType type2 = new CameraType("cameratype-1", "A test cameratype", 2.00);
+        CameraType type2 = camera.getCameraType();
         Camera camera2 = new Camera(null, "A test camera", type2);
         camera2.setInstance(camera.getInstance());
         camera.setName(null);
@@ -181,7 +181,7 @@ public class CameraTest {
 
     @Test
     public void equalsTestDescriptionNullBoth() {
-        CameraType type2 = new CameraType("cameratype-1", "A test cameratype", 2.00);
+        CameraType type2 = camera.getCameraType();
         Camera camera2 = new Camera("camera-1", null, type2);
         camera2.setInstance(camera.getInstance());
         camera.setDescription(null);
@@ -240,7 +240,7 @@ public class CameraTest {
 
     @Test
     public void equalsTestIpNullBoth() {
-        CameraType type2 = new CameraType("cameratype-1", "A test cameratype", 2.00);
+        CameraType type2 = camera.getCameraType();
         Camera camera2 = new Camera("camera-1", "A test camera", type2);
         camera2.setIp(null);
         camera2.setInstance(camera.getInstance());
@@ -260,25 +260,25 @@ public class CameraTest {
     public void hashCodeTestDescriptionNull() {
         camera.setIp("someIP");
         camera.setDescription(null);
-        assertEquals(1225669491, camera.hashCode());
+        assertEquals(1533823686, camera.hashCode());
     }
     
     @Test
     public void hashCodeTestIpNull() {
         camera.setIp(null);
-        assertEquals(1145154436, camera.hashCode());
+        assertEquals(1453308631, camera.hashCode());
     }
     
     @Test
     public void hashCodeTestNameNull() {
         camera.setIp("someIP");
         camera.setName(null);
-        assertEquals(-1495740842, camera.hashCode());
+        assertEquals(-1187586647, camera.hashCode());
     }
     
     @Test
     public void hashCodeTestNothingNull() {
         camera.setIp("someIP");
-        assertEquals(-1645321761, camera.hashCode());
+        assertEquals(-1337167566, camera.hashCode());
     }
 }
\ No newline at end of file
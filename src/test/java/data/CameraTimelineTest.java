@@ -1,5 +1,7 @@
 package data;
 
+import java.util.Collections;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -35,6 +37,19 @@ public class CameraTimelineTest {
         assertEquals(timeline.getShots(), clone.getShots());
     }
 
+    @Test
+    public void cloneTracksMovedShotsTest() {
+        CameraShot first = new CameraShot("first", "", 0, 2);
+        CameraShot second = new CameraShot("second", "", 4, 6);
+        timeline.addShot(first);
+        timeline.addShot(second);
+        CameraTimeline clone = timeline.clone();
+        first.setBeginCount(8);
+        first.setEndCount(10);
+        assertSame(first, clone.getShots().getLast());
+        assertEquals(Collections.singletonList(first), clone.getShots().getOverlapping(7, 9));
+    }
+
     @Test
     public void getCameraTest() {
         CameraType type = new CameraType("cameratype-1", "A test cameratype", 2.00);
@@ -63,19 +63,20 @@ public class CameraTypeTest {
 
     @Test
     public void cloneTest() {
-        assertEquals(type, type.clone());
+        CameraType clone = type.clone();
+        assertNotSame(type, clone);
+        assertEquals(type.toString(), clone.toString());
     }
 
-
     @Test
-    public void equalsTrueTest() {
-        CameraType type2 = new CameraType("type-1", "A test camera type", 2);
-        assertEquals(type2, type);
+    public void equalsTestSameObject() {
+        assertEquals(type, type);
     }
 
     @Test
-    public void equalsTestSameObject() {
-        assertEquals(type, type);
+    public void equalsTestSameValues() {
+        CameraType type2 = new CameraType("type-1", "A test camera type", 2);
+        assertNotEquals(type2, type);
     }
 
     @Test
@@ -89,63 +90,13 @@ public class CameraTypeTest {
     }
 
     @Test
-    public void equalsNameTest() {
-        CameraType type2 = new CameraType("type-2", "A test camera type", 2);
-        assertNotEquals(type2, type);
-    }
-
-    @Test
-    public void equalsNameNullTest() {
-        CameraType type2 = new CameraType(null, "A test camera type", 2);
-        assertNotEquals(type2, type);
-    }
-
-    @Test
-    public void equalsNameBothNullTest() {
-        CameraType type2 = new CameraType(null, "A test camera type", 2);
-        type.setName(null);
-        assertEquals(type2, type);
-    }
-
-    @Test
-    public void equalsDescriptionTest() {
-        CameraType type2 = new CameraType("type-1", "A test camera type 2", 2);
-        assertNotEquals(type2, type);
+    public void hashCodeTest() {
+        assertEquals(System.identityHashCode(type), type.hashCode());
     }
 
     @Test
-    public void equalsDescriptionNullTest() {
-        CameraType type2 = new CameraType("type-1", null, 2);
-        assertNotEquals(type2, type);
-    }
-
-    @Test
-    public void equalsDescriptionBothNullTest() {
-        CameraType type2 = new CameraType("type-1", null, 2);
-        type.setDescription(null);
-        assertEquals(type2, type);
-    }
-
-    @Test
-    public void equalsMovementMarginTest() {
-        CameraType type2 = new CameraType("type-1", "A test camera type", 3);
-        assertNotEquals(type2, type);
-    }
-    
-    @Test
-    public void hashCodeTestNothingNull() {
-        assertEquals(-122272765, type.hashCode());
-    }
-    
-    @Test
-    public void hashCodeTestNameNull() {
-        type.setName(null);
-        assertEquals(736531877, type.hashCode());
-    }
-    
-    @Test
-    public void hashCodeTestDescriptionNull() {
-        type.setDescription(null);
-        assertEquals(-1932516675, type.hashCode());
+    public void referenceTest() {
+        assertEquals(-1, type.getReference());
+        assertEquals(3, CameraType.reference(3).getReference());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,112 @@
+package data;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CollisionSetTest {
+    CollisionSet set;
+    CameraShot shot1;
+    CameraShot shot2;
+
+    @Before
+    public void initialize() {
+        set = new CollisionSet();
+        shot1 = new CameraShot("s1", "d", 1, 3);
+        shot2 = new CameraShot("s2", "d", 2, 4);
+    }
+
+    @Test
+    public void emptyTest() {
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(shot1));
+        assertFalse(set.remove(shot1));
+        assertFalse(set.iterator().hasNext());
+    }
+
+    @Test
+    public void addTest() {
+        assertTrue(set.add(shot1));
+        assertFalse(set.add(shot1));
+        assertTrue(set.contains(shot1));
+        assertFalse(set.contains(shot2));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    public void removeTest() {
+        set.add(shot1);
+        set.add(shot2);
+        assertTrue(set.remove(shot1));
+        assertFalse(set.contains(shot1));
+        assertTrue(set.contains(shot2));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    public void containsOtherTypeTest() {
+        set.add(shot1);
+        assertFalse(set.contains("s1"));
+        assertFalse(set.remove("s1"));
+    }
+
+    @Test
+    public void manyShotsTest() {
+        List<CameraShot> shots = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            CameraShot shot = new CameraShot("s", "d", i, i + 1);
+            shots.add(shot);
+            set.add(shot);
+        }
+        for (int i = 0; i < 100; i += 2) {
+            assertTrue(set.remove(shots.get(i)));
+        }
+        assertEquals(50, set.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i % 2 == 1, set.contains(shots.get(i)));
+        }
+    }
+
+    @Test
+    public void clearTest() {
+        set.add(shot1);
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(shot1));
+        assertTrue(set.add(shot1));
+    }
+
+    @Test
+    public void iteratorRemoveTest() {
+        set.add(shot1);
+        set.add(shot2);
+        Iterator<Shot> iterator = set.iterator();
+        Shot first = iterator.next();
+        iterator.remove();
+        assertFalse(set.contains(first));
+        assertTrue(iterator.hasNext());
+        assertNotSame(first, iterator.next());
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    public void removeWhileIteratingTest() {
+        set.add(shot1);
+        set.add(shot2);
+        set.forEach(set::remove);
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    public void keyedOnInstanceTest() {
+        CameraShot copy = new CameraShot("copy", "d", 5, 6);
+        copy.setInstance(shot1.getInstance());
+        set.add(shot1);
+        assertTrue(set.contains(copy));
+    }
+}
@@ -0,0 +1,118 @@
+package data;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class InstanceTableTest {
+    InstanceTable<String> table;
+
+    @Before
+    public void initialize() {
+        table = new InstanceTable<>(2);
+    }
+
+    @Test
+    public void emptyTest() {
+        assertEquals(0, table.size());
+        assertNull(table.get(1));
+        assertNull(table.remove(1));
+        assertFalse(table.iterator().hasNext());
+    }
+
+    @Test
+    public void putTest() {
+        assertNull(table.put(1, "a"));
+        assertEquals("a", table.put(1, "b"));
+        assertEquals("b", table.get(1));
+        assertNull(table.get(2));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    public void removeTest() {
+        table.put(1, "a");
+        table.put(2, "b");
+        assertEquals("a", table.remove(1));
+        assertNull(table.remove(1));
+        assertNull(table.get(1));
+        assertEquals("b", table.get(2));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    public void clearTest() {
+        table.put(1, "a");
+        table.clear();
+        assertEquals(0, table.size());
+        assertNull(table.get(1));
+        table.put(1, "b");
+        assertEquals("b", table.get(1));
+    }
+
+    @Test
+    public void manyTest() {
+        for (int i = 0; i < 1000; i++) {
+            table.put(i, "v" + i);
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            table.remove(i);
+        }
+        assertEquals(500, table.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 2 == 0 ? null : "v" + i, table.get(i));
+        }
+    }
+
+    @Test
+    public void forEachCopyTest() {
+        table.put(1, "a");
+        table.put(2, "b");
+        List<String> values = new ArrayList<>();
+        table.forEach(value -> {
+                values.add(value);
+                table.clear();
+            });
+        assertEquals(2, values.size());
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    public void forEachRemoveTest() {
+        for (int i = 0; i < 8; i++) {
+            table.put(i, "v" + i);
+        }
+        List<String> values = new ArrayList<>();
+        table.forEach(value -> {
+                values.add(value);
+                table.remove(Integer.parseInt(value.substring(1)));
+            });
+        assertEquals(8, values.size());
+        assertEquals(0, table.size());
+        table.put(3, "c");
+        assertEquals("c", table.get(3));
+    }
+
+    @Test
+    public void iteratorChangeTest() {
+        table.put(1, "a");
+        table.put(2, "b");
+        Iterator<String> iterator = table.iterator();
+        table.remove(1);
+        for (int i = 3; i < 10; i++) {
+            table.put(i, "v" + i);
+        }
+        List<String> values = new ArrayList<>();
+        iterator.forEachRemaining(values::add);
+        assertEquals(2, values.size());
+        assertTrue(values.contains("a"));
+        assertNull(table.get(1));
+        assertEquals("b", table.get(2));
+        assertEquals(8, table.size());
+    }
+}
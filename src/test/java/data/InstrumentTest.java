@@ -3,6 +3,8 @@ package data;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Collections;
+
 import static org.junit.Assert.*;
 
 /**
@@ -18,7 +20,10 @@ public class InstrumentTest {
 
     @Test
     public void cloneTest() throws Exception {
-        assertEquals(instrument, instrument.clone());
+        Instrument clone = instrument.clone();
+        assertNotSame(instrument, clone);
+        assertEquals(instrument.getName(), clone.getName());
+        assertEquals(instrument.getDescription(), clone.getDescription());
     }
 
     @Test
@@ -35,8 +40,8 @@ public class InstrumentTest {
 
     @Test
     public void equals() throws Exception {
-        assertTrue(instrument.equals(new Instrument("testName", "test description")));
-        assertFalse(instrument.equals(new Instrument("telkjasdf", "alkdf")));
+        assertTrue(instrument.equals(instrument));
+        assertFalse(instrument.equals(new Instrument("testName", "test description")));
     }
 
     @Test
@@ -67,57 +72,26 @@ public class InstrumentTest {
     }
 
     @Test
-    public void testEqualsName() {
-        Instrument instrument = new Instrument("testNameasdf", "test description");
-        assertNotEquals(instrument, this.instrument);
-    }
-
-    @Test
-    public void testEqualsNameNull() {
-        Instrument instrument = new Instrument(null, "test description");
-        assertNotEquals(instrument, this.instrument);
-    }
-
-    @Test
-    public void testEqualsNameBotNull() {
-        Instrument instrument = new Instrument(null, "test description");
-        this.instrument.setName(null);
-        assertEquals(instrument, this.instrument);
-    }
-
-    @Test
-    public void testEqualsDescription() {
-        Instrument instrument = new Instrument("testName", "test descasdfasdfription");
-        assertNotEquals(instrument, this.instrument);
+    public void hashCodeTest() {
+        assertEquals(System.identityHashCode(instrument), instrument.hashCode());
     }
 
     @Test
-    public void testEqualsDescriptionNull() {
-        Instrument instrument = new Instrument("testName", null);
-        assertNotEquals(instrument, this.instrument);
+    public void referenceTest() {
+        assertEquals(-1, instrument.getReference());
+        assertEquals(3, Instrument.reference(3).getReference());
     }
 
     @Test
-    public void testEqualsDescriptionBotNull() {
-        Instrument instrument = new Instrument("testName", null);
-        this.instrument.setDescription(null);
-        assertEquals(instrument, this.instrument);
-    }
-    
-    @Test
-    public void hashCodeTestNothingNull() {
-        assertEquals(1528013392, instrument.hashCode());
-    }
-    
-    @Test
-    public void hashCodeTestNameNull() {
-        instrument.setName(null);
-        assertEquals(-1619982317, instrument.hashCode());
-    }
-    
-    @Test
-    public void hashCodeTestDescriptionNull() {
-        instrument.setDescription(null);
-        assertEquals(-1146970626, instrument.hashCode());
+    public void getShotsTest() {
+        CameraShot shot = new CameraShot("shot", "", 0, 1);
+        shot.addInstrument(instrument);
+        shot.addInstrument(instrument);
+        assertEquals(Collections.singleton(shot), instrument.getShots());
+        shot.getInstruments().remove(instrument);
+        assertTrue(instrument.getShots().contains(shot));
+        shot.getInstruments().remove(instrument);
+        assertTrue(instrument.getShots().isEmpty());
+        assertTrue(instrument.clone().getShots().isEmpty());
     }
-}
\ No newline at end of file
+}
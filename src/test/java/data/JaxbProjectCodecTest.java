@@ -0,0 +1,31 @@
+package data;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class JaxbProjectCodecTest {
+
+    @Test
+    public void roundTripTest() throws IOException {
+        JaxbProjectCodec codec = new JaxbProjectCodec();
+        ScriptingProject project = StaxProjectCodecTest.generateProject(2, 3);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.write(project, out);
+        ScriptingProject read = codec.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals("<a & b>", read.getName());
+        assertEquals(2, read.getCameraTimelines().size());
+        assertEquals(3, read.getDirectorTimeline().getShots().size());
+    }
+
+    @Test(expected = IOException.class)
+    public void invalidDocumentTest() throws IOException {
+        byte[] document = "<scriptingProject>".getBytes(StandardCharsets.UTF_8);
+        new JaxbProjectCodec().read(new ByteArrayInputStream(document));
+    }
+}
@@ -0,0 +1,40 @@
+package data;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+import static org.junit.Assert.*;
+
+public class ProjectConverterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void convertTest() {
+        File source = new File("src/test/files/general_test3.scp");
+        File binary = new File(folder.getRoot(), "project" + BinaryProjectCodec.EXTENSION);
+        File back = new File(folder.getRoot(), "project.scp");
+        assertTrue(ProjectConverter.convert(source, binary));
+        assertTrue(BinaryProjectCodec.isBinary(binary));
+        assertTrue(ProjectConverter.convert(binary, back));
+        assertFalse(BinaryProjectCodec.isBinary(back));
+
+        ScriptingProject original = ScriptingProject.read(source);
+        ScriptingProject converted = ScriptingProject.read(back);
+        assertEquals(original.getName(), converted.getName());
+        assertEquals(original.getCameras(), converted.getCameras());
+        assertEquals(original.getDirectorTimeline().getShots().size(),
+            converted.getDirectorTimeline().getShots().size());
+        assertEquals(back.getAbsolutePath(), converted.getFilePath());
+    }
+
+    @Test
+    public void missingSourceTest() {
+        assertFalse(ProjectConverter.convert(new File(folder.getRoot(), "missing.scp"),
+            new File(folder.getRoot(), "target.scpb")));
+    }
+}
@@ -0,0 +1,305 @@
+package data;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static org.junit.Assert.*;
+
+public class ProjectJournalTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    File projectFile;
+    ScriptingProject project;
+
+    @Before
+    public void initialize() throws IOException {
+        projectFile = folder.newFile("project.scp");
+        project = StaxProjectCodecTest.generateProject(2, 3);
+        assertTrue(project.write(projectFile));
+    }
+
+    @Test
+    public void noFileUntilRecordTest() throws IOException {
+        ProjectJournal journal = ProjectJournal.open(projectFile);
+        assertFalse(ProjectJournal.journalFile(projectFile).exists());
+        assertSame(project, journal.replay(project));
+        journal.commit();
+        assertFalse(ProjectJournal.journalFile(projectFile).exists());
+        journal.close();
+    }
+
+    @Test
+    public void replayCameraShotTest() throws IOException {
+        CameraShot shot = project.getCameraTimelines().get(1).getShots().get(0);
+        shot.setName("moved");
+        shot.setBeginCount(20);
+        shot.setEndCount(21.5);
+        try (ProjectJournal journal = ProjectJournal.open(projectFile)) {
+            journal.cameraShotChanged(1, shot);
+            journal.commit();
+        }
+        CameraShot read = findCameraShot(replay(), 1, shot.getInstance());
+        assertEquals("moved", read.getName());
+        assertEquals(20, read.getBeginCount(), 0);
+        assertEquals(21.5, read.getEndCount(), 0);
+    }
+
+    @Test
+    public void replayMovedCameraShotTest() throws IOException {
+        CameraShot shot = project.getCameraTimelines().get(0).getShots().get(0);
+        try (ProjectJournal journal = ProjectJournal.open(projectFile)) {
+            journal.cameraShotChanged(1, shot);
+        }
+        ScriptingProject read = replay();
+        assertNull(findCameraShot(read, 0, shot.getInstance()));
+        assertNotNull(findCameraShot(read, 1, shot.getInstance()));
+        assertEquals(7, read.getCameraTimelines().get(1).getShots().size());
+    }
+
+    @Test
+    public void replayAddedAndRemovedShotsTest() throws IOException {
+        CameraShot added = new CameraShot("added", "", 40, 41);
+        DirectorShot removed = project.getDirectorTimeline().getShots().get(0);
+        try (ProjectJournal journal = ProjectJournal.open(projectFile)) {
+            journal.cameraShotChanged(0, added);
+            journal.directorShotRemoved(removed);
+            journal.cameraShotRemoved(added);
+            journal.cameraShotChanged(0, added);
+        }
+        ScriptingProject read = replay();
+        assertNotNull(findCameraShot(read, 0, added.getInstance()));
+        assertEquals(2, read.getDirectorTimeline().getShots().size());
+    }
+
+    @Test
+    public void replayDirectorShotTest() throws IOException {
+        DirectorShot shot = project.getDirectorTimeline().getShots().get(1);
+        shot.setFrontShotPadding(0.5);
+        shot.setDescription("changed");
+        try (ProjectJournal journal = ProjectJournal.open(projectFile)) {
+            journal.directorShotChanged(shot);
+        }
+        DirectorShot read = null;
+        for (DirectorShot directorShot : replay().getDirectorTimeline().getShots()) {
+            if (directorShot.getInstance() == shot.getInstance()) {
+                read = directorShot;
+            }
+        }
+        assertNotNull(read);
+        assertEquals("changed", read.getDescription());
+        assertEquals(0.5, read.getFrontShotPadding(), 0);
+        assertEquals(2, read.getCameraShots().size());
+        for (CameraShot cameraShot : read.getCameraShots()) {
+            assertSame(read, cameraShot.getDirectorShot());
+        }
+    }
+
+    @Test
+    public void replayRemovedDirectorCameraShotTest() throws IOException {
+        DirectorShot directorShot = project.getDirectorTimeline().getShots().get(0);
+        CameraShot shot = directorShot.getCameraShots().iterator().next();
+        try (ProjectJournal journal = ProjectJournal.open(projectFile)) {
+            journal.cameraShotRemoved(shot);
+        }
+        ScriptingProject read = replay();
+        assertNull(findCameraShot(read, 0, shot.getInstance()));
+        assertNull(findCameraShot(read, 1, shot.getInstance()));
+        assertEquals(1, read.getDirectorTimeline().getShots().get(0).getCameraShots().size());
+    }
+
+    @Test
+    public void replayShotAfterProjectTest() throws IOException {
+        CameraShot shot = project.getCameraTimelines().get(0).getShots().get(0);
+        try (ProjectJournal journal = ProjectJournal.open(projectFile)) {
+            journal.projectReplaced(project);
+            journal.cameraShotChanged(1, shot);
+        }
+        ScriptingProject read = replay();
+        assertNull(findCameraShot(read, 0, shot.getInstance()));
+        assertNotNull(findCameraShot(read, 1, shot.getInstance()));
+    }
+
+    @Test
+    public void replayProjectTest() throws IOException {
+        project.setName("replaced");
+        project.getCameraTimelines().remove(1);
+        try (ProjectJournal journal = ProjectJournal.open(projectFile)) {
+            journal.projectReplaced(project);
+        }
+        ScriptingProject read = replay();
+        assertEquals("replaced", read.getName());
+        assertEquals(1, read.getCameraTimelines().size());
+    }
+
+    @Test
+    public void uncommittedRecordsTest() throws IOException {
+        CameraShot shot = project.getCameraTimelines().get(0).getShots().get(0);
+        try (ProjectJournal journal = ProjectJournal.open(projectFile)) {
+            journal.cameraShotChanged(0, shot);
+            journal.commit();
+            assertFalse(journal.hasUncommittedRecords());
+            journal.cameraShotChanged(0, shot);
+            assertTrue(journal.hasUncommittedRecords());
+        }
+        try (ProjectJournal journal = ProjectJournal.open(projectFile)) {
+            assertTrue(journal.hasUncommittedRecords());
+            assertEquals(3, journal.getRecordCount());
+        }
+    }
+
+    @Test
+    public void discardTest() throws IOException {
+        CameraShot shot = project.getCameraTimelines().get(0).getShots().get(0);
+        shot.setName("saved");
+        try (ProjectJournal journal = ProjectJournal.open(projectFile)) {
+            journal.cameraShotChanged(0, shot);
+            journal.commit();
+            shot.setName("not saved");
+            journal.cameraShotChanged(0, shot);
+            journal.discard();
+            assertFalse(journal.hasUncommittedRecords());
+            assertEquals(2, journal.getRecordCount());
+        }
+        assertEquals("saved", findCameraShot(replay(), 0, shot.getInstance()).getName());
+    }
+
+    @Test
+    public void tornRecordTest() throws IOException {
+        CameraShot shot = project.getCameraTimelines().get(0).getShots().get(0);
+        shot.setName("complete");
+        try (ProjectJournal journal = ProjectJournal.open(projectFile)) {
+            journal.cameraShotChanged(0, shot);
+            journal.commit();
+            shot.setName("torn");
+            journal.cameraShotChanged(0, shot);
+        }
+        File file = ProjectJournal.journalFile(projectFile);
+        try (RandomAccessFile journalFile = new RandomAccessFile(file, "rw")) {
+            journalFile.setLength(journalFile.length() - 3);
+        }
+        try (ProjectJournal journal = ProjectJournal.open(projectFile)) {
+            assertEquals(2, journal.getRecordCount());
+            assertFalse(journal.hasUncommittedRecords());
+        }
+        assertEquals("complete", findCameraShot(replay(), 0, shot.getInstance()).getName());
+    }
+
+    @Test
+    public void corruptRecordTest() throws IOException {
+        CameraShot shot = project.getCameraTimelines().get(0).getShots().get(0);
+        try (ProjectJournal journal = ProjectJournal.open(projectFile)) {
+            journal.cameraShotChanged(0, shot);
+            journal.cameraShotChanged(0, shot);
+        }
+        File file = ProjectJournal.journalFile(projectFile);
+        try (RandomAccessFile journalFile = new RandomAccessFile(file, "rw")) {
+            long position = journalFile.length() - 6;
+            journalFile.seek(position);
+            int value = journalFile.read();
+            journalFile.seek(position);
+            journalFile.write(value ^ 1);
+        }
+        try (ProjectJournal journal = ProjectJournal.open(projectFile)) {
+            assertEquals(1, journal.getRecordCount());
+        }
+    }
+
+    @Test
+    public void compactTest() throws IOException {
+        CameraShot shot = project.getCameraTimelines().get(0).getShots().get(0);
+        try (ProjectJournal journal = ProjectJournal.open(projectFile)) {
+            shot.setName("compacted");
+            journal.cameraShotChanged(0, shot);
+            journal.commit();
+            long cut = journal.size();
+            byte[] snapshot = project.encode(projectFile);
+            shot.setName("after compaction");
+            journal.cameraShotChanged(0, shot);
+            journal.commit();
+            journal.compact(projectFile, snapshot, cut);
+            assertEquals(2, journal.getRecordCount());
+            assertFalse(journal.hasUncommittedRecords());
+        }
+        assertEquals("compacted", findCameraShot(ScriptingProject.read(projectFile), 0,
+            shot.getInstance()).getName());
+        assertEquals("after compaction", findCameraShot(replay(), 0,
+            shot.getInstance()).getName());
+    }
+
+    @Test
+    public void compactTwiceTest() throws IOException {
+        CameraShot shot = project.getCameraTimelines().get(0).getShots().get(0);
+        try (ProjectJournal journal = ProjectJournal.open(projectFile)) {
+            journal.cameraShotChanged(0, shot);
+            journal.commit();
+            long first = journal.size();
+            byte[] snapshot = project.encode(projectFile);
+            journal.cameraShotChanged(0, shot);
+            journal.commit();
+            long second = journal.size();
+            journal.compact(projectFile, snapshot, first);
+            assertEquals(2, journal.getRecordCount());
+            journal.compact(projectFile, project.encode(projectFile), second);
+            assertEquals(0, journal.getRecordCount());
+            assertEquals(second, journal.size());
+        }
+    }
+
+    @Test
+    public void compactAfterWriteTest() throws IOException {
+        CameraShot shot = project.getCameraTimelines().get(0).getShots().get(0);
+        try (ProjectJournal journal = ProjectJournal.open(projectFile)) {
+            journal.cameraShotChanged(0, shot);
+            journal.commit();
+            long cut = journal.size();
+            byte[] snapshot = project.encode(projectFile);
+            shot.setName("written");
+            journal.cameraShotChanged(0, shot);
+            project.setFilePath(projectFile.getAbsolutePath());
+            assertTrue(journal.write(project));
+            journal.compact(projectFile, snapshot, cut);
+        }
+        assertEquals("written", findCameraShot(ScriptingProject.read(projectFile), 0,
+            shot.getInstance()).getName());
+    }
+
+    @Test
+    public void clearTest() throws IOException {
+        CameraShot shot = project.getCameraTimelines().get(0).getShots().get(0);
+        try (ProjectJournal journal = ProjectJournal.open(projectFile)) {
+            journal.cameraShotChanged(0, shot);
+            journal.clear();
+            assertEquals(0, journal.getRecordCount());
+        }
+        try (ProjectJournal journal = ProjectJournal.open(projectFile)) {
+            assertEquals(0, journal.getRecordCount());
+        }
+    }
+
+    /**
+     * Read the project file and replay its journal.
+     */
+    private ScriptingProject replay() throws IOException {
+        try (ProjectJournal journal = ProjectJournal.open(projectFile)) {
+            return journal.replay(ScriptingProject.read(projectFile));
+        }
+    }
+
+    private static CameraShot findCameraShot(ScriptingProject project, int timeline,
+                                             int instance) {
+        for (CameraShot shot : project.getCameraTimelines().get(timeline).getShots()) {
+            if (shot.getInstance() == instance) {
+                return shot;
+            }
+        }
+        return null;
+    }
+}
@@ -1,11 +1,14 @@
 package data;
 
-import control.ProjectController;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Map;
 
 import static org.junit.Assert.*;
 
@@ -24,14 +27,61 @@ public class ScriptingProjectTest {
     }
 
     @Test
-    public void removeOffsettedCameraBlocks() {
+    public void linkDirectorShots() {
         CameraType type = new CameraType("name", "descriptoin", 3);
         Camera camera = new Camera("name", "description", type);
         CameraTimeline timeline = new CameraTimeline(camera, project);
-        timeline.addShot(new CameraShot("name", "description", ProjectController.UNUSED_BLOCK_OFFSET, ProjectController.UNUSED_BLOCK_OFFSET + 1));
+        CameraShot shot = new CameraShot("name", "description", 1, 2);
+        timeline.addShot(shot);
         project.addCameraTimeline(timeline);
-        project.removeOffsettedCameraBlocks();
-        assertTrue(timeline.getShots().isEmpty());
+        DirectorShot directorShot = new DirectorShot();
+        directorShot.addCameraShot(CameraShot.reference(shot.getInstance()));
+        directorShot.addCameraShot(CameraShot.reference(shot.getInstance() + 1));
+        project.getDirectorTimeline().addShot(directorShot);
+        project.linkDirectorShots();
+        assertEquals(1, directorShot.getCameraShots().size());
+        assertSame(shot, directorShot.getCameraShots().iterator().next());
+        assertSame(directorShot, shot.getDirectorShot());
+    }
+
+    @Test
+    public void internReferences() {
+        CameraType type = new CameraType("name", "description", 3);
+        project.getCameraTypes().add(type);
+        Instrument instrument = new Instrument("name", "description");
+        project.addInstrument(instrument);
+        Camera camera = new Camera("name", "description", CameraType.reference(0));
+        project.addCamera(camera);
+        Camera copy = new Camera("copy", "description", type.clone());
+        project.addCamera(copy);
+        CameraTimeline timeline = new CameraTimeline(camera, project);
+        CameraShot shot = new CameraShot("name", "description", 1, 2);
+        shot.addInstrument(Instrument.reference(0));
+        shot.addInstrument(new Instrument("name", "description"));
+        shot.addInstrument(Instrument.reference(1));
+        timeline.addShot(shot);
+        project.addCameraTimeline(timeline);
+        project.internReferences();
+        assertSame(type, camera.getCameraType());
+        assertSame(type, copy.getCameraType());
+        assertEquals(2, shot.getInstruments().size());
+        assertSame(instrument, shot.getInstruments().get(0));
+        assertSame(instrument, shot.getInstruments().get(1));
+    }
+
+    @Test
+    public void replaceInstruments() {
+        Instrument instrument = new Instrument("name", "description");
+        Instrument replacement = new Instrument("other", "description");
+        CameraTimeline timeline = new CameraTimeline(new Camera(), project);
+        CameraShot shot = new CameraShot("name", "description", 1, 2);
+        shot.addInstrument(instrument);
+        timeline.addShot(shot);
+        project.addCameraTimeline(timeline);
+        Map<Instrument, Instrument> replacements = new IdentityHashMap<>();
+        replacements.put(instrument, replacement);
+        project.replaceInstruments(replacements);
+        assertSame(replacement, shot.getInstruments().get(0));
     }
 
     @Test
@@ -209,6 +259,14 @@ public class ScriptingProjectTest {
         project.changed();
         assertTrue(project.isChanged());
     }
+
+    @Test
+    public void changedVersionTest() {
+        long version = project.getVersion();
+        project.changed();
+        project.saved();
+        assertEquals(version + 1, project.getVersion());
+    }
     
     @Test
     public void constructorWithNoArgumentsTest() {
@@ -233,6 +291,23 @@ public class ScriptingProjectTest {
         assertTrue(project.write(new File(TEST_PATH)));
     }
     
+    @Test
+    public void snapshotTest() throws IOException {
+        ScriptingProject original = StaxProjectCodecTest.generateProject(3, 4);
+        ScriptingProject snapshot = original.snapshot();
+        assertArrayEquals(encode(original), encode(snapshot));
+        CameraShot shot = original.getCameraTimelines().get(0).getShots().get(0);
+        shot.setBeginCount(shot.getBeginCount() + 10);
+        assertEquals(0, snapshot.getCameraTimelines().get(0).getShots().get(0).getBeginCount(),
+            0);
+    }
+
+    private static byte[] encode(ScriptingProject project) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new StaxProjectCodec().write(project, out);
+        return out.toByteArray();
+    }
+
     @Test
     public void writeStringTest() {
         assertTrue(project.write(new String(TEST_PATH)));
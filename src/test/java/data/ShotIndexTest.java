@@ -0,0 +1,163 @@
+package data;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ShotIndexTest {
+    ShotIndex<CameraShot> index;
+    CameraShot shot1;
+    CameraShot shot2;
+    CameraShot shot3;
+
+    @Before
+    public void initialize() {
+        index = new ShotIndex<>();
+        shot1 = new CameraShot("s1", "d", 1, 3);
+        shot2 = new CameraShot("s2", "d", 2, 4);
+        shot3 = new CameraShot("s3", "d", 6, 8);
+    }
+
+    @Test
+    public void addSortedTest() {
+        index.add(shot3);
+        index.add(shot1);
+        index.add(shot2);
+        assertEquals(Arrays.asList(shot1, shot2, shot3), index);
+        assertEquals(shot1, index.getFirst());
+        assertEquals(shot3, index.getLast());
+    }
+
+    @Test
+    public void getHighestCountTest() {
+        assertEquals(0, index.getHighestCount(), 0);
+        index.add(shot3);
+        index.add(shot1);
+        index.add(shot2);
+        assertEquals(8, index.getHighestCount(), 0);
+    }
+
+    @Test
+    public void addEqualCountsTest() {
+        CameraShot other = new CameraShot("s4", "d", 1, 3);
+        index.add(shot1);
+        index.add(other);
+        assertSame(other, index.get(0));
+        assertSame(shot1, index.get(1));
+    }
+
+    @Test
+    public void addTwiceTest() {
+        index.add(shot1);
+        index.add(shot1);
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void removeTest() {
+        index.add(shot1);
+        index.add(shot2);
+        assertTrue(index.remove(shot1));
+        assertFalse(index.contains(shot1));
+        assertEquals(1, index.size());
+        assertFalse(index.remove(shot3));
+    }
+
+    @Test
+    public void repositionTest() {
+        index.add(shot1);
+        index.add(shot2);
+        index.add(shot3);
+        shot1.setBeginCount(10);
+        shot1.setEndCount(12);
+        assertEquals(Arrays.asList(shot2, shot3, shot1), index);
+    }
+
+    @Test
+    public void removedShotNotRepositionedTest() {
+        index.add(shot1);
+        index.add(shot2);
+        index.remove(shot1);
+        shot1.setBeginCount(10);
+        assertEquals(Arrays.asList(shot2), index);
+    }
+
+    @Test
+    public void getOverlappingTest() {
+        index.add(shot1);
+        index.add(shot2);
+        index.add(shot3);
+        assertEquals(Arrays.asList(shot1, shot2), index.getOverlapping(0, 2.5));
+        assertEquals(Arrays.asList(shot3), index.getOverlapping(5, 6));
+        assertTrue(index.getOverlapping(4.5, 5.5).isEmpty());
+    }
+
+    @Test
+    public void getOverlappingManyTest() {
+        for (int i = 0; i < 1000; i++) {
+            index.add(new CameraShot("s", "d", i, i + 2));
+        }
+        List<CameraShot> result = index.getOverlapping(500, 501);
+        assertEquals(4, result.size());
+        assertEquals(498, result.get(0).getBeginCount(), 0);
+        assertEquals(501, result.get(3).getBeginCount(), 0);
+        assertEquals(1000, index.size());
+    }
+
+    @Test
+    public void iteratorRemoveTest() {
+        index.add(shot1);
+        index.add(shot2);
+        Iterator<CameraShot> iterator = index.iterator();
+        iterator.next();
+        iterator.remove();
+        assertEquals(Arrays.asList(shot2), index);
+    }
+
+    @Test
+    public void trackTest() {
+        index.add(shot1);
+        index.add(shot2);
+        ShotIndex<CameraShot> copy = new ShotIndex<>(index);
+        assertEquals(index, copy);
+        index.track();
+        shot1.setBeginCount(10);
+        assertEquals(shot1, index.getLast());
+    }
+
+    @Test
+    public void columnsTest() {
+        index.add(shot3);
+        index.add(shot1);
+        ShotColumns<CameraShot> columns = index.columns();
+        assertEquals(2, columns.size());
+        assertSame(shot1, columns.getShot(0));
+        assertArrayEquals(new long[] {Ticks.fromCounts(1), Ticks.fromCounts(6)},
+                columns.getBegins());
+        assertArrayEquals(new long[] {Ticks.fromCounts(3), Ticks.fromCounts(8)},
+                columns.getEnds());
+        assertEquals(shot3.getInstance(), columns.getInstances()[1]);
+    }
+
+    @Test
+    public void repositionWithPropertyTest() {
+        index.add(shot1);
+        index.add(shot2);
+        shot1.getBeginCountProperty().set(10);
+        assertEquals(shot1, index.getLast());
+    }
+
+    @Test
+    public void clearTest() {
+        index.add(shot1);
+        index.clear();
+        assertTrue(index.isEmpty());
+        shot1.setBeginCount(10);
+        assertTrue(index.isEmpty());
+    }
+}
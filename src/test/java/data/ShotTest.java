@@ -4,6 +4,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Collections;
 
 import static org.junit.Assert.*;
 
@@ -45,6 +46,18 @@ public class ShotTest {
         assertEquals(instruments, shot1.getInstruments());
     }
 
+    @Test
+    public void setInstrumentsCopies() {
+        Instrument instrument = new Instrument("name", "description");
+        shot1.addInstrument(instrument);
+        shot2.setInstruments(shot1.getInstruments());
+        shot1.getInstruments().clear();
+        assertEquals(1, shot2.getInstruments().size());
+        assertFalse(shot1.getInstruments().contains(instrument));
+        assertTrue(shot2.getInstruments().contains(instrument));
+        assertEquals(Collections.singleton(shot2), instrument.getShots());
+    }
+
     @Test
     public void addInstrument() {
         ArrayList<Instrument> instruments = new ArrayList<>();
@@ -64,6 +77,37 @@ public class ShotTest {
     public void getEndCountProperty() {
         assertEquals(shot1.getEndCount(), shot1.getEndCountProperty().doubleValue(), 0);
     }
+
+    @Test
+    public void countPropertyKeepsCountTest() {
+        shot1.setBeginCount(2);
+        assertEquals(2, shot1.getBeginCountProperty().get(), 0);
+        shot1.getBeginCountProperty().set(5);
+        assertEquals(5, shot1.getBeginCount(), 0);
+        shot1.setBeginCount(6);
+        assertEquals(6, shot1.getBeginCountProperty().get(), 0);
+    }
+
+    @Test
+    public void ticksTest() {
+        shot1.setBeginTicks(Ticks.fromCounts(1.5));
+        assertEquals(1.5, shot1.getBeginCount(), 0);
+        shot1.setEndCount(2.75);
+        assertEquals(Ticks.fromCounts(2.75), shot1.getEndTicks());
+    }
+
+    @Test
+    public void touchingShotsTest() {
+        shot1.setBeginCount(0);
+        shot1.setEndCount(0.8);
+        shot2.setBeginCount(0.7 + 0.1);
+        assertFalse(shot1.areOverlapping(shot2, 0));
+    }
+
+    @Test
+    public void countPropertyCreatedOnceTest() {
+        assertSame(shot1.getEndCountProperty(), shot1.getEndCountProperty());
+    }
     @Test
     public void getNameTest() {
         assertEquals("s1", shot1.getName());
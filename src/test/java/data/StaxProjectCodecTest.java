@@ -0,0 +1,287 @@
+package data;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class StaxProjectCodecTest {
+
+    private static final String TEST_FILE = "src/test/files/general_test3.scp";
+
+    StaxProjectCodec codec;
+    JaxbProjectCodec jaxb;
+
+    @Before
+    public void initialize() {
+        codec = new StaxProjectCodec();
+        jaxb = new JaxbProjectCodec();
+    }
+
+    @Test
+    public void readFileTest() throws IOException {
+        ScriptingProject project = readFile(codec);
+        assertEquals("General Testing Project", project.getName());
+        assertEquals(3, project.getCameraTypes().size());
+        assertEquals(3, project.getCameras().size());
+        assertEquals("Manual Cam", project.getCameras().get(0).getCameraType().getName());
+        assertEquals(3.0, project.getSecondsPerCount(), 0);
+        assertFalse(project.getDirectorTimeline().getShots().isEmpty());
+    }
+
+    @Test
+    public void sameAsJaxbFileTest() throws IOException {
+        ScriptingProject project = readFile(jaxb);
+        assertEquals(write(jaxb, project), write(codec, project));
+    }
+
+    @Test
+    public void sameAsJaxbGeneratedTest() throws IOException {
+        ScriptingProject project = generateProject(3, 10);
+        assertEquals(write(jaxb, project), write(codec, project));
+    }
+
+    @Test
+    public void readJaxbDocumentTest() throws IOException {
+        ScriptingProject project = generateProject(3, 10);
+        String document = write(jaxb, project);
+        assertEquals(document, write(jaxb, read(codec, document)));
+    }
+
+    @Test
+    public void roundTripTest() throws IOException {
+        ScriptingProject project = generateProject(2, 5);
+        String document = write(codec, project);
+        ScriptingProject read = read(codec, document);
+        assertEquals(document, write(codec, read));
+        assertEquals(2, read.getCameraTimelines().size());
+        assertEquals(10, read.getCameraTimelines().get(1).getShots().size());
+        assertEquals("<a & b>", read.getName());
+        assertEquals(User.Role.DIRECTOR, read.getUsers().get(0).getRole());
+    }
+
+    @Test
+    public void directorShotTest() throws IOException {
+        ScriptingProject project = generateProject(2, 1);
+        ScriptingProject read = read(codec, write(codec, project));
+        read.linkDirectorShots();
+        DirectorShot shot = read.getDirectorTimeline().getShots().get(0);
+        assertEquals(2, shot.getCameraShots().size());
+        assertEquals(1.0, shot.getFrontShotPadding(), 0);
+        assertTrue(shot.getTimelineIndices().contains(1));
+        shot.getCameraShots().forEach(cameraShot -> {
+                assertEquals(shot.getBeginCount() - 1, cameraShot.getBeginCount(), 0);
+                assertSame(shot, cameraShot.getDirectorShot());
+            });
+    }
+
+    @Test
+    public void directorShotInstanceTest() throws IOException {
+        ScriptingProject project = generateProject(2, 1);
+        int instance = project.getDirectorTimeline().getShots().get(0).getInstance();
+        String document = write(codec, project);
+        assertTrue(document.contains("<instance>" + instance + "</instance>"
+            + "<timelineIndices>"));
+        assertEquals(document, write(jaxb, project));
+        assertEquals(instance, read(codec, document).getDirectorTimeline().getShots().get(0)
+            .getInstance());
+        assertEquals(instance, read(jaxb, document).getDirectorTimeline().getShots().get(0)
+            .getInstance());
+    }
+
+    @Test
+    public void directorShotWithoutInstanceTest() throws IOException {
+        String document = "<scriptingProject><directorTimeline><shotList><shot>"
+            + "<name>old</name></shot></shotList></directorTimeline></scriptingProject>";
+        int counter = DirectorShot.getInstanceCounter();
+        for (ProjectCodec reader : Arrays.asList(codec, jaxb)) {
+            DirectorShot shot = read(reader, document).getDirectorTimeline().getShots().get(0);
+            assertEquals("old", shot.getName());
+            assertTrue(shot.getInstance() >= counter);
+        }
+    }
+
+    @Test
+    public void cameraShotReferenceTest() throws IOException {
+        ScriptingProject project = generateProject(2, 1);
+        int instance = project.getDirectorTimeline().getShots().get(0).getCameraShots()
+            .iterator().next().getInstance();
+        String document = write(codec, project);
+        assertTrue(document.contains("<cameraShots>" + instance + "</cameraShots>"));
+        ScriptingProject read = read(codec, document);
+        read.linkDirectorShots();
+        for (CameraShot shot : read.getDirectorTimeline().getShots().get(0).getCameraShots()) {
+            assertTrue(read.getCameraTimelines().stream()
+                .anyMatch(timeline -> timeline.getShots().containsShot(shot)));
+        }
+    }
+
+    @Test
+    public void cameraShotCopyTest() throws IOException {
+        String document = "<scriptingProject><directorTimeline><shotList><shot>"
+            + "<cameraShots><name>copy</name><instance>7</instance></cameraShots>"
+            + "<instance>3</instance></shot></shotList></directorTimeline>"
+            + "<camera-centerarea><cameraTimeline><shotList><shot><name>timeline</name>"
+            + "<instance>7</instance></shot></shotList></cameraTimeline></camera-centerarea>"
+            + "</scriptingProject>";
+        ScriptingProject project = read(codec, document);
+        project.linkDirectorShots();
+        CameraShot shot = project.getCameraTimelines().get(0).getShots().get(0);
+        DirectorShot directorShot = project.getDirectorTimeline().getShots().get(0);
+        assertEquals(1, directorShot.getCameraShots().size());
+        assertSame(shot, directorShot.getCameraShots().iterator().next());
+        assertSame(directorShot, shot.getDirectorShot());
+        assertEquals("timeline", shot.getName());
+    }
+
+    @Test
+    public void sharedReferenceTest() throws IOException {
+        ScriptingProject project = generateProject(2, 1);
+        String document = write(codec, project);
+        assertTrue(document.contains("<cameraType><ref>0</ref></cameraType>"));
+        assertTrue(document.contains("<instrument><ref>0</ref></instrument>"));
+        ScriptingProject read = read(codec, document);
+        read.internReferences();
+        CameraType type = read.getCameraTypes().get(0);
+        Instrument violin = read.getInstruments().get(0);
+        assertSame(type, read.getCameras().get(1).getCameraType());
+        assertSame(type, read.getCameraTimelines().get(1).getCamera().getCameraType());
+        assertSame(violin, read.getCameraTimelines().get(1).getShots().get(0)
+            .getInstruments().get(0));
+    }
+
+    @Test
+    public void sharedCopyTest() throws IOException {
+        String document = "<scriptingProject><cameraTypes><name>type</name></cameraTypes>"
+            + "<cameraList><camera><cameraType><movementMargin>-1.0</movementMargin>"
+            + "<name>type</name><description></description></cameraType></camera>"
+            + "<camera><cameraType><name>other</name></cameraType></camera></cameraList>"
+            + "</scriptingProject>";
+        ScriptingProject project = read(codec, document);
+        project.internReferences();
+        assertSame(project.getCameraTypes().get(0), project.getCameras().get(0).getCameraType());
+        assertEquals("other", project.getCameras().get(1).getCameraType().getName());
+        assertEquals(1, project.getCameraTypes().size());
+    }
+
+    @Test
+    public void storedMovementMarginTest() throws IOException {
+        ScriptingProject project = generateProject(1, 0);
+        project.getCameras().get(0).resetMovementMargin();
+        Camera camera = read(codec, write(codec, project)).getCameras().get(0);
+        assertEquals(-1, camera.getStoredMovementMargin(), 0);
+        assertEquals(2.5, camera.getMovementMargin(), 0);
+    }
+
+    @Test
+    public void anyOrderTest() throws IOException {
+        String document = "<scriptingProject><secondsPerCount>2.0</secondsPerCount>"
+            + "<unknown><name>skipped</name></unknown>"
+            + "<cameraList><camera><instance>4</instance><name>cam</name></camera></cameraList>"
+            + "<name>project</name></scriptingProject>";
+        ScriptingProject project = read(codec, document);
+        assertEquals("project", project.getName());
+        assertEquals(2.0, project.getSecondsPerCount(), 0);
+        assertEquals(4, project.getCameras().get(0).getInstance());
+        assertEquals("cam", project.getCameras().get(0).getName());
+    }
+
+    @Test(expected = IOException.class)
+    public void invalidDocumentTest() throws IOException {
+        read(codec, "<scriptingProject><name>unclosed</scriptingProject>");
+    }
+
+    @Test(expected = IOException.class)
+    public void otherRootTest() throws IOException {
+        read(codec, "<camera><name>cam</name></camera>");
+    }
+
+    @Test(expected = IOException.class)
+    public void invalidNumberTest() throws IOException {
+        read(codec, "<scriptingProject><secondsPerCount>a</secondsPerCount></scriptingProject>");
+    }
+
+    @Test(timeout = 20000)
+    public void largeProjectThroughputTest() throws IOException {
+        ScriptingProject project = generateProject(40, 500);
+        String document = write(codec, project);
+        for (int i = 0; i < 3; i++) {
+            ScriptingProject read = read(codec, document);
+            assertEquals(500, read.getCameraTimelines().get(39).getShots().size());
+            assertEquals(document, write(codec, read));
+        }
+        assertEquals(write(jaxb, project), document);
+    }
+
+    /**
+     * Read the test file with a codec.
+     */
+    private ScriptingProject readFile(ProjectCodec projectCodec) throws IOException {
+        try (InputStream in = new FileInputStream(TEST_FILE)) {
+            return projectCodec.read(in);
+        }
+    }
+
+    private static ScriptingProject read(ProjectCodec projectCodec, String document)
+            throws IOException {
+        byte[] bytes = document.getBytes(StandardCharsets.UTF_8);
+        return projectCodec.read(new ByteArrayInputStream(bytes));
+    }
+
+    private static String write(ProjectCodec projectCodec, ScriptingProject project)
+            throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        projectCodec.write(project, out);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Generate a project with a camera timeline per camera and one director shot per count,
+     * using every feature of the format.
+     */
+    static ScriptingProject generateProject(int cameras, int shots) {
+        ScriptingProject project = new ScriptingProject("<a & b>", "generated", 1.5);
+        CameraType type = new CameraType("IP Cam", "controlled over IP", 2.5);
+        project.getCameraTypes().add(type);
+        Instrument violin = new Instrument("violin", "strings");
+        project.addInstrument(violin);
+        project.addUser(new User("director", User.Role.DIRECTOR,
+            new ArrayList<>(Arrays.asList(0, 1))));
+        for (int i = 0; i < cameras; i++) {
+            Camera camera = new Camera("camera " + i, "", type);
+            camera.setMovementMargin(i);
+            project.addCamera(camera);
+            CameraTimeline timeline = new CameraTimeline(camera, project);
+            for (int j = 0; j < shots; j++) {
+                CameraShot shot = new CameraShot("shot " + j, "", j * 2, j * 2 + 1.25);
+                shot.addInstrument(violin);
+                shot.setPresetId(j % 7);
+                timeline.addShot(shot);
+            }
+            project.addCameraTimeline(timeline);
+        }
+        for (int j = 0; j < shots; j++) {
+            DirectorShot shot = new DirectorShot(new GeneralShotData("director " + j, "",
+                j * 2 + 1, j * 2 + 2), 1, 0.5, Arrays.asList(0, 1));
+            for (int i = 0; i < Math.min(cameras, 2); i++) {
+                CameraShot cameraShot = new CameraShot("camera shot " + i, "", j * 2,
+                    j * 2 + 2.5);
+                cameraShot.setDirectorShot(shot);
+                shot.addCameraShot(cameraShot);
+                project.getCameraTimelines().get(i).addShot(cameraShot);
+            }
+            project.getDirectorTimeline().addShot(shot);
+            shot.setColliding(j % 2 == 0);
+        }
+        return project;
+    }
+}
@@ -0,0 +1,37 @@
+package data;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class TicksTest {
+
+    @Test
+    public void fromCountsTest() {
+        assertEquals(Ticks.TICKS_PER_COUNT * 3, Ticks.fromCounts(3));
+        assertEquals(Ticks.TICKS_PER_COUNT / 4, Ticks.fromCounts(0.25));
+    }
+
+    @Test
+    public void toCountsTest() {
+        assertEquals(2.5, Ticks.toCounts(Ticks.fromCounts(2.5)), 0);
+    }
+
+    @Test
+    public void toCellsTest() {
+        assertEquals(9, Ticks.toCells(Ticks.fromCounts(2.25)));
+        assertEquals(13, Ticks.toCells(Ticks.fromCounts(3.14159265)));
+        assertEquals(-4, Ticks.toCells(Ticks.fromCounts(-1)));
+    }
+
+    @Test
+    public void fromCellsTest() {
+        assertEquals(Ticks.fromCounts(1.75), Ticks.fromCells(7));
+    }
+
+    @Test
+    public void roundToCellsTest() {
+        assertEquals(3.25, Ticks.roundToCells(3.14159265), 0);
+        assertEquals(1.5, Ticks.roundToCells(1.5), 0);
+    }
+}
@@ -0,0 +1,87 @@
+package data;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TimelineIndexSetTest {
+    TimelineIndexSet set;
+
+    @Before
+    public void initialize() {
+        set = new TimelineIndexSet();
+    }
+
+    @Test
+    public void emptyTest() {
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(0));
+        assertFalse(set.remove(0));
+        assertFalse(set.iterator().hasNext());
+    }
+
+    @Test
+    public void addTest() {
+        assertTrue(set.add(3));
+        assertFalse(set.add(3));
+        assertTrue(set.containsIndex(3));
+        assertFalse(set.containsIndex(2));
+        assertFalse(set.contains("3"));
+        assertEquals(1, set.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void addNegativeTest() {
+        set.add(-1);
+    }
+
+    @Test
+    public void overflowTest() {
+        set.addAll(Arrays.asList(200, 1, 63, 64));
+        assertEquals(4, set.size());
+        assertTrue(set.containsIndex(200));
+        assertFalse(set.containsIndex(136));
+        assertEquals(Arrays.asList(1, 63, 64, 200), new ArrayList<>(set));
+        assertTrue(set.remove(200));
+        assertFalse(set.containsIndex(200));
+        assertEquals(3, set.size());
+    }
+
+    @Test
+    public void forEachIndexTest() {
+        set.addAll(Arrays.asList(5, 0, 70));
+        List<Integer> indices = new ArrayList<>();
+        set.forEachIndex(index -> {
+                indices.add(index);
+                set.remove(index);
+            });
+        assertEquals(Arrays.asList(0, 5, 70), indices);
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    public void iteratorRemoveTest() {
+        set.addAll(Arrays.asList(1, 2));
+        Iterator<Integer> iterator = set.iterator();
+        assertEquals(1, (int) iterator.next());
+        iterator.remove();
+        assertEquals(2, (int) iterator.next());
+        assertFalse(iterator.hasNext());
+        assertFalse(set.contains(1));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    public void clearTest() {
+        set.addAll(Arrays.asList(1, 100));
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.containsIndex(100));
+    }
+}